@@ -0,0 +1,59 @@
+#!/usr/bin/env bash
+# Measures time-to-first-output of a one-shot CLI command, with and without
+# the AppCDS archive.
+#
+# Usage: scripts/startup-benchmark.sh [runs] [command...]
+#   mvn -Pcds package            # builds the jar, target/lib and target/app-cds.jsa
+#   scripts/startup-benchmark.sh 20 list
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-10}"
+shift || true
+COMMAND=("${@:-list}")
+
+JAR="target/personal-task-manager-1.0-SNAPSHOT.jar"
+ARCHIVE="target/app-cds.jsa"
+
+if [[ ! -f "$JAR" ]]; then
+  echo "Missing $JAR, run 'mvn -Pcds package' first" >&2
+  exit 1
+fi
+
+# Prints the milliseconds between launching the JVM and its first line of output
+time_to_first_output() {
+  local start end
+  start=$(date +%s%N)
+  "$@" 2>&1 | {
+    IFS= read -r _ || true
+    end=$(date +%s%N)
+    echo $(((end - start) / 1000000))
+    cat >/dev/null
+  }
+}
+
+# Runs a configuration RUNS times and prints min / median / max
+measure() {
+  local label="$1"
+  shift
+  local samples=()
+  for ((i = 0; i < RUNS; i++)); do
+    samples+=("$(time_to_first_output "$@")")
+  done
+  local sorted
+  sorted=$(printf '%s\n' "${samples[@]}" | sort -n)
+  printf '%-20s min=%4sms  median=%4sms  max=%4sms\n' "$label" \
+    "$(echo "$sorted" | head -1)" \
+    "$(echo "$sorted" | sed -n "$(((RUNS + 1) / 2))p")" \
+    "$(echo "$sorted" | tail -1)"
+}
+
+echo "Command: ${COMMAND[*]} (${RUNS} runs each)"
+measure "default" java -Xshare:auto -jar "$JAR" "${COMMAND[@]}"
+if [[ -f "$ARCHIVE" ]]; then
+  measure "appcds" java -XX:SharedArchiveFile="$ARCHIVE" -jar "$JAR" "${COMMAND[@]}"
+  measure "appcds+tiered-c1" java -XX:SharedArchiveFile="$ARCHIVE" -XX:TieredStopAtLevel=1 -jar "$JAR" "${COMMAND[@]}"
+else
+  echo "No $ARCHIVE found, skipping the AppCDS runs" >&2
+fi
@@ -1,17 +1,31 @@
 package com.taskmanager;
 
+import com.taskmanager.diagnostics.Recordings;
 import com.taskmanager.errors.TaskManagerException;
 
 /**
  * Main Code Execution
  *
+ * With no arguments the interactive shell is started. Otherwise the arguments
+ * are run as a single command (e.g. {@code app list}) and the program exits.
  */
 public class App {
   public static void main(String[] args) {
+    Recordings.startFromSystemProperties();
+    boolean oneShot = args.length > 0;
     try {
-      System.out.println("Starting Task Manager Application...");
-      TaskManager taskManager = new TaskManager();
-      taskManager.run();
+      if (oneShot) {
+        TaskManager taskManager = new TaskManager();
+        try {
+          taskManager.execute(args);
+        } finally {
+          taskManager.close();
+        }
+      } else {
+        System.out.println("Starting Task Manager Application...");
+        TaskManager taskManager = new TaskManager();
+        taskManager.run();
+      }
     } catch (TaskManagerException e) {
       System.err.println("Error: " + e.getMessage());
       if (e.getCause() != null) {
@@ -23,7 +37,9 @@ public class App {
       e.printStackTrace();
       System.exit(1);
     } finally {
-      System.out.println("Exiting the Program...");
+      if (!oneShot) {
+        System.out.println("Exiting the Program...");
+      }
     }
   }
 }
@@ -2,46 +2,121 @@ package com.taskmanager;
 
 import java.util.Scanner;
 
+import com.taskmanager.analytics.Granularity;
+import com.taskmanager.analytics.Rollup;
+import com.taskmanager.commands.Command;
+import com.taskmanager.commands.CommandContext;
+import com.taskmanager.commands.CommandRegistry;
+import com.taskmanager.commands.CommandTokenizer;
+import com.taskmanager.commands.ParsedCommand;
+import com.taskmanager.diagnostics.CommandEvent;
 import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.serialization.TaskJson;
+import com.taskmanager.services.DuplicateIndex;
 import com.taskmanager.services.TaskService;
 import com.taskmanager.services.TaskService.TaskData;
+import com.taskmanager.design.Dashboard;
+import com.taskmanager.design.RenderCache;
 import com.taskmanager.design.TaskFormatter;
+import com.taskmanager.enums.AckMode;
 import com.taskmanager.enums.Priority;
 import com.taskmanager.enums.Status;
 import com.taskmanager.enums.Category;
 import com.taskmanager.models.Task;
-
+import com.taskmanager.models.TaskPage;
+import com.taskmanager.models.TaskValue;
+import com.taskmanager.notifications.ReminderConfig;
+import com.taskmanager.notifications.ReminderDispatcher;
+import com.taskmanager.notifications.ReminderSinks;
+import com.taskmanager.replication.ReplicationFollower;
+import com.taskmanager.replication.ReplicationPrimary;
+import com.taskmanager.sync.SyncReport;
+import com.taskmanager.sync.SyncServer;
+import com.taskmanager.sync.TaskSync;
+import com.taskmanager.workload.WorkloadLog;
+import com.taskmanager.workload.WorkloadRecorder;
+import java.io.File;
+import java.io.IOException;
+
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
 
 public class TaskManager {
+  private static final int DEFAULT_PAGE_SIZE = 50;
+  private static final int DEFAULT_REPORT_DAYS = 14;
+
   private TaskFormatter taskFormatter;
   private TaskService taskService;
+  private boolean ownsService;
+  private CommandRegistry commandRegistry;
   private Scanner scanner;
   private boolean running;
+  private WorkloadRecorder recorder;
+  // Prompt answers read by the command being recorded
+  private final List<String> answers = new ArrayList<>();
 
   public TaskManager() {
     loadFormatter();
-    loadScanner();
-    loadTaskService();
+    recorder = WorkloadRecorder.fromSystemProperties();
     running = true;
+  }
 
+  /**
+   * A task manager working on an existing service, e.g. one of several
+   * replaying a workload against the same store. Nothing is recorded.
+   */
+  public TaskManager(TaskService taskService) {
+    loadFormatter();
+    this.taskService = taskService;
+    if (taskFormatter.getRenderCache() != null) {
+      taskService.addRepositoryListener(taskFormatter.getRenderCache());
+    }
+    running = true;
   }
 
   private void loadFormatter() {
-    taskFormatter = new TaskFormatter();
+    taskFormatter = new TaskFormatter(RenderCache.fromSystemProperties());
   }
 
   private void loadTaskService() {
     taskService = new TaskService();
+    ownsService = true;
+    if (taskFormatter.getRenderCache() != null) {
+      taskService.addRepositoryListener(taskFormatter.getRenderCache());
+    }
   }
 
   private void loadScanner() {
     scanner = new Scanner(System.in);
   }
 
+  // The service (and with it the repository, ObjectMapper and the task store)
+  // is only built once a command actually needs it, so 'help' or a bad command
+  // never pays for loading tasks.
+  private TaskService taskService() {
+    if (taskService == null) {
+      loadTaskService();
+    }
+    return taskService;
+  }
+
+  private Scanner scanner() {
+    if (scanner == null) {
+      loadScanner();
+    }
+    return scanner;
+  }
+
   public void run() throws TaskManagerException {
     // Display the header
     System.out.println(taskFormatter.formatHeader());
@@ -50,12 +125,12 @@ public class TaskManager {
     System.out.println(taskFormatter.formatSuccess("Task Manager initialized successfully!"));
 
     // Display available commands
-    System.out.println(taskFormatter.formatHelpMenu());
+    System.out.println(taskFormatter.formatHelpMenu(commands().helpEntries()));
 
     while (running) {
       // Show initial prompt
       System.out.print(taskFormatter.formatPrompt("Enter command"));
-      String input = scanner.nextLine().trim();
+      String input = scanner().nextLine().trim();
 
       if (!input.isEmpty()) {
         processCommand(input);
@@ -63,108 +138,756 @@ public class TaskManager {
     }
 
     // Clean up
-    scanner.close();
+    scanner().close();
+    if (recorder != null) {
+      recorder.close();
+    }
     System.out.println(taskFormatter.formatInfo("Goodbye!"));
   }
 
+  /**
+   * Runs a single command without the interactive banner, prompt or help
+   * menu, for scripted use such as {@code app list}.
+   */
+  public void execute(String input) throws TaskManagerException {
+    if (!input.trim().isEmpty()) {
+      processCommand(input.trim());
+    }
+  }
+
+  /**
+   * Runs a command given as separate words, e.g. the program arguments, whose
+   * quoting has already been handled by the shell.
+   */
+  public void execute(String... words) throws TaskManagerException {
+    if (words.length == 0) {
+      return;
+    }
+    if (recorder == null) {
+      dispatch(ParsedCommand.of(words));
+      return;
+    }
+    recorded(WorkloadLog.quote(words), () -> dispatch(ParsedCommand.of(words)));
+  }
+
+  /**
+   * Runs a recorded command, answering its prompts from {@code answers}
+   * instead of the console.
+   */
+  public void replay(String input, List<String> promptAnswers) throws TaskManagerException {
+    Scanner console = scanner;
+    StringBuilder lines = new StringBuilder();
+    promptAnswers.forEach(answer -> lines.append(answer).append('\n'));
+    scanner = new Scanner(lines.toString());
+    try {
+      processCommand(input);
+    } finally {
+      scanner = console;
+    }
+  }
+
   private void processCommand(String input) throws TaskManagerException {
-    String[] parts = input.split("\\s+");
-    String command = parts[0].toLowerCase();
-
-    switch (command) {
-      case "help" -> {
-        System.out.println(taskFormatter.formatHelpMenu());
-      }
-      case "list" -> {
-        if (parts.length > 1) {
-          String taskId = parts[1];
-          Task task = taskService.findTaskById(taskId);
-          System.out.println(taskFormatter.formatTaskDetails(task));
-        } else {
-          List<Task> taskList = taskService.readAvailableTasks();
-          if (Utils.isNullOrEmpty(taskList)) {
-            System.out.println(taskFormatter.formatInfo("No tasks available yet."));
-            break;
-          }
-          System.out.println(taskFormatter.formatTaskList(taskList, "Current Tasks:"));
+    if (recorder == null) {
+      dispatch(CommandTokenizer.parse(input));
+    } else {
+      recorded(input, () -> dispatch(CommandTokenizer.parse(input)));
+    }
+  }
+
+  private interface CommandRun {
+    void run() throws TaskManagerException;
+  }
+
+  private void recorded(String input, CommandRun run) throws TaskManagerException {
+    answers.clear();
+    long startedAt = System.currentTimeMillis();
+    long start = System.nanoTime();
+    boolean failed = true;
+    try {
+      run.run();
+      failed = false;
+    } finally {
+      recorder.record(startedAt, input, answers, System.nanoTime() - start, failed);
+    }
+  }
+
+  // Reads an answer to a prompt; recorded along with the command
+  private String readLine() {
+    String line = scanner().nextLine();
+    if (recorder != null) {
+      answers.add(line);
+    }
+    return line;
+  }
+
+  private void dispatch(ParsedCommand command) throws TaskManagerException {
+    Command handler = commands().lookup(command.name());
+    if (handler == null) {
+      System.out.println(taskFormatter.formatError("Unknown command: " + command.name()));
+      System.out.println(taskFormatter.formatInfo("Type 'help' to see available commands"));
+      return;
+    }
+    CommandEvent event = new CommandEvent(command.name(), command.tokenCount());
+    event.begin();
+    try {
+      handler.execute(command);
+    } catch (TaskManagerException | RuntimeException e) {
+      event.error = e.getMessage();
+      throw e;
+    } finally {
+      event.commit();
+    }
+  }
+
+  // Built-in commands first so plugins cannot shadow them; the registration
+  // order is also the order of the help menu.
+  private CommandRegistry commands() {
+    if (commandRegistry == null) {
+      CommandRegistry registry = new CommandRegistry();
+      registry.register("add", this::add, "add <title>", "Add a new task")
+          .describe("add <title> key=value", "Add with priority=, category=, due=, description=")
+          .describe("add", "Add a new task (interactive)");
+      registry.register("list", this::list, "list", "Show all tasks")
+          .describe("list <id>", "Show task details")
+          .describe("list --archived", "Show archived tasks")
+          .describe("list --page-size <n> [--after <cursor>]", "Show tasks one page at a time");
+      registry.register("complete", command -> setStatus(command, Status.COMPLETED, "Completed"),
+          "complete <id>", "Mark task as completed");
+      registry.register("cancel", command -> setStatus(command, Status.CANCELLED, "Cancelled"),
+          "cancel <id>", "Mark task as cancelled");
+      registry.register("repeat", this::repeat, "repeat <id> <rule>", "Repeat a task (e.g. FREQ=WEEKLY;BYDAY=MO)");
+      registry.register("depend", this::dependency, "depend <id> <blocker>", "Block a task until another is completed");
+      registry.register("undepend", this::dependency, "undepend <id> <blocker>", "Remove a dependency");
+      registry.register("next", this::next, "next [n]", "Show the top unblocked tasks");
+      registry.register("agenda", this::agenda, "agenda [today|week|month]", "Show open tasks by due date")
+          .describe("agenda overdue", "Show tasks past their due date");
+      registry.register("import", this::importFile, "import <file>", "Add the tasks of a JSON file, flagging duplicates");
+      registry.register("dedupe", this::dedupe, "dedupe [--threshold <0-1>]", "Show clusters of likely duplicate tasks")
+          .describe("dedupe --merge", "Merge each cluster into its oldest task");
+      registry.register("archive", this::archive, "archive [days]", "Archive tasks closed more than N days ago");
+      registry.register("replicate", this::replicate, "replicate serve <port> [sync]", "Stream changes to followers")
+          .describe("replicate follow <host> <port>", "Mirror another instance")
+          .describe("replicate status|promote|stop", "Show lag, take over as primary or stop");
+      registry.register("sync", this::sync, "sync with <host> <port>", "Exchange changes with another store")
+          .describe("sync serve <port>|stop", "Accept sync sessions from other stores")
+          .describe("sync push|pull <folder>", "Sync through a shared folder")
+          .describe("sync status", "Show this store's replica id and versions");
+      registry.register("remind", this::remind, "remind start [hours] [--sinks <specs>]",
+          "Remind of tasks due soon or overdue in the background")
+          .describe("remind now [hours]", "Check once and deliver, e.g. from cron")
+          .describe("remind status|stop", "Show delivery counts or stop reminding");
+      registry.register("delete", this::delete, "delete <id>", "Delete a task");
+      registry.register("edit", this::edit, "edit <id>", "Edit an existing task");
+      registry.register("report", this::report, "report throughput|duration|overdue",
+          "Show completions, time to complete or due dates met over the last 14 days")
+          .describe("report <kind> [--days <n>] [--from <date>] [--to <date>] [--by hour|day|week]",
+              "Report over another range, dates as yyyy-MM-dd");
+      registry.register("watch", this::watch, "watch [fps]", "Show a live dashboard until Enter is pressed");
+      registry.register("cache", this::cache, "cache [clear]", "Show render cache hit rates");
+      registry.register("help", command -> System.out.println(taskFormatter.formatHelpMenu(
+          commands().helpEntries())), "help", "Show this help menu");
+      registry.register("exit", this::exit, "exit", "Exit the application");
+      commandRegistry = registry;
+      registry.loadPlugins(new CommandContext() {
+        @Override
+        public TaskService taskService() {
+          return TaskManager.this.taskService();
+        }
+
+        @Override
+        public TaskFormatter formatter() {
+          return taskFormatter;
+        }
+      });
+    }
+    return commandRegistry;
+  }
+
+  private void list(ParsedCommand command) throws TaskManagerException {
+    String pageSize = command.flagValue("--page-size");
+    String after = command.flagValue("--after");
+    if (pageSize != null || after != null) {
+      int size = DEFAULT_PAGE_SIZE;
+      if (pageSize != null) {
+        try {
+          size = Integer.parseInt(pageSize);
+        } catch (NumberFormatException e) {
+          System.out.println(taskFormatter.formatError("Page size must be a number"));
+          return;
         }
       }
-      case "exit" -> {
-        System.out.println(taskFormatter.formatSuccess("Exiting Task Manager..."));
-        running = false;
+      TaskPage page = taskService().readTaskPage(after, size);
+      System.out.println(taskFormatter.formatTaskPage(page, "Current Tasks:", size));
+    } else if (command.hasFlag("--archived")) {
+      List<Task> archivedTasks = taskService().readArchivedTasks();
+      if (Utils.isNullOrEmpty(archivedTasks)) {
+        System.out.println(taskFormatter.formatInfo("No archived tasks."));
+        return;
       }
-      case "add" -> {
-        if (parts.length > 1) {
-          String title = String.join(" ", java.util.Arrays.copyOfRange(parts, 1, parts.length));
-          taskService.createTask(new TaskData(title));
-          System.out.println(taskFormatter.formatSuccess("Task '" + title + "' added successfully!"));
-        } else {
-          TaskData taskData = collectTaskInput(null);
-          if (taskData.title() != null) {
-            taskService.createTask(taskData);
-            System.out.println(taskFormatter.formatSuccess("Task '" + taskData.title() + "' added successfully!"));
-          } else {
-            System.out.println(taskFormatter.formatError("Task title is required"));
+      System.out.println(taskFormatter.formatTaskList(archivedTasks, "Archived Tasks:"));
+    } else if (command.argumentCount() > 0) {
+      String taskId = command.argument(0);
+      Task task = taskService().findTaskById(taskId);
+      System.out.println(taskFormatter.formatTaskDetails(task));
+    } else {
+      List<TaskValue> taskList = taskService().readAvailableTasks();
+      if (Utils.isNullOrEmpty(taskList)) {
+        System.out.println(taskFormatter.formatInfo("No tasks available yet."));
+        return;
+      }
+      System.out.println(taskFormatter.formatTaskValues(taskList, "Current Tasks:"));
+    }
+  }
+
+  private void watch(ParsedCommand command) {
+    int framesPerSecond = Dashboard.DEFAULT_FRAME_RATE;
+    if (command.argumentCount() > 0) {
+      try {
+        framesPerSecond = Integer.parseInt(command.argument(0));
+      } catch (NumberFormatException e) {
+        System.out.println(taskFormatter.formatWarning("Invalid frame rate. Using " + framesPerSecond + " fps."));
+      }
+    }
+    TaskService service = taskService();
+    Dashboard dashboard = new Dashboard(service::readTaskView, taskFormatter, System.out, framesPerSecond);
+    service.addRepositoryListener(dashboard);
+    dashboard.start();
+    try {
+      readLine();
+    } catch (NoSuchElementException e) {
+      // No console to wait on
+    } finally {
+      dashboard.close();
+      service.removeRepositoryListener(dashboard);
+    }
+    Dashboard.Stats stats = dashboard.stats();
+    System.out.println(taskFormatter.formatInfo(String.format("Drew %d frames, %.0f characters per frame, for %d changes",
+        stats.frames(), stats.charactersPerFrame(), stats.changes())));
+  }
+
+  private void cache(ParsedCommand command) {
+    RenderCache cache = taskFormatter.getRenderCache();
+    if (cache == null) {
+      System.out.println(taskFormatter.formatInfo("Render cache is disabled"));
+      return;
+    }
+    if (command.argumentCount() > 0 && command.argument(0).equals("clear")) {
+      cache.clear();
+      System.out.println(taskFormatter.formatInfo("Render cache cleared"));
+    }
+    System.out.println(taskFormatter.formatCacheStats(cache.stats()));
+  }
+
+  private void exit(ParsedCommand command) {
+    System.out.println(taskFormatter.formatSuccess("Exiting Task Manager..."));
+    try {
+      close(); // an injected service stays open for its owner
+    } catch (TaskManagerException e) {
+      System.out.println(taskFormatter.formatError(e.getMessage()));
+    }
+    running = false;
+  }
+
+  /**
+   * Closes the service this task manager opened, if a command used it,
+   * saving what it keeps besides the tasks, such as the analytics rollups.
+   * A service passed to the constructor is left to its owner.
+   */
+  public void close() throws TaskManagerException {
+    if (taskService != null && ownsService) {
+      taskService.close();
+      taskService = null;
+    }
+  }
+
+  private void add(ParsedCommand command) throws TaskManagerException {
+    if (command.tokenCount() == 0) {
+      TaskData taskData = collectTaskInput(null);
+      if (taskData.title() != null) {
+        printCreation(taskService().createTask(taskData));
+      } else {
+        System.out.println(taskFormatter.formatError("Task title is required"));
+      }
+      return;
+    }
+
+    String title = command.joinArguments(0);
+    if (title.isEmpty()) {
+      System.out.println(taskFormatter.formatError("Task title is required"));
+      return;
+    }
+    TaskData taskData = new TaskData(title);
+    if (!command.options().isEmpty()) {
+      taskData = new TaskData(title, command.option("description"),
+          parseOption(command, "priority", Priority.class, Priority.MEDIUM),
+          parseOption(command, "category", Category.class, null), Status.PENDING, parseDueDate(command));
+    }
+    printCreation(taskService().createTask(taskData));
+  }
+
+  private void printCreation(TaskService.Creation creation) throws TaskManagerException {
+    Task task = creation.task();
+    if (creation.merged()) {
+      System.out.println(taskFormatter.formatSuccess("Merged into existing task '" + task.getTitle() + "'"));
+      return;
+    }
+    System.out.println(taskFormatter.formatSuccess("Task '" + task.getTitle() + "' added successfully!"));
+    for (DuplicateIndex.Match match : creation.duplicates()) {
+      System.out.println(taskFormatter.formatWarning(String.format("Possible duplicate (%.0f%% similar): %s",
+          match.similarity() * 100, taskFormatter.formatTask(taskService().findTaskById(match.id())))));
+    }
+  }
+
+  private void importFile(ParsedCommand command) throws TaskManagerException {
+    if (command.argumentCount() == 0) {
+      System.out.println(taskFormatter.formatError("Please provide a JSON file of tasks"));
+      return;
+    }
+    File file = new File(command.joinArguments(0));
+    List<Task> tasks;
+    try {
+      tasks = TaskJson.readTasks(file);
+    } catch (IOException e) {
+      System.out.println(taskFormatter.formatError("Cannot read " + file + ": " + e.getMessage()));
+      return;
+    }
+    int merged = 0;
+    int flagged = 0;
+    for (TaskService.Creation creation : taskService().importTasks(tasks)) {
+      if (creation.merged()) {
+        merged++;
+      } else if (!creation.duplicates().isEmpty()) {
+        flagged++;
+        System.out.println(taskFormatter.formatWarning("Possible duplicate: " + taskFormatter.formatTask(creation.task())));
+      }
+    }
+    System.out.println(taskFormatter.formatSuccess(String.format("Imported %d tasks, merged %d into existing tasks",
+        tasks.size() - merged, merged)));
+    if (flagged > 0) {
+      System.out.println(taskFormatter.formatInfo(flagged + " imported tasks look like duplicates; see 'dedupe'"));
+    }
+  }
+
+  private void dedupe(ParsedCommand command) throws TaskManagerException {
+    double threshold = DuplicateIndex.thresholdFromSystemProperties();
+    if (command.flagValue("--threshold") != null) {
+      try {
+        threshold = Double.parseDouble(command.flagValue("--threshold"));
+      } catch (NumberFormatException e) {
+        System.out.println(taskFormatter.formatError("Please provide a similarity between 0 and 1"));
+        return;
+      }
+    }
+    List<List<Task>> clusters = taskService().findDuplicateClusters(threshold);
+    System.out.println(taskFormatter.formatDuplicateClusters(clusters));
+    if (command.hasFlag("--merge") && !clusters.isEmpty()) {
+      int deleted = taskService().mergeDuplicates(clusters);
+      System.out.println(taskFormatter.formatSuccess("Merged " + deleted + " duplicates into the first task of their cluster"));
+    }
+  }
+
+  private <E extends Enum<E>> E parseOption(ParsedCommand command, String key, Class<E> type, E fallback) {
+    String value = command.option(key);
+    if (value == null || value.isEmpty()) {
+      return fallback;
+    }
+    try {
+      return Enum.valueOf(type, value.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      System.out.println(taskFormatter.formatWarning("Invalid " + key + " '" + value + "'. Using default."));
+      return fallback;
+    }
+  }
+
+  private LocalDate parseDueDate(ParsedCommand command) {
+    String value = command.option("due");
+    if (value == null || value.isEmpty()) {
+      return null;
+    }
+    try {
+      return LocalDate.parse(value, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+    } catch (DateTimeParseException e) {
+      System.out.println(taskFormatter.formatWarning("Invalid date format. Expected yyyy-MM-dd."));
+      return null;
+    }
+  }
+
+  private void setStatus(ParsedCommand command, Status status, String verb) throws TaskManagerException {
+    if (command.argumentCount() > 0) {
+      String taskId = command.argument(0);
+      taskService().updateTask(taskId, new TaskData(null, null, null, null, status, null));
+      System.out.println(taskFormatter.formatInfo(verb + " task " + taskId));
+    } else {
+      System.out.println(taskFormatter.formatError("Please provide a task ID"));
+    }
+  }
+
+  private void repeat(ParsedCommand command) throws TaskManagerException {
+    // The rule itself contains '=', so it is read from the raw tokens
+    if (command.tokenCount() > 1) {
+      String taskId = command.tokens().get(0);
+      String rule = command.joinTokens(1);
+      Task task = taskService().setRecurrence(taskId, rule);
+      if (task.isRecurring()) {
+        System.out.println(taskFormatter.formatSuccess("Task " + taskId + " now repeats: " + task.getRecurrence()));
+      } else {
+        System.out.println(taskFormatter.formatInfo("Task " + taskId + " no longer repeats"));
+      }
+    } else {
+      System.out.println(taskFormatter.formatError("Usage: repeat <id> <rule|none>"));
+    }
+  }
+
+  private void dependency(ParsedCommand command) throws TaskManagerException {
+    if (command.argumentCount() > 1) {
+      String taskId = command.argument(0);
+      String dependsOnId = command.argument(1);
+      if (command.name().equals("depend")) {
+        taskService().addDependency(taskId, dependsOnId);
+        System.out.println(taskFormatter.formatSuccess("Task " + taskId + " now depends on " + dependsOnId));
+      } else {
+        taskService().removeDependency(taskId, dependsOnId);
+        System.out.println(taskFormatter.formatInfo("Task " + taskId + " no longer depends on " + dependsOnId));
+      }
+    } else {
+      System.out.println(taskFormatter.formatError("Usage: " + command.name() + " <id> <blocking-id>"));
+    }
+  }
+
+  private void next(ParsedCommand command) {
+    int limit = 5;
+    if (command.argumentCount() > 0) {
+      int requested;
+      try {
+        requested = Integer.parseInt(command.argument(0));
+      } catch (NumberFormatException e) {
+        requested = 0;
+      }
+      if (requested < 1) {
+        System.out.println(taskFormatter.formatWarning("Invalid count. Showing " + limit + " tasks."));
+      } else {
+        limit = requested;
+      }
+    }
+    List<Task> nextTasks = taskService().readNextTasks(limit);
+    if (Utils.isNullOrEmpty(nextTasks)) {
+      System.out.println(taskFormatter.formatInfo("Nothing is ready to work on."));
+      return;
+    }
+    System.out.println(taskFormatter.formatTaskList(nextTasks, "Up Next:"));
+  }
+
+  private void agenda(ParsedCommand command) throws TaskManagerException {
+    LocalDateTime now = LocalDateTime.now();
+    LocalDate today = now.toLocalDate();
+    String range = command.argumentCount() > 0 ? command.argument(0).toLowerCase() : "today";
+    switch (range) {
+      case "today" -> System.out.println(taskFormatter.formatAgenda("Today",
+          taskService().readOverdueTasks(today.atStartOfDay()), taskService().readAgenda(today, today)));
+      case "week" -> {
+        LocalDate monday = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        System.out.println(taskFormatter.formatAgenda("This Week",
+            taskService().readOverdueTasks(today.atStartOfDay()), taskService().readAgenda(today, monday.plusDays(6))));
+      }
+      case "month" -> System.out.println(taskFormatter.formatAgenda("This Month",
+          taskService().readOverdueTasks(today.atStartOfDay()),
+          taskService().readAgenda(today, today.with(TemporalAdjusters.lastDayOfMonth()))));
+      case "overdue" -> System.out.println(taskFormatter.formatAgenda("Overdue",
+          taskService().readOverdueTasks(now), Map.of()));
+      default -> System.out.println(taskFormatter.formatError("Usage: agenda [today|week|month|overdue]"));
+    }
+  }
+
+  private void report(ParsedCommand command) throws TaskManagerException {
+    String kind = command.argumentCount() > 0 ? command.argument(0).toLowerCase() : "";
+    if (!List.of("throughput", "duration", "overdue").contains(kind)) {
+      System.out.println(taskFormatter.formatError("Usage: report throughput|duration|overdue [--days <n>] "
+          + "[--from <date>] [--to <date>] [--by hour|day|week]"));
+      return;
+    }
+    int days = DEFAULT_REPORT_DAYS;
+    if (command.flagValue("--days") != null) {
+      try {
+        days = Math.max(1, Integer.parseInt(command.flagValue("--days")));
+      } catch (NumberFormatException e) {
+        System.out.println(taskFormatter.formatError("Please provide the number of days"));
+        return;
+      }
+    }
+    LocalDate to = parseReportDate(command, "--to", LocalDate.now());
+    LocalDate from = to == null ? null : parseReportDate(command, "--from", to.minusDays(days - 1));
+    if (from == null) {
+      return;
+    }
+    long rangeDays = ChronoUnit.DAYS.between(from, to) + 1;
+    Granularity granularity = rangeDays <= 2 ? Granularity.HOUR : rangeDays <= 90 ? Granularity.DAY : Granularity.WEEK;
+    if (command.flagValue("--by") != null) {
+      granularity = Granularity.parse(command.flagValue("--by"));
+      if (granularity == null) {
+        System.out.println(taskFormatter.formatError("Report periods are hour, day or week"));
+        return;
+      }
+    }
+
+    NavigableMap<LocalDateTime, Rollup> series = taskService().readRollups(from.atStartOfDay(),
+        to.plusDays(1).atStartOfDay(), granularity);
+    System.out.println(switch (kind) {
+      case "throughput" -> taskFormatter.formatThroughputReport(series, granularity);
+      case "duration" -> taskFormatter.formatLeadTimeReport(series, granularity);
+      default -> taskFormatter.formatOverdueReport(series, granularity);
+    });
+  }
+
+  // Inclusive report bounds; null after telling the user what was wrong
+  private LocalDate parseReportDate(ParsedCommand command, String flag, LocalDate fallback) {
+    String value = command.flagValue(flag);
+    if (value == null) {
+      return fallback;
+    }
+    try {
+      return LocalDate.parse(value, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+    } catch (DateTimeParseException e) {
+      System.out.println(taskFormatter.formatError("Invalid " + flag + " date. Expected yyyy-MM-dd."));
+      return null;
+    }
+  }
+
+  private void archive(ParsedCommand command) throws TaskManagerException {
+    int days = Utils.DEFAULT_ARCHIVE_AFTER_DAYS;
+    if (command.argumentCount() > 0) {
+      try {
+        days = Integer.parseInt(command.argument(0));
+      } catch (NumberFormatException e) {
+        System.out.println(taskFormatter.formatError("Please provide the age in days"));
+        return;
+      }
+    }
+    int archived = taskService().archiveClosedTasks(days);
+    System.out.println(taskFormatter.formatInfo("Archived " + archived + " tasks closed more than " + days + " days ago"));
+  }
+
+  private void delete(ParsedCommand command) throws TaskManagerException {
+    if (command.argumentCount() > 0) {
+      String taskId = command.argument(0);
+      taskService().deleteTask(taskId);
+      System.out.println(taskFormatter.formatWarning("Deleted task " + taskId));
+    } else {
+      System.out.println(taskFormatter.formatError("Please provide a task ID"));
+    }
+  }
+
+  private void edit(ParsedCommand command) throws TaskManagerException {
+    if (command.argumentCount() == 0) {
+      System.out.println(taskFormatter.formatError("Please provide a task ID"));
+      return;
+    }
+    String taskId = command.argument(0);
+    Task task = taskService().findTaskById(taskId);
+    if (task == null) {
+      System.out.println(taskFormatter.formatError("Task with ID " + taskId + " not found"));
+      return;
+    }
+    TaskData updateData = collectTaskInput(task);
+
+    boolean hasChanges = updateData.title() != null || updateData.description() != null ||
+        updateData.priority() != null || updateData.category() != null || updateData.status() != null ||
+        updateData.dueDate() != null;
+
+    if (hasChanges) {
+      taskService().updateTask(taskId, updateData);
+      System.out.println(taskFormatter.formatSuccess("Task updated successfully!"));
+      Task updatedTask = taskService().findTaskById(taskId);
+      System.out.println(taskFormatter.formatTaskDetails(updatedTask));
+    } else {
+      System.out.println(taskFormatter.formatInfo("No changes made to the task."));
+    }
+  }
+
+  private void remind(ParsedCommand command) throws TaskManagerException {
+    String action = command.argumentCount() > 0 ? command.argument(0).toLowerCase() : "status";
+    switch (action) {
+      case "start", "now" -> {
+        ReminderConfig config = ReminderConfig.defaults();
+        if (command.argumentCount() > 1) {
+          try {
+            config = config.withDueSoonHours(Math.max(0, Integer.parseInt(command.argument(1))));
+          } catch (NumberFormatException e) {
+            System.out.println(taskFormatter.formatError("Please provide the number of hours ahead"));
+            return;
           }
         }
-      }
-      case "complete" -> {
-        if (parts.length > 1) {
-          String taskId = parts[1];
-          taskService.updateTask(taskId, new TaskData(null, null, null, null, Status.COMPLETED, null));
-          System.out.println(taskFormatter.formatInfo("Completed task " + taskId));
+        String sinks = command.flagValue("--sinks");
+        if (taskService().getReminderScanner() == null) {
+          taskService().startReminders(sinks != null ? ReminderSinks.parseAll(sinks)
+              : ReminderSinks.fromSystemProperties(), config);
+          if (action.equals("start")) {
+            System.out.println(taskFormatter.formatInfo("Reminding of tasks due within " + config.dueSoonHours()
+                + " hours or overdue"));
+            return;
+          }
+          // A one-off check, e.g. from cron: deliver and stop
+          taskService().getReminderScanner().scan(LocalDateTime.now());
+          ReminderDispatcher dispatcher = taskService().getReminderDispatcher();
+          taskService().stopReminders();
+          System.out.println(taskFormatter.formatReminderStats(dispatcher.stats()));
+        } else if (action.equals("now")) {
+          int raised = taskService().getReminderScanner().scan(LocalDateTime.now());
+          System.out.println(taskFormatter.formatInfo("Raised " + raised + " reminders"));
         } else {
-          System.out.println(taskFormatter.formatError("Please provide a task ID"));
+          System.out.println(taskFormatter.formatError("Reminders are already running; stop them first"));
         }
       }
-      case "cancel" -> {
-        if (parts.length > 1) {
-          String taskId = parts[1];
-          taskService.updateTask(taskId, new TaskData(null, null, null, null, Status.CANCELLED, null));
-          System.out.println(taskFormatter.formatInfo("Cancelled task " + taskId));
-        } else {
-          System.out.println(taskFormatter.formatError("Please provide a task ID"));
+      case "stop" -> {
+        ReminderDispatcher dispatcher = taskService().getReminderDispatcher();
+        if (dispatcher == null) {
+          System.out.println(taskFormatter.formatInfo("Reminders are not running"));
+          return;
         }
+        taskService().stopReminders();
+        System.out.println(taskFormatter.formatReminderStats(dispatcher.stats()));
       }
-      case "delete" -> {
-        if (parts.length > 1) {
-          String taskId = parts[1];
-          taskService.deleteTask(taskId);
-          System.out.println(taskFormatter.formatWarning("Deleted task " + taskId));
-        } else {
-          System.out.println(taskFormatter.formatError("Please provide a task ID"));
+      case "status" -> {
+        ReminderDispatcher dispatcher = taskService().getReminderDispatcher();
+        System.out.println(dispatcher == null ? taskFormatter.formatInfo("Reminders are not running")
+            : taskFormatter.formatReminderStats(dispatcher.stats()));
+      }
+      default -> System.out.println(taskFormatter.formatError("Unknown remind action: " + action));
+    }
+  }
+
+  private void replicate(ParsedCommand command) throws TaskManagerException {
+    String action = command.argumentCount() > 0 ? command.argument(0).toLowerCase() : "status";
+    switch (action) {
+      case "serve" -> {
+        if (command.argumentCount() < 2) {
+          System.out.println(taskFormatter.formatError("Usage: replicate serve <port> [async|sync]"));
+          return;
+        }
+        AckMode ackMode = command.argumentCount() > 2 && command.argument(2).equalsIgnoreCase("sync") ? AckMode.WAIT_FOR_FOLLOWER
+            : AckMode.ASYNC;
+        int port = parsePort(command.argument(1));
+        if (port < 0) {
+          return;
         }
+        int boundPort = taskService().startReplicationPrimary(port, ackMode);
+        System.out.println(taskFormatter.formatSuccess("Serving followers on port " + boundPort + " ("
+            + ackMode.getDisplayName().toLowerCase() + ")"));
       }
-      case "edit" -> {
-        if (parts.length > 1) {
-          String taskId = parts[1];
-          Task task = taskService.findTaskById(taskId);
-          if (task == null) {
-            System.out.println(taskFormatter.formatError("Task with ID " + taskId + " not found"));
-          } else {
-            TaskData updateData = collectTaskInput(task);
-
-            boolean hasChanges = updateData.title() != null || updateData.description() != null ||
-                updateData.priority() != null || updateData.category() != null || updateData.status() != null;
-
-            if (hasChanges) {
-              taskService.updateTask(taskId, updateData);
-              System.out.println(taskFormatter.formatSuccess("Task updated successfully!"));
-              Task updatedTask = taskService.findTaskById(taskId);
-              System.out.println(taskFormatter.formatTaskDetails(updatedTask));
-            } else {
-              System.out.println(taskFormatter.formatInfo("No changes made to the task."));
-            }
+      case "follow" -> {
+        if (command.argumentCount() < 3) {
+          System.out.println(taskFormatter.formatError("Usage: replicate follow <host> <port>"));
+          return;
+        }
+        int port = parsePort(command.argument(2));
+        if (port < 0) {
+          return;
+        }
+        taskService().startReplicationFollower(command.argument(1), port);
+        System.out.println(taskFormatter.formatSuccess("Following " + command.argument(1) + ":" + port));
+      }
+      case "promote" -> {
+        taskService().promoteReplicationFollower();
+        System.out.println(taskFormatter.formatSuccess("Promoted to primary"));
+      }
+      case "stop" -> {
+        taskService().stopReplication();
+        System.out.println(taskFormatter.formatInfo("Replication stopped"));
+      }
+      case "status" -> {
+        ReplicationPrimary primary = taskService().getReplicationPrimary();
+        ReplicationFollower follower = taskService().getReplicationFollower();
+        if (primary != null) {
+          System.out.println(taskFormatter.formatInfo("Primary on port " + primary.getPort() + ", sequence "
+              + primary.lastSequence() + ", " + primary.getConfig().ackMode().getDisplayName().toLowerCase()
+              + ", ack timeouts " + primary.ackTimeouts()));
+          for (ReplicationPrimary.FollowerStatus status : primary.followers()) {
+            System.out.println(taskFormatter.formatInfo("  " + status.address() + " acked " + status.ackedSequence()
+                + ", lag " + status.lagMutations() + " (" + status.lagTime().toMillis() + " ms), "
+                + status.batchesSent() + " batches, " + status.bytesSent() + " bytes"));
           }
+        } else if (follower != null) {
+          ReplicationFollower.Status status = follower.status();
+          System.out.println(taskFormatter.formatInfo((status.connected() ? "Following" : "Reconnecting")
+              + ", applied " + status.appliedSequence() + " of " + status.primarySequence()
+              + " (lag " + status.lagMutations() + "), " + status.batchesApplied() + " batches"));
         } else {
-          System.out.println(taskFormatter.formatError("Please provide a task ID"));
+          System.out.println(taskFormatter.formatInfo("Replication is not running"));
+        }
+      }
+      default -> System.out.println(taskFormatter.formatError("Unknown replicate action: " + action));
+    }
+  }
+
+  private void sync(ParsedCommand command) throws TaskManagerException {
+    String action = command.argumentCount() > 0 ? command.argument(0).toLowerCase() : "status";
+    switch (action) {
+      case "serve" -> {
+        int port = command.argumentCount() > 1 ? parsePort(command.argument(1)) : 0;
+        if (port < 0) {
+          return;
+        }
+        int boundPort = taskService().startSyncServer(port);
+        System.out.println(taskFormatter.formatSuccess("Serving sync on port " + boundPort));
+      }
+      case "with" -> {
+        if (command.argumentCount() < 3) {
+          System.out.println(taskFormatter.formatError("Usage: sync with <host> <port>"));
+          return;
+        }
+        int port = parsePort(command.argument(2));
+        if (port < 0) {
+          return;
         }
+        printSyncReport(taskService().syncWith(command.argument(1), port));
       }
-      default -> {
-        System.out.println(taskFormatter.formatError("Unknown command: " + command));
-        System.out.println(taskFormatter.formatInfo("Type 'help' to see available commands"));
+      case "push", "pull" -> {
+        if (command.argumentCount() < 2) {
+          System.out.println(taskFormatter.formatError("Usage: sync " + action + " <folder>"));
+          return;
+        }
+        File folder = new File(command.joinArguments(1));
+        printSyncReport(action.equals("push") ? taskService().pushToSyncFolder(folder)
+            : taskService().pullFromSyncFolder(folder));
+      }
+      case "stop" -> {
+        taskService().stopSyncServer();
+        System.out.println(taskFormatter.formatInfo("Sync server stopped"));
+      }
+      case "status" -> {
+        TaskSync sync = taskService().getTaskSync();
+        SyncServer server = taskService().getSyncServer();
+        System.out.println(taskFormatter.formatInfo("Replica " + sync.getReplicaId() + ", versions "
+            + sync.versionVector()));
+        if (server != null) {
+          System.out.println(taskFormatter.formatInfo("Serving sync on port " + server.getPort() + ", "
+              + server.sessions() + " sessions"));
+        }
+      }
+      default -> System.out.println(taskFormatter.formatError("Unknown sync action: " + action));
+    }
+  }
+
+  private void printSyncReport(SyncReport report) {
+    System.out.println(taskFormatter.formatSuccess("Sent " + report.tasksSent() + " tasks (" + report.bytesSent()
+        + " bytes), received " + report.tasksReceived() + " tasks (" + report.bytesReceived() + " bytes)"));
+    TaskSync.MergeResult merge = report.merge();
+    if (merge.fieldsApplied() > 0) {
+      System.out.println(taskFormatter.formatInfo("Updated " + merge.tasksSaved() + " tasks, deleted "
+          + merge.tasksDeleted() + " (" + merge.fieldsApplied() + " fields)"));
+    }
+  }
+
+  private int parsePort(String value) {
+    try {
+      int port = Integer.parseInt(value);
+      if (port >= 0 && port <= 65535) {
+        return port;
       }
+    } catch (NumberFormatException e) {
+      // Reported below
     }
+    System.out.println(taskFormatter.formatError("Invalid port: " + value));
+    return -1;
   }
 
   private TaskData collectTaskInput(Task existingTask) {
@@ -178,14 +901,14 @@ public class TaskManager {
     // Title
     String titlePrompt = isEdit ? "New title (" + existingTask.getTitle() + ")" : "Task title";
     System.out.print(taskFormatter.formatPrompt(titlePrompt));
-    String titleInput = scanner.nextLine().trim();
+    String titleInput = readLine().trim();
     String finalTitle = titleInput.isEmpty() ? null : titleInput;
 
     // Description
     String currentDesc = isEdit && existingTask.getDescription() != null ? existingTask.getDescription() : "none";
     String descPrompt = isEdit ? "New description (" + currentDesc + ")" : "Description (optional)";
     System.out.print(taskFormatter.formatPrompt(descPrompt));
-    String descInput = scanner.nextLine().trim();
+    String descInput = readLine().trim();
     String finalDescription = descInput.isEmpty() ? null : (descInput.equals("none") ? null : descInput);
 
     // Priority
@@ -193,7 +916,7 @@ public class TaskManager {
     System.out.println(taskFormatter.formatInfo("Priority options: LOW, MEDIUM, HIGH, URGENT"));
     String priorityPrompt = isEdit ? "New priority (" + currentPriority + ")" : "Priority (optional)";
     System.out.print(taskFormatter.formatPrompt(priorityPrompt));
-    String priorityInput = scanner.nextLine().trim();
+    String priorityInput = readLine().trim();
 
     // Due Date
     LocalDate finalDueDate = null;
@@ -205,7 +928,7 @@ public class TaskManager {
     String dueDatePrompt = isEdit ? "New due date (" + currentDueDate + ") [yyyy-MM-dd]"
         : "Due date (optional) [yyyy-MM-dd]";
     System.out.print(taskFormatter.formatPrompt(dueDatePrompt));
-    String dueDateInput = scanner.nextLine().trim();
+    String dueDateInput = readLine().trim();
 
     if (!dueDateInput.isEmpty()) {
       try {
@@ -233,7 +956,7 @@ public class TaskManager {
         "Category options: WORK, PERSONAL, STUDY, HEALTH, FITNESS, SHOPPING, TRAVEL, OTHER"));
     String categoryPrompt = isEdit ? "New category (" + currentCatDisplay + ")" : "Category (optional)";
     System.out.print(taskFormatter.formatPrompt(categoryPrompt));
-    String categoryInput = scanner.nextLine().trim();
+    String categoryInput = readLine().trim();
 
     Category finalCategory = null;
     if (!categoryInput.isEmpty()) {
@@ -253,7 +976,7 @@ public class TaskManager {
     if (isEdit) {
       System.out.println(taskFormatter.formatInfo("Status options: PENDING, IN_PROGRESS, COMPLETED, CANCELLED"));
       System.out.print(taskFormatter.formatPrompt("New status (" + existingTask.getStatus() + ")"));
-      String statusInput = scanner.nextLine().trim();
+      String statusInput = readLine().trim();
 
       if (!statusInput.isEmpty()) {
         try {
@@ -1,11 +1,14 @@
 package com.taskmanager;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.List;
 
 public abstract class Utils {
   public static final String DATA_DIRECTORY = "src/main/java/com/taskmanager/data";
   public static final String TASKS_FILENAME = "tasks.json";
+  public static final String ARCHIVE_AFTER_DAYS_PROPERTY = "taskmanager.archive.days";
+  public static final int DEFAULT_ARCHIVE_AFTER_DAYS = 30;
 
   public static File getTasksFile() {
     File dataDir = new File(DATA_DIRECTORY);
@@ -15,6 +18,19 @@ public abstract class Utils {
     return new File(dataDir, TASKS_FILENAME);
   }
 
+  /**
+   * How long a task stays in the live store after it was completed or
+   * cancelled, from the {@code taskmanager.archive.days} system property.
+   * Archiving is on by default: every repository that is opened, including
+   * for a one-shot command, moves tasks closed more than
+   * {@value #DEFAULT_ARCHIVE_AFTER_DAYS} days ago to the archive. Returns
+   * null when archiving is disabled (a negative value, e.g. {@code -1}).
+   */
+  public static Duration getArchiveAge() {
+    int days = Integer.getInteger(ARCHIVE_AFTER_DAYS_PROPERTY, DEFAULT_ARCHIVE_AFTER_DAYS);
+    return days < 0 ? null : Duration.ofDays(days);
+  }
+
   public static boolean isNullOrEmpty(List<?> list) {
     return list == null || list.isEmpty();
   }
@@ -0,0 +1,64 @@
+package com.taskmanager.analytics;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import com.taskmanager.enums.Category;
+import com.taskmanager.enums.Status;
+import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskValue;
+
+/**
+ * The events one task adds to the rollups: its creation, its completion (if
+ * completed) and its due date (unless cancelled). When a task changes, the
+ * rollups take back its previous contribution and add the new one, so only
+ * edits that move one of these fields touch any bucket.
+ */
+record Contribution(LocalDateTime createdAt, LocalDateTime completedAt, Category category, LocalDateTime dueDate) {
+
+  static Contribution of(Task task) {
+    return of(task.getStatus(), task.getCategory(), task.getCreatedAt(), task.getCompletedAt(), task.getDueDate());
+  }
+
+  static Contribution of(TaskValue task) {
+    return of(task.getStatus(), task.getCategory(), task.getCreatedAt(), task.getCompletedAt(), task.getDueDate());
+  }
+
+  private static Contribution of(Status status, Category category, LocalDateTime createdAt,
+      LocalDateTime completedAt, LocalDateTime dueDate) {
+    return new Contribution(createdAt, status == Status.COMPLETED ? completedAt : null,
+        category != null ? category : Category.OTHER, status == Status.CANCELLED ? null : dueDate);
+  }
+
+  /**
+   * A 64-bit hash of this contribution to {@code id}, the same in every
+   * JVM. Sums of these over the live tasks detect changes made while the
+   * rollups were closed.
+   */
+  long fingerprint(String id) {
+    long hash = id.hashCode();
+    for (Object field : new Object[] { createdAt, completedAt, dueDate }) {
+      hash = hash * 31 + (field == null ? 0 : field.hashCode());
+    }
+    hash = hash * 31 + category.ordinal();
+    // murmur3 finalizer, so near-identical tasks do not cancel out in a sum
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  Duration leadTime() {
+    return createdAt == null || completedAt == null ? null : Duration.between(createdAt, completedAt);
+  }
+
+  boolean onTime() {
+    return completedAt != null && dueDate != null && !completedAt.isAfter(dueDate);
+  }
+
+  boolean late() {
+    return completedAt != null && dueDate != null && completedAt.isAfter(dueDate);
+  }
+}
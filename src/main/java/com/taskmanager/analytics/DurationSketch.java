@@ -0,0 +1,136 @@
+package com.taskmanager.analytics;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A mergeable percentile sketch of durations with bounded relative error:
+ * every quantile it returns is within {@value #RELATIVE_ACCURACY} (1%) of a
+ * duration that was actually recorded at that rank.
+ *
+ * Durations are counted in logarithmically sized bins (bin {@code i} holds
+ * durations between γ^(i-1) and γ^i seconds), so a sketch of a year's worth
+ * of lead times has at most a few hundred bins whatever the number of tasks.
+ * Two sketches merge by adding their bin counts, which is what lets rollups
+ * answer a range by merging buckets, and a duration is removed by
+ * decrementing its bin, which lets a rollup take back a task whose
+ * completion was undone. The mean is exact.
+ *
+ * Not thread-safe; {@link TaskRollups} guards its sketches.
+ */
+public final class DurationSketch {
+  public static final double RELATIVE_ACCURACY = 0.01;
+  private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+  private static final double LOG_GAMMA = Math.log(GAMMA);
+
+  private final NavigableMap<Integer, Long> bins;
+  private long zeros; // durations under a second
+  private long count;
+  private long totalSeconds;
+
+  public DurationSketch() {
+    this.bins = new TreeMap<>();
+  }
+
+  @JsonCreator
+  DurationSketch(@JsonProperty("zeros") long zeros, @JsonProperty("bins") Map<Integer, Long> bins,
+      @JsonProperty("totalSeconds") long totalSeconds) {
+    this.bins = bins == null ? new TreeMap<>() : new TreeMap<>(bins);
+    this.zeros = zeros;
+    this.totalSeconds = totalSeconds;
+    this.count = zeros + this.bins.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  public void add(Duration duration) {
+    update(duration, 1);
+  }
+
+  /**
+   * Takes back a duration added earlier.
+   */
+  public void remove(Duration duration) {
+    update(duration, -1);
+  }
+
+  public void merge(DurationSketch other) {
+    for (Map.Entry<Integer, Long> bin : other.bins.entrySet()) {
+      bins.merge(bin.getKey(), bin.getValue(), Long::sum);
+    }
+    zeros += other.zeros;
+    count += other.count;
+    totalSeconds += other.totalSeconds;
+  }
+
+  public long count() {
+    return count;
+  }
+
+  @JsonIgnore
+  public boolean isEmpty() {
+    return count == 0;
+  }
+
+  public Duration mean() {
+    return count == 0 ? Duration.ZERO : Duration.ofSeconds(totalSeconds / count);
+  }
+
+  /**
+   * The duration at quantile {@code q}, e.g. 0.9 for the 90th percentile, or
+   * zero if the sketch is empty.
+   */
+  public Duration quantile(double q) {
+    if (count == 0) {
+      return Duration.ZERO;
+    }
+    long rank = (long) (Math.max(0, Math.min(1, q)) * (count - 1));
+    long seen = zeros;
+    if (rank < seen) {
+      return Duration.ZERO;
+    }
+    for (Map.Entry<Integer, Long> bin : bins.entrySet()) {
+      seen += bin.getValue();
+      if (rank < seen) {
+        return Duration.ofSeconds(Math.round(2 * Math.pow(GAMMA, bin.getKey()) / (GAMMA + 1)));
+      }
+    }
+    return Duration.ofSeconds(Math.round(Math.pow(GAMMA, bins.lastKey())));
+  }
+
+  // Accessors for persistence
+
+  @JsonProperty("zeros")
+  long zeros() {
+    return zeros;
+  }
+
+  @JsonProperty("bins")
+  Map<Integer, Long> bins() {
+    return Collections.unmodifiableMap(bins);
+  }
+
+  @JsonProperty("totalSeconds")
+  long totalSeconds() {
+    return totalSeconds;
+  }
+
+  // Helper methods
+
+  private void update(Duration duration, int sign) {
+    long seconds = Math.max(0, duration.getSeconds());
+    if (seconds == 0) {
+      zeros += sign;
+    } else {
+      int bin = (int) Math.ceil(Math.log(seconds) / LOG_GAMMA);
+      bins.merge(bin, (long) sign, (a, b) -> a + b == 0 ? null : a + b);
+    }
+    count += sign;
+    totalSeconds += sign * seconds;
+  }
+}
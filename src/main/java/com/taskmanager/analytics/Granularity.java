@@ -0,0 +1,67 @@
+package com.taskmanager.analytics;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * The bucket sizes rollups are kept at. Weeks start on Monday, as in the
+ * agenda.
+ */
+public enum Granularity {
+  HOUR(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:00")),
+  DAY(DateTimeFormatter.ofPattern("yyyy-MM-dd EEE")),
+  WEEK(null);
+
+  private final DateTimeFormatter labelFormat;
+
+  Granularity(DateTimeFormatter labelFormat) {
+    this.labelFormat = labelFormat;
+  }
+
+  /**
+   * The start of the bucket holding {@code time}.
+   */
+  public LocalDateTime start(LocalDateTime time) {
+    return switch (this) {
+      case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+      case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+      case WEEK -> time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    };
+  }
+
+  /**
+   * The start of the bucket after the one starting at {@code start}.
+   */
+  public LocalDateTime next(LocalDateTime start) {
+    return switch (this) {
+      case HOUR -> start.plusHours(1);
+      case DAY -> start.plusDays(1);
+      case WEEK -> start.plusWeeks(1);
+    };
+  }
+
+  /**
+   * A short name for the bucket starting at {@code start}, e.g.
+   * {@code 2024-W07} for a week.
+   */
+  public String label(LocalDateTime start) {
+    if (this == WEEK) {
+      return String.format("%d-W%02d", start.get(IsoFields.WEEK_BASED_YEAR),
+          start.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    }
+    return start.format(labelFormat);
+  }
+
+  public static Granularity parse(String name) {
+    for (Granularity granularity : values()) {
+      if (granularity.name().equalsIgnoreCase(name)) {
+        return granularity;
+      }
+    }
+    return null;
+  }
+}
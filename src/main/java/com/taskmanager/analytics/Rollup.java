@@ -0,0 +1,128 @@
+package com.taskmanager.analytics;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.taskmanager.enums.Category;
+
+/**
+ * What happened to tasks during one period: how many were created and
+ * completed (by category), how long completed tasks took from creation to
+ * completion, and how tasks due in the period fared against their due date.
+ *
+ * Each event is counted in the period it happened in: a completion in the
+ * period of its {@code completedAt}, a due date in the period it falls in.
+ * Rollups of adjacent periods merge into the rollup of the combined period.
+ *
+ * Not thread-safe; {@link TaskRollups} hands out copies.
+ */
+@JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE,
+    isGetterVisibility = Visibility.NONE)
+public final class Rollup {
+  private long created;
+  private long completed;
+  private final Map<Category, Long> completedByCategory = new EnumMap<>(Category.class);
+  private long due;
+  private long dueOnTime;
+  private long dueLate;
+  private final DurationSketch leadTimes = new DurationSketch();
+
+  public long created() {
+    return created;
+  }
+
+  public long completed() {
+    return completed;
+  }
+
+  public long completedIn(Category category) {
+    return completedByCategory.getOrDefault(category, 0L);
+  }
+
+  public Map<Category, Long> completedByCategory() {
+    return Collections.unmodifiableMap(completedByCategory);
+  }
+
+  /**
+   * Tasks due in the period, completed or not.
+   */
+  public long due() {
+    return due;
+  }
+
+  /**
+   * Tasks due in the period that were completed by their due date.
+   */
+  public long dueOnTime() {
+    return dueOnTime;
+  }
+
+  /**
+   * Tasks due in the period that were completed after their due date.
+   */
+  public long dueLate() {
+    return dueLate;
+  }
+
+  /**
+   * Tasks due in the period that are still open: overdue once the period has
+   * passed.
+   */
+  public long dueOpen() {
+    return due - dueOnTime - dueLate;
+  }
+
+  /**
+   * Time from creation to completion of the tasks completed in the period.
+   */
+  public DurationSketch leadTimes() {
+    return leadTimes;
+  }
+
+  public boolean isEmpty() {
+    return created == 0 && completed == 0 && due == 0;
+  }
+
+  public void merge(Rollup other) {
+    created += other.created;
+    completed += other.completed;
+    for (Map.Entry<Category, Long> category : other.completedByCategory.entrySet()) {
+      completedByCategory.merge(category.getKey(), category.getValue(), Long::sum);
+    }
+    due += other.due;
+    dueOnTime += other.dueOnTime;
+    dueLate += other.dueLate;
+    leadTimes.merge(other.leadTimes);
+  }
+
+  // Updates, with sign -1 taking back an event counted earlier
+
+  void addCreated(int sign) {
+    created += sign;
+  }
+
+  void addCompleted(Category category, Duration leadTime, int sign) {
+    completed += sign;
+    completedByCategory.merge(category, (long) sign, (a, b) -> a + b == 0 ? null : a + b);
+    if (leadTime != null) {
+      if (sign > 0) {
+        leadTimes.add(leadTime);
+      } else {
+        leadTimes.remove(leadTime);
+      }
+    }
+  }
+
+  void addDue(boolean onTime, boolean late, int sign) {
+    due += sign;
+    if (onTime) {
+      dueOnTime += sign;
+    } else if (late) {
+      dueLate += sign;
+    }
+  }
+}
@@ -0,0 +1,396 @@
+package com.taskmanager.analytics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.interfaces.TaskRepositoryListener;
+import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskValue;
+import com.taskmanager.repositories.TaskRepository;
+import com.taskmanager.serialization.TaskJson;
+
+/**
+ * Pre-aggregated productivity statistics: per-hour, per-day and per-week
+ * {@link Rollup}s of task creations, completions, lead times and due dates,
+ * kept up to date from repository events. A report over any range merges
+ * the few buckets that tile it (whole weeks, then whole days, then hours at
+ * the edges), so its cost depends on the length of the range, not on the
+ * number of tasks.
+ *
+ * Every live task's last {@link Contribution} is remembered, so a change to
+ * a task takes back what it counted before and counts the new version, and
+ * edits that do not touch its dates, status or category cost a comparison.
+ * Archived tasks stay counted; deleted ones are taken back.
+ *
+ * The hourly rollups are saved to a {@code <store>-analytics.json} file next
+ * to the store on {@link #close()}, together with the hourly rollups of the
+ * archived tasks alone, the archive position they cover and a fingerprint of
+ * the live tasks; daily and weekly rollups are merged from the hourly ones
+ * on load. On opening, tasks archived since are read from the archive
+ * alone. If the live tasks (plus those) still match the fingerprint, the
+ * saved rollups are used as they are; if they were changed while the
+ * rollups were closed, only the live tasks are counted again, on top of the
+ * archived rollups. The archive is read in full only when the file is
+ * missing or archived tasks were deleted.
+ */
+public class TaskRollups implements TaskRepositoryListener, AutoCloseable {
+  static final int FORMAT_VERSION = 1;
+
+  record StoredState(int version, int archived, long archivePosition, long fingerprint,
+      Map<LocalDateTime, Rollup> hours, Map<LocalDateTime, Rollup> archivedHours) {
+  }
+
+  private final TaskRepository repository;
+  private final File stateFile;
+  private final Map<Granularity, NavigableMap<LocalDateTime, Rollup>> buckets = new EnumMap<>(Granularity.class);
+  // Hourly rollups of the archived tasks alone, to recount the live ones on
+  private final NavigableMap<LocalDateTime, Rollup> archivedHours = new TreeMap<>();
+  private final Map<String, Contribution> contributions = new HashMap<>();
+  private long fingerprint; // sum of the live contributions' fingerprints
+  private int archived;
+  private boolean dirty;
+  private boolean stale; // an archived task was deleted; rebuild before the next report
+  private int rebuilds;
+  private int recounts;
+
+  /**
+   * @param stateFile where rollups are saved, or null to keep them in memory
+   */
+  public TaskRollups(TaskRepository repository, File stateFile) throws TaskManagerException {
+    this.repository = repository;
+    this.stateFile = stateFile;
+    for (Granularity granularity : Granularity.values()) {
+      buckets.put(granularity, new TreeMap<>());
+    }
+    // Registered before loading, so changes made meanwhile wait for the lock
+    // and then apply on top
+    synchronized (this) {
+      repository.addListener(this);
+      open(load(stateFile));
+    }
+  }
+
+  public static File stateFileFor(File dataFile) {
+    String name = dataFile.getName();
+    String base = name.endsWith(".json") ? name.substring(0, name.length() - 5) : name;
+    return new File(dataFile.getAbsoluteFile().getParentFile(), base + "-analytics.json");
+  }
+
+  /**
+   * Everything that happened in {@code [from, to)}, rounded out to whole
+   * hours.
+   */
+  public synchronized Rollup total(LocalDateTime from, LocalDateTime to) throws TaskManagerException {
+    refreshIfStale();
+    return merged(Granularity.HOUR.start(from), ceilHour(to));
+  }
+
+  /**
+   * One rollup per {@code granularity} period overlapping
+   * {@code [from, to)}, in order and including empty periods. Periods cut by
+   * the ends of the range only count the part inside it.
+   */
+  public synchronized NavigableMap<LocalDateTime, Rollup> series(LocalDateTime from, LocalDateTime to,
+      Granularity granularity) throws TaskManagerException {
+    refreshIfStale();
+    LocalDateTime start = Granularity.HOUR.start(from);
+    LocalDateTime end = ceilHour(to);
+    NavigableMap<LocalDateTime, Rollup> series = new TreeMap<>();
+    for (LocalDateTime period = granularity.start(start); period.isBefore(end); period = granularity.next(period)) {
+      LocalDateTime periodEnd = granularity.next(period);
+      series.put(period, merged(period.isBefore(start) ? start : period, periodEnd.isAfter(end) ? end : periodEnd));
+    }
+    return series;
+  }
+
+  /**
+   * Number of live tasks counted.
+   */
+  public synchronized int trackedTasks() {
+    return contributions.size();
+  }
+
+  /**
+   * How many times everything, the archive included, was counted from
+   * scratch, e.g. when opening without a saved file.
+   */
+  public synchronized int rebuilds() {
+    return rebuilds;
+  }
+
+  /**
+   * How many times the live tasks were counted again on opening, because
+   * they were changed while the rollups were closed.
+   */
+  public synchronized int recounts() {
+    return recounts;
+  }
+
+  /**
+   * Saves the rollups if anything changed since they were loaded or last
+   * saved.
+   */
+  public synchronized void persist() throws TaskManagerException {
+    if (!dirty || stateFile == null) {
+      return;
+    }
+    StoredState state = new StoredState(FORMAT_VERSION, archived, repository.archivePosition(), fingerprint,
+        buckets.get(Granularity.HOUR), archivedHours);
+    try {
+      writeAtomically(stateFile, TaskJson.mapper().writeValueAsBytes(state));
+      dirty = false;
+    } catch (IOException e) {
+      throw new TaskManagerException("Failed to save analytics to " + stateFile, e);
+    }
+  }
+
+  /**
+   * Saves the rollups and stops following the repository.
+   */
+  @Override
+  public void close() throws TaskManagerException {
+    repository.removeListener(this);
+    persist();
+  }
+
+  // Called under the repository lock; a few bucket updates per change
+
+  @Override
+  public synchronized void onSaved(Task task) {
+    track(task.getId(), Contribution.of(task));
+  }
+
+  @Override
+  public synchronized void onDeleted(String id) {
+    Contribution previous = contributions.remove(id);
+    if (previous != null) {
+      fingerprint -= previous.fingerprint(id);
+      apply(previous, -1);
+      dirty = true;
+    } else {
+      stale = true; // an archived task, whose contribution is not kept
+    }
+  }
+
+  @Override
+  public synchronized void onArchived(Task task) {
+    Contribution previous = contributions.remove(task.getId());
+    if (previous != null) {
+      fingerprint -= previous.fingerprint(task.getId());
+      applyArchived(previous);
+      archived++;
+      dirty = true;
+    }
+  }
+
+  // Helper methods
+
+  private void track(String id, Contribution contribution) {
+    Contribution previous = contributions.put(id, contribution);
+    if (contribution.equals(previous)) {
+      return;
+    }
+    if (previous != null) {
+      fingerprint -= previous.fingerprint(id);
+      apply(previous, -1);
+    }
+    fingerprint += contribution.fingerprint(id);
+    apply(contribution, 1);
+    dirty = true;
+  }
+
+  private void apply(Contribution contribution, int sign) {
+    for (Granularity granularity : Granularity.values()) {
+      apply(buckets.get(granularity), granularity, contribution, sign);
+    }
+  }
+
+  private void applyArchived(Contribution contribution) {
+    apply(archivedHours, Granularity.HOUR, contribution, 1);
+  }
+
+  private static void apply(NavigableMap<LocalDateTime, Rollup> periods, Granularity granularity,
+      Contribution contribution, int sign) {
+    if (contribution.createdAt() != null) {
+      bucket(periods, granularity, contribution.createdAt()).addCreated(sign);
+    }
+    if (contribution.completedAt() != null) {
+      bucket(periods, granularity, contribution.completedAt())
+          .addCompleted(contribution.category(), contribution.leadTime(), sign);
+    }
+    if (contribution.dueDate() != null) {
+      bucket(periods, granularity, contribution.dueDate()).addDue(contribution.onTime(), contribution.late(), sign);
+    }
+    if (sign < 0) {
+      // Drop buckets a removal emptied, so deleted history takes no space
+      for (LocalDateTime time : new LocalDateTime[] { contribution.createdAt(), contribution.completedAt(),
+          contribution.dueDate() }) {
+        if (time != null && periods.containsKey(granularity.start(time))
+            && periods.get(granularity.start(time)).isEmpty()) {
+          periods.remove(granularity.start(time));
+        }
+      }
+    }
+  }
+
+  private static Rollup bucket(NavigableMap<LocalDateTime, Rollup> periods, Granularity granularity,
+      LocalDateTime time) {
+    return periods.computeIfAbsent(granularity.start(time), start -> new Rollup());
+  }
+
+  // Tiles [from, to) with the largest buckets that fit, both ends on hours
+  private Rollup merged(LocalDateTime from, LocalDateTime to) {
+    Rollup total = new Rollup();
+    LocalDateTime time = from;
+    while (time.isBefore(to)) {
+      Granularity granularity = Granularity.HOUR;
+      for (Granularity larger : new Granularity[] { Granularity.WEEK, Granularity.DAY }) {
+        if (larger.start(time).equals(time) && !larger.next(time).isAfter(to)) {
+          granularity = larger;
+          break;
+        }
+      }
+      Rollup rollup = buckets.get(granularity).get(time);
+      if (rollup != null) {
+        total.merge(rollup);
+      }
+      time = granularity.next(time);
+    }
+    return total;
+  }
+
+  private static LocalDateTime ceilHour(LocalDateTime time) {
+    LocalDateTime start = Granularity.HOUR.start(time);
+    return start.equals(time) ? start : start.plusHours(1);
+  }
+
+  private void refreshIfStale() throws TaskManagerException {
+    if (stale) {
+      rebuild();
+    }
+  }
+
+  /**
+   * Starts from {@code state} where it still holds, see the class comment.
+   */
+  private void open(StoredState state) throws TaskManagerException {
+    Map<String, Contribution> live = new HashMap<>();
+    long liveFingerprint = 0;
+    for (TaskValue task : repository.readView()) {
+      Contribution contribution = Contribution.of(task);
+      live.put(task.getId(), contribution);
+      liveFingerprint += contribution.fingerprint(task.getId());
+    }
+    if (state == null || state.archivePosition() > repository.archivePosition()) {
+      rebuild();
+      return;
+    }
+    List<Task> newlyArchived = repository.fetchArchivedSince(state.archivePosition());
+    if (repository.archivedCount() != state.archived() + newlyArchived.size()) {
+      rebuild(); // archived tasks were deleted
+      return;
+    }
+
+    archivedHours.putAll(state.archivedHours());
+    long savedFingerprint = liveFingerprint;
+    for (Task task : newlyArchived) {
+      Contribution contribution = Contribution.of(task);
+      applyArchived(contribution);
+      savedFingerprint += contribution.fingerprint(task.getId());
+    }
+    archived = state.archived() + newlyArchived.size();
+    contributions.putAll(live);
+    fingerprint = liveFingerprint;
+    dirty = !newlyArchived.isEmpty();
+
+    if (savedFingerprint == state.fingerprint()) {
+      // Nothing changed but some tasks moving to the archive
+      for (Map.Entry<LocalDateTime, Rollup> hour : state.hours().entrySet()) {
+        buckets.get(Granularity.HOUR).put(hour.getKey(), hour.getValue());
+        for (Granularity granularity : new Granularity[] { Granularity.DAY, Granularity.WEEK }) {
+          bucket(buckets.get(granularity), granularity, hour.getKey()).merge(hour.getValue());
+        }
+      }
+    } else {
+      countLive();
+      recounts++;
+    }
+  }
+
+  /**
+   * Fills the buckets from the archived rollups and the live contributions.
+   */
+  private void countLive() {
+    buckets.values().forEach(Map::clear);
+    for (Map.Entry<LocalDateTime, Rollup> hour : archivedHours.entrySet()) {
+      for (Granularity granularity : Granularity.values()) {
+        bucket(buckets.get(granularity), granularity, hour.getKey()).merge(hour.getValue());
+      }
+    }
+    for (Contribution contribution : contributions.values()) {
+      apply(contribution, 1);
+    }
+    dirty = true;
+  }
+
+  /**
+   * Counts every live and archived task from scratch.
+   */
+  private void rebuild() throws TaskManagerException {
+    contributions.clear();
+    fingerprint = 0;
+    for (TaskValue task : repository.readView()) {
+      Contribution contribution = Contribution.of(task);
+      contributions.put(task.getId(), contribution);
+      fingerprint += contribution.fingerprint(task.getId());
+    }
+    archivedHours.clear();
+    archived = 0;
+    for (Task task : repository.fetchArchived()) {
+      if (!contributions.containsKey(task.getId())) { // archived while we read the live tasks
+        applyArchived(Contribution.of(task));
+        archived++;
+      }
+    }
+    countLive();
+    stale = false;
+    rebuilds++;
+  }
+
+  // Rollups can always be rebuilt, so an unreadable file is not fatal
+  private static StoredState load(File stateFile) {
+    if (stateFile == null || !stateFile.exists() || stateFile.length() == 0) {
+      return null;
+    }
+    try {
+      StoredState state = TaskJson.mapper().readValue(stateFile, StoredState.class);
+      return state.version() == FORMAT_VERSION ? state : null;
+    } catch (IOException e) {
+      System.err.println("Rebuilding analytics, " + stateFile + " could not be read: " + e.getMessage());
+      return null;
+    }
+  }
+
+  private static void writeAtomically(File file, byte[] bytes) throws IOException {
+    Path target = file.toPath().toAbsolutePath();
+    Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+    Files.write(temp, bytes);
+    try {
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package com.taskmanager.commands;
+
+import com.taskmanager.errors.TaskManagerException;
+
+/**
+ * A single CLI command, registered by name in a {@link CommandRegistry}.
+ */
+@FunctionalInterface
+public interface Command {
+
+  void execute(ParsedCommand command) throws TaskManagerException;
+}
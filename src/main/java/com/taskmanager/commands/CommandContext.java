@@ -0,0 +1,15 @@
+package com.taskmanager.commands;
+
+import com.taskmanager.design.TaskFormatter;
+import com.taskmanager.services.TaskService;
+
+/**
+ * What a {@link CommandPlugin} gets to work with. The service is created on
+ * first use, so a plugin that only prints never loads the task store.
+ */
+public interface CommandContext {
+
+  TaskService taskService();
+
+  TaskFormatter formatter();
+}
@@ -0,0 +1,12 @@
+package com.taskmanager.commands;
+
+/**
+ * Adds commands to the CLI. Implementations are discovered with
+ * {@link java.util.ServiceLoader}, so a jar on the classpath with a
+ * {@code META-INF/services/com.taskmanager.commands.CommandPlugin} entry
+ * extends the shell without changes to {@code TaskManager}.
+ */
+public interface CommandPlugin {
+
+  void register(CommandRegistry registry, CommandContext context);
+}
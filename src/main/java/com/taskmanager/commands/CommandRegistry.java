@@ -0,0 +1,73 @@
+package com.taskmanager.commands;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * CommandRegistry is the CLI's dispatch table: command names map to
+ * {@link Command} handlers, and every registration also contributes a line to
+ * the help menu, in registration order.
+ */
+public class CommandRegistry {
+
+  public record HelpEntry(String usage, String description) {
+  }
+
+  private final Map<String, Command> commands = new HashMap<>();
+  private final List<HelpEntry> help = new ArrayList<>();
+
+  /**
+   * Registers a command. Names are matched case-insensitively; a name that is
+   * already taken is ignored with a warning, so a plugin cannot replace a
+   * built-in command.
+   *
+   * @return this registry, for chaining {@link #describe}
+   */
+  public CommandRegistry register(String name, Command command, String usage, String description) {
+    String key = ParsedCommand.lowerCase(name);
+    if (commands.putIfAbsent(key, command) != null) {
+      System.err.println("Ignoring command '" + name + "': the name is already registered");
+      return this;
+    }
+    help.add(new HelpEntry(usage, description));
+    return this;
+  }
+
+  /**
+   * Adds another help line, e.g. for a variant of the last registered
+   * command.
+   */
+  public CommandRegistry describe(String usage, String description) {
+    help.add(new HelpEntry(usage, description));
+    return this;
+  }
+
+  /**
+   * Registers the commands of every {@link CommandPlugin} on the classpath.
+   */
+  public void loadPlugins(CommandContext context) {
+    for (CommandPlugin plugin : ServiceLoader.load(CommandPlugin.class)) {
+      plugin.register(this, context);
+    }
+  }
+
+  /**
+   * @return the handler, or null if no command has that name
+   */
+  public Command lookup(String name) {
+    return commands.get(ParsedCommand.lowerCase(name));
+  }
+
+  public Set<String> names() {
+    return Collections.unmodifiableSet(commands.keySet());
+  }
+
+  public List<HelpEntry> helpEntries() {
+    return Collections.unmodifiableList(help);
+  }
+}
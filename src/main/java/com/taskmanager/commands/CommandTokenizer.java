@@ -0,0 +1,123 @@
+package com.taskmanager.commands;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.taskmanager.errors.TaskManagerException;
+
+/**
+ * CommandTokenizer splits a command line in a single pass without regular
+ * expressions.
+ *
+ * <ul>
+ * <li>Whitespace separates tokens; runs of whitespace count as one.</li>
+ * <li>Double quotes group text and allow {@code \"} and {@code \\} escapes;
+ * single quotes group text literally. Double quotes may start mid-token, so
+ * {@code description="two words"} is one option.</li>
+ * <li>A single quote only starts a quote at the start of a token, after
+ * {@code =} or right after another quoted part, and only if it is closed
+ * later; otherwise it is an apostrophe, so {@code add Don't forget} needs no
+ * quoting.</li>
+ * <li>Outside quotes a backslash escapes the next character.</li>
+ * </ul>
+ */
+public final class CommandTokenizer {
+
+  private CommandTokenizer() {
+  }
+
+  /**
+   * Tokenizes a command line.
+   *
+   * @throws TaskManagerException if a double quote is not closed
+   */
+  public static ParsedCommand parse(String input) throws TaskManagerException {
+    String name = null;
+    List<String> tokens = new ArrayList<>(8);
+    List<String> arguments = new ArrayList<>(8);
+    Map<String, String> options = null;
+
+    int length = input.length();
+    int lastSingleQuote = -2; // looked up once a token needs the slow path
+    int i = 0;
+    while (i < length) {
+      char c = input.charAt(i);
+      if (isSpace(c)) {
+        i++;
+        continue;
+      }
+
+      // Fast path: a plain word is a substring of the input
+      int start = i;
+      while (i < length && !isSpace(c = input.charAt(i)) && c != '"' && c != '\'' && c != '\\') {
+        i++;
+      }
+      String token;
+      int unquotedPrefix = -1; // length of the token before its first quote
+      if (i == length || isSpace(c)) {
+        token = input.substring(start, i);
+      } else {
+        StringBuilder current = new StringBuilder(input.length() - start).append(input, start, i);
+        if (lastSingleQuote == -2) {
+          lastSingleQuote = input.lastIndexOf('\'');
+        }
+        char quote = 0;
+        int closedAt = -1;
+        for (; i < length; i++) {
+          c = input.charAt(i);
+          if (quote != 0) {
+            if (c == quote) {
+              quote = 0;
+              closedAt = i + 1;
+            } else if (c == '\\' && quote == '"' && i + 1 < length
+                && (input.charAt(i + 1) == '"' || input.charAt(i + 1) == '\\')) {
+              current.append(input.charAt(++i));
+            } else {
+              current.append(c);
+            }
+          } else if (isSpace(c)) {
+            break;
+          } else if (c == '"' || (c == '\'' && lastSingleQuote > i
+              && (i == start || i == closedAt || input.charAt(i - 1) == '='))) {
+            quote = c;
+            if (unquotedPrefix < 0) {
+              unquotedPrefix = current.length();
+            }
+          } else if (c == '\\' && i + 1 < length) {
+            current.append(input.charAt(++i));
+          } else {
+            current.append(c);
+          }
+        }
+        if (quote != 0) {
+          // Only a double quote can be left open: a single one is checked first
+          throw new TaskManagerException("Unterminated double quote in command");
+        }
+        token = current.toString();
+      }
+
+      if (name == null) {
+        name = token;
+        continue;
+      }
+      tokens.add(token);
+      int eq = ParsedCommand.optionKeyEnd(token, unquotedPrefix < 0 ? token.length() : unquotedPrefix);
+      if (eq > 0) {
+        if (options == null) {
+          options = new LinkedHashMap<>();
+        }
+        options.put(ParsedCommand.lowerCase(token.substring(0, eq)), token.substring(eq + 1));
+      } else {
+        arguments.add(token);
+      }
+    }
+    return new ParsedCommand(name == null ? "" : ParsedCommand.lowerCase(name), tokens, arguments,
+        options == null ? Map.of() : options);
+  }
+
+  private static boolean isSpace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+  }
+}
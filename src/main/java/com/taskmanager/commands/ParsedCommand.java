@@ -0,0 +1,189 @@
+package com.taskmanager.commands;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A tokenized command line: the command name, every token after it (quotes
+ * removed), and those tokens split into positional arguments and
+ * {@code key=value} options.
+ *
+ * A token counts as an option when it has an unquoted key made of letters,
+ * digits, '-' or '_' before its first '='. Handlers that take free-form text
+ * containing '=' (such as recurrence rules) read {@link #tokens()} instead.
+ */
+public final class ParsedCommand {
+  private final String name;
+  private final List<String> tokens;
+  private final List<String> arguments;
+  private final Map<String, String> options;
+
+  ParsedCommand(String name, List<String> tokens, List<String> arguments, Map<String, String> options) {
+    this.name = name;
+    this.tokens = tokens;
+    this.arguments = arguments;
+    this.options = options;
+  }
+
+  /**
+   * Builds a command from already separated words, e.g. {@code main} method
+   * arguments whose quoting was handled by the shell.
+   */
+  public static ParsedCommand of(String... words) {
+    if (words.length == 0) {
+      return new ParsedCommand("", List.of(), List.of(), Map.of());
+    }
+    List<String> tokens = new ArrayList<>(words.length - 1);
+    List<String> arguments = new ArrayList<>(words.length - 1);
+    Map<String, String> options = new LinkedHashMap<>();
+    for (int i = 1; i < words.length; i++) {
+      tokens.add(words[i]);
+      int eq = optionKeyEnd(words[i], words[i].length());
+      if (eq > 0) {
+        options.put(lowerCase(words[i].substring(0, eq)), words[i].substring(eq + 1));
+      } else {
+        arguments.add(words[i]);
+      }
+    }
+    return new ParsedCommand(lowerCase(words[0]), tokens, arguments, options);
+  }
+
+  /**
+   * The command name, lower-cased.
+   */
+  public String name() {
+    return name;
+  }
+
+  /**
+   * Every token after the command name, options included, in order.
+   */
+  public List<String> tokens() {
+    return Collections.unmodifiableList(tokens);
+  }
+
+  public int tokenCount() {
+    return tokens.size();
+  }
+
+  /**
+   * Positional arguments, i.e. tokens that are not {@code key=value} options.
+   */
+  public List<String> arguments() {
+    return Collections.unmodifiableList(arguments);
+  }
+
+  public int argumentCount() {
+    return arguments.size();
+  }
+
+  /**
+   * @return the positional argument at {@code index}, or null if absent
+   */
+  public String argument(int index) {
+    return index < arguments.size() ? arguments.get(index) : null;
+  }
+
+  /**
+   * Joins the positional arguments from {@code from} on with single spaces,
+   * e.g. an unquoted multi-word title.
+   */
+  public String joinArguments(int from) {
+    return join(arguments, from);
+  }
+
+  /**
+   * Joins all tokens from {@code from} on with single spaces.
+   */
+  public String joinTokens(int from) {
+    return join(tokens, from);
+  }
+
+  /**
+   * @param key option name, matched case-insensitively
+   * @return the option value, or null if it was not given
+   */
+  public String option(String key) {
+    return options.get(lowerCase(key));
+  }
+
+  public Map<String, String> options() {
+    return Collections.unmodifiableMap(options);
+  }
+
+  /**
+   * Whether a bare token such as {@code --archived} was given.
+   */
+  public boolean hasFlag(String flag) {
+    return arguments.contains(flag);
+  }
+
+  /**
+   * Returns the value of a flag written either as {@code --flag value} or
+   * {@code --flag=value}.
+   *
+   * @return the value, or null if the flag was not given with a value
+   */
+  public String flagValue(String flag) {
+    String inline = options.get(lowerCase(flag));
+    if (inline != null) {
+      return inline;
+    }
+    int index = arguments.indexOf(flag);
+    return index >= 0 && index + 1 < arguments.size() ? arguments.get(index + 1) : null;
+  }
+
+  // Helper methods
+
+  private static String join(List<String> words, int from) {
+    if (from >= words.size()) {
+      return "";
+    }
+    if (from == words.size() - 1) {
+      return words.get(from);
+    }
+    StringBuilder sb = new StringBuilder();
+    for (int i = from; i < words.size(); i++) {
+      if (i > from) {
+        sb.append(' ');
+      }
+      sb.append(words.get(i));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Returns the index of the '=' ending a valid option key within the first
+   * {@code limit} characters, or -1.
+   */
+  static int optionKeyEnd(CharSequence token, int limit) {
+    for (int i = 0; i < limit; i++) {
+      char c = token.charAt(i);
+      if (c == '=') {
+        return i > 0 ? i : -1;
+      }
+      if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '-' || c == '_')) {
+        return -1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * ASCII lower-casing that returns the same instance when nothing changes,
+   * which is the common case for typed commands.
+   */
+  static String lowerCase(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c >= 'A' && c <= 'Z' || c > 127) {
+        return value.toLowerCase(Locale.ROOT);
+      }
+    }
+    return value;
+  }
+}
@@ -0,0 +1,22 @@
+package com.taskmanager.compression;
+
+import java.io.IOException;
+
+/**
+ * A block compression codec. Each block is compressed independently, so a
+ * file made of blocks can be decoded as a stream or in parallel.
+ *
+ * Implementations are registered in {@link BlockCodecs}; third-party codecs
+ * (LZ4, Zstd, ...) can be added through {@link java.util.ServiceLoader} by
+ * listing them in {@code META-INF/services/com.taskmanager.compression.BlockCodec}.
+ * The id is written into every block, so it must be unique and stable.
+ */
+public interface BlockCodec {
+  byte id();
+
+  String name();
+
+  byte[] compress(byte[] raw) throws IOException;
+
+  byte[] decompress(byte[] compressed, int rawLength) throws IOException;
+}
@@ -0,0 +1,84 @@
+package com.taskmanager.compression;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.zip.Deflater;
+
+import com.taskmanager.errors.TaskManagerException;
+
+/**
+ * Registry of available {@link BlockCodec}s: the built-in ones plus any found
+ * through {@link ServiceLoader}.
+ */
+public final class BlockCodecs {
+  public static final String SNAPSHOT_CODEC_PROPERTY = "taskmanager.snapshot.codec";
+  public static final String ARCHIVE_CODEC_PROPERTY = "taskmanager.archive.codec";
+
+  private static final Map<String, BlockCodec> BY_NAME = new LinkedHashMap<>();
+  private static final BlockCodec[] BY_ID = new BlockCodec[256];
+
+  static {
+    register(new IdentityCodec());
+    register(new DeflateCodec(DeflateCodec.DEFAULT_ID, "deflate", Deflater.DEFAULT_COMPRESSION));
+    register(new DeflateCodec(DeflateCodec.FAST_ID, "deflate-fast", Deflater.BEST_SPEED));
+    for (BlockCodec codec : ServiceLoader.load(BlockCodec.class)) {
+      register(codec);
+    }
+  }
+
+  private BlockCodecs() {
+  }
+
+  private static void register(BlockCodec codec) {
+    int slot = codec.id() & 0xFF;
+    if (BY_ID[slot] != null) {
+      System.err.println("Ignoring codec '" + codec.name() + "': id " + slot + " is taken by '"
+          + BY_ID[slot].name() + "'");
+      return;
+    }
+    BY_ID[slot] = codec;
+    BY_NAME.put(codec.name(), codec);
+  }
+
+  public static BlockCodec byName(String name) throws TaskManagerException {
+    BlockCodec codec = BY_NAME.get(name);
+    if (codec == null) {
+      throw new TaskManagerException("Unknown compression codec '" + name + "', available: " + BY_NAME.keySet());
+    }
+    return codec;
+  }
+
+  public static BlockCodec byId(byte id) throws TaskManagerException {
+    BlockCodec codec = BY_ID[id & 0xFF];
+    if (codec == null) {
+      throw new TaskManagerException("No compression codec registered with id " + (id & 0xFF));
+    }
+    return codec;
+  }
+
+  public static BlockCodec defaultCodec() {
+    return BY_ID[DeflateCodec.DEFAULT_ID];
+  }
+
+  public static Collection<BlockCodec> all() {
+    return BY_NAME.values();
+  }
+
+  /**
+   * Codec for task snapshots, or null to keep writing plain JSON (the default,
+   * so existing tasks.json files stay human-readable unless configured).
+   */
+  public static BlockCodec snapshotCodec() throws TaskManagerException {
+    String name = System.getProperty(SNAPSHOT_CODEC_PROPERTY);
+    return name == null || name.equals("json") ? null : byName(name);
+  }
+
+  /**
+   * Codec for archive segments, {@code deflate} unless configured.
+   */
+  public static BlockCodec archiveCodec() throws TaskManagerException {
+    return byName(System.getProperty(ARCHIVE_CODEC_PROPERTY, "deflate"));
+  }
+}
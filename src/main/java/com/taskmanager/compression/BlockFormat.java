@@ -0,0 +1,106 @@
+package com.taskmanager.compression;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.zip.CRC32;
+
+import com.taskmanager.errors.TaskManagerException;
+
+/**
+ * Layout of a single compressed block, shared by snapshots and archive
+ * segments:
+ *
+ * <pre>
+ * int   magic
+ * byte  codec id
+ * int   raw length
+ * int   compressed length
+ * int   CRC32 of the raw bytes
+ * byte[compressed length] payload
+ * </pre>
+ *
+ * Reading a block ({@link #read}) only does I/O; decoding ({@link #decode})
+ * is CPU work that can run on another thread. Lengths read from disk are
+ * checked against {@link #MAX_BLOCK_BYTES} before anything is allocated, so
+ * a corrupt header fails as an {@link IOException}.
+ */
+public final class BlockFormat {
+  public static final int BLOCK_MAGIC = 0x544D424B; // "TMBK"
+  public static final int HEADER_BYTES = 17;
+  // Far above any block written in practice, far below what would exhaust the heap
+  public static final int MAX_BLOCK_BYTES = 256 * 1024 * 1024;
+
+  private BlockFormat() {
+  }
+
+  /**
+   * A block as read from disk, not yet decompressed.
+   */
+  public record RawBlock(byte codecId, int rawLength, int checksum, byte[] payload) {
+  }
+
+  /**
+   * Compresses and writes one block.
+   *
+   * @return the number of bytes written
+   */
+  public static int write(DataOutput out, BlockCodec codec, byte[] raw) throws IOException {
+    if (raw.length > MAX_BLOCK_BYTES) {
+      throw new IOException("Block of " + raw.length + " bytes exceeds the limit of " + MAX_BLOCK_BYTES);
+    }
+    byte[] payload = codec.compress(raw);
+    out.writeInt(BLOCK_MAGIC);
+    out.writeByte(codec.id());
+    out.writeInt(raw.length);
+    out.writeInt(payload.length);
+    out.writeInt(checksum(raw));
+    out.write(payload);
+    return HEADER_BYTES + payload.length;
+  }
+
+  public static RawBlock read(DataInput in) throws IOException {
+    int magic = in.readInt();
+    if (magic != BLOCK_MAGIC) {
+      throw new IOException("Not a task block (magic " + Integer.toHexString(magic) + ")");
+    }
+    byte codecId = in.readByte();
+    int rawLength = checkLength(in.readInt(), "raw");
+    byte[] payload = new byte[checkLength(in.readInt(), "compressed")];
+    int checksum = in.readInt();
+    in.readFully(payload);
+    return new RawBlock(codecId, rawLength, checksum, payload);
+  }
+
+  public static byte[] decode(RawBlock block) throws IOException {
+    BlockCodec codec;
+    try {
+      codec = BlockCodecs.byId(block.codecId());
+    } catch (TaskManagerException e) {
+      throw new IOException(e.getMessage(), e);
+    }
+    byte[] raw = codec.decompress(block.payload(), block.rawLength());
+    if (checksum(raw) != block.checksum()) {
+      throw new IOException("Checksum mismatch in " + codec.name() + " block");
+    }
+    return raw;
+  }
+
+  /**
+   * Rejects a block length that is negative or above
+   * {@link #MAX_BLOCK_BYTES}, as only a corrupt file holds one.
+   */
+  public static int checkLength(int length, String kind) throws IOException {
+    if (length < 0 || length > MAX_BLOCK_BYTES) {
+      throw new IOException("Corrupt block: " + kind + " length " + Integer.toUnsignedString(length)
+          + " is out of range");
+    }
+    return length;
+  }
+
+  private static int checksum(byte[] raw) {
+    CRC32 crc = new CRC32();
+    crc.update(raw);
+    return (int) crc.getValue();
+  }
+}
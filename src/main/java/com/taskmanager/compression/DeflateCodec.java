@@ -0,0 +1,89 @@
+package com.taskmanager.compression;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Raw Deflate from the JDK ({@link Deflater}/{@link Inflater}). Two levels are
+ * registered: {@code deflate} (default level, smaller files) and
+ * {@code deflate-fast} (level 1, faster saves).
+ */
+public final class DeflateCodec implements BlockCodec {
+  public static final byte DEFAULT_ID = 1;
+  public static final byte FAST_ID = 2;
+  // Deflate cannot expand data by more than about this factor
+  private static final int MAX_RATIO = 1032;
+
+  private final byte id;
+  private final String name;
+  private final int level;
+
+  public DeflateCodec(byte id, String name, int level) {
+    this.id = id;
+    this.name = name;
+    this.level = level;
+  }
+
+  @Override
+  public byte id() {
+    return id;
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public byte[] compress(byte[] raw) {
+    Deflater deflater = new Deflater(level, true);
+    try {
+      deflater.setInput(raw);
+      deflater.finish();
+      byte[] buffer = new byte[Math.max(64, raw.length / 3)];
+      int length = 0;
+      while (!deflater.finished()) {
+        if (length == buffer.length) {
+          buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        length += deflater.deflate(buffer, length, buffer.length - length);
+      }
+      return Arrays.copyOf(buffer, length);
+    } finally {
+      deflater.end();
+    }
+  }
+
+  @Override
+  public byte[] decompress(byte[] compressed, int rawLength) throws IOException {
+    BlockFormat.checkLength(rawLength, "raw");
+    if (rawLength > (long) compressed.length * MAX_RATIO + MAX_RATIO) {
+      throw new IOException("Corrupt deflate block: " + compressed.length + " bytes cannot inflate to "
+          + rawLength);
+    }
+    Inflater inflater = new Inflater(true);
+    try {
+      inflater.setInput(compressed);
+      byte[] raw = new byte[rawLength];
+      int length = 0;
+      while (length < rawLength && !inflater.finished()) {
+        int read = inflater.inflate(raw, length, rawLength - length);
+        if (read == 0 && inflater.needsInput()) {
+          break;
+        }
+        length += read;
+      }
+      if (length != rawLength) {
+        throw new IOException("Block inflated to " + length + " bytes, expected " + rawLength);
+      }
+      return raw;
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupt deflate block", e);
+    } finally {
+      inflater.end();
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.taskmanager.compression;
+
+/**
+ * Stores blocks as-is. Useful as a baseline and for already small blocks.
+ */
+public final class IdentityCodec implements BlockCodec {
+  public static final byte ID = 0;
+
+  @Override
+  public byte id() {
+    return ID;
+  }
+
+  @Override
+  public String name() {
+    return "none";
+  }
+
+  @Override
+  public byte[] compress(byte[] raw) {
+    return raw;
+  }
+
+  @Override
+  public byte[] decompress(byte[] compressed, int rawLength) {
+    return compressed;
+  }
+}
@@ -0,0 +1,257 @@
+package com.taskmanager.design;
+
+import java.io.PrintStream;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import com.taskmanager.interfaces.TaskRepositoryListener;
+import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskValue;
+import com.taskmanager.repositories.TaskReadView;
+
+/**
+ * A live view of the store for the {@code watch} command: the statistics,
+ * a progress bar and the most recently changed tasks, kept up to date while
+ * other threads (an import, an API, replication) change tasks.
+ *
+ * Changes only mark the dashboard dirty and remember which task changed, so
+ * thousands of changes per second cost the writers next to nothing. A render
+ * thread draws at most {@code framesPerSecond} frames, each from a read view
+ * of the store taken without locking, into a {@link ScreenBuffer}, and
+ * writes only the cells that differ from the frame on screen.
+ *
+ * The dashboard must be registered as a listener of the repository it
+ * shows for as long as it runs.
+ */
+public class Dashboard implements TaskRepositoryListener, AutoCloseable {
+  public static final int DEFAULT_FRAME_RATE = 10;
+  static final int DEFAULT_ROWS = 30;
+  static final int DEFAULT_COLUMNS = 100;
+
+  private static final DateTimeFormatter CLOCK = DateTimeFormatter.ofPattern("HH:mm:ss");
+  private static final int PROGRESS_WIDTH = 40;
+
+  /**
+   * @param frames     frames drawn, i.e. frames in which something changed
+   * @param characters escape sequences and text written for them
+   * @param changes    task changes seen
+   */
+  public record Stats(long frames, long characters, long changes) {
+    public double charactersPerFrame() {
+      return frames == 0 ? 0 : (double) characters / frames;
+    }
+  }
+
+  private final Supplier<TaskReadView> views;
+  private final TaskFormatter formatter;
+  private final PrintStream out;
+  private final int rows;
+  private final int columns;
+  private final long frameNanos;
+  private final AtomicBoolean dirty = new AtomicBoolean(true);
+  private final AtomicLong changes = new AtomicLong();
+  // Ids of the latest changed tasks, oldest first
+  private final LinkedHashSet<String> recent = new LinkedHashSet<>();
+  private ScreenBuffer screen;
+  private Thread renderer;
+  private volatile boolean running;
+  private long frames;
+  private long characters;
+  private long rateStart = System.nanoTime();
+  private long rateChanges;
+  private long changesPerSecond;
+  private String drawnSecond = "";
+
+  /**
+   * @param views supplies the current contents of the store, e.g.
+   *              {@code TaskService::readTaskView}
+   */
+  public Dashboard(Supplier<TaskReadView> views, TaskFormatter formatter, PrintStream out, int framesPerSecond) {
+    this(views, formatter, out, framesPerSecond, terminalRows(), terminalColumns());
+  }
+
+  Dashboard(Supplier<TaskReadView> views, TaskFormatter formatter, PrintStream out, int framesPerSecond, int rows,
+      int columns) {
+    this.views = views;
+    this.formatter = formatter;
+    this.out = out;
+    this.rows = rows;
+    this.columns = columns;
+    this.frameNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, framesPerSecond);
+  }
+
+  /**
+   * Starts drawing; the dashboard takes over the screen until
+   * {@link #close()}.
+   */
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    out.print(ScreenBuffer.ESC + "?25l"); // hide the cursor
+    renderer = new Thread(this::renderLoop, "dashboard-renderer");
+    renderer.setDaemon(true);
+    renderer.start();
+  }
+
+  @Override
+  public void close() {
+    Thread thread;
+    synchronized (this) {
+      if (!running) {
+        return;
+      }
+      running = false;
+      thread = renderer;
+      renderer = null;
+    }
+    LockSupport.unpark(thread);
+    try {
+      thread.join(TimeUnit.NANOSECONDS.toMillis(frameNanos) + 1_000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    // Leave the cursor below the dashboard so the prompt follows it
+    out.print(ScreenBuffer.ESC + rows + ";1H\n" + ScreenBuffer.ESC + "?25h");
+    out.flush();
+  }
+
+  public synchronized Stats stats() {
+    return new Stats(frames, characters, changes.get());
+  }
+
+  // Called under the repository lock, so only records what changed
+
+  @Override
+  public void onSaved(Task task) {
+    synchronized (recent) {
+      recent.remove(task.getId());
+      recent.add(task.getId());
+      if (recent.size() > rows) {
+        Iterator<String> oldest = recent.iterator();
+        oldest.next();
+        oldest.remove();
+      }
+    }
+    changes.incrementAndGet();
+    dirty.set(true);
+  }
+
+  @Override
+  public void onDeleted(String id) {
+    synchronized (recent) {
+      recent.remove(id);
+    }
+    changes.incrementAndGet();
+    dirty.set(true);
+  }
+
+  // Helper methods
+
+  private void renderLoop() {
+    while (running) {
+      long frameStart = System.nanoTime();
+      renderFrame();
+      long remaining = frameNanos - (System.nanoTime() - frameStart);
+      if (remaining > 0) {
+        LockSupport.parkNanos(remaining);
+      }
+    }
+  }
+
+  /**
+   * Draws a frame if anything changed since the last one and writes the
+   * difference to the output.
+   *
+   * @return what was written, empty if nothing
+   */
+  synchronized String renderFrame() {
+    long now = System.nanoTime();
+    if (now - rateStart >= TimeUnit.SECONDS.toNanos(1)) {
+      long seen = changes.get();
+      changesPerSecond = (seen - rateChanges) * TimeUnit.SECONDS.toNanos(1) / (now - rateStart);
+      rateChanges = seen;
+      rateStart = now;
+    }
+    String second = LocalTime.now().format(CLOCK);
+    if (!dirty.getAndSet(false) && second.equals(drawnSecond)) {
+      return "";
+    }
+    drawnSecond = second;
+
+    ScreenBuffer next = screen == null ? new ScreenBuffer(rows, columns) : screen.blank();
+    List<String> lines = frameLines(views.get(), second);
+    for (int row = 0; row < lines.size() && row < rows; row++) {
+      next.setLine(row, lines.get(row));
+    }
+    String diff = next.diff(screen);
+    screen = next;
+    if (!diff.isEmpty()) {
+      out.print(diff);
+      out.flush();
+      frames++;
+      characters += diff.length();
+    }
+    return diff;
+  }
+
+  private List<String> frameLines(TaskReadView view, String clock) {
+    TaskFormatter.StatsCounts counts = TaskFormatter.StatsCounts.of(view, TaskValue::getStatus,
+        TaskValue::getPriority);
+    List<String> lines = new ArrayList<>(rows);
+    lines.add(formatter.BOLD + "Task Manager" + formatter.RESET + "  " + clock + "  "
+        + changesPerSecond + " changes/s");
+    for (String line : formatter.formatStats(counts).split("\n")) {
+      lines.add(line);
+    }
+    lines.add(formatter.formatProgressBar((int) counts.completed(), (int) counts.total(), PROGRESS_WIDTH));
+    lines.add("");
+    lines.add(formatter.BOLD + "Recently changed" + formatter.RESET);
+
+    int room = rows - lines.size() - 1;
+    List<String> latest;
+    synchronized (recent) {
+      latest = new ArrayList<>(recent);
+    }
+    for (int i = latest.size() - 1; i >= 0 && room > 0; i--) {
+      TaskValue task = view.find(latest.get(i)).orElse(null);
+      if (task != null) {
+        lines.add(formatter.formatTask(task));
+        room--;
+      }
+    }
+    while (lines.size() < rows - 1) {
+      lines.add("");
+    }
+    lines.add(formatter.formatInfo("Press Enter to stop"));
+    return lines;
+  }
+
+  private static int terminalRows() {
+    return dimension("LINES", DEFAULT_ROWS);
+  }
+
+  private static int terminalColumns() {
+    return dimension("COLUMNS", DEFAULT_COLUMNS);
+  }
+
+  // Shells keep these up to date but do not always export them
+  private static int dimension(String variable, int fallback) {
+    try {
+      String value = System.getenv(variable);
+      return value == null ? fallback : Math.max(10, Integer.parseInt(value.trim()));
+    } catch (NumberFormatException e) {
+      return fallback;
+    }
+  }
+}
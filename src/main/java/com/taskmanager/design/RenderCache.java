@@ -0,0 +1,141 @@
+package com.taskmanager.design;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import com.taskmanager.interfaces.TaskRepositoryListener;
+import com.taskmanager.models.Task;
+
+/**
+ * RenderCache keeps the formatted list row and detail block of recently shown
+ * tasks, so that listing an unchanged store again mostly concatenates strings
+ * instead of re-running the badge, date and {@code String.format} work for
+ * every row.
+ *
+ * Entries are keyed by task id and checked against {@link Task#getUpdatedAt()}.
+ * Edits that keep the timestamp (status changes, dependency changes) are
+ * caught by registering the cache as a repository listener, which drops the
+ * entry of every saved, deleted or archived task. The least recently used
+ * entries are evicted beyond the capacity.
+ */
+public final class RenderCache implements TaskRepositoryListener {
+  public static final String CAPACITY_PROPERTY = "taskmanager.render.cache";
+  public static final int DEFAULT_CAPACITY = 4096;
+
+  /**
+   * Counters since the cache was created.
+   */
+  public record Stats(long hits, long misses, long invalidations, long evictions, int size, int capacity) {
+    public double hitRate() {
+      long lookups = hits + misses;
+      return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+  }
+
+  private static final class Entry {
+    final LocalDateTime updatedAt;
+    String row;
+    String details;
+
+    Entry(LocalDateTime updatedAt) {
+      this.updatedAt = updatedAt;
+    }
+  }
+
+  private final int capacity;
+  private final Map<String, Entry> entries;
+  private long hits;
+  private long misses;
+  private long invalidations;
+  private long evictions;
+
+  public RenderCache(int capacity) {
+    this.capacity = capacity;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        if (size() > RenderCache.this.capacity) {
+          evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * A cache sized by the {@code taskmanager.render.cache} system property,
+   * or null when it is 0 or less (caching disabled).
+   */
+  public static RenderCache fromSystemProperties() {
+    int capacity = Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY);
+    return capacity > 0 ? new RenderCache(capacity) : null;
+  }
+
+  public synchronized String row(Task task, Function<Task, String> render) {
+    return row(task.getId(), task.getUpdatedAt(), task, render);
+  }
+
+  /**
+   * Like {@link #row(Task, Function)} for any form of a task, such as the
+   * values of a read view, which are cached under the same entries.
+   */
+  public synchronized <T> String row(String id, LocalDateTime updatedAt, T task, Function<T, String> render) {
+    Entry entry = entryFor(id, updatedAt);
+    if (entry.row == null) {
+      misses++;
+      entry.row = render.apply(task);
+    } else {
+      hits++;
+    }
+    return entry.row;
+  }
+
+  public synchronized String details(Task task, Function<Task, String> render) {
+    Entry entry = entryFor(task.getId(), task.getUpdatedAt());
+    if (entry.details == null) {
+      misses++;
+      entry.details = render.apply(task);
+    } else {
+      hits++;
+    }
+    return entry.details;
+  }
+
+  public synchronized Stats stats() {
+    return new Stats(hits, misses, invalidations, evictions, entries.size(), capacity);
+  }
+
+  public synchronized void clear() {
+    invalidations += entries.size();
+    entries.clear();
+  }
+
+  @Override
+  public synchronized void onSaved(Task task) {
+    invalidate(task.getId());
+  }
+
+  @Override
+  public synchronized void onDeleted(String id) {
+    invalidate(id);
+  }
+
+  private void invalidate(String id) {
+    if (entries.remove(id) != null) {
+      invalidations++;
+    }
+  }
+
+  private Entry entryFor(String id, LocalDateTime updatedAt) {
+    Entry entry = entries.get(id);
+    if (entry == null || !Objects.equals(entry.updatedAt, updatedAt)) {
+      entry = new Entry(updatedAt);
+      entries.put(id, entry);
+    }
+    return entry;
+  }
+}
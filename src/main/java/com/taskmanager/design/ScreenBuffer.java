@@ -0,0 +1,217 @@
+package com.taskmanager.design;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A virtual terminal screen: a grid of cells, each a character and the ANSI
+ * style it is drawn in. A frame is drawn into a buffer line by line, as
+ * formatted text with color codes, and {@link #diff} then produces the
+ * escape sequences that turn the screen showing one frame into the next,
+ * moving the cursor only to the cells that changed. Redrawing a dashboard
+ * where one counter changed costs a few bytes instead of a whole screen,
+ * and the terminal never flickers through a cleared screen.
+ *
+ * Every character takes one column; wide characters are not supported.
+ */
+public final class ScreenBuffer {
+  static final String ESC = "\u001B[";
+  static final String RESET = ESC + "0m";
+  // Unchanged cells shorter than this between two changes are rewritten
+  // rather than skipped, which is cheaper than a cursor move
+  private static final int MIN_SKIP = 6;
+
+  private final int rows;
+  private final int columns;
+  private final int[] chars;
+  private final int[] styles;
+  // Style 0 is the terminal default; the others are runs of SGR sequences
+  private final List<String> styleTable;
+  private final Map<String, Integer> styleIds;
+
+  public ScreenBuffer(int rows, int columns) {
+    this(rows, columns, new ArrayList<>(List.of("")), new HashMap<>(Map.of("", 0)));
+  }
+
+  private ScreenBuffer(int rows, int columns, List<String> styleTable, Map<String, Integer> styleIds) {
+    this.rows = rows;
+    this.columns = columns;
+    this.chars = new int[rows * columns];
+    this.styles = new int[rows * columns];
+    this.styleTable = styleTable;
+    this.styleIds = styleIds;
+    clear();
+  }
+
+  /**
+   * A blank buffer of the same size sharing this one's styles, to draw the
+   * next frame into.
+   */
+  public ScreenBuffer blank() {
+    return new ScreenBuffer(rows, columns, styleTable, styleIds);
+  }
+
+  public int rows() {
+    return rows;
+  }
+
+  public int columns() {
+    return columns;
+  }
+
+  public void clear() {
+    Arrays.fill(chars, ' ');
+    Arrays.fill(styles, 0);
+  }
+
+  /**
+   * Draws formatted text on {@code row}, replacing what was there. Color
+   * codes set the style of the following cells; text beyond the last
+   * column is cut off and the rest of the row is blanked.
+   */
+  public void setLine(int row, String text) {
+    if (row < 0 || row >= rows) {
+      return;
+    }
+    int offset = row * columns;
+    int column = 0;
+    int style = 0;
+    StringBuilder sgr = new StringBuilder();
+    int i = 0;
+    while (i < text.length() && column < columns) {
+      char c = text.charAt(i);
+      if (c == '\u001B') {
+        int end = sequenceEnd(text, i);
+        if (end > 0) {
+          String sequence = text.substring(i, end);
+          if (sequence.equals(RESET)) {
+            sgr.setLength(0);
+          } else {
+            sgr.append(sequence);
+          }
+          style = styleId(sgr.toString());
+          i = end;
+          continue;
+        }
+        i++; // a stray escape is not drawn
+        continue;
+      }
+      int codePoint = text.codePointAt(i);
+      i += Character.charCount(codePoint);
+      if (codePoint == '\n' || codePoint == '\r') {
+        break;
+      }
+      chars[offset + column] = codePoint == '\t' ? ' ' : codePoint;
+      styles[offset + column] = style;
+      column++;
+    }
+    for (; column < columns; column++) {
+      chars[offset + column] = ' ';
+      styles[offset + column] = 0;
+    }
+  }
+
+  /**
+   * Escape sequences that change a terminal showing {@code previous} into
+   * one showing this buffer, or that paint the whole screen if
+   * {@code previous} is null or of a different size. Empty if nothing
+   * changed.
+   */
+  public String diff(ScreenBuffer previous) {
+    StringBuilder out = new StringBuilder();
+    boolean full = previous == null || previous.rows != rows || previous.columns != columns;
+    if (full) {
+      out.append(ESC).append("2J");
+    }
+    int currentStyle = 0; // every diff leaves the terminal in the default style
+    int cursorRow = -1;
+    int cursorColumn = -1;
+    for (int row = 0; row < rows; row++) {
+      int offset = row * columns;
+      int column = 0;
+      while (column < columns) {
+        if (!full && same(previous, offset + column)) {
+          column++;
+          continue;
+        }
+        // The end of this run of changes, bridging short unchanged gaps
+        int end = column + 1;
+        int unchanged = 0;
+        while (end < columns && (full || unchanged < MIN_SKIP)) {
+          if (!full && same(previous, offset + end)) {
+            unchanged++;
+          } else {
+            unchanged = 0;
+          }
+          end++;
+        }
+        end -= unchanged;
+        if (row != cursorRow || column != cursorColumn) {
+          out.append(ESC).append(row + 1).append(';').append(column + 1).append('H');
+        }
+        for (int cell = column; cell < end; cell++) {
+          int style = styles[offset + cell];
+          if (style != currentStyle) {
+            out.append(RESET).append(styleTable.get(style));
+            currentStyle = style;
+          }
+          out.appendCodePoint(chars[offset + cell]);
+        }
+        cursorRow = row;
+        cursorColumn = end;
+        column = end;
+      }
+    }
+    if (currentStyle > 0) {
+      out.append(RESET);
+    }
+    return out.toString();
+  }
+
+  /**
+   * The text of {@code row} without styles, trailing blanks removed.
+   */
+  public String textOf(int row) {
+    StringBuilder sb = new StringBuilder(columns);
+    for (int column = 0; column < columns; column++) {
+      sb.appendCodePoint(chars[row * columns + column]);
+    }
+    return sb.toString().stripTrailing();
+  }
+
+  // Helper methods
+
+  private boolean same(ScreenBuffer previous, int cell) {
+    if (chars[cell] != previous.chars[cell]) {
+      return false;
+    }
+    return previous.styleTable == styleTable ? styles[cell] == previous.styles[cell]
+        : styleTable.get(styles[cell]).equals(previous.styleTable.get(previous.styles[cell]));
+  }
+
+  private int styleId(String sgr) {
+    Integer id = styleIds.get(sgr);
+    if (id == null) {
+      id = styleTable.size();
+      styleTable.add(sgr);
+      styleIds.put(sgr, id);
+    }
+    return id;
+  }
+
+  // Index after a complete "ESC [ digits ; ... m" sequence at start, or -1
+  private static int sequenceEnd(String text, int start) {
+    int end = start + 1;
+    if (end >= text.length() || text.charAt(end) != '[') {
+      return -1;
+    }
+    end++;
+    while (end < text.length() && (Character.isDigit(text.charAt(end)) || text.charAt(end) == ';')) {
+      end++;
+    }
+    return end < text.length() && text.charAt(end) == 'm' ? end + 1 : -1;
+  }
+}
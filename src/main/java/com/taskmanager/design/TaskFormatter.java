@@ -1,10 +1,25 @@
 package com.taskmanager.design;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import com.taskmanager.analytics.DurationSketch;
+import com.taskmanager.analytics.Granularity;
+import com.taskmanager.analytics.Rollup;
+import com.taskmanager.commands.CommandRegistry;
 import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskValue;
+import com.taskmanager.notifications.ReminderDispatcher;
+import com.taskmanager.models.TaskPage;
+import com.taskmanager.enums.Category;
 import com.taskmanager.enums.Priority;
 import com.taskmanager.enums.Status;
 
@@ -46,6 +61,22 @@ public class TaskFormatter {
   private final String SEPARATOR = "─".repeat(60);
   private final String DOUBLE_SEPARATOR = "═".repeat(60);
   private final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+  private final DateTimeFormatter AGENDA_DAY_FORMAT = DateTimeFormatter.ofPattern("EEEE, yyyy-MM-dd");
+
+  // Formatted rows and details by task, or null to render every time
+  private final RenderCache renderCache;
+
+  public TaskFormatter() {
+    this(null);
+  }
+
+  public TaskFormatter(RenderCache renderCache) {
+    this.renderCache = renderCache;
+  }
+
+  public RenderCache getRenderCache() {
+    return renderCache;
+  }
 
   /**
    * Formats the application header with branding
@@ -94,15 +125,36 @@ public class TaskFormatter {
    * Formats a single task for display
    */
   public String formatTask(Task task) {
-    String status = getStatusBadge(task.getStatus());
-    String priority = getPriorityBadge(task.getPriority());
-    String dueDate = task.getDueDate() != null ? " (Due: " + task.getDueDate().format(DATE_FORMAT) + ")" : "";
+    return renderCache != null ? renderCache.row(task, this::renderTask) : renderTask(task);
+  }
+
+  /**
+   * Formats a task from a read view for display, without copying it
+   */
+  public String formatTask(TaskValue task) {
+    return renderCache != null
+        ? renderCache.row(task.getId(), task.getUpdatedAt(), task, this::renderTask)
+        : renderTask(task);
+  }
+
+  private String renderTask(Task task) {
+    return renderRow(task.getStatus(), task.getPriority(), task.getDueDate(), task.getId(), task.getTitle());
+  }
+
+  private String renderTask(TaskValue task) {
+    return renderRow(task.getStatus(), task.getPriority(), task.getDueDate(), task.getId(), task.getTitle());
+  }
+
+  private String renderRow(Status taskStatus, Priority taskPriority, LocalDateTime due, String id, String title) {
+    String status = getStatusBadge(taskStatus);
+    String priority = getPriorityBadge(taskPriority);
+    String dueDate = due != null ? " (Due: " + due.format(DATE_FORMAT) + ")" : "";
 
     return String.format("%s [%s] %s%s %s%s%s%s",
         status,
-        task.getId(),
+        id,
         priority,
-        BOLD, task.getTitle(), RESET,
+        BOLD, title, RESET,
         ITALIC + dueDate, RESET);
   }
 
@@ -110,6 +162,17 @@ public class TaskFormatter {
    * Formats a list of tasks with headers and numbering
    */
   public String formatTaskList(List<Task> tasks, String title) {
+    return formatNumbered(tasks, this::formatTask, title);
+  }
+
+  /**
+   * Formats tasks from a read view like {@link #formatTaskList}
+   */
+  public String formatTaskValues(List<TaskValue> tasks, String title) {
+    return formatNumbered(tasks, this::formatTask, title);
+  }
+
+  private <T> String formatNumbered(List<T> tasks, Function<T, String> format, String title) {
     if (tasks.isEmpty()) {
       return formatInfo("No tasks found.");
     }
@@ -119,8 +182,9 @@ public class TaskFormatter {
     sb.append("\n");
 
     for (int i = 0; i < tasks.size(); i++) {
-      sb.append(String.format("%s%2d.%s %s\n",
-          CYAN, i + 1, RESET, formatTask(tasks.get(i))));
+      int number = i + 1;
+      sb.append(CYAN).append(number < 10 ? " " : "").append(number).append('.').append(RESET).append(' ')
+          .append(format.apply(tasks.get(i))).append('\n');
     }
 
     sb.append(SEPARATOR);
@@ -129,10 +193,87 @@ public class TaskFormatter {
     return sb.toString();
   }
 
+  /**
+   * Formats one page of a paginated task list, followed by the command that
+   * fetches the next page
+   */
+  public String formatTaskPage(TaskPage page, String title, int pageSize) {
+    StringBuilder sb = new StringBuilder(formatTaskList(page.tasks(), title));
+    if (page.hasMore()) {
+      sb.append("\n").append(formatInfo("Next page: list --page-size " + pageSize + " --after " + page.nextCursor()));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Formats an agenda: overdue tasks first, then one section per day
+   */
+  public String formatAgenda(String title, List<Task> overdue, Map<LocalDate, List<Task>> days) {
+    if (overdue.isEmpty() && days.isEmpty()) {
+      return formatInfo("Nothing due.");
+    }
+
+    StringBuilder sb = new StringBuilder();
+    sb.append(formatSectionHeader(title));
+    sb.append("\n");
+    int total = 0;
+
+    if (!overdue.isEmpty()) {
+      sb.append(String.format("%s%sOverdue%s\n", RED, BOLD, RESET));
+      for (Task task : overdue) {
+        sb.append("  ").append(formatTask(task)).append("\n");
+      }
+      total += overdue.size();
+    }
+    for (Map.Entry<LocalDate, List<Task>> day : days.entrySet()) {
+      sb.append(String.format("%s%s%s%s\n", CYAN, BOLD, day.getKey().format(AGENDA_DAY_FORMAT), RESET));
+      for (Task task : day.getValue()) {
+        sb.append("  ").append(formatTask(task)).append("\n");
+      }
+      total += day.getValue().size();
+    }
+
+    sb.append(SEPARATOR);
+    sb.append(String.format("\n%sTotal tasks: %d %s", BOLD, total, RESET));
+    return sb.toString();
+  }
+
+  /**
+   * Formats clusters of likely duplicate tasks, the task a merge would keep
+   * first in each
+   */
+  public String formatDuplicateClusters(List<List<Task>> clusters) {
+    if (clusters.isEmpty()) {
+      return formatInfo("No likely duplicates.");
+    }
+
+    StringBuilder sb = new StringBuilder();
+    sb.append(formatSectionHeader("Likely Duplicates"));
+    sb.append("\n");
+    int duplicates = 0;
+    for (int i = 0; i < clusters.size(); i++) {
+      List<Task> cluster = clusters.get(i);
+      sb.append(String.format("%s%sCluster %d%s (%d tasks)\n", CYAN, BOLD, i + 1, RESET, cluster.size()));
+      sb.append("  ").append(formatTask(cluster.get(0))).append(String.format(" %s(keep)%s\n", GREEN, RESET));
+      for (Task task : cluster.subList(1, cluster.size())) {
+        sb.append("  ").append(formatTask(task)).append("\n");
+      }
+      duplicates += cluster.size() - 1;
+    }
+
+    sb.append(SEPARATOR);
+    sb.append(String.format("\n%sClusters: %d, duplicates: %d %s", BOLD, clusters.size(), duplicates, RESET));
+    return sb.toString();
+  }
+
   /**
    * Formats detailed task information
    */
   public String formatTaskDetails(Task task) {
+    return renderCache != null ? renderCache.details(task, this::renderTaskDetails) : renderTaskDetails(task);
+  }
+
+  private String renderTaskDetails(Task task) {
     StringBuilder sb = new StringBuilder();
     sb.append(formatSectionHeader("Task Details"));
     sb.append("\n");
@@ -157,10 +298,157 @@ public class TaskFormatter {
           task.getCompletedAt().format(DATE_FORMAT)));
     }
 
+    if (!task.getDependsOn().isEmpty()) {
+      sb.append(String.format("%sDepends on:%s   %s\n", BOLD, RESET, String.join(", ", task.getDependsOn())));
+    }
+
+    if (task.isRecurring()) {
+      sb.append(String.format("%sRepeats:%s      %s (occurrence %d)\n", BOLD, RESET,
+          task.getRecurrence(), task.getOccurrence()));
+    }
+
     sb.append(SEPARATOR);
     return sb.toString();
   }
 
+  /**
+   * Formats the render cache counters
+   */
+  public String formatCacheStats(RenderCache.Stats stats) {
+    return String.format("%sRender cache:%s %d/%d entries, %d hits, %d misses (%.1f%% hit rate), "
+        + "%d invalidated, %d evicted",
+        BOLD, RESET, stats.size(), stats.capacity(), stats.hits(), stats.misses(), stats.hitRate() * 100,
+        stats.invalidations(), stats.evictions());
+  }
+
+  /**
+   * Formats reminder delivery counters, overall and per sink
+   */
+  public String formatReminderStats(ReminderDispatcher.Stats stats) {
+    StringBuilder sb = new StringBuilder();
+    sb.append(String.format("%sReminders:%s %d raised, %d coalesced, %d dropped, %d delivered, %d failed",
+        BOLD, RESET, stats.submitted(), stats.coalesced(), stats.dropped(), stats.delivered(), stats.failed()));
+    for (ReminderDispatcher.SinkStats sink : stats.sinks()) {
+      sb.append(String.format("\n  %s: %d delivered in %d batches, %d failed, %d retries, %d waiting", sink.name(),
+          sink.delivered(), sink.batches(), sink.failed(), sink.retries(), sink.backlog()));
+      if (sink.lastError() != null) {
+        sb.append(String.format(" %s(last error: %s)%s", RED, sink.lastError(), RESET));
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Formats completions and creations per period, with the categories that
+   * completed the most
+   */
+  public String formatThroughputReport(NavigableMap<LocalDateTime, Rollup> series, Granularity granularity) {
+    List<String[]> rows = new ArrayList<>();
+    Rollup total = new Rollup();
+    for (Map.Entry<LocalDateTime, Rollup> period : series.entrySet()) {
+      Rollup rollup = period.getValue();
+      total.merge(rollup);
+      rows.add(new String[] { granularity.label(period.getKey()), String.valueOf(rollup.created()),
+          String.valueOf(rollup.completed()), topCategories(rollup, 3) });
+    }
+    StringBuilder sb = new StringBuilder();
+    sb.append(formatSectionHeader("Completion Throughput")).append("\n\n");
+    sb.append(formatTable(new String[] { "Period", "Created", "Completed", "Top categories" }, rows));
+    sb.append(String.format("\n%sTotal:%s %d completed, %d created, %.1f completed per %s\n", BOLD, RESET,
+        total.completed(), total.created(), series.isEmpty() ? 0.0 : (double) total.completed() / series.size(),
+        granularity.name().toLowerCase()));
+    if (total.completed() > 0) {
+      sb.append(String.format("%sBy category:%s %s\n", BOLD, RESET, topCategories(total, Category.values().length)));
+    }
+    sb.append(SEPARATOR);
+    return sb.toString();
+  }
+
+  /**
+   * Formats the time from creation to completion of the tasks completed in
+   * each period
+   */
+  public String formatLeadTimeReport(NavigableMap<LocalDateTime, Rollup> series, Granularity granularity) {
+    List<String[]> rows = new ArrayList<>();
+    Rollup total = new Rollup();
+    for (Map.Entry<LocalDateTime, Rollup> period : series.entrySet()) {
+      total.merge(period.getValue());
+      rows.add(leadTimeRow(granularity.label(period.getKey()), period.getValue().leadTimes()));
+    }
+    rows.add(leadTimeRow(BOLD + "All" + RESET, total.leadTimes()));
+    StringBuilder sb = new StringBuilder();
+    sb.append(formatSectionHeader("Time to Complete")).append("\n\n");
+    sb.append(formatTable(new String[] { "Period", "Completed", "Mean", "p50", "p90", "p99" }, rows));
+    sb.append(formatInfo(String.format("Percentiles are within %.0f%%", DurationSketch.RELATIVE_ACCURACY * 100)));
+    sb.append("\n").append(SEPARATOR);
+    return sb.toString();
+  }
+
+  /**
+   * Formats how the tasks due in each period fared: completed on time,
+   * completed late, or still open (overdue once the period is over)
+   */
+  public String formatOverdueReport(NavigableMap<LocalDateTime, Rollup> series, Granularity granularity) {
+    List<String[]> rows = new ArrayList<>();
+    Rollup total = new Rollup();
+    for (Map.Entry<LocalDateTime, Rollup> period : series.entrySet()) {
+      Rollup rollup = period.getValue();
+      total.merge(rollup);
+      rows.add(new String[] { granularity.label(period.getKey()), String.valueOf(rollup.due()),
+          String.valueOf(rollup.dueOnTime()), String.valueOf(rollup.dueLate()),
+          rollup.dueOpen() > 0 ? RED + rollup.dueOpen() + RESET : "0", missedShare(rollup) });
+    }
+    StringBuilder sb = new StringBuilder();
+    sb.append(formatSectionHeader("Due Date Trend")).append("\n\n");
+    sb.append(formatTable(new String[] { "Period", "Due", "On time", "Late", "Open", "Missed" }, rows));
+    sb.append(String.format("\n%sTotal:%s %d due, %d on time, %d late, %d open (%s missed)\n", BOLD, RESET,
+        total.due(), total.dueOnTime(), total.dueLate(), total.dueOpen(), missedShare(total)));
+    sb.append(SEPARATOR);
+    return sb.toString();
+  }
+
+  /**
+   * Formats a duration in its two largest units, e.g. {@code 2d 5h}
+   */
+  public String formatDuration(Duration duration) {
+    long seconds = duration.getSeconds();
+    if (seconds < 60) {
+      return seconds + "s";
+    }
+    if (seconds < 3_600) {
+      return String.format("%dm %ds", seconds / 60, seconds % 60);
+    }
+    if (seconds < 86_400) {
+      return String.format("%dh %dm", seconds / 3_600, seconds % 3_600 / 60);
+    }
+    return String.format("%dd %dh", seconds / 86_400, seconds % 86_400 / 3_600);
+  }
+
+  private String[] leadTimeRow(String label, DurationSketch leadTimes) {
+    if (leadTimes.isEmpty()) {
+      return new String[] { label, "0", "-", "-", "-", "-" };
+    }
+    return new String[] { label, String.valueOf(leadTimes.count()), formatDuration(leadTimes.mean()),
+        formatDuration(leadTimes.quantile(0.5)), formatDuration(leadTimes.quantile(0.9)),
+        formatDuration(leadTimes.quantile(0.99)) };
+  }
+
+  private String topCategories(Rollup rollup, int limit) {
+    return rollup.completedByCategory().entrySet().stream()
+        .sorted(Map.Entry.<Category, Long>comparingByValue().reversed())
+        .limit(limit)
+        .map(entry -> entry.getKey().getDisplayName() + " " + entry.getValue())
+        .collect(Collectors.joining(", "));
+  }
+
+  // Late and still open, as a share of everything due
+  private String missedShare(Rollup rollup) {
+    if (rollup.due() == 0) {
+      return "-";
+    }
+    return String.format("%.0f%%", (double) (rollup.dueLate() + rollup.dueOpen()) / rollup.due() * 100);
+  }
+
   /**
    * Formats a section header with styling
    */
@@ -173,27 +461,14 @@ public class TaskFormatter {
   /**
    * Formats a help menu with commands
    */
-  public String formatHelpMenu() {
+  public String formatHelpMenu(List<CommandRegistry.HelpEntry> commands) {
     StringBuilder sb = new StringBuilder();
     sb.append(formatSectionHeader("Available Commands"));
     sb.append("\n\n");
 
-    String[][] commands = {
-        { "add <title>", "Add a new task" },
-        { "add", "Add a new task (interactive)" },
-        { "list", "Show all tasks" },
-        { "list <id>", "Show task details" },
-        { "complete <id>", "Mark task as completed" },
-        { "cancel <id>", "Mark task as cancelled" },
-        { "delete <id>", "Delete a task" },
-        { "edit <id>", "Edit an existing task" },
-        { "help", "Show this help menu" },
-        { "exit", "Exit the application" }
-    };
-
-    for (String[] command : commands) {
+    for (CommandRegistry.HelpEntry command : commands) {
       sb.append(String.format("  %s%-15s%s %s\n",
-          GREEN + BOLD, command[0], RESET, command[1]));
+          GREEN + BOLD, command.usage(), RESET, command.description()));
     }
 
     sb.append("\n").append(SEPARATOR);
@@ -214,23 +489,45 @@ public class TaskFormatter {
     return String.format("%s%s (y/N):%s ", YELLOW + BOLD, message, RESET);
   }
 
+  /**
+   * Task counts by status and priority, as shown by {@link #formatStats}.
+   */
+  public record StatsCounts(long total, long completed, long inProgress, long pending,
+      Map<Priority, Long> byPriority) {
+
+    /**
+     * Counts any kind of task, e.g. {@link Task}s or the values of a read
+     * view, in one pass.
+     */
+    public static <T> StatsCounts of(Iterable<T> tasks, Function<T, Status> status,
+        Function<T, Priority> priority) {
+      long total = 0;
+      long[] byStatus = new long[Status.values().length];
+      Map<Priority, Long> byPriority = new EnumMap<>(Priority.class);
+      for (T task : tasks) {
+        total++;
+        byStatus[status.apply(task).ordinal()]++;
+        byPriority.merge(priority.apply(task), 1L, Long::sum);
+      }
+      return new StatsCounts(total, byStatus[Status.COMPLETED.ordinal()],
+          byStatus[Status.IN_PROGRESS.ordinal()], byStatus[Status.PENDING.ordinal()], byPriority);
+    }
+  }
+
   /**
    * Formats statistics and summary information
    */
   public String formatStats(List<Task> tasks) {
-    long totalTasks = tasks.size();
-    long completedTasks = tasks.stream()
-        .filter(t -> t.getStatus() == Status.COMPLETED)
-        .count();
-    long pendingTasks = tasks.stream()
-        .filter(t -> t.getStatus() == Status.PENDING)
-        .count();
-    long inProgressTasks = tasks.stream()
-        .filter(t -> t.getStatus() == Status.IN_PROGRESS)
-        .count();
-
-    Map<Priority, Long> priorityCount = tasks.stream()
-        .collect(Collectors.groupingBy(Task::getPriority, Collectors.counting()));
+    return formatStats(StatsCounts.of(tasks, Task::getStatus, Task::getPriority));
+  }
+
+  public String formatStats(StatsCounts counts) {
+    long totalTasks = counts.total();
+    long completedTasks = counts.completed();
+    long pendingTasks = counts.pending();
+    long inProgressTasks = counts.inProgress();
+
+    Map<Priority, Long> priorityCount = counts.byPriority();
 
     StringBuilder sb = new StringBuilder();
     sb.append(formatSectionHeader("Task Statistics"));
@@ -285,7 +582,7 @@ public class TaskFormatter {
       widths[i] = headers[i].length();
       for (String[] row : rows) {
         if (i < row.length) {
-          widths[i] = Math.max(widths[i], stripAnsiCodes(row[i]).length());
+          widths[i] = Math.max(widths[i], visibleLength(row[i]));
         }
       }
       widths[i] += 2; // padding
@@ -308,7 +605,7 @@ public class TaskFormatter {
     for (String[] row : rows) {
       for (int i = 0; i < headers.length && i < row.length; i++) {
         String cell = row[i];
-        int padding = widths[i] - stripAnsiCodes(cell).length();
+        int padding = widths[i] - visibleLength(cell);
         sb.append(cell).append(" ".repeat(Math.max(0, padding)));
       }
       sb.append("\n");
@@ -349,14 +646,44 @@ public class TaskFormatter {
    * Strips ANSI color codes from text for length calculation
    */
   private String stripAnsiCodes(String text) {
-    return text.replaceAll("\u001B\\[[;\\d]*m", "");
+    int escape = text.indexOf('\u001B');
+    if (escape < 0) {
+      return text;
+    }
+    StringBuilder sb = new StringBuilder(text.length());
+    int i = 0;
+    while (escape >= 0) {
+      sb.append(text, i, escape);
+      int end = escape + 1;
+      if (end < text.length() && text.charAt(end) == '[') {
+        end++;
+        while (end < text.length() && (Character.isDigit(text.charAt(end)) || text.charAt(end) == ';')) {
+          end++;
+        }
+      }
+      if (end > escape + 1 && end < text.length() && text.charAt(end) == 'm') {
+        i = end + 1; // a complete color sequence: drop it
+      } else {
+        sb.append('\u001B');
+        i = escape + 1;
+      }
+      escape = text.indexOf('\u001B', i);
+    }
+    return sb.append(text, i, text.length()).toString();
+  }
+
+  /**
+   * Visible length of text, ignoring ANSI color codes
+   */
+  private int visibleLength(String text) {
+    return text.indexOf('\u001B') < 0 ? text.length() : stripAnsiCodes(text).length();
   }
 
   /**
    * Centers text within a given width
    */
   public String centerText(String text, int width) {
-    int padding = Math.max(0, (width - stripAnsiCodes(text).length()) / 2);
+    int padding = Math.max(0, (width - visibleLength(text)) / 2);
     return " ".repeat(padding) + text;
   }
 
@@ -364,16 +691,31 @@ public class TaskFormatter {
    * Wraps text to fit within specified width
    */
   public String wrapText(String text, int width) {
-    if (stripAnsiCodes(text).length() <= width) {
+    if (visibleLength(text) <= width) {
       return text;
     }
 
-    StringBuilder sb = new StringBuilder();
-    String[] words = text.split("\\s+");
+    StringBuilder sb = new StringBuilder(text.length() + 16);
     int currentLength = 0;
+    int length = text.length();
+    int start = 0;
+
+    while (start < length) {
+      // Words are runs of non-whitespace, as with split("\\s+")
+      while (start < length && Character.isWhitespace(text.charAt(start))) {
+        start++;
+      }
+      if (start == length) {
+        break;
+      }
+      int end = start;
+      while (end < length && !Character.isWhitespace(text.charAt(end))) {
+        end++;
+      }
+      String word = text.substring(start, end);
+      start = end;
 
-    for (String word : words) {
-      int wordLength = stripAnsiCodes(word).length();
+      int wordLength = visibleLength(word);
       if (currentLength + wordLength + 1 > width) {
         sb.append("\n");
         currentLength = 0;
@@ -0,0 +1,31 @@
+package com.taskmanager.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One CLI command, from dispatch until its output has been printed.
+ */
+@Name("com.taskmanager.Command")
+@Label("Command")
+@Category({ "Task Manager", "CLI" })
+@StackTrace(false)
+public class CommandEvent extends Event {
+
+  @Label("Command")
+  public String command;
+
+  @Label("Argument Count")
+  public int argumentCount;
+
+  @Label("Error")
+  public String error;
+
+  public CommandEvent(String command, int argumentCount) {
+    this.command = command;
+    this.argumentCount = argumentCount;
+  }
+}
@@ -0,0 +1,49 @@
+package com.taskmanager.diagnostics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts the bytes read from a stream and the time spent blocked reading
+ * them, for {@link SnapshotEvent#ioTime}. Put it directly over the file
+ * stream, below any buffering, so that each timed call is a real read.
+ */
+public final class MeteredInputStream extends FilterInputStream {
+  private long bytes;
+  private long nanos;
+
+  public MeteredInputStream(InputStream in) {
+    super(in);
+  }
+
+  public long bytes() {
+    return bytes;
+  }
+
+  public long nanos() {
+    return nanos;
+  }
+
+  @Override
+  public int read() throws IOException {
+    long start = System.nanoTime();
+    int b = super.read();
+    nanos += System.nanoTime() - start;
+    if (b >= 0) {
+      bytes++;
+    }
+    return b;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    long start = System.nanoTime();
+    int n = in.read(b, off, len);
+    nanos += System.nanoTime() - start;
+    if (n > 0) {
+      bytes += n;
+    }
+    return n;
+  }
+}
@@ -0,0 +1,50 @@
+package com.taskmanager.diagnostics;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Counts the bytes written to a stream and the time spent blocked writing
+ * them, for {@link SnapshotEvent#ioTime}. Put it directly over the file
+ * stream, below any buffering.
+ */
+public final class MeteredOutputStream extends FilterOutputStream {
+  private long bytes;
+  private long nanos;
+
+  public MeteredOutputStream(OutputStream out) {
+    super(out);
+  }
+
+  public long bytes() {
+    return bytes;
+  }
+
+  public long nanos() {
+    return nanos;
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    long start = System.nanoTime();
+    out.write(b);
+    nanos += System.nanoTime() - start;
+    bytes++;
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    long start = System.nanoTime();
+    out.write(b, off, len);
+    nanos += System.nanoTime() - start;
+    bytes += len;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    long start = System.nanoTime();
+    out.flush();
+    nanos += System.nanoTime() - start;
+  }
+}
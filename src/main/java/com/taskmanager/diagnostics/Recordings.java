@@ -0,0 +1,70 @@
+package com.taskmanager.diagnostics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * Starts a flight recording with the bundled {@code taskmanager.jfc}
+ * settings when {@code -Dtaskmanager.jfr.file=<path>} is given. The
+ * recording is written to that path when the JVM exits.
+ *
+ * The same settings can be used without this class by extracting
+ * {@code jfr/taskmanager.jfc} from the jar and passing it to
+ * {@code -XX:StartFlightRecording:settings=<file>}. They are meant to stay
+ * on: the Task Manager events are cheap, and only those above a small
+ * threshold are recorded, together with GC, file and socket I/O and lock
+ * contention from the JDK.
+ */
+public final class Recordings {
+  public static final String FILE_PROPERTY = "taskmanager.jfr.file";
+  public static final String SETTINGS_RESOURCE = "/jfr/taskmanager.jfc";
+
+  private Recordings() {
+  }
+
+  /**
+   * Loads the bundled settings.
+   */
+  public static Configuration configuration() throws IOException, ParseException {
+    InputStream in = Recordings.class.getResourceAsStream(SETTINGS_RESOURCE);
+    if (in == null) {
+      throw new IOException("Missing " + SETTINGS_RESOURCE);
+    }
+    try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+      return Configuration.create(reader);
+    }
+  }
+
+  /**
+   * Starts the recording if {@value #FILE_PROPERTY} is set. Failing to
+   * start it is reported and otherwise ignored.
+   *
+   * @return the recording, or null if none was started
+   */
+  public static Recording startFromSystemProperties() {
+    String file = System.getProperty(FILE_PROPERTY);
+    if (file == null || file.isBlank()) {
+      return null;
+    }
+    try {
+      Recording recording = new Recording(configuration());
+      recording.setName("Task Manager");
+      recording.setToDisk(true);
+      recording.setDestination(Path.of(file));
+      recording.setDumpOnExit(true);
+      recording.start();
+      return recording;
+    } catch (IOException | ParseException | RuntimeException e) {
+      System.err.println("Error starting flight recording: " + e.getMessage());
+      return null;
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.taskmanager.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call into {@link com.taskmanager.repositories.TaskRepository}. Writes
+ * are timed once the repository lock is held; waiting for it is recorded by
+ * the JDK as {@code jdk.JavaMonitorEnter}.
+ */
+@Name("com.taskmanager.Repository")
+@Label("Repository Operation")
+@Category({ "Task Manager", "Repository" })
+@StackTrace(false)
+public class RepositoryEvent extends Event {
+
+  @Label("Operation")
+  public String operation;
+
+  @Label("Task Id")
+  public String taskId;
+
+  @Label("Task Count")
+  @Description("Tasks written or returned")
+  public int taskCount;
+
+  public RepositoryEvent(String operation) {
+    this.operation = operation;
+  }
+}
@@ -0,0 +1,28 @@
+package com.taskmanager.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One {@link com.taskmanager.services.TaskService} operation, including the
+ * repository calls it makes.
+ */
+@Name("com.taskmanager.Service")
+@Label("Service Operation")
+@Category({ "Task Manager", "Service" })
+@StackTrace(false)
+public class ServiceEvent extends Event {
+
+  @Label("Operation")
+  public String operation;
+
+  @Label("Task Id")
+  public String taskId;
+
+  public ServiceEvent(String operation) {
+    this.operation = operation;
+  }
+}
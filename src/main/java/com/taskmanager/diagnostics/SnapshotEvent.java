@@ -0,0 +1,52 @@
+package com.taskmanager.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Loading or saving the whole store. The duration splits into time spent
+ * blocked in file reads or writes ({@link #ioTime}) and everything else,
+ * which is parsing or serialization and any GC pauses in between; GC shows
+ * up in the same recording as {@code jdk.GarbageCollection}.
+ */
+@Name("com.taskmanager.Snapshot")
+@Label("Snapshot Load/Save")
+@Category({ "Task Manager", "Storage" })
+@StackTrace(false)
+public class SnapshotEvent extends Event {
+
+  public static final String LOAD = "load";
+  public static final String SAVE = "save";
+  public static final String COMMIT = "commit";
+
+  @Label("Phase")
+  @Description("load, save (serialize and write), or commit (rename over the old file)")
+  public String phase;
+
+  @Label("File")
+  public String file;
+
+  @Label("Codec")
+  public String codec;
+
+  @Label("Task Count")
+  public int taskCount;
+
+  @Label("Bytes")
+  @DataAmount
+  public long bytes;
+
+  @Label("I/O Time")
+  @Timespan(Timespan.NANOSECONDS)
+  public long ioTime;
+
+  public SnapshotEvent(String phase) {
+    this.phase = phase;
+  }
+}
@@ -0,0 +1,17 @@
+package com.taskmanager.enums;
+
+public enum AckMode {
+  ASYNC("Asynchronous"), // Default: writes never wait for followers
+  WAIT_FOR_FOLLOWER("Wait for follower");
+
+  private final String displayName;
+
+  AckMode(String displayName) {
+    this.displayName = displayName;
+  }
+
+  // Getter
+  public String getDisplayName() {
+    return this.displayName;
+  }
+}
@@ -0,0 +1,18 @@
+package com.taskmanager.enums;
+
+public enum DuplicatePolicy {
+  OFF("Off"),
+  FLAG("Flag"), // Default: save the new task and report its likely duplicates
+  MERGE("Merge"); // Fold the new task into its closest duplicate instead
+
+  private final String displayName;
+
+  DuplicatePolicy(String displayName) {
+    this.displayName = displayName;
+  }
+
+  // Getter
+  public String getDisplayName() {
+    return this.displayName;
+  }
+}
@@ -0,0 +1,19 @@
+package com.taskmanager.enums;
+
+public enum Frequency {
+  DAILY("Daily"),
+  WEEKLY("Weekly"),
+  MONTHLY("Monthly"),
+  YEARLY("Yearly");
+
+  private final String displayName;
+
+  Frequency(String displayName) {
+    this.displayName = displayName;
+  }
+
+  // Getter
+  public String getDisplayName() {
+    return this.displayName;
+  }
+}
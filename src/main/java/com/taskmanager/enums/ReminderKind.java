@@ -0,0 +1,17 @@
+package com.taskmanager.enums;
+
+public enum ReminderKind {
+  DUE_SOON("Due soon"),
+  OVERDUE("Overdue");
+
+  private final String displayName;
+
+  ReminderKind(String displayName) {
+    this.displayName = displayName;
+  }
+
+  // Getter
+  public String getDisplayName() {
+    return this.displayName;
+  }
+}
@@ -1,18 +1,45 @@
 package com.taskmanager.interfaces;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import com.taskmanager.errors.TaskManagerException;
 import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskPage;
+import com.taskmanager.repositories.TaskReadView;
 
-public interface TaskRepositoryInterface {
+public interface TaskRepositoryInterface extends AutoCloseable {
   void save(Task task) throws TaskManagerException;
 
+  void saveAll(Collection<Task> tasks) throws TaskManagerException;
+
   Task findById(String id) throws TaskManagerException;
 
+  Optional<Task> findIfPresent(String id) throws TaskManagerException;
+
+  String resolveId(String idOrPrefix) throws TaskManagerException;
+
   void deleteById(String id) throws TaskManagerException;
 
   void updateTimeStamp(String id) throws TaskManagerException;
 
   List<Task> fetchAll();
+
+  TaskReadView readView();
+
+  TaskPage findPage(String afterCursor, int pageSize) throws TaskManagerException;
+
+  void addDependency(String taskId, String dependsOnId) throws TaskManagerException;
+
+  void removeDependency(String taskId, String dependsOnId) throws TaskManagerException;
+
+  List<Task> findReady(int limit);
+
+  List<Task> fetchArchived() throws TaskManagerException;
+
+  void flush() throws TaskManagerException;
+
+  @Override
+  void close() throws TaskManagerException;
 }
@@ -0,0 +1,41 @@
+package com.taskmanager.interfaces;
+
+import com.taskmanager.models.Task;
+
+/**
+ * Receives repository mutations as they happen. Callbacks run on the thread
+ * performing the mutation, while the repository still holds its write lock,
+ * so implementations must be quick and must not call back into the
+ * repository's write methods. Anything that has to wait belongs in
+ * {@link #afterWrite()}.
+ */
+public interface TaskRepositoryListener {
+  void onSaved(Task task);
+
+  void onDeleted(String id);
+
+  /**
+   * A closed task moved from the live store to the archive. By default this is
+   * treated like a deletion from the live set.
+   */
+  default void onArchived(Task task) {
+    onDeleted(task.getId());
+  }
+
+  /**
+   * A live task became ready (open, with every blocker closed) or stopped
+   * being ready, either through its own change or because a blocker
+   * changed. Reported before the {@link #onSaved} of the write, if any.
+   */
+  default void onReadyChanged(String id, boolean ready) {
+  }
+
+  /**
+   * Called on the writing thread once a write method has released the
+   * repository lock, for work that may take a while, such as waiting for a
+   * replica to confirm the changes just reported. Only the writer waits;
+   * readers and other writers carry on.
+   */
+  default void afterWrite() {
+  }
+}
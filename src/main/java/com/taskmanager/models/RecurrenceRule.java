@@ -0,0 +1,311 @@
+package com.taskmanager.models;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.taskmanager.enums.Frequency;
+import com.taskmanager.errors.TaskManagerException;
+
+/**
+ * RecurrenceRule is an immutable, RRULE-like description of a repeating
+ * schedule (e.g. {@code FREQ=WEEKLY;BYDAY=MO} or
+ * {@code FREQ=MONTHLY;BYMONTHDAY=1}).
+ * Occurrences are never expanded up front: callers ask for the occurrence
+ * that follows a given one, so a schedule spanning years costs nothing until
+ * it is walked.
+ */
+public final class RecurrenceRule {
+  private static final DateTimeFormatter UNTIL_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+  private final Frequency frequency;
+  private final int interval;
+  private final Set<DayOfWeek> byDay;
+  private final Integer byMonthDay;
+  private final LocalDate until;
+  private final Integer count;
+
+  public RecurrenceRule(Frequency frequency, int interval, Set<DayOfWeek> byDay, Integer byMonthDay,
+      LocalDate until, Integer count) throws TaskManagerException {
+    if (frequency == null) {
+      throw new TaskManagerException("Recurrence rule requires FREQ");
+    }
+    if (interval < 1) {
+      throw new TaskManagerException("Recurrence INTERVAL must be at least 1");
+    }
+    if (byMonthDay != null && (byMonthDay == 0 || byMonthDay < -31 || byMonthDay > 31)) {
+      throw new TaskManagerException("Recurrence BYMONTHDAY must be between 1 and 31 or -31 and -1");
+    }
+    if (count != null && count < 1) {
+      throw new TaskManagerException("Recurrence COUNT must be at least 1");
+    }
+    this.frequency = frequency;
+    this.interval = interval;
+    this.byDay = EnumSet.noneOf(DayOfWeek.class);
+    if (byDay != null) {
+      this.byDay.addAll(byDay);
+    }
+    this.byMonthDay = byMonthDay;
+    this.until = until;
+    this.count = count;
+  }
+
+  private RecurrenceRule(RecurrenceRule rule, int byMonthDay) {
+    this.frequency = rule.frequency;
+    this.interval = rule.interval;
+    this.byDay = rule.byDay;
+    this.byMonthDay = byMonthDay;
+    this.until = rule.until;
+    this.count = rule.count;
+  }
+
+  /**
+   * Parses a rule such as {@code FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH;UNTIL=20261231}.
+   * An optional leading {@code RRULE:} is accepted and keys are case-insensitive.
+   */
+  @JsonCreator
+  public static RecurrenceRule parse(String rule) throws TaskManagerException {
+    if (rule == null || rule.trim().isEmpty()) {
+      throw new TaskManagerException("Recurrence rule cannot be null or empty");
+    }
+    String body = rule.trim();
+    if (body.regionMatches(true, 0, "RRULE:", 0, 6)) {
+      body = body.substring(6);
+    }
+
+    Frequency frequency = null;
+    int interval = 1;
+    Set<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+    Integer byMonthDay = null;
+    LocalDate until = null;
+    Integer count = null;
+
+    for (String part : body.split(";")) {
+      if (part.isBlank()) {
+        continue;
+      }
+      int eq = part.indexOf('=');
+      if (eq <= 0) {
+        throw new TaskManagerException("Malformed recurrence rule part '" + part + "'");
+      }
+      String key = part.substring(0, eq).trim().toUpperCase();
+      String value = part.substring(eq + 1).trim().toUpperCase();
+      try {
+        switch (key) {
+          case "FREQ" -> frequency = Frequency.valueOf(value);
+          case "INTERVAL" -> interval = Integer.parseInt(value);
+          case "BYDAY" -> {
+            for (String day : value.split(",")) {
+              byDay.add(parseDay(day.trim()));
+            }
+          }
+          case "BYMONTHDAY" -> byMonthDay = Integer.parseInt(value);
+          case "UNTIL" -> until = LocalDate.parse(value.length() > 8 ? value.substring(0, 8) : value, UNTIL_FORMAT);
+          case "COUNT" -> count = Integer.parseInt(value);
+          default -> throw new TaskManagerException("Unsupported recurrence rule part '" + key + "'");
+        }
+      } catch (IllegalArgumentException | DateTimeParseException e) {
+        throw new TaskManagerException("Invalid value '" + value + "' for recurrence rule part " + key, e);
+      }
+    }
+
+    return new RecurrenceRule(frequency, interval, byDay, byMonthDay, until, count);
+  }
+
+  private static DayOfWeek parseDay(String code) throws TaskManagerException {
+    for (DayOfWeek day : DayOfWeek.values()) {
+      if (day.name().startsWith(code) && code.length() == 2) {
+        return day;
+      }
+    }
+    throw new TaskManagerException("Unknown BYDAY value '" + code + "'");
+  }
+
+  // Getters
+  public Frequency getFrequency() {
+    return frequency;
+  }
+
+  public int getInterval() {
+    return interval;
+  }
+
+  public Set<DayOfWeek> getByDay() {
+    return EnumSet.copyOf(byDay);
+  }
+
+  public Integer getByMonthDay() {
+    return byMonthDay;
+  }
+
+  public LocalDate getUntil() {
+    return until;
+  }
+
+  public Integer getCount() {
+    return count;
+  }
+
+  /**
+   * Returns this rule anchored on the first occurrence {@code start}, the
+   * DTSTART of RRULE. A MONTHLY rule without BYMONTHDAY repeats on the day
+   * of month of {@code start}, so that a series starting on the 31st is not
+   * pulled to the 28th by February and kept there; as with BYMONTHDAY,
+   * months without that day are skipped. Other rules are returned as they
+   * are.
+   */
+  public RecurrenceRule anchoredAt(LocalDateTime start) {
+    if (frequency != Frequency.MONTHLY || byMonthDay != null || start == null) {
+      return this;
+    }
+    return new RecurrenceRule(this, start.getDayOfMonth());
+  }
+
+  /**
+   * Returns the first occurrence at or after {@code start}, keeping its time of
+   * day, or null if the rule has already ended.
+   */
+  public LocalDateTime firstOnOrAfter(LocalDateTime start) {
+    return withinUntil(matches(start.toLocalDate()) ? start : rawNext(start));
+  }
+
+  /**
+   * Returns the occurrence immediately following {@code previous}, or null if
+   * the rule has ended (UNTIL passed). COUNT is tracked by the caller, since
+   * the rule itself does not know which occurrence {@code previous} was.
+   */
+  public LocalDateTime nextAfter(LocalDateTime previous) {
+    return withinUntil(rawNext(previous));
+  }
+
+  /**
+   * Lazily walks occurrences starting at or after {@code start}. Nothing is
+   * computed until the stream is consumed.
+   */
+  public Stream<LocalDateTime> occurrencesFrom(LocalDateTime start) {
+    LocalDateTime first = firstOnOrAfter(start);
+    Stream<LocalDateTime> stream = Stream.iterate(first, Objects::nonNull, anchoredAt(first)::nextAfter);
+    return count != null ? stream.limit(count) : stream;
+  }
+
+  /**
+   * Whether the occurrence numbered {@code occurrence} (1-based) is still
+   * within COUNT.
+   */
+  public boolean allowsOccurrence(int occurrence) {
+    return count == null || occurrence <= count;
+  }
+
+  private LocalDateTime withinUntil(LocalDateTime candidate) {
+    if (candidate == null || (until != null && candidate.toLocalDate().isAfter(until))) {
+      return null;
+    }
+    return candidate;
+  }
+
+  private boolean matches(LocalDate date) {
+    return switch (frequency) {
+      case WEEKLY -> byDay.isEmpty() || byDay.contains(date.getDayOfWeek());
+      case MONTHLY -> byMonthDay == null || date.equals(resolveMonthDay(YearMonth.from(date)));
+      default -> true;
+    };
+  }
+
+  private LocalDateTime rawNext(LocalDateTime previous) {
+    return switch (frequency) {
+      case DAILY -> previous.plusDays(interval);
+      case WEEKLY -> nextWeekly(previous);
+      case MONTHLY -> nextMonthly(previous);
+      case YEARLY -> previous.plusYears(interval);
+    };
+  }
+
+  private LocalDateTime nextWeekly(LocalDateTime previous) {
+    if (byDay.isEmpty()) {
+      return previous.plusWeeks(interval);
+    }
+    // Remaining days in the same ISO week first, then jump INTERVAL weeks.
+    for (DayOfWeek day : byDay) {
+      if (day.compareTo(previous.getDayOfWeek()) > 0) {
+        return previous.with(TemporalAdjusters.nextOrSame(day));
+      }
+    }
+    LocalDateTime weekStart = previous.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).plusWeeks(interval);
+    return weekStart.with(TemporalAdjusters.nextOrSame(byDay.iterator().next()));
+  }
+
+  private LocalDateTime nextMonthly(LocalDateTime previous) {
+    if (byMonthDay == null) {
+      return previous.plusMonths(interval);
+    }
+    YearMonth month = YearMonth.from(previous);
+    LocalDate candidate = resolveMonthDay(month);
+    if (candidate != null && candidate.isAfter(previous.toLocalDate())) {
+      return candidate.atTime(previous.toLocalTime());
+    }
+    // Skip months that do not have the requested day (e.g. the 31st), as RRULE does.
+    for (int i = 0; i < 48; i++) {
+      month = month.plusMonths(interval);
+      candidate = resolveMonthDay(month);
+      if (candidate != null) {
+        return candidate.atTime(previous.toLocalTime());
+      }
+    }
+    return null;
+  }
+
+  private LocalDate resolveMonthDay(YearMonth month) {
+    int day = byMonthDay > 0 ? byMonthDay : month.lengthOfMonth() + byMonthDay + 1;
+    return day >= 1 && day <= month.lengthOfMonth() ? month.atDay(day) : null;
+  }
+
+  @JsonValue
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("FREQ=").append(frequency.name());
+    if (interval != 1) {
+      sb.append(";INTERVAL=").append(interval);
+    }
+    if (!byDay.isEmpty()) {
+      sb.append(";BYDAY=").append(byDay.stream()
+          .map(day -> day.name().substring(0, 2))
+          .collect(Collectors.joining(",")));
+    }
+    if (byMonthDay != null) {
+      sb.append(";BYMONTHDAY=").append(byMonthDay);
+    }
+    if (until != null) {
+      sb.append(";UNTIL=").append(until.format(UNTIL_FORMAT));
+    }
+    if (count != null) {
+      sb.append(";COUNT=").append(count);
+    }
+    return sb.toString();
+  }
+
+  // equals and hashCode
+  @Override
+  public boolean equals(Object o) {
+    if (this == o)
+      return true;
+    if (o == null || this.getClass() != o.getClass())
+      return false;
+    return toString().equals(o.toString());
+  }
+
+  @Override
+  public int hashCode() {
+    return toString().hashCode();
+  }
+}
@@ -1,7 +1,9 @@
 package com.taskmanager.models;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 import com.taskmanager.enums.Priority;
@@ -25,9 +27,17 @@ public class Task {
   // Time Management
   private LocalDateTime createdAt; // When task was created
   private LocalDateTime updatedAt; // Last modification time
-  private LocalDate dueDate; // Optional: Deadline
+  private LocalDateTime dueDate; // Optional: Deadline
   private LocalDateTime completedAt; // When task was completed
 
+  // Recurrence
+  private RecurrenceRule recurrence; // Optional: RRULE-like schedule
+  private String seriesId; // Id of the first occurrence in the series
+  private int occurrence; // 1-based position within the series
+
+  // Relationships
+  private Set<String> dependsOn = new LinkedHashSet<>(); // Ids of blocking tasks
+
   // Constructors
   public Task() {
     this.id = UUID.randomUUID().toString();
@@ -49,6 +59,47 @@ public class Task {
     this.category = category;
   }
 
+  Task(TaskValue value) {
+    this.id = value.getId();
+    this.title = value.getTitle();
+    this.description = value.getDescription();
+    this.priority = value.getPriority();
+    this.status = value.getStatus();
+    this.category = value.getCategory();
+    this.createdAt = value.getCreatedAt();
+    this.updatedAt = value.getUpdatedAt();
+    this.dueDate = value.getDueDate();
+    this.completedAt = value.getCompletedAt();
+    this.recurrence = value.getRecurrence();
+    this.seriesId = value.getSeriesId();
+    this.occurrence = value.getOccurrence();
+    this.dependsOn = new LinkedHashSet<>(value.getDependsOn());
+  }
+
+  private Task(Task other) {
+    this.id = other.id;
+    this.title = other.title;
+    this.description = other.description;
+    this.priority = other.priority;
+    this.status = other.status;
+    this.category = other.category;
+    this.createdAt = other.createdAt;
+    this.updatedAt = other.updatedAt;
+    this.dueDate = other.dueDate;
+    this.completedAt = other.completedAt;
+    this.recurrence = other.recurrence;
+    this.seriesId = other.seriesId;
+    this.occurrence = other.occurrence;
+    this.dependsOn = new LinkedHashSet<>(other.dependsOn);
+  }
+
+  /**
+   * Returns a detached copy that can be edited without affecting this task.
+   */
+  public Task copy() {
+    return new Task(this);
+  }
+
   // Core Identity Getters and Setters
   public String getId() {
     return id;
@@ -145,6 +196,45 @@ public class Task {
     this.completedAt = completedAt;
   }
 
+  // Recurrence Getters and Setters
+  public RecurrenceRule getRecurrence() {
+    return recurrence;
+  }
+
+  public void setRecurrence(RecurrenceRule recurrence) {
+    this.recurrence = recurrence;
+  }
+
+  public String getSeriesId() {
+    return seriesId;
+  }
+
+  public void setSeriesId(String seriesId) {
+    this.seriesId = seriesId;
+  }
+
+  public int getOccurrence() {
+    return occurrence;
+  }
+
+  public void setOccurrence(int occurrence) {
+    this.occurrence = occurrence;
+  }
+
+  // Relationship Getters and Setters
+  public Set<String> getDependsOn() {
+    return dependsOn;
+  }
+
+  public void setDependsOn(Set<String> dependsOn) {
+    this.dependsOn = dependsOn != null ? new LinkedHashSet<>(dependsOn) : new LinkedHashSet<>();
+  }
+
+  @JsonIgnore
+  public boolean isRecurring() {
+    return recurrence != null;
+  }
+
   @JsonIgnore
   public boolean isOverdue() {
     return dueDate != null && LocalDateTime.now().isAfter(dueDate) && status != Status.COMPLETED;
@@ -161,8 +251,40 @@ public class Task {
     return LocalDateTime.now().plusHours(hours).isAfter(dueDate) && !isCompleted();
   }
 
-  public void markAsCompleted() throws TaskManagerException {
+  /**
+   * Marks the task as completed. For a recurring task this also builds the
+   * next occurrence of the series, which the caller is responsible for
+   * saving.
+   *
+   * @return the successor occurrence, or null if the task is not recurring,
+   *         was already completed, or its schedule has ended
+   */
+  public Task markAsCompleted() throws TaskManagerException {
+    boolean alreadyCompleted = isCompleted();
     setStatus(Status.COMPLETED);
+    return alreadyCompleted ? null : nextOccurrence();
+  }
+
+  private Task nextOccurrence() throws TaskManagerException {
+    if (recurrence == null) {
+      return null;
+    }
+    int nextOccurrence = Math.max(occurrence, 1) + 1;
+    LocalDateTime anchor = dueDate != null ? dueDate : createdAt;
+    // Rules attached before they were anchored on their first occurrence
+    // are anchored here, which keeps the series from drifting from now on
+    RecurrenceRule rule = recurrence.anchoredAt(anchor);
+    LocalDateTime nextDue = rule.nextAfter(anchor);
+    if (nextDue == null || !recurrence.allowsOccurrence(nextOccurrence)) {
+      return null;
+    }
+
+    Task successor = new Task(title, description, priority, category);
+    successor.setDueDate(nextDue);
+    successor.setRecurrence(rule);
+    successor.setSeriesId(seriesId != null ? seriesId : id);
+    successor.setOccurrence(nextOccurrence);
+    return successor;
   }
 
   public void markAsInProgress() throws TaskManagerException {
@@ -0,0 +1,59 @@
+package com.taskmanager.models;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+
+import com.taskmanager.errors.TaskManagerException;
+
+/**
+ * A position in the creation order of tasks: (createdAt, id). Ids break ties
+ * between tasks created in the same instant, so the order is total and
+ * stable across runs. Cursors are handed out as opaque URL-safe strings.
+ */
+public record TaskCursor(LocalDateTime createdAt, String id) implements Comparable<TaskCursor> {
+
+  private static final Comparator<TaskCursor> ORDER = Comparator
+      .comparing(TaskCursor::createdAt)
+      .thenComparing(TaskCursor::id);
+
+  public TaskCursor {
+    if (createdAt == null) {
+      createdAt = LocalDateTime.MIN; // tasks without a creation time sort first
+    }
+  }
+
+  public static TaskCursor of(Task task) {
+    return new TaskCursor(task.getCreatedAt(), task.getId());
+  }
+
+  /**
+   * Decodes a cursor produced by {@link #encode()}.
+   *
+   * @throws TaskManagerException if the string is not a valid cursor
+   */
+  public static TaskCursor decode(String cursor) throws TaskManagerException {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = raw.indexOf('|');
+      if (separator <= 0 || separator == raw.length() - 1) {
+        throw new TaskManagerException("Invalid cursor '" + cursor + "'");
+      }
+      return new TaskCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new TaskManagerException("Invalid cursor '" + cursor + "'", e);
+    }
+  }
+
+  public String encode() {
+    byte[] raw = (createdAt + "|" + id).getBytes(StandardCharsets.UTF_8);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+  }
+
+  @Override
+  public int compareTo(TaskCursor other) {
+    return ORDER.compare(this, other);
+  }
+}
@@ -0,0 +1,17 @@
+package com.taskmanager.models;
+
+import java.util.List;
+
+/**
+ * One page of tasks in creation order.
+ *
+ * @param tasks      the tasks on this page
+ * @param nextCursor cursor to pass as {@code after} for the following page,
+ *                   or null if this is the last page
+ */
+public record TaskPage(List<Task> tasks, String nextCursor) {
+
+  public boolean hasMore() {
+    return nextCursor != null;
+  }
+}
@@ -0,0 +1,301 @@
+package com.taskmanager.models;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.taskmanager.enums.Category;
+import com.taskmanager.enums.Priority;
+import com.taskmanager.enums.Status;
+import com.taskmanager.errors.TaskManagerException;
+
+/**
+ * An immutable version of a {@link Task}. The {@code with*} methods return a
+ * new value that shares every unchanged field with this one, so an edit
+ * costs one small object regardless of the size of the task, and a value can
+ * be handed to any thread, cached or kept in a snapshot without copying.
+ *
+ * Values published by the repository carry the repository {@link #version()}
+ * at which they were written; values built by {@code with*} are unversioned
+ * (0) until saved. Equality compares contents, not versions, and the hash is
+ * computed once.
+ *
+ * Serializes to exactly the same JSON as {@link Task}.
+ */
+@JsonPropertyOrder({ "id", "title", "description", "priority", "status", "category", "createdAt", "updatedAt",
+    "dueDate", "completedAt", "recurrence", "seriesId", "occurrence", "dependsOn" })
+public final class TaskValue {
+
+  /**
+   * An edit of a task, applied with
+   * {@link com.taskmanager.repositories.TaskRepository#update}.
+   */
+  @FunctionalInterface
+  public interface Update {
+    TaskValue apply(TaskValue current) throws TaskManagerException;
+  }
+
+  private final String id;
+  private final String title;
+  private final String description;
+  private final Priority priority;
+  private final Status status;
+  private final Category category;
+  private final LocalDateTime createdAt;
+  private final LocalDateTime updatedAt;
+  private final LocalDateTime dueDate;
+  private final LocalDateTime completedAt;
+  private final RecurrenceRule recurrence;
+  private final String seriesId;
+  private final int occurrence;
+  private final Set<String> dependsOn;
+  private final long version;
+  private int hash; // 0 until first computed, like String
+
+  @JsonCreator
+  public TaskValue(@JsonProperty("id") String id, @JsonProperty("title") String title,
+      @JsonProperty("description") String description, @JsonProperty("priority") Priority priority,
+      @JsonProperty("status") Status status, @JsonProperty("category") Category category,
+      @JsonProperty("createdAt") LocalDateTime createdAt, @JsonProperty("updatedAt") LocalDateTime updatedAt,
+      @JsonProperty("dueDate") LocalDateTime dueDate, @JsonProperty("completedAt") LocalDateTime completedAt,
+      @JsonProperty("recurrence") RecurrenceRule recurrence, @JsonProperty("seriesId") String seriesId,
+      @JsonProperty("occurrence") int occurrence, @JsonProperty("dependsOn") Set<String> dependsOn) {
+    this(id, title, description, priority, status, category, createdAt, updatedAt, dueDate, completedAt, recurrence,
+        seriesId, occurrence, freeze(dependsOn), 0);
+  }
+
+  private TaskValue(String id, String title, String description, Priority priority, Status status,
+      Category category, LocalDateTime createdAt, LocalDateTime updatedAt, LocalDateTime dueDate,
+      LocalDateTime completedAt, RecurrenceRule recurrence, String seriesId, int occurrence, Set<String> dependsOn,
+      long version) {
+    this.id = id;
+    this.title = title;
+    this.description = description;
+    this.priority = priority;
+    this.status = status;
+    this.category = category;
+    this.createdAt = createdAt;
+    this.updatedAt = updatedAt;
+    this.dueDate = dueDate;
+    this.completedAt = completedAt;
+    this.recurrence = recurrence;
+    this.seriesId = seriesId;
+    this.occurrence = occurrence;
+    this.dependsOn = dependsOn;
+    this.version = version;
+  }
+
+  /**
+   * Captures the current state of a mutable task.
+   */
+  public static TaskValue of(Task task, long version) {
+    return new TaskValue(task.getId(), task.getTitle(), task.getDescription(), task.getPriority(), task.getStatus(),
+        task.getCategory(), task.getCreatedAt(), task.getUpdatedAt(), task.getDueDate(), task.getCompletedAt(),
+        task.getRecurrence(), task.getSeriesId(), task.getOccurrence(), freeze(task.getDependsOn()), version);
+  }
+
+  /**
+   * Returns a mutable task with the same contents, detached from this value.
+   */
+  public Task toTask() {
+    return new Task(this);
+  }
+
+  // Getters
+
+  public String getId() {
+    return id;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public Priority getPriority() {
+    return priority;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public Category getCategory() {
+    return category;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  public LocalDateTime getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public LocalDateTime getDueDate() {
+    return dueDate;
+  }
+
+  public LocalDateTime getCompletedAt() {
+    return completedAt;
+  }
+
+  public RecurrenceRule getRecurrence() {
+    return recurrence;
+  }
+
+  public String getSeriesId() {
+    return seriesId;
+  }
+
+  public int getOccurrence() {
+    return occurrence;
+  }
+
+  /**
+   * @return an unmodifiable set
+   */
+  public Set<String> getDependsOn() {
+    return dependsOn;
+  }
+
+  /**
+   * The repository version that published this value, or 0 if it has not
+   * been saved.
+   */
+  public long version() {
+    return version;
+  }
+
+  @JsonIgnore
+  public boolean isCompleted() {
+    return status == Status.COMPLETED;
+  }
+
+  // Copy methods
+
+  public TaskValue withTitle(String title) throws TaskManagerException {
+    if (title != null && title.length() > 100) {
+      throw new TaskManagerException("Title cannot exceed 100 characters");
+    }
+    return Objects.equals(title, this.title) ? this
+        : new TaskValue(id, title, description, priority, status, category, createdAt, updatedAt, dueDate,
+            completedAt, recurrence, seriesId, occurrence, dependsOn, 0);
+  }
+
+  public TaskValue withDescription(String description) throws TaskManagerException {
+    if (description != null && description.length() > 200) {
+      throw new TaskManagerException("Description cannot exceed 200 characters");
+    }
+    return Objects.equals(description, this.description) ? this
+        : new TaskValue(id, title, description, priority, status, category, createdAt, updatedAt, dueDate,
+            completedAt, recurrence, seriesId, occurrence, dependsOn, 0);
+  }
+
+  public TaskValue withPriority(Priority priority) {
+    return priority == this.priority ? this
+        : new TaskValue(id, title, description, priority, status, category, createdAt, updatedAt, dueDate,
+            completedAt, recurrence, seriesId, occurrence, dependsOn, 0);
+  }
+
+  /**
+   * Same rules as {@link Task#setStatus}: completing stamps
+   * {@code completedAt}, cancelling clears it.
+   */
+  public TaskValue withStatus(Status status) {
+    LocalDateTime closedAt = completedAt;
+    if (status == Status.COMPLETED) {
+      closedAt = LocalDateTime.now();
+    } else if (status == Status.CANCELLED) {
+      closedAt = null;
+    }
+    return new TaskValue(id, title, description, priority, status, category, createdAt, updatedAt, dueDate,
+        closedAt, recurrence, seriesId, occurrence, dependsOn, 0);
+  }
+
+  public TaskValue withCategory(Category category) {
+    return category == this.category ? this
+        : new TaskValue(id, title, description, priority, status, category, createdAt, updatedAt, dueDate,
+            completedAt, recurrence, seriesId, occurrence, dependsOn, 0);
+  }
+
+  public TaskValue withDueDate(LocalDateTime dueDate) {
+    return Objects.equals(dueDate, this.dueDate) ? this
+        : new TaskValue(id, title, description, priority, status, category, createdAt, updatedAt, dueDate,
+            completedAt, recurrence, seriesId, occurrence, dependsOn, 0);
+  }
+
+  public TaskValue withUpdatedAt(LocalDateTime updatedAt) {
+    return new TaskValue(id, title, description, priority, status, category, createdAt, updatedAt, dueDate,
+        completedAt, recurrence, seriesId, occurrence, dependsOn, 0);
+  }
+
+  public TaskValue withRecurrence(RecurrenceRule recurrence) {
+    return new TaskValue(id, title, description, priority, status, category, createdAt, updatedAt, dueDate,
+        completedAt, recurrence, seriesId, occurrence, dependsOn, 0);
+  }
+
+  public TaskValue withSeries(String seriesId, int occurrence) {
+    return new TaskValue(id, title, description, priority, status, category, createdAt, updatedAt, dueDate,
+        completedAt, recurrence, seriesId, occurrence, dependsOn, 0);
+  }
+
+  public TaskValue withDependsOn(Set<String> dependsOn) {
+    return new TaskValue(id, title, description, priority, status, category, createdAt, updatedAt, dueDate,
+        completedAt, recurrence, seriesId, occurrence, freeze(dependsOn), 0);
+  }
+
+  // equals and hashCode
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof TaskValue other) || hashCode() != other.hashCode()) {
+      return false;
+    }
+    return occurrence == other.occurrence && Objects.equals(id, other.id) && Objects.equals(title, other.title)
+        && Objects.equals(description, other.description) && priority == other.priority
+        && status == other.status && category == other.category && Objects.equals(createdAt, other.createdAt)
+        && Objects.equals(updatedAt, other.updatedAt) && Objects.equals(dueDate, other.dueDate)
+        && Objects.equals(completedAt, other.completedAt) && Objects.equals(recurrence, other.recurrence)
+        && Objects.equals(seriesId, other.seriesId) && dependsOn.equals(other.dependsOn);
+  }
+
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0) {
+      h = Objects.hash(id, title, description, priority, status, category, createdAt, updatedAt, dueDate,
+          completedAt, recurrence, seriesId, occurrence, dependsOn);
+      if (h == 0) {
+        h = 1;
+      }
+      hash = h;
+    }
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    return "TaskValue[" + id + " v" + version + " " + title + "]";
+  }
+
+  // Helper methods
+
+  private static Set<String> freeze(Set<String> ids) {
+    // Most tasks have no dependencies; they all share one empty set
+    return ids == null || ids.isEmpty() ? Collections.emptySet()
+        : Collections.unmodifiableSet(new LinkedHashSet<>(ids));
+  }
+}
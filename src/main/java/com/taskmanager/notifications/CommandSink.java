@@ -0,0 +1,71 @@
+package com.taskmanager.notifications;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.taskmanager.serialization.TaskJson;
+
+/**
+ * Runs a command for each batch, e.g. a script calling {@code notify-send},
+ * with the batch as a JSON array of reminders on its standard input and
+ * the number of reminders in {@code REMINDER_COUNT}. A command that exits
+ * with a non-zero status, or runs for more than 30 seconds, failed.
+ */
+public class CommandSink implements ReminderSink {
+  private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+  private final List<String> command;
+  private final Duration timeout;
+
+  public CommandSink(List<String> command) {
+    this(command, TIMEOUT);
+  }
+
+  CommandSink(List<String> command, Duration timeout) {
+    this.command = List.copyOf(command);
+    this.timeout = timeout;
+  }
+
+  @Override
+  public String name() {
+    return "command:" + String.join(" ", command);
+  }
+
+  @Override
+  public void deliver(List<Reminder> batch) throws IOException {
+    ProcessBuilder builder = new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+    builder.environment().put("REMINDER_COUNT", String.valueOf(batch.size()));
+    byte[] input = TaskJson.mapper().writeValueAsBytes(batch);
+    Process process = builder.start();
+    // A command that neither reads its input nor exits would block a write
+    // larger than the pipe buffer, so the input is written while the timeout
+    // runs; killing the command ends the write
+    Thread writer = new Thread(() -> {
+      try (OutputStream in = process.getOutputStream()) {
+        in.write(input);
+      } catch (IOException e) {
+        // The command may exit without reading its input; its status decides
+      }
+    }, "reminder-command-input");
+    writer.setDaemon(true);
+    writer.start();
+    try {
+      if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        process.destroyForcibly();
+        throw new IOException("'" + command.get(0) + "' did not finish within " + timeout.toSeconds() + " seconds");
+      }
+    } catch (InterruptedException e) {
+      process.destroyForcibly();
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while running '" + command.get(0) + "'", e);
+    }
+    if (process.exitValue() != 0) {
+      throw new IOException("'" + command.get(0) + "' exited with status " + process.exitValue());
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package com.taskmanager.notifications;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Prints reminders, one line each, e.g. below the interactive prompt.
+ */
+public class ConsoleSink implements ReminderSink {
+  private final PrintStream out;
+
+  public ConsoleSink(PrintStream out) {
+    this.out = out;
+  }
+
+  @Override
+  public String name() {
+    return "stdout";
+  }
+
+  @Override
+  public void deliver(List<Reminder> batch) {
+    StringBuilder lines = new StringBuilder();
+    for (Reminder reminder : batch) {
+      lines.append("Reminder: ").append(reminder.describe()).append('\n');
+    }
+    // One write, so a batch is not interleaved with other output
+    out.print(lines);
+    out.flush();
+  }
+}
@@ -0,0 +1,69 @@
+package com.taskmanager.notifications;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.serialization.TaskJson;
+
+/**
+ * POSTs each batch as a JSON array of reminders to an HTTP endpoint on this
+ * machine, such as a local notification daemon or a home automation hook.
+ * Other hosts are refused: reminders name tasks, which stay local.
+ */
+public class HttpSink implements ReminderSink {
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private final URI uri;
+  private final HttpClient client;
+
+  /**
+   * @throws TaskManagerException if {@code uri} is not an http URL on a
+   *                              loopback address
+   */
+  public HttpSink(URI uri) throws TaskManagerException {
+    if (!"http".equals(uri.getScheme()) || uri.getHost() == null) {
+      throw new TaskManagerException("Reminder endpoints must be http URLs, not '" + uri + "'");
+    }
+    try {
+      if (!InetAddress.getByName(uri.getHost()).isLoopbackAddress()) {
+        throw new TaskManagerException("Reminder endpoints must be on localhost, not '" + uri.getHost() + "'");
+      }
+    } catch (UnknownHostException e) {
+      throw new TaskManagerException("Unknown reminder endpoint host '" + uri.getHost() + "'", e);
+    }
+    this.uri = uri;
+    this.client = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+  }
+
+  @Override
+  public String name() {
+    return uri.toString();
+  }
+
+  @Override
+  public void deliver(List<Reminder> batch) throws IOException {
+    HttpRequest request = HttpRequest.newBuilder(uri)
+        .timeout(TIMEOUT)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofByteArray(TaskJson.mapper().writeValueAsBytes(batch)))
+        .build();
+    HttpResponse<Void> response;
+    try {
+      response = client.send(request, HttpResponse.BodyHandlers.discarding());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while posting reminders", e);
+    }
+    if (response.statusCode() >= 300) {
+      throw new IOException(uri + " answered " + response.statusCode());
+    }
+  }
+}
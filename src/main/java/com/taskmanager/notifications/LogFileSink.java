@@ -0,0 +1,36 @@
+package com.taskmanager.notifications;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Appends reminders to a log file, one timestamped line each.
+ */
+public class LogFileSink implements ReminderSink {
+  private final File file;
+
+  public LogFileSink(File file) {
+    this.file = file;
+  }
+
+  @Override
+  public String name() {
+    return "file:" + file.getPath();
+  }
+
+  @Override
+  public void deliver(List<Reminder> batch) throws IOException {
+    StringBuilder lines = new StringBuilder();
+    String now = LocalDateTime.now().toString();
+    for (Reminder reminder : batch) {
+      lines.append(now).append(' ').append(reminder.describe()).append('\n');
+    }
+    Files.writeString(file.toPath(), lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+        StandardOpenOption.APPEND);
+  }
+}
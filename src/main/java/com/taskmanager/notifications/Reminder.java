@@ -0,0 +1,25 @@
+package com.taskmanager.notifications;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import com.taskmanager.enums.ReminderKind;
+
+/**
+ * A task that is due soon or overdue, as handed to a {@link ReminderSink}.
+ * Reminders are keyed by task: a newer reminder for the same task replaces
+ * one still waiting to be delivered.
+ *
+ * @param raisedAt when the dispatcher was handed the reminder
+ */
+public record Reminder(String taskId, String title, ReminderKind kind, LocalDateTime dueDate,
+    LocalDateTime raisedAt) {
+  private static final DateTimeFormatter DUE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+  /**
+   * One line for people, e.g. {@code Overdue: Pay rent (due 2026-10-01 00:00) [id]}.
+   */
+  public String describe() {
+    return kind.getDisplayName() + ": " + title + " (due " + dueDate.format(DUE_FORMAT) + ") [" + taskId + "]";
+  }
+}
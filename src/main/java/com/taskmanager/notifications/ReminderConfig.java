@@ -0,0 +1,54 @@
+package com.taskmanager.notifications;
+
+import java.time.Duration;
+
+/**
+ * Settings for a {@link ReminderDispatcher} and {@link ReminderScanner}.
+ *
+ * @param dueSoonHours  how far ahead a due date counts as due soon
+ * @param scanInterval  how often the whole store is checked for tasks that
+ *                      became due soon or overdue as time passed
+ * @param batchInterval how long reminders are collected before a batch is
+ *                      handed to the sinks
+ * @param maxBatchSize  maximum number of reminders per delivery
+ * @param ratePerMinute reminders each sink receives per minute at most
+ * @param maxBacklog    reminders waiting per sink (and to be batched) before
+ *                      the oldest are dropped
+ * @param maxAttempts   deliveries of a batch before it is given up
+ * @param retryBackoff  wait before the first retry, doubled for each next one
+ * @param maxBackoff    longest wait between retries
+ * @param threads       delivery threads shared by the sinks
+ */
+public record ReminderConfig(int dueSoonHours, Duration scanInterval, Duration batchInterval, int maxBatchSize,
+    int ratePerMinute, int maxBacklog, int maxAttempts, Duration retryBackoff, Duration maxBackoff, int threads) {
+
+  public static ReminderConfig defaults() {
+    return new ReminderConfig(24, Duration.ofMinutes(1), Duration.ofSeconds(1), 1_000, 60_000, 100_000, 5,
+        Duration.ofMillis(500), Duration.ofSeconds(30), 4);
+  }
+
+  public ReminderConfig withDueSoonHours(int hours) {
+    return new ReminderConfig(hours, scanInterval, batchInterval, maxBatchSize, ratePerMinute, maxBacklog,
+        maxAttempts, retryBackoff, maxBackoff, threads);
+  }
+
+  public ReminderConfig withBatchInterval(Duration interval) {
+    return new ReminderConfig(dueSoonHours, scanInterval, interval, maxBatchSize, ratePerMinute, maxBacklog,
+        maxAttempts, retryBackoff, maxBackoff, threads);
+  }
+
+  public ReminderConfig withRatePerMinute(int rate) {
+    return new ReminderConfig(dueSoonHours, scanInterval, batchInterval, maxBatchSize, rate, maxBacklog,
+        maxAttempts, retryBackoff, maxBackoff, threads);
+  }
+
+  public ReminderConfig withMaxBacklog(int backlog) {
+    return new ReminderConfig(dueSoonHours, scanInterval, batchInterval, maxBatchSize, ratePerMinute, backlog,
+        maxAttempts, retryBackoff, maxBackoff, threads);
+  }
+
+  public ReminderConfig withRetries(int attempts, Duration backoff, Duration max) {
+    return new ReminderConfig(dueSoonHours, scanInterval, batchInterval, maxBatchSize, ratePerMinute, maxBacklog,
+        attempts, backoff, max, threads);
+  }
+}
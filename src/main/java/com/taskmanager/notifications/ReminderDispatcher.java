@@ -0,0 +1,333 @@
+package com.taskmanager.notifications;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers reminders to a set of sinks in batches, in the background.
+ *
+ * {@link #submit} only puts the reminder in a concurrent map keyed by task,
+ * so it never blocks and may be called from repository listeners; a second
+ * reminder for a task replaces the first until the next batch is cut. Every
+ * {@link ReminderConfig#batchInterval()}, or as soon as a full batch is
+ * waiting, a dispatcher thread hands the collected reminders to each sink's
+ * backlog, where they are coalesced by task again, and starts a delivery for
+ * every idle sink that the rate limit allows. Deliveries run on a small
+ * bounded pool, at most one per sink at a time, so a slow or unreachable
+ * sink only delays its own reminders. A failed delivery is retried with
+ * exponential backoff and jitter, up to {@link ReminderConfig#maxAttempts()}
+ * times. Beyond {@link ReminderConfig#maxBacklog()} waiting reminders the
+ * oldest are dropped and counted rather than buffered without bound.
+ *
+ * All sink state is only touched by the dispatcher thread; delivery threads
+ * report back to it.
+ */
+public class ReminderDispatcher implements AutoCloseable {
+  private static final long DRAIN_TIMEOUT_MILLIS = 5_000;
+
+  /**
+   * Counters since the dispatcher started.
+   *
+   * @param submitted reminders handed to {@link #submit}
+   * @param coalesced reminders replaced by a newer one for the same task
+   *                  before delivery
+   * @param dropped   reminders dropped because a backlog was full or the
+   *                  dispatcher was closed
+   */
+  public record Stats(long submitted, long coalesced, long dropped, List<SinkStats> sinks) {
+    public long delivered() {
+      return sinks.stream().mapToLong(SinkStats::delivered).sum();
+    }
+
+    public long failed() {
+      return sinks.stream().mapToLong(SinkStats::failed).sum();
+    }
+  }
+
+  /**
+   * @param failed    reminders given up after the last attempt
+   * @param retries   deliveries repeated after a failure
+   * @param backlog   reminders waiting for this sink
+   * @param lastError the last delivery error, or null
+   */
+  public record SinkStats(String name, long delivered, long batches, long failed, long retries, int backlog,
+      String lastError) {
+  }
+
+  private final ReminderConfig config;
+  private final List<Channel> channels = new ArrayList<>();
+  private final Map<String, Reminder> pending = new ConcurrentHashMap<>();
+  private final AtomicInteger pendingCount = new AtomicInteger();
+  private final AtomicLong submitted = new AtomicLong();
+  private final AtomicLong coalesced = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private final ScheduledExecutorService dispatcher;
+  private final ThreadPoolExecutor deliveries;
+  private volatile boolean closed;
+
+  public ReminderDispatcher(List<ReminderSink> sinks, ReminderConfig config) {
+    this.config = config;
+    for (ReminderSink sink : sinks) {
+      channels.add(new Channel(sink));
+    }
+    dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "reminder-dispatcher"));
+    AtomicInteger threadNumber = new AtomicInteger();
+    // At most one delivery per sink is queued or running, so this queue
+    // never fills up in practice; the bound is a safety net
+    deliveries = new ThreadPoolExecutor(config.threads(), config.threads(), 30, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, sinks.size())),
+        runnable -> daemon(runnable, "reminder-delivery-" + threadNumber.incrementAndGet()));
+    deliveries.allowCoreThreadTimeOut(true);
+    long interval = config.batchInterval().toMillis();
+    dispatcher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Queues a reminder for the next batch without blocking.
+   *
+   * @return false if the reminder was dropped
+   */
+  public boolean submit(Reminder reminder) {
+    submitted.incrementAndGet();
+    if (closed) {
+      dropped.incrementAndGet();
+      return false;
+    }
+    // A full map still takes reminders for tasks already in it
+    if (pendingCount.get() >= config.maxBacklog() && !pending.containsKey(reminder.taskId())) {
+      dropped.incrementAndGet();
+      return false;
+    }
+    if (pending.put(reminder.taskId(), reminder) != null) {
+      coalesced.incrementAndGet();
+    } else if (pendingCount.incrementAndGet() == config.maxBatchSize()) {
+      // A full batch need not wait for the interval
+      flushSoon();
+    }
+    return true;
+  }
+
+  /**
+   * Cuts a batch now instead of at the next interval, e.g. after a scan.
+   */
+  public void flushSoon() {
+    try {
+      dispatcher.execute(this::flush);
+    } catch (RejectedExecutionException e) {
+      // Closed
+    }
+  }
+
+  public Stats stats() {
+    List<SinkStats> sinks = new ArrayList<>();
+    for (Channel channel : channels) {
+      sinks.add(new SinkStats(channel.sink.name(), channel.delivered.get(), channel.batches.get(),
+          channel.failed.get(), channel.retries.get(), channel.backlogSize, channel.lastError));
+    }
+    return new Stats(submitted.get(), coalesced.get() + channels.stream().mapToLong(c -> c.coalesced.get()).sum(),
+        dropped.get() + channels.stream().mapToLong(c -> c.dropped.get()).sum(), sinks);
+  }
+
+  /**
+   * Stops taking reminders and delivers what is queued, waiting up to five
+   * seconds, then stops the threads and closes the sinks. Reminders still
+   * undelivered then are dropped.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MILLIS;
+    try {
+      while (!dispatcher.submit(this::drained).get(DRAIN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+          && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | TimeoutException | RejectedExecutionException e) {
+      // Give up on the rest
+    }
+    dispatcher.shutdownNow();
+    deliveries.shutdownNow();
+    for (Channel channel : channels) {
+      channel.sink.close();
+    }
+  }
+
+  // Dispatcher thread
+
+  private void flush() {
+    if (pendingCount.get() > 0) {
+      List<Reminder> batch = new ArrayList<>(pendingCount.get());
+      for (String taskId : pending.keySet()) {
+        // remove returns the latest reminder even if it was just replaced
+        Reminder reminder = pending.remove(taskId);
+        if (reminder != null) {
+          pendingCount.decrementAndGet();
+          batch.add(reminder);
+        }
+      }
+      for (Channel channel : channels) {
+        channel.enqueue(batch);
+      }
+    }
+    for (Channel channel : channels) {
+      channel.pump();
+    }
+  }
+
+  private boolean drained() {
+    flush();
+    return pendingCount.get() == 0 && channels.stream().allMatch(Channel::idle);
+  }
+
+  private void onDispatcher(Runnable step) {
+    try {
+      dispatcher.execute(step);
+    } catch (RejectedExecutionException e) {
+      // Closed; the reminders in flight are dropped
+    }
+  }
+
+  private static Thread daemon(Runnable runnable, String name) {
+    Thread thread = new Thread(runnable, name);
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  /**
+   * The backlog, rate limit and delivery in progress of one sink.
+   */
+  private final class Channel {
+    private final ReminderSink sink;
+    private final LinkedHashMap<String, Reminder> backlog = new LinkedHashMap<>();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile int backlogSize;
+    private volatile String lastError;
+    // Token bucket: a full batch may go at once, refilled at the rate
+    private final double capacity = Math.max(1, Math.min(config.maxBatchSize(), config.ratePerMinute()));
+    private double tokens = capacity;
+    private long refilledAt = System.nanoTime();
+    private List<Reminder> inFlight;
+    private int attempt;
+
+    private Channel(ReminderSink sink) {
+      this.sink = sink;
+    }
+
+    private void enqueue(List<Reminder> batch) {
+      for (Reminder reminder : batch) {
+        if (backlog.remove(reminder.taskId()) != null) {
+          coalesced.incrementAndGet();
+        }
+        backlog.put(reminder.taskId(), reminder);
+      }
+      Iterator<Reminder> oldest = backlog.values().iterator();
+      while (backlog.size() > config.maxBacklog()) {
+        oldest.next();
+        oldest.remove();
+        dropped.incrementAndGet();
+      }
+      backlogSize = backlog.size();
+    }
+
+    private boolean idle() {
+      return inFlight == null && backlog.isEmpty();
+    }
+
+    private void pump() {
+      if (inFlight != null || backlog.isEmpty()) {
+        return;
+      }
+      long now = System.nanoTime();
+      tokens = Math.min(capacity, tokens + (now - refilledAt) * config.ratePerMinute() / 60e9);
+      refilledAt = now;
+      int size = (int) Math.min(Math.min(tokens, config.maxBatchSize()), backlog.size());
+      if (size == 0) {
+        return;
+      }
+      tokens -= size;
+      List<Reminder> batch = new ArrayList<>(size);
+      Iterator<Reminder> oldest = backlog.values().iterator();
+      while (batch.size() < size) {
+        batch.add(oldest.next());
+        oldest.remove();
+      }
+      backlogSize = backlog.size();
+      inFlight = batch;
+      attempt = 1;
+      send();
+    }
+
+    private void send() {
+      List<Reminder> batch = inFlight;
+      try {
+        deliveries.execute(() -> {
+          Exception error = null;
+          try {
+            sink.deliver(batch);
+          } catch (Exception e) {
+            error = e;
+          }
+          Exception failure = error;
+          onDispatcher(() -> completed(failure));
+        });
+      } catch (RejectedExecutionException e) {
+        completed(e);
+      }
+    }
+
+    private void completed(Exception error) {
+      if (error == null) {
+        delivered.addAndGet(inFlight.size());
+        batches.incrementAndGet();
+      } else {
+        lastError = error.getMessage() != null ? error.getMessage() : error.toString();
+        if (attempt < config.maxAttempts() && !closed) {
+          retries.incrementAndGet();
+          long delay = backoff(attempt++);
+          try {
+            dispatcher.schedule(this::send, delay, TimeUnit.MILLISECONDS);
+            return;
+          } catch (RejectedExecutionException e) {
+            // Closed
+          }
+        }
+        failed.addAndGet(inFlight.size());
+      }
+      inFlight = null;
+      pump();
+    }
+
+    // Exponential with jitter, so sinks that failed together do not all
+    // retry at the same moment
+    private long backoff(int attempt) {
+      long base = config.retryBackoff().toMillis() << Math.min(attempt - 1, 20);
+      long capped = Math.min(base, config.maxBackoff().toMillis());
+      return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package com.taskmanager.notifications;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.taskmanager.enums.ReminderKind;
+import com.taskmanager.enums.Status;
+import com.taskmanager.interfaces.TaskRepositoryListener;
+import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskValue;
+import com.taskmanager.repositories.TaskRepository;
+
+/**
+ * Raises a reminder when an open task becomes due soon (within
+ * {@link ReminderConfig#dueSoonHours()}, as {@link Task#isDueSoon(int)})
+ * and again when it becomes overdue.
+ *
+ * Saved tasks are checked as they are saved; a background scan of a read
+ * view of the store, taken without locking, catches tasks that crossed a
+ * threshold as time passed. Each task is reminded once per kind and due
+ * date, so moving a due date reminds again, and completing or cancelling a
+ * task forgets it. Reminders only go to the dispatcher's queue, so neither
+ * writers nor the scan wait for a sink.
+ */
+public class ReminderScanner implements TaskRepositoryListener, AutoCloseable {
+  private final TaskRepository repository;
+  private final ReminderDispatcher dispatcher;
+  private final ReminderConfig config;
+  // What each task was last reminded of, as kind@dueDate
+  private final Map<String, String> reminded = new ConcurrentHashMap<>();
+  private ScheduledExecutorService scanner;
+
+  public ReminderScanner(TaskRepository repository, ReminderDispatcher dispatcher, ReminderConfig config) {
+    this.repository = repository;
+    this.dispatcher = dispatcher;
+    this.config = config;
+  }
+
+  /**
+   * Follows the repository and scans it now and then every
+   * {@link ReminderConfig#scanInterval()}.
+   */
+  public synchronized void start() {
+    if (scanner != null) {
+      return;
+    }
+    repository.addListener(this);
+    scanner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "reminder-scanner");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long interval = config.scanInterval().toMillis();
+    scanner.scheduleWithFixedDelay(() -> scan(LocalDateTime.now()), 0, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Checks every live task against {@code now}.
+   *
+   * @return the number of reminders raised
+   */
+  public int scan(LocalDateTime now) {
+    int raised = 0;
+    for (TaskValue task : repository.readView()) {
+      raised += check(task.getId(), task.getTitle(), task.getStatus(), task.getDueDate(), now) ? 1 : 0;
+    }
+    if (raised > 0) {
+      dispatcher.flushSoon();
+    }
+    return raised;
+  }
+
+  @Override
+  public void close() {
+    repository.removeListener(this);
+    synchronized (this) {
+      if (scanner != null) {
+        scanner.shutdownNow();
+        scanner = null;
+      }
+    }
+  }
+
+  // Called under the repository lock
+
+  @Override
+  public void onSaved(Task task) {
+    check(task.getId(), task.getTitle(), task.getStatus(), task.getDueDate(), LocalDateTime.now());
+  }
+
+  @Override
+  public void onDeleted(String id) {
+    reminded.remove(id);
+  }
+
+  // Helper methods
+
+  private boolean check(String id, String title, Status status, LocalDateTime dueDate, LocalDateTime now) {
+    ReminderKind kind = null;
+    if (dueDate != null && status != Status.COMPLETED && status != Status.CANCELLED) {
+      if (now.isAfter(dueDate)) {
+        kind = ReminderKind.OVERDUE;
+      } else if (now.plusHours(config.dueSoonHours()).isAfter(dueDate)) {
+        kind = ReminderKind.DUE_SOON;
+      }
+    }
+    if (kind == null) {
+      reminded.remove(id);
+      return false;
+    }
+    String mark = kind + "@" + dueDate;
+    if (mark.equals(reminded.put(id, mark))) {
+      return false;
+    }
+    if (!dispatcher.submit(new Reminder(id, title, kind, dueDate, now))) {
+      // Dropped, so the next scan tries again
+      reminded.remove(id, mark);
+      return false;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,23 @@
+package com.taskmanager.notifications;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Somewhere reminders are delivered to. {@link ReminderDispatcher} calls a
+ * sink from one delivery thread at a time, with batches of at most
+ * {@link ReminderConfig#maxBatchSize()} reminders; a sink that throws gets
+ * the same batch again after a backoff.
+ */
+public interface ReminderSink extends AutoCloseable {
+  /**
+   * A short name for status output and errors, e.g. {@code file:reminders.log}.
+   */
+  String name();
+
+  void deliver(List<Reminder> batch) throws IOException;
+
+  @Override
+  default void close() {
+  }
+}
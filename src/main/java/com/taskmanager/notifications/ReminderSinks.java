@@ -0,0 +1,70 @@
+package com.taskmanager.notifications;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.taskmanager.errors.TaskManagerException;
+
+/**
+ * Builds sinks from short specs, as given to {@code remind start --sinks} or
+ * the {@code taskmanager.reminders.sinks} system property, separated by
+ * commas:
+ * <ul>
+ * <li>{@code stdout}</li>
+ * <li>{@code file:<path>}, e.g. {@code file:reminders.log}</li>
+ * <li>{@code http://localhost:<port>/<path>}</li>
+ * <li>{@code command:<program> [args]}, e.g. {@code command:notify.sh -u}</li>
+ * </ul>
+ */
+public final class ReminderSinks {
+  public static final String SINKS_PROPERTY = "taskmanager.reminders.sinks";
+
+  private ReminderSinks() {
+  }
+
+  public static ReminderSink parse(String spec) throws TaskManagerException {
+    String trimmed = spec.trim();
+    if (trimmed.equals("stdout")) {
+      return new ConsoleSink(System.out);
+    }
+    if (trimmed.startsWith("file:") && trimmed.length() > "file:".length()) {
+      return new LogFileSink(new File(trimmed.substring("file:".length())));
+    }
+    if (trimmed.startsWith("http://")) {
+      try {
+        return new HttpSink(new URI(trimmed));
+      } catch (URISyntaxException e) {
+        throw new TaskManagerException("Invalid reminder endpoint '" + trimmed + "'", e);
+      }
+    }
+    if (trimmed.startsWith("command:") && !trimmed.substring("command:".length()).isBlank()) {
+      return new CommandSink(Arrays.asList(trimmed.substring("command:".length()).trim().split("\\s+")));
+    }
+    throw new TaskManagerException("Unknown reminder sink '" + trimmed
+        + "'. Use stdout, file:<path>, http://localhost:<port>/<path> or command:<program>");
+  }
+
+  public static List<ReminderSink> parseAll(String specs) throws TaskManagerException {
+    List<ReminderSink> sinks = new ArrayList<>();
+    for (String spec : specs.split(",")) {
+      if (!spec.isBlank()) {
+        sinks.add(parse(spec));
+      }
+    }
+    if (sinks.isEmpty()) {
+      throw new TaskManagerException("No reminder sinks given");
+    }
+    return sinks;
+  }
+
+  /**
+   * The sinks set by {@code taskmanager.reminders.sinks}, or stdout.
+   */
+  public static List<ReminderSink> fromSystemProperties() throws TaskManagerException {
+    return parseAll(System.getProperty(SINKS_PROPERTY, "stdout"));
+  }
+}
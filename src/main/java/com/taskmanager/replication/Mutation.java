@@ -0,0 +1,14 @@
+package com.taskmanager.replication;
+
+/**
+ * One entry of the replication log. SAVE carries the task serialized as JSON
+ * at the time of the write; DELETE and ARCHIVE only need the id.
+ */
+public record Mutation(long sequence, Type type, String taskId, byte[] payload, long recordedAtNanos) {
+
+  public enum Type {
+    SAVE,
+    DELETE,
+    ARCHIVE
+  }
+}
@@ -0,0 +1,97 @@
+package com.taskmanager.replication;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MutationLog is the in-memory tail of the primary's change stream. Entries
+ * are numbered with a gap-free sequence; followers ask for everything after
+ * the last sequence they applied. Only the newest {@code retention} entries
+ * are kept, so a follower that falls further behind is re-seeded from a
+ * snapshot instead.
+ */
+public class MutationLog {
+  private final int retention;
+  private final List<Mutation> entries = new ArrayList<>();
+  private long lastSequence;
+  private boolean closed;
+
+  public MutationLog(int retention) {
+    this.retention = retention;
+  }
+
+  public synchronized long append(Mutation.Type type, String taskId, byte[] payload) {
+    Mutation mutation = new Mutation(++lastSequence, type, taskId, payload, System.nanoTime());
+    entries.add(mutation);
+    // Trim in chunks so appends stay amortized O(1)
+    if (entries.size() > retention * 2) {
+      entries.subList(0, entries.size() - retention).clear();
+    }
+    notifyAll();
+    return mutation.sequence();
+  }
+
+  public synchronized long lastSequence() {
+    return lastSequence;
+  }
+
+  /**
+   * Whether the log still holds every mutation from {@code sequence} on.
+   */
+  public synchronized boolean covers(long sequence) {
+    return sequence > lastSequence || (!entries.isEmpty() && sequence >= entries.get(0).sequence());
+  }
+
+  /**
+   * When the mutation with {@code sequence} was recorded, or -1 if it is no
+   * longer (or not yet) in the log.
+   */
+  public synchronized long recordedAtNanos(long sequence) {
+    if (entries.isEmpty() || sequence < entries.get(0).sequence() || sequence > lastSequence) {
+      return -1;
+    }
+    return entries.get((int) (sequence - entries.get(0).sequence())).recordedAtNanos();
+  }
+
+  /**
+   * Waits up to {@code maxWaitNanos} for mutations starting at
+   * {@code fromSequence}, then lingers up to {@code lingerNanos} for the batch
+   * to fill.
+   *
+   * @return up to {@code maxCount} mutations (empty on timeout), or null if
+   *         {@code fromSequence} has already been trimmed
+   */
+  public synchronized List<Mutation> awaitFrom(long fromSequence, int maxCount, long maxWaitNanos, long lingerNanos)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + maxWaitNanos;
+    while (!closed && lastSequence < fromSequence) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return List.of();
+      }
+      wait(Math.max(1, remaining / 1_000_000));
+    }
+    long lingerDeadline = System.nanoTime() + lingerNanos;
+    while (!closed && lastSequence - fromSequence + 1 < maxCount) {
+      long remaining = lingerDeadline - System.nanoTime();
+      if (remaining <= 0) {
+        break;
+      }
+      wait(Math.max(1, remaining / 1_000_000));
+    }
+    if (closed || lastSequence < fromSequence) {
+      return List.of();
+    }
+    if (!covers(fromSequence)) {
+      return null;
+    }
+    int start = (int) (fromSequence - entries.get(0).sequence());
+    int end = Math.min(entries.size(), start + maxCount);
+    return new ArrayList<>(entries.subList(start, end));
+  }
+
+  public synchronized void close() {
+    closed = true;
+    notifyAll();
+  }
+}
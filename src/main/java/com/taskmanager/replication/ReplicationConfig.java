@@ -0,0 +1,43 @@
+package com.taskmanager.replication;
+
+import java.time.Duration;
+
+import com.taskmanager.enums.AckMode;
+
+/**
+ * Settings for a {@link ReplicationPrimary}.
+ *
+ * @param ackMode           whether writes wait for a follower acknowledgement
+ * @param ackTimeout        how long a write waits in WAIT_FOR_FOLLOWER mode
+ *                          before giving up and continuing
+ * @param maxBatchSize      maximum number of mutations per shipped batch
+ * @param batchLinger       how long to wait for more mutations before
+ *                          shipping a partial batch
+ * @param heartbeatInterval how often an idle primary sends a heartbeat
+ * @param logRetention      number of mutations kept in memory for followers
+ *                          to catch up from; older followers get a snapshot
+ * @param bindAddress       address the primary listens on
+ */
+public record ReplicationConfig(AckMode ackMode, Duration ackTimeout, int maxBatchSize, Duration batchLinger,
+    Duration heartbeatInterval, int logRetention, String bindAddress) {
+
+  public static ReplicationConfig defaults() {
+    return new ReplicationConfig(AckMode.ASYNC, Duration.ofSeconds(5), 512, Duration.ofMillis(2),
+        Duration.ofSeconds(1), 100_000, "127.0.0.1");
+  }
+
+  public ReplicationConfig withAckMode(AckMode mode) {
+    return new ReplicationConfig(mode, ackTimeout, maxBatchSize, batchLinger, heartbeatInterval, logRetention,
+        bindAddress);
+  }
+
+  public ReplicationConfig withAckTimeout(Duration timeout) {
+    return new ReplicationConfig(ackMode, timeout, maxBatchSize, batchLinger, heartbeatInterval, logRetention,
+        bindAddress);
+  }
+
+  public ReplicationConfig withBindAddress(String address) {
+    return new ReplicationConfig(ackMode, ackTimeout, maxBatchSize, batchLinger, heartbeatInterval, logRetention,
+        address);
+  }
+}
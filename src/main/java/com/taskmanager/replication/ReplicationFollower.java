@@ -0,0 +1,258 @@
+package com.taskmanager.replication;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.models.Task;
+import com.taskmanager.repositories.TaskRepository;
+import com.taskmanager.serialization.TaskJson;
+
+/**
+ * ReplicationFollower keeps a local {@link TaskRepository} in step with a
+ * {@link ReplicationPrimary}. Received batches are applied through the
+ * normal repository methods, so local listeners (work queue, dependency
+ * graph) stay consistent, and the store is flushed once per batch rather than
+ * once per mutation. A lost connection is retried with backoff; on reconnect
+ * the follower resumes from the last sequence it applied.
+ *
+ * {@link #promote()} stops following, after which the repository can be
+ * written to directly (and served to other followers) as a new primary.
+ */
+public class ReplicationFollower implements AutoCloseable {
+
+  public record Status(boolean connected, boolean promoted, long appliedSequence, long primarySequence,
+      long lagMutations, long batchesApplied, long mutationsApplied, long snapshotsApplied) {
+  }
+
+  private static final int CONNECT_TIMEOUT_MILLIS = 5_000;
+  private static final long MAX_BACKOFF_MILLIS = 5_000;
+
+  private final TaskRepository repository;
+  private final String host;
+  private final int port;
+  private final boolean restoreAutoFlush;
+  private final Object progress = new Object();
+  private Thread worker;
+  private volatile Socket socket;
+  private volatile boolean running;
+  private volatile boolean connected;
+  private volatile boolean promoted;
+  private String epoch = "";
+  private volatile long appliedSequence;
+  private volatile long primarySequence;
+  private volatile long batchesApplied;
+  private volatile long mutationsApplied;
+  private volatile long snapshotsApplied;
+
+  public ReplicationFollower(TaskRepository repository, String host, int port) {
+    this.repository = repository;
+    this.host = host;
+    this.port = port;
+    this.restoreAutoFlush = repository.isAutoFlush();
+  }
+
+  public synchronized void start() {
+    if (running || promoted) {
+      return;
+    }
+    running = true;
+    repository.setAutoFlush(false); // flushed once per applied batch instead
+    worker = new Thread(this::followLoop, "replication-follower");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  public Status status() {
+    long applied = appliedSequence;
+    return new Status(connected, promoted, applied, primarySequence, Math.max(0, primarySequence - applied),
+        batchesApplied, mutationsApplied, snapshotsApplied);
+  }
+
+  /**
+   * Blocks until the follower has applied {@code sequence}.
+   *
+   * @return false if the timeout elapsed first
+   */
+  public boolean awaitSequence(long sequence, Duration timeout) throws InterruptedException {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    synchronized (progress) {
+      while (appliedSequence < sequence) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return false;
+        }
+        progress.wait(Math.max(1, remaining / 1_000_000));
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Stops following and flushes the local store. Whatever was applied so far
+   * becomes the authoritative state of this instance.
+   */
+  public void promote() throws TaskManagerException {
+    stop();
+    promoted = true;
+    repository.setAutoFlush(restoreAutoFlush);
+    repository.saveTasks();
+  }
+
+  @Override
+  public void close() {
+    stop();
+    repository.setAutoFlush(restoreAutoFlush);
+  }
+
+  // Helper methods
+
+  private void stop() {
+    Thread thread;
+    synchronized (this) {
+      running = false;
+      thread = worker;
+      worker = null;
+    }
+    closeSocket();
+    if (thread != null && thread != Thread.currentThread()) {
+      try {
+        thread.join(CONNECT_TIMEOUT_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void followLoop() {
+    long backoff = 100;
+    while (running) {
+      try (Socket s = new Socket()) {
+        socket = s;
+        s.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+        s.setTcpNoDelay(true);
+        connected = true;
+        backoff = 100;
+        follow(s);
+      } catch (IOException | TaskManagerException e) {
+        if (running) {
+          System.err.println("Replication from " + host + ":" + port + " interrupted: " + e.getMessage());
+        }
+      } finally {
+        connected = false;
+        socket = null;
+      }
+      if (running) {
+        try {
+          Thread.sleep(backoff);
+        } catch (InterruptedException e) {
+          return;
+        }
+        backoff = Math.min(MAX_BACKOFF_MILLIS, backoff * 2);
+      }
+    }
+  }
+
+  private void follow(Socket s) throws IOException, TaskManagerException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream(), 1 << 16));
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+    ReplicationProtocol.writeHello(out, epoch, appliedSequence);
+
+    while (running) {
+      byte frame = in.readByte();
+      switch (frame) {
+        case ReplicationProtocol.SNAPSHOT -> {
+          String snapshotEpoch = in.readUTF();
+          long sequence = in.readLong();
+          byte[] live = new byte[in.readInt()];
+          in.readFully(live);
+          byte[] archived = new byte[in.readInt()];
+          in.readFully(archived);
+          applySnapshot(TaskJson.readTasks(live), TaskJson.readTasks(archived));
+          epoch = snapshotEpoch;
+          primarySequence = Math.max(primarySequence, sequence);
+          snapshotsApplied++;
+          advanceTo(sequence);
+        }
+        case ReplicationProtocol.BATCH -> {
+          primarySequence = in.readLong();
+          List<Mutation> batch = ReplicationProtocol.readBatchBody(in);
+          apply(batch);
+          batchesApplied++;
+          mutationsApplied += batch.size();
+          if (!batch.isEmpty()) {
+            advanceTo(batch.get(batch.size() - 1).sequence());
+          }
+        }
+        case ReplicationProtocol.HEARTBEAT -> primarySequence = in.readLong();
+        default -> throw new IOException("Unknown replication frame type " + frame);
+      }
+      out.writeLong(appliedSequence);
+      out.flush();
+    }
+  }
+
+  private void apply(List<Mutation> batch) throws IOException, TaskManagerException {
+    List<String> archived = new ArrayList<>();
+    for (Mutation mutation : batch) {
+      if (mutation.type() != Mutation.Type.ARCHIVE && !archived.isEmpty()) {
+        repository.archive(archived); // keep ordering relative to other mutations
+        archived.clear();
+      }
+      switch (mutation.type()) {
+        case SAVE -> repository.save(TaskJson.readTask(mutation.payload()));
+        case DELETE -> {
+          // Already gone if, e.g., the delete was part of a snapshot we applied
+          if (repository.findIfPresent(mutation.taskId()).isPresent()) {
+            repository.deleteById(mutation.taskId());
+          }
+        }
+        case ARCHIVE -> archived.add(mutation.taskId());
+      }
+    }
+    if (!archived.isEmpty()) {
+      repository.archive(archived);
+    }
+    repository.saveTasks();
+  }
+
+  private void applySnapshot(List<Task> live, List<Task> archived) throws TaskManagerException {
+    List<Task> all = new ArrayList<>(live.size() + archived.size());
+    all.addAll(live);
+    all.addAll(archived);
+    repository.replaceAll(all);
+    List<String> archivedIds = new ArrayList<>(archived.size());
+    for (Task task : archived) {
+      archivedIds.add(task.getId());
+    }
+    if (repository.archive(archivedIds) == 0) {
+      repository.saveTasks(); // archiving flushes the live store itself
+    }
+  }
+
+  private void advanceTo(long sequence) {
+    synchronized (progress) {
+      appliedSequence = sequence;
+      progress.notifyAll();
+    }
+  }
+
+  private void closeSocket() {
+    Socket s = socket;
+    if (s != null) {
+      try {
+        s.close();
+      } catch (IOException e) {
+        // Already closed
+      }
+    }
+  }
+}
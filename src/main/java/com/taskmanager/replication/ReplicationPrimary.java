@@ -0,0 +1,358 @@
+package com.taskmanager.replication;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.taskmanager.enums.AckMode;
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.interfaces.TaskRepositoryListener;
+import com.taskmanager.models.Task;
+import com.taskmanager.repositories.TaskReadView;
+import com.taskmanager.repositories.TaskRepository;
+import com.taskmanager.serialization.TaskJson;
+
+/**
+ * ReplicationPrimary streams every mutation of a {@link TaskRepository} to
+ * connected {@link ReplicationFollower}s over TCP.
+ *
+ * Mutations are captured by a repository listener, so they are recorded in
+ * commit order under the repository lock, and appended to a
+ * {@link MutationLog}. One session thread per follower ships them in batches
+ * of up to {@link ReplicationConfig#maxBatchSize()} and waits for the
+ * follower to acknowledge each batch. A follower that connects for the first
+ * time, or that has fallen behind the retained log, first receives a full
+ * snapshot.
+ *
+ * In {@link AckMode#WAIT_FOR_FOLLOWER} mode a write does not return until at
+ * least one connected follower has applied it (or the ack timeout passes);
+ * with no follower connected, writes proceed as in ASYNC mode. The listener
+ * only notes the sequence of each mutation; the writer waits in
+ * {@link #afterWrite()}, after the repository lock is released, so readers,
+ * other writers and snapshots for reconnecting followers are not held up.
+ */
+public class ReplicationPrimary implements TaskRepositoryListener, AutoCloseable {
+
+  /**
+   * Replication progress of one connected follower.
+   *
+   * @param lagMutations mutations recorded on the primary but not yet
+   *                     acknowledged by the follower
+   * @param lagTime      age of the oldest unacknowledged mutation
+   */
+  public record FollowerStatus(String address, long ackedSequence, long lagMutations, Duration lagTime,
+      long batchesSent, long mutationsSent, long bytesSent, long snapshotsSent) {
+  }
+
+  private final TaskRepository repository;
+  private final ReplicationConfig config;
+  private final MutationLog log;
+  private final String epoch = UUID.randomUUID().toString();
+  private final List<Session> sessions = new CopyOnWriteArrayList<>();
+  private final Object ackMonitor = new Object();
+  private final AtomicLong ackTimeouts = new AtomicLong();
+  // Highest sequence the current thread's write produced, until it waits
+  private final ThreadLocal<Long> unacknowledged = new ThreadLocal<>();
+  private long highestAck;
+  private ServerSocket serverSocket;
+  private Thread acceptor;
+  private volatile boolean running;
+
+  public ReplicationPrimary(TaskRepository repository, ReplicationConfig config) {
+    this.repository = repository;
+    this.config = config;
+    this.log = new MutationLog(config.logRetention());
+  }
+
+  /**
+   * Starts listening and capturing mutations.
+   *
+   * @param port the port to listen on, or 0 for an ephemeral port
+   * @return the port actually bound
+   */
+  public synchronized int start(int port) throws IOException {
+    if (running) {
+      return serverSocket.getLocalPort();
+    }
+    serverSocket = new ServerSocket(port, 50, InetAddress.getByName(config.bindAddress()));
+    running = true;
+    repository.addListener(this);
+    acceptor = new Thread(this::acceptLoop, "replication-acceptor");
+    acceptor.setDaemon(true);
+    acceptor.start();
+    return serverSocket.getLocalPort();
+  }
+
+  public int getPort() {
+    return serverSocket != null ? serverSocket.getLocalPort() : -1;
+  }
+
+  public String getEpoch() {
+    return epoch;
+  }
+
+  public ReplicationConfig getConfig() {
+    return config;
+  }
+
+  public long lastSequence() {
+    return log.lastSequence();
+  }
+
+  /**
+   * Number of writes that gave up waiting for a follower acknowledgement in
+   * WAIT_FOR_FOLLOWER mode.
+   */
+  public long ackTimeouts() {
+    return ackTimeouts.get();
+  }
+
+  public List<FollowerStatus> followers() {
+    List<FollowerStatus> statuses = new ArrayList<>();
+    long last = log.lastSequence();
+    long now = System.nanoTime();
+    for (Session session : sessions) {
+      long acked = session.ackedSequence;
+      long lag = Math.max(0, last - acked);
+      Duration lagTime = Duration.ZERO;
+      if (lag > 0) {
+        long recordedAt = log.recordedAtNanos(acked + 1);
+        lagTime = Duration.ofNanos(now - (recordedAt >= 0 ? recordedAt : session.lastAckNanos));
+      }
+      statuses.add(new FollowerStatus(session.address, acked, lag, lagTime, session.batchesSent,
+          session.mutationsSent, session.bytesSent, session.snapshotsSent));
+    }
+    return statuses;
+  }
+
+  @Override
+  public void onSaved(Task task) {
+    byte[] payload;
+    try {
+      payload = TaskJson.writeTaskAsBytes(task);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to serialize task '" + task.getId() + "' for replication", e);
+    }
+    recordForAck(log.append(Mutation.Type.SAVE, task.getId(), payload));
+  }
+
+  @Override
+  public void onDeleted(String id) {
+    recordForAck(log.append(Mutation.Type.DELETE, id, null));
+  }
+
+  @Override
+  public void onArchived(Task task) {
+    recordForAck(log.append(Mutation.Type.ARCHIVE, task.getId(), null));
+  }
+
+  @Override
+  public void afterWrite() {
+    Long sequence = unacknowledged.get();
+    if (sequence != null) {
+      unacknowledged.remove();
+      awaitAck(sequence);
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    repository.removeListener(this);
+    log.close();
+    try {
+      serverSocket.close();
+    } catch (IOException e) {
+      // Already closed
+    }
+    for (Session session : sessions) {
+      session.close();
+    }
+    synchronized (ackMonitor) {
+      ackMonitor.notifyAll();
+    }
+  }
+
+  // Helper methods
+
+  // Called under the repository lock, so it must not wait
+  private void recordForAck(long sequence) {
+    if (config.ackMode() == AckMode.WAIT_FOR_FOLLOWER) {
+      unacknowledged.set(sequence); // sequences only grow
+    }
+  }
+
+  private void awaitAck(long sequence) {
+    if (config.ackMode() != AckMode.WAIT_FOR_FOLLOWER || sessions.isEmpty()) {
+      return;
+    }
+    long deadline = System.nanoTime() + config.ackTimeout().toNanos();
+    synchronized (ackMonitor) {
+      while (running && highestAck < sequence && !sessions.isEmpty()) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          ackTimeouts.incrementAndGet();
+          return;
+        }
+        try {
+          ackMonitor.wait(Math.max(1, remaining / 1_000_000));
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  private void acceptLoop() {
+    while (running) {
+      try {
+        Socket socket = serverSocket.accept();
+        socket.setTcpNoDelay(true);
+        Session session = new Session(socket);
+        Thread thread = new Thread(session, "replication-session-" + session.address);
+        thread.setDaemon(true);
+        thread.start();
+      } catch (IOException e) {
+        if (running) {
+          System.err.println("Replication accept failed: " + e.getMessage());
+        }
+      }
+    }
+  }
+
+  private final class Session implements Runnable {
+    private final Socket socket;
+    private final String address;
+    private volatile long ackedSequence;
+    private volatile long lastAckNanos = System.nanoTime();
+    private volatile long batchesSent;
+    private volatile long mutationsSent;
+    private volatile long bytesSent;
+    private volatile long snapshotsSent;
+
+    private Session(Socket socket) {
+      this.socket = socket;
+      this.address = socket.getRemoteSocketAddress().toString();
+    }
+
+    @Override
+    public void run() {
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+          DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16))) {
+        ReplicationProtocol.Hello hello = ReplicationProtocol.readHello(in);
+        long next;
+        if (epoch.equals(hello.epoch()) && log.covers(hello.lastAppliedSequence() + 1)) {
+          next = hello.lastAppliedSequence() + 1;
+          ackedSequence = hello.lastAppliedSequence();
+        } else {
+          next = sendSnapshot(in, out);
+        }
+        sessions.add(this);
+
+        long heartbeatNanos = config.heartbeatInterval().toNanos();
+        long lingerNanos = config.batchLinger().toNanos();
+        while (running) {
+          List<Mutation> batch = log.awaitFrom(next, config.maxBatchSize(), heartbeatNanos, lingerNanos);
+          if (batch == null) {
+            next = sendSnapshot(in, out); // fell behind the retained log
+          } else if (batch.isEmpty()) {
+            out.writeByte(ReplicationProtocol.HEARTBEAT);
+            out.writeLong(log.lastSequence());
+            out.flush();
+            acknowledge(in.readLong());
+          } else {
+            bytesSent += ReplicationProtocol.writeBatch(out, log.lastSequence(), batch);
+            batchesSent++;
+            mutationsSent += batch.size();
+            next = batch.get(batch.size() - 1).sequence() + 1;
+            acknowledge(in.readLong());
+          }
+        }
+      } catch (IOException e) {
+        if (running && !(e instanceof SocketException) && !(e instanceof EOFException)) {
+          System.err.println("Replication to " + address + " stopped: " + e.getMessage());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        sessions.remove(this);
+        close();
+        synchronized (ackMonitor) {
+          ackMonitor.notifyAll(); // writers waiting on this follower stop waiting
+        }
+      }
+    }
+
+    /**
+     * Sends the full store. The read view and its sequence are taken under the
+     * repository lock, so no mutation can fall between them; the live tasks
+     * are then serialized from the view without holding up writers.
+     *
+     * @return the next sequence to ship after the snapshot
+     */
+    private long sendSnapshot(DataInputStream in, DataOutputStream out) throws IOException {
+      TaskReadView view;
+      byte[] archived;
+      long sequence;
+      synchronized (repository) {
+        view = repository.readView();
+        try {
+          archived = TaskJson.writeTasksAsBytes(repository.fetchArchived());
+        } catch (TaskManagerException e) {
+          throw new IOException("Failed to read the archive for a snapshot", e);
+        }
+        sequence = log.lastSequence();
+      }
+      byte[] live = TaskJson.writeTaskValuesAsBytes(view.toList());
+      out.writeByte(ReplicationProtocol.SNAPSHOT);
+      out.writeUTF(epoch);
+      out.writeLong(sequence);
+      out.writeInt(live.length);
+      out.write(live);
+      out.writeInt(archived.length);
+      out.write(archived);
+      out.flush();
+      bytesSent += live.length + archived.length;
+      snapshotsSent++;
+      acknowledge(in.readLong());
+      return sequence + 1;
+    }
+
+    private void acknowledge(long sequence) {
+      lastAckNanos = System.nanoTime();
+      synchronized (ackMonitor) {
+        ackedSequence = sequence;
+        if (sequence > highestAck) {
+          highestAck = sequence;
+        }
+        ackMonitor.notifyAll();
+      }
+    }
+
+    private void close() {
+      try {
+        socket.close();
+      } catch (IOException e) {
+        // Already closed
+      }
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.taskmanager.replication;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wire format shared by {@link ReplicationPrimary} and
+ * {@link ReplicationFollower}. All integers are big-endian.
+ *
+ * <pre>
+ * follower -> primary  HELLO     int magic, byte version, UTF epoch, long lastAppliedSequence
+ * primary  -> follower SNAPSHOT  byte 1, UTF epoch, long sequence, int length, JSON live tasks,
+ *                                int length, JSON archived tasks
+ *                      BATCH     byte 2, long primarySequence, int count,
+ *                                count x (long sequence, byte type, UTF taskId, int length, payload)
+ *                      HEARTBEAT byte 3, long primarySequence
+ * follower -> primary  ACK       long appliedSequence   (after every frame)
+ * </pre>
+ */
+final class ReplicationProtocol {
+  static final int MAGIC = 0x544D5250; // "TMRP"
+  static final int VERSION = 1;
+
+  static final byte SNAPSHOT = 1;
+  static final byte BATCH = 2;
+  static final byte HEARTBEAT = 3;
+
+  private ReplicationProtocol() {
+  }
+
+  record Hello(String epoch, long lastAppliedSequence) {
+  }
+
+  static void writeHello(DataOutputStream out, String epoch, long lastAppliedSequence) throws IOException {
+    out.writeInt(MAGIC);
+    out.writeByte(VERSION);
+    out.writeUTF(epoch == null ? "" : epoch);
+    out.writeLong(lastAppliedSequence);
+    out.flush();
+  }
+
+  static Hello readHello(DataInputStream in) throws IOException {
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Peer is not a task manager replication follower");
+    }
+    int version = in.readUnsignedByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported replication protocol version " + version);
+    }
+    return new Hello(in.readUTF(), in.readLong());
+  }
+
+  /**
+   * @return the number of bytes written
+   */
+  static int writeBatch(DataOutputStream out, long primarySequence, List<Mutation> batch) throws IOException {
+    int before = out.size();
+    out.writeByte(BATCH);
+    out.writeLong(primarySequence);
+    out.writeInt(batch.size());
+    for (Mutation mutation : batch) {
+      out.writeLong(mutation.sequence());
+      out.writeByte(mutation.type().ordinal());
+      out.writeUTF(mutation.taskId());
+      byte[] payload = mutation.payload() == null ? new byte[0] : mutation.payload();
+      out.writeInt(payload.length);
+      out.write(payload);
+    }
+    out.flush();
+    return out.size() - before;
+  }
+
+  static List<Mutation> readBatchBody(DataInputStream in) throws IOException {
+    int count = in.readInt();
+    List<Mutation> batch = new ArrayList<>(count);
+    Mutation.Type[] types = Mutation.Type.values();
+    for (int i = 0; i < count; i++) {
+      long sequence = in.readLong();
+      Mutation.Type type = types[in.readUnsignedByte()];
+      String taskId = in.readUTF();
+      byte[] payload = new byte[in.readInt()];
+      in.readFully(payload);
+      batch.add(new Mutation(sequence, type, taskId, payload, System.nanoTime()));
+    }
+    return batch;
+  }
+}
@@ -0,0 +1,106 @@
+package com.taskmanager.repositories;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A fixed-size Bloom filter over strings. {@link #mightContain} never returns
+ * false for a value that was added, and returns true for an absent value
+ * with roughly the false-positive rate the filter was sized for.
+ *
+ * Probe positions come from double hashing two halves of a 64-bit FNV-1a /
+ * murmur-finalized hash, so each lookup hashes the value once.
+ */
+public class BloomFilter {
+  private final long[] bits;
+  private final int hashCount;
+  private final long bitSize;
+
+  /**
+   * @param expectedInsertions     number of values the filter is sized for
+   * @param falsePositiveRate      target rate once that many are added
+   */
+  public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+    int n = Math.max(1, expectedInsertions);
+    long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    m = Math.max(64, m);
+    this.bits = new long[(int) ((m + 63) / 64)];
+    this.bitSize = (long) bits.length * 64;
+    this.hashCount = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+  }
+
+  private BloomFilter(long[] bits, int hashCount) {
+    this.bits = bits;
+    this.hashCount = hashCount;
+    this.bitSize = (long) bits.length * 64;
+  }
+
+  public void put(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashCount; i++) {
+      long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitSize;
+      bits[(int) (bit >>> 6)] |= 1L << bit;
+    }
+  }
+
+  public boolean mightContain(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashCount; i++) {
+      long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitSize;
+      if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public long bitSize() {
+    return bitSize;
+  }
+
+  public int hashCount() {
+    return hashCount;
+  }
+
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeInt(hashCount);
+    out.writeInt(bits.length);
+    for (long word : bits) {
+      out.writeLong(word);
+    }
+  }
+
+  public static BloomFilter readFrom(DataInput in) throws IOException {
+    int hashCount = in.readInt();
+    int words = in.readInt();
+    if (hashCount < 1 || words < 1) {
+      throw new IOException("Corrupt Bloom filter header");
+    }
+    long[] bits = new long[words];
+    for (int i = 0; i < words; i++) {
+      bits[i] = in.readLong();
+    }
+    return new BloomFilter(bits, hashCount);
+  }
+
+  private static long hash(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b;
+      hash *= 0x100000001b3L;
+    }
+    // Finalizer from MurmurHash3 to spread FNV's weak low bits
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
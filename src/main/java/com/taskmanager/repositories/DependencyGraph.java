@@ -0,0 +1,317 @@
+package com.taskmanager.repositories;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.taskmanager.enums.Status;
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.models.Task;
+
+/**
+ * DependencyGraph keeps "task depends on blocker" edges as adjacency sets in
+ * both directions, together with a per-task count of unresolved blockers.
+ * The ready set (open tasks with no unresolved blockers) is maintained
+ * incrementally: resolving a task only touches its direct dependents, so it
+ * is never recomputed from scratch.
+ * Cycle detection keeps a dynamic topological order (Pearce-Kelly): an edge
+ * that already agrees with the order costs O(1), and otherwise only the
+ * region of the order between the two endpoints is searched and reordered.
+ * A {@link ReadyListener} is told whenever a task enters or leaves the ready
+ * set, so that others can follow it without polling.
+ */
+public class DependencyGraph {
+
+  /**
+   * Told when a task becomes ready or stops being ready. Called from the
+   * method that changed the graph.
+   */
+  @FunctionalInterface
+  public interface ReadyListener {
+    void readyChanged(String id, boolean ready);
+  }
+
+  private record ReadyKey(int level, LocalDateTime dueDate, LocalDateTime createdAt, String id) {
+  }
+
+  private static final Comparator<ReadyKey> READY_ORDER = Comparator
+      .comparingInt(ReadyKey::level).reversed()
+      .thenComparing(ReadyKey::dueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+      .thenComparing(ReadyKey::createdAt, Comparator.nullsLast(Comparator.naturalOrder()))
+      .thenComparing(ReadyKey::id);
+
+  private final Map<String, Set<String>> dependencies = new HashMap<>(); // task -> blockers
+  private final Map<String, Set<String>> dependents = new HashMap<>(); // blocker -> tasks
+  private final Map<String, Integer> unresolved = new HashMap<>();
+  private final Set<String> resolved = new HashSet<>();
+  // Ordering keys of every open task; the ready set holds the unblocked ones.
+  // Keys are snapshots, so in-place edits to a Task cannot corrupt the TreeSet.
+  private final Map<String, ReadyKey> openKeys = new HashMap<>();
+  private final TreeSet<ReadyKey> ready = new TreeSet<>(READY_ORDER);
+  // Topological position of every task: blockers always sort before dependents
+  private final Map<String, Integer> topoOrder = new HashMap<>();
+  private int nextOrder;
+  private final ReadyListener readyListener;
+
+  public DependencyGraph() {
+    this((id, ready) -> {
+    });
+  }
+
+  public DependencyGraph(ReadyListener readyListener) {
+    this.readyListener = readyListener;
+  }
+
+  /**
+   * Registers a task or refreshes its state after it was modified. Called by
+   * the repository on every save, so a status change to COMPLETED (or
+   * CANCELLED) unblocks its dependents here.
+   */
+  public void track(Task task) {
+    String id = task.getId();
+    boolean isResolved = isResolved(task.getStatus());
+    if (unresolved.putIfAbsent(id, 0) == null) {
+      topoOrder.put(id, nextOrder++);
+    }
+
+    if (isResolved && resolved.add(id)) {
+      for (String dependent : dependentsOf(id)) {
+        adjustUnresolved(dependent, -1);
+      }
+    } else if (!isResolved && resolved.remove(id)) {
+      for (String dependent : dependentsOf(id)) {
+        adjustUnresolved(dependent, +1);
+      }
+    }
+
+    ReadyKey previous = isResolved ? openKeys.remove(id) : openKeys.put(id, keyOf(task));
+    boolean wasReady = previous != null && ready.remove(previous);
+    boolean isReady = !isResolved && unresolved.get(id) == 0;
+    if (isReady) {
+      ready.add(openKeys.get(id));
+    }
+    if (isReady != wasReady) {
+      readyListener.readyChanged(id, isReady);
+    }
+  }
+
+  /**
+   * Removes a task and all of its edges. Its dependents lose a blocker.
+   */
+  public void untrack(String id) {
+    boolean wasResolved = resolved.remove(id);
+    for (String dependent : dependentsOf(id)) {
+      dependencies.get(dependent).remove(id);
+      if (!wasResolved) {
+        adjustUnresolved(dependent, -1);
+      }
+    }
+    for (String blocker : dependenciesOf(id)) {
+      dependents.get(blocker).remove(id);
+    }
+    dependents.remove(id);
+    dependencies.remove(id);
+    unresolved.remove(id);
+    topoOrder.remove(id);
+    ReadyKey key = openKeys.remove(id);
+    if (key != null && ready.remove(key)) {
+      readyListener.readyChanged(id, false);
+    }
+  }
+
+  /**
+   * Adds an edge meaning task {@code id} cannot start until {@code blockerId} is
+   * resolved.
+   *
+   * @return true if the edge was added, false if it already existed
+   * @throws TaskManagerException if either task is unknown or the edge would
+   *                              create a cycle
+   */
+  public boolean addEdge(String id, String blockerId) throws TaskManagerException {
+    if (!unresolved.containsKey(id) || !unresolved.containsKey(blockerId)) {
+      throw new TaskManagerException("Both tasks must exist to add a dependency");
+    }
+    if (dependenciesOf(id).contains(blockerId)) {
+      return false;
+    }
+    int lowerBound = topoOrder.get(id);
+    int upperBound = topoOrder.get(blockerId);
+    if (lowerBound <= upperBound) {
+      // The task sits before its new blocker; the order must be repaired
+      List<String> forward = new ArrayList<>();
+      if (lowerBound == upperBound || !collectForward(id, blockerId, upperBound, forward)) {
+        throw new TaskManagerException("Dependency from '" + id + "' on '" + blockerId + "' would create a cycle");
+      }
+      reorder(collectBackward(blockerId, lowerBound), forward);
+    }
+    dependencies.computeIfAbsent(id, k -> new LinkedHashSet<>()).add(blockerId);
+    dependents.computeIfAbsent(blockerId, k -> new LinkedHashSet<>()).add(id);
+    if (!resolved.contains(blockerId)) {
+      adjustUnresolved(id, +1);
+    }
+    return true;
+  }
+
+  /**
+   * Removes an edge added by {@link #addEdge}.
+   *
+   * @return true if the edge existed
+   */
+  public boolean removeEdge(String id, String blockerId) {
+    Set<String> blockers = dependencies.get(id);
+    if (blockers == null || !blockers.remove(blockerId)) {
+      return false;
+    }
+    dependents.get(blockerId).remove(id);
+    if (!resolved.contains(blockerId)) {
+      adjustUnresolved(id, -1);
+    }
+    return true;
+  }
+
+  /**
+   * Returns up to {@code limit} ready task ids, highest priority first, then
+   * earliest due date. A limit below 1 returns no ids.
+   */
+  public List<String> ready(int limit) {
+    if (limit <= 0) {
+      return new ArrayList<>();
+    }
+    List<String> ids = new ArrayList<>(Math.min(limit, ready.size()));
+    for (ReadyKey key : ready) {
+      if (ids.size() >= limit) {
+        break;
+      }
+      ids.add(key.id());
+    }
+    return ids;
+  }
+
+  public boolean isReady(String id) {
+    return openKeys.containsKey(id) && unresolvedCount(id) == 0;
+  }
+
+  public int unresolvedCount(String id) {
+    return unresolved.getOrDefault(id, 0);
+  }
+
+  public Set<String> dependenciesOf(String id) {
+    return dependencies.getOrDefault(id, Set.of());
+  }
+
+  public Set<String> dependentsOf(String id) {
+    return dependents.getOrDefault(id, Set.of());
+  }
+
+  // Helper methods
+
+  /**
+   * Collects tasks reachable through dependents from {@code start} whose
+   * position does not exceed {@code upperBound}. Returns false if
+   * {@code target} is reached, which means the new edge closes a cycle.
+   */
+  private boolean collectForward(String start, String target, int upperBound, List<String> visited) {
+    Deque<String> stack = new ArrayDeque<>();
+    Set<String> seen = new HashSet<>();
+    stack.push(start);
+    seen.add(start);
+    while (!stack.isEmpty()) {
+      String current = stack.pop();
+      visited.add(current);
+      for (String next : dependentsOf(current)) {
+        if (next.equals(target)) {
+          return false;
+        }
+        if (topoOrder.get(next) < upperBound && seen.add(next)) {
+          stack.push(next);
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Collects tasks reachable through dependencies from {@code start} whose
+   * position is above {@code lowerBound}.
+   */
+  private List<String> collectBackward(String start, int lowerBound) {
+    List<String> visited = new ArrayList<>();
+    Deque<String> stack = new ArrayDeque<>();
+    Set<String> seen = new HashSet<>();
+    stack.push(start);
+    seen.add(start);
+    while (!stack.isEmpty()) {
+      String current = stack.pop();
+      visited.add(current);
+      for (String next : dependenciesOf(current)) {
+        if (topoOrder.get(next) > lowerBound && seen.add(next)) {
+          stack.push(next);
+        }
+      }
+    }
+    return visited;
+  }
+
+  /**
+   * Reassigns the positions held by both regions so that every backward
+   * (blocker-side) task precedes every forward (dependent-side) task.
+   */
+  private void reorder(List<String> backward, List<String> forward) {
+    Comparator<String> byOrder = Comparator.comparingInt(topoOrder::get);
+    backward.sort(byOrder);
+    forward.sort(byOrder);
+
+    List<Integer> slots = new ArrayList<>(backward.size() + forward.size());
+    for (String id : backward) {
+      slots.add(topoOrder.get(id));
+    }
+    for (String id : forward) {
+      slots.add(topoOrder.get(id));
+    }
+    slots.sort(null);
+
+    int slot = 0;
+    for (String id : backward) {
+      topoOrder.put(id, slots.get(slot++));
+    }
+    for (String id : forward) {
+      topoOrder.put(id, slots.get(slot++));
+    }
+  }
+
+  private void adjustUnresolved(String id, int delta) {
+    int before = unresolved.getOrDefault(id, 0);
+    int after = Math.max(0, before + delta);
+    unresolved.put(id, after);
+
+    ReadyKey key = openKeys.get(id);
+    if (key == null) {
+      return;
+    }
+    if (before > 0 && after == 0) {
+      ready.add(key);
+      readyListener.readyChanged(id, true);
+    } else if (before == 0 && after > 0) {
+      ready.remove(key);
+      readyListener.readyChanged(id, false);
+    }
+  }
+
+  private static ReadyKey keyOf(Task task) {
+    return new ReadyKey(task.getPriority() != null ? task.getPriority().getLevel() : 0,
+        task.getDueDate(), task.getCreatedAt(), task.getId());
+  }
+
+  private static boolean isResolved(Status status) {
+    return status == Status.COMPLETED || status == Status.CANCELLED;
+  }
+}
@@ -0,0 +1,74 @@
+package com.taskmanager.repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * IdPrefixIndex resolves abbreviated task ids, git-style. Ids are kept in
+ * sorted order, which makes every id sharing a prefix a contiguous range:
+ * resolving a prefix is one O(log N) seek plus a look at the next entry, and
+ * the shortest unambiguous prefix of an id only depends on its two
+ * neighbours. This gives the lookups of a radix tree without a node per
+ * character.
+ */
+public class IdPrefixIndex {
+  private final NavigableSet<String> ids = new ConcurrentSkipListSet<>();
+
+  public void add(String id) {
+    ids.add(id);
+  }
+
+  public void remove(String id) {
+    ids.remove(id);
+  }
+
+  public void clear() {
+    ids.clear();
+  }
+
+  public int size() {
+    return ids.size();
+  }
+
+  /**
+   * Returns up to {@code limit} ids starting with {@code prefix}, in sorted
+   * order. Asking for two is enough to tell unique from ambiguous.
+   */
+  public List<String> matches(String prefix, int limit) {
+    List<String> found = new ArrayList<>(Math.min(limit, 8));
+    for (String id : ids.tailSet(prefix, true)) {
+      if (found.size() >= limit || !id.startsWith(prefix)) {
+        break;
+      }
+      found.add(id);
+    }
+    return found;
+  }
+
+  /**
+   * Length of the shortest prefix of {@code id} that matches no other id.
+   */
+  public int shortestUniquePrefix(String id) {
+    int common = 0;
+    String lower = ids.lower(id);
+    if (lower != null) {
+      common = Math.max(common, commonPrefixLength(lower, id));
+    }
+    String higher = ids.higher(id);
+    if (higher != null) {
+      common = Math.max(common, commonPrefixLength(higher, id));
+    }
+    return Math.min(id.length(), common + 1);
+  }
+
+  private static int commonPrefixLength(String a, String b) {
+    int limit = Math.min(a.length(), b.length());
+    int i = 0;
+    while (i < limit && a.charAt(i) == b.charAt(i)) {
+      i++;
+    }
+    return i;
+  }
+}
@@ -0,0 +1,174 @@
+package com.taskmanager.repositories;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable sorted map (an AVL tree with path copying). {@link #plus} and
+ * {@link #minus} return a new map in O(log N) and share every untouched node
+ * with the old one, so keeping an old version around costs nothing and
+ * readers of it never need a lock.
+ */
+final class PersistentSortedMap<K extends Comparable<? super K>, V> {
+
+  private static final PersistentSortedMap<?, ?> EMPTY = new PersistentSortedMap<>(null);
+
+  private record Node<K, V>(K key, V value, Node<K, V> left, Node<K, V> right, int height, int size) {
+  }
+
+  private final Node<K, V> root;
+
+  private PersistentSortedMap(Node<K, V> root) {
+    this.root = root;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <K extends Comparable<? super K>, V> PersistentSortedMap<K, V> empty() {
+    return (PersistentSortedMap<K, V>) EMPTY;
+  }
+
+  int size() {
+    return size(root);
+  }
+
+  V get(K key) {
+    Node<K, V> node = root;
+    while (node != null) {
+      int cmp = key.compareTo(node.key);
+      if (cmp == 0) {
+        return node.value;
+      }
+      node = cmp < 0 ? node.left : node.right;
+    }
+    return null;
+  }
+
+  PersistentSortedMap<K, V> plus(K key, V value) {
+    Node<K, V> updated = insert(root, key, value);
+    return updated == root ? this : new PersistentSortedMap<>(updated);
+  }
+
+  PersistentSortedMap<K, V> minus(K key) {
+    Node<K, V> updated = remove(root, key);
+    return updated == root ? this : new PersistentSortedMap<>(updated);
+  }
+
+  /**
+   * Values in key order, read lazily.
+   */
+  Iterator<V> values() {
+    return new Iterator<>() {
+      private final Deque<Node<K, V>> path = new ArrayDeque<>();
+      {
+        descendLeft(root);
+      }
+
+      @Override
+      public boolean hasNext() {
+        return !path.isEmpty();
+      }
+
+      @Override
+      public V next() {
+        if (path.isEmpty()) {
+          throw new NoSuchElementException();
+        }
+        Node<K, V> node = path.pop();
+        descendLeft(node.right);
+        return node.value;
+      }
+
+      private void descendLeft(Node<K, V> node) {
+        for (; node != null; node = node.left) {
+          path.push(node);
+        }
+      }
+    };
+  }
+
+  // Helper methods
+
+  private static int height(Node<?, ?> node) {
+    return node == null ? 0 : node.height;
+  }
+
+  private static int size(Node<?, ?> node) {
+    return node == null ? 0 : node.size;
+  }
+
+  private static <K, V> Node<K, V> node(K key, V value, Node<K, V> left, Node<K, V> right) {
+    return new Node<>(key, value, left, right, 1 + Math.max(height(left), height(right)),
+        1 + size(left) + size(right));
+  }
+
+  private static <K, V> Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+    int leftHeight = height(left);
+    int rightHeight = height(right);
+    if (leftHeight > rightHeight + 1) {
+      if (height(left.left) >= height(left.right)) {
+        return node(left.key, left.value, left.left, node(key, value, left.right, right));
+      }
+      Node<K, V> pivot = left.right;
+      return node(pivot.key, pivot.value, node(left.key, left.value, left.left, pivot.left),
+          node(key, value, pivot.right, right));
+    }
+    if (rightHeight > leftHeight + 1) {
+      if (height(right.right) >= height(right.left)) {
+        return node(right.key, right.value, node(key, value, left, right.left), right.right);
+      }
+      Node<K, V> pivot = right.left;
+      return node(pivot.key, pivot.value, node(key, value, left, pivot.left),
+          node(right.key, right.value, pivot.right, right.right));
+    }
+    return node(key, value, left, right);
+  }
+
+  private static <K extends Comparable<? super K>, V> Node<K, V> insert(Node<K, V> node, K key, V value) {
+    if (node == null) {
+      return node(key, value, null, null);
+    }
+    int cmp = key.compareTo(node.key);
+    if (cmp < 0) {
+      return balance(node.key, node.value, insert(node.left, key, value), node.right);
+    }
+    if (cmp > 0) {
+      return balance(node.key, node.value, node.left, insert(node.right, key, value));
+    }
+    return value == node.value ? node : node(key, value, node.left, node.right);
+  }
+
+  private static <K extends Comparable<? super K>, V> Node<K, V> remove(Node<K, V> node, K key) {
+    if (node == null) {
+      return null;
+    }
+    int cmp = key.compareTo(node.key);
+    if (cmp < 0) {
+      Node<K, V> left = remove(node.left, key);
+      return left == node.left ? node : balance(node.key, node.value, left, node.right);
+    }
+    if (cmp > 0) {
+      Node<K, V> right = remove(node.right, key);
+      return right == node.right ? node : balance(node.key, node.value, node.left, right);
+    }
+    if (node.left == null) {
+      return node.right;
+    }
+    if (node.right == null) {
+      return node.left;
+    }
+    Node<K, V> successor = node.right;
+    while (successor.left != null) {
+      successor = successor.left;
+    }
+    return balance(successor.key, successor.value, node.left, removeMin(node.right));
+  }
+
+  private static <K, V> Node<K, V> removeMin(Node<K, V> node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    return balance(node.key, node.value, removeMin(node.left), node.right);
+  }
+}
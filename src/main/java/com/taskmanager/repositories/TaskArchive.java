@@ -0,0 +1,356 @@
+package com.taskmanager.repositories;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.taskmanager.compression.BlockCodec;
+import com.taskmanager.compression.BlockFormat;
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.models.Task;
+import com.taskmanager.serialization.TaskJson;
+
+/**
+ * TaskArchive is the cold tier for closed tasks: an append-only segment file
+ * of compressed blocks (see {@link BlockFormat}), each holding one batch of
+ * archived tasks as JSON, plus a small text index mapping task ids to the
+ * offset of the block that holds them. Every block records its codec, so the
+ * configured codec can change without rewriting older blocks.
+ * Blocks are only read and inflated when a task in them is looked up, and the
+ * most recently decoded block is cached.
+ *
+ * Opening the archive reads only a persisted Bloom filter of archived ids.
+ * Most lookups are for ids that were never archived (every new task is
+ * checked on save), and the filter answers those without touching the index
+ * file. The index is loaded on the first lookup the filter cannot rule out.
+ * The filter file records the index length it covers, so a filter left stale
+ * by a crash is detected and rebuilt from the index.
+ */
+public class TaskArchive {
+  private static final long TOMBSTONE = -1L;
+  private static final int BLOOM_MAGIC = 0x544D4246; // "TMBF"
+  private static final int MIN_BLOOM_CAPACITY = 1024;
+  private static final double BLOOM_FALSE_POSITIVE_RATE = 0.01;
+
+  private final File segmentFile;
+  private final File indexFile;
+  private final File bloomFile;
+  private final BlockCodec codec;
+  private final Map<String, Long> index = new HashMap<>();
+  private boolean indexLoaded;
+  private BloomFilter bloom;
+  private int bloomCapacity;
+  private int bloomInsertions;
+  private long cachedOffset = -1;
+  private List<Task> cachedBlock;
+
+  public TaskArchive(File segmentFile, File indexFile, BlockCodec codec) {
+    this.segmentFile = segmentFile;
+    this.indexFile = indexFile;
+    this.bloomFile = new File(indexFile.getPath() + ".bloom");
+    this.codec = codec;
+    loadBloom();
+  }
+
+  /**
+   * Derives the archive files from the live store file, e.g.
+   * {@code tasks.json} becomes {@code tasks-archive.seg} and
+   * {@code tasks-archive.idx} in the same directory.
+   */
+  public static TaskArchive forDataFile(File dataFile, BlockCodec codec) {
+    String name = dataFile.getName();
+    String base = name.endsWith(".json") ? name.substring(0, name.length() - 5) : name;
+    File dir = dataFile.getAbsoluteFile().getParentFile();
+    return new TaskArchive(new File(dir, base + "-archive.seg"), new File(dir, base + "-archive.idx"), codec);
+  }
+
+  private void loadBloom() {
+    if (bloomFile.exists() && indexFile.exists()) {
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(bloomFile)))) {
+        if (in.readInt() == BLOOM_MAGIC && in.readLong() == indexFile.length()) {
+          bloomInsertions = in.readInt();
+          bloomCapacity = in.readInt();
+          bloom = BloomFilter.readFrom(in);
+          return;
+        }
+      } catch (IOException e) {
+        System.err.println("Error loading archive filter, rebuilding: " + e.getMessage());
+      }
+    }
+    ensureIndex();
+    rebuildBloom();
+  }
+
+  private void rebuildBloom() {
+    bloomCapacity = Math.max(MIN_BLOOM_CAPACITY, index.size() * 2);
+    bloom = new BloomFilter(bloomCapacity, BLOOM_FALSE_POSITIVE_RATE);
+    for (String id : index.keySet()) {
+      bloom.put(id);
+    }
+    bloomInsertions = index.size();
+    writeBloom();
+  }
+
+  // Best effort: an unreadable or stale filter is rebuilt on the next open
+  private void writeBloom() {
+    if (!indexFile.exists()) {
+      return;
+    }
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(bloomFile)))) {
+      out.writeInt(BLOOM_MAGIC);
+      out.writeLong(indexFile.length());
+      out.writeInt(bloomInsertions);
+      out.writeInt(bloomCapacity);
+      bloom.writeTo(out);
+    } catch (IOException e) {
+      System.err.println("Error writing archive filter: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Whether {@code id} may be archived. False is definite; true means the
+   * index has to be consulted.
+   */
+  private boolean mayContain(String id) {
+    return indexLoaded || bloom.mightContain(id);
+  }
+
+  private void ensureIndex() {
+    if (indexLoaded) {
+      return;
+    }
+    indexLoaded = true;
+    if (indexFile.exists()) {
+      try (BufferedReader reader = new BufferedReader(new FileReader(indexFile))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          int space = line.indexOf(' ');
+          if (space <= 0) {
+            continue; // torn last line after a crash
+          }
+          long offset = Long.parseLong(line.substring(space + 1).trim());
+          if (offset == TOMBSTONE) {
+            index.remove(line.substring(0, space));
+          } else {
+            index.put(line.substring(0, space), offset);
+          }
+        }
+      } catch (IOException | NumberFormatException e) {
+        System.err.println("Error loading archive index, rebuilding: " + e.getMessage());
+        index.clear();
+        rebuildIndex();
+      }
+    } else if (segmentFile.exists() && segmentFile.length() > 0) {
+      rebuildIndex();
+    }
+  }
+
+  private void rebuildIndex() {
+    try (RandomAccessFile segment = new RandomAccessFile(segmentFile, "r")) {
+      long offset = 0;
+      while (offset < segment.length()) {
+        for (Task task : readBlock(segment, offset)) {
+          index.put(task.getId(), offset);
+        }
+        offset = segment.getFilePointer();
+      }
+      writeIndex();
+    } catch (IOException | TaskManagerException e) {
+      System.err.println("Error rebuilding archive index: " + e.getMessage());
+    }
+  }
+
+  private void writeIndex() throws IOException {
+    try (BufferedWriter writer = new BufferedWriter(new FileWriter(indexFile, false))) {
+      for (Map.Entry<String, Long> entry : index.entrySet()) {
+        writer.write(entry.getKey() + " " + entry.getValue());
+        writer.newLine();
+      }
+    }
+  }
+
+  /**
+   * Appends a batch of tasks as one compressed block and indexes them.
+   */
+  public synchronized void append(List<Task> tasks) throws TaskManagerException {
+    if (tasks.isEmpty()) {
+      return;
+    }
+    try {
+      byte[] raw = TaskJson.writeTasksAsBytes(tasks);
+
+      long offset = segmentFile.exists() ? segmentFile.length() : 0;
+      try (FileOutputStream fileOut = new FileOutputStream(segmentFile, true);
+          DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+        BlockFormat.write(out, codec, raw);
+        out.flush();
+        fileOut.getFD().sync();
+      }
+
+      try (BufferedWriter writer = new BufferedWriter(new FileWriter(indexFile, true))) {
+        for (Task task : tasks) {
+          writer.write(task.getId() + " " + offset);
+          writer.newLine();
+          if (indexLoaded) {
+            index.put(task.getId(), offset);
+          }
+        }
+      }
+
+      bloomInsertions += tasks.size();
+      if (bloomInsertions > bloomCapacity) {
+        ensureIndex();
+        rebuildBloom(); // grown past its sizing; rebuild larger
+      } else {
+        for (Task task : tasks) {
+          bloom.put(task.getId());
+        }
+        writeBloom();
+      }
+    } catch (IOException e) {
+      throw new TaskManagerException("Failed to append tasks to archive", e);
+    }
+  }
+
+  /**
+   * Looks up an archived task.
+   *
+   * @return a copy of the task, or null if it is not archived
+   */
+  public synchronized Task find(String id) throws TaskManagerException {
+    if (!mayContain(id)) {
+      return null;
+    }
+    ensureIndex();
+    Long offset = index.get(id);
+    if (offset == null) {
+      return null;
+    }
+    for (Task task : blockAt(offset)) {
+      if (task.getId().equals(id)) {
+        return task.copy(); // the block stays cached, so it must not be edited
+      }
+    }
+    return null;
+  }
+
+  public synchronized boolean contains(String id) {
+    if (!mayContain(id)) {
+      return false;
+    }
+    ensureIndex();
+    return index.containsKey(id);
+  }
+
+  /**
+   * Removes a task from the archive by writing a tombstone to the index. The
+   * segment itself is never rewritten.
+   *
+   * @return true if the task was archived
+   */
+  public synchronized boolean remove(String id) throws TaskManagerException {
+    if (!mayContain(id)) {
+      return false;
+    }
+    ensureIndex();
+    if (index.remove(id) == null) {
+      return false;
+    }
+    try (BufferedWriter writer = new BufferedWriter(new FileWriter(indexFile, true))) {
+      writer.write(id + " " + TOMBSTONE);
+      writer.newLine();
+    } catch (IOException e) {
+      throw new TaskManagerException("Failed to remove task '" + id + "' from archive", e);
+    }
+    writeBloom(); // the filter keeps the id; only the covered index length moves
+    return true;
+  }
+
+  /**
+   * Reads every archived task by streaming through the segment once.
+   */
+  public synchronized List<Task> readAll() throws TaskManagerException {
+    return readFrom(0);
+  }
+
+  /**
+   * Reads the tasks archived after the segment was {@code position} bytes
+   * long (see {@link #length()}), skipping any removed since.
+   */
+  public synchronized List<Task> readFrom(long position) throws TaskManagerException {
+    ensureIndex();
+    List<Task> archived = new ArrayList<>(position == 0 ? index.size() : 16);
+    if (!segmentFile.exists()) {
+      return archived;
+    }
+    try (RandomAccessFile segment = new RandomAccessFile(segmentFile, "r")) {
+      long offset = position;
+      while (offset < segment.length()) {
+        for (Task task : readBlock(segment, offset)) {
+          // Skip tombstoned tasks and older copies superseded by a later block
+          Long indexed = index.get(task.getId());
+          if (indexed != null && indexed == offset) {
+            archived.add(task);
+          }
+        }
+        offset = segment.getFilePointer();
+      }
+    } catch (IOException e) {
+      throw new TaskManagerException("Failed to read task archive", e);
+    }
+    return archived;
+  }
+
+  public synchronized int size() {
+    ensureIndex();
+    return index.size();
+  }
+
+  /**
+   * The length of the segment file, which only grows: a position to read
+   * later archived tasks from.
+   */
+  public synchronized long length() {
+    return segmentFile.length();
+  }
+
+  // Helper methods
+
+  private List<Task> blockAt(long offset) throws TaskManagerException {
+    if (offset != cachedOffset) {
+      try (RandomAccessFile segment = new RandomAccessFile(segmentFile, "r")) {
+        cachedBlock = readBlock(segment, offset);
+        cachedOffset = offset;
+      } catch (IOException e) {
+        throw new TaskManagerException("Failed to read task archive", e);
+      }
+    }
+    return cachedBlock;
+  }
+
+  private List<Task> readBlock(RandomAccessFile segment, long offset) throws IOException, TaskManagerException {
+    segment.seek(offset);
+    try {
+      return TaskJson.readTasks(BlockFormat.decode(BlockFormat.read(segment)));
+    } catch (EOFException e) {
+      throw new TaskManagerException("Truncated archive block at offset " + offset, e);
+    } catch (IOException e) {
+      throw new TaskManagerException("Corrupt archive block at offset " + offset, e);
+    }
+  }
+}
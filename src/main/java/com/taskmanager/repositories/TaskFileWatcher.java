@@ -0,0 +1,220 @@
+package com.taskmanager.repositories;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.models.Task;
+import com.taskmanager.serialization.TaskSnapshots;
+import com.taskmanager.storage.FileStorageEngine;
+
+/**
+ * Picks up changes that another process or a sync tool makes to the store
+ * file of a {@link TaskRepository} while it is open, without a restart.
+ *
+ * A daemon thread watches the file's directory. Events are coalesced for
+ * {@link #SETTLE_MILLIS}, then the file is read outside the repository lock
+ * and handed to {@link TaskRepository#mergeExternal}, which applies only the
+ * tasks that changed. The repository's own flushes are recognised by their
+ * fingerprint and skipped without reading the file.
+ *
+ * A writer may still be in the middle of rewriting the file when we read it.
+ * The read is only trusted if the file has not been modified for
+ * {@link #SETTLE_MILLIS}, parses, and has the same fingerprint before and
+ * after the read; otherwise it is retried with backoff until the
+ * file has settled, or given up until the next change.
+ */
+public class TaskFileWatcher implements AutoCloseable {
+  public static final String PROPERTY = "taskmanager.file.watch";
+
+  static final long SETTLE_MILLIS = 50;
+  private static final long MAX_BACKOFF_MILLIS = 2_000;
+  private static final int MAX_ATTEMPTS = 10;
+
+  private final TaskRepository repository;
+  private final File file;
+  private final WatchService watchService;
+  private Thread worker;
+  private volatile boolean running;
+  private volatile long merges;
+  private volatile long partialReads;
+  private volatile TaskRepository.ExternalChanges lastChanges = TaskRepository.ExternalChanges.NONE;
+
+  /**
+   * @throws TaskManagerException if the repository does not use the file
+   *                              engine or its directory cannot be watched
+   */
+  public TaskFileWatcher(TaskRepository repository) throws TaskManagerException {
+    if (!FileStorageEngine.NAME.equals(repository.getEngineName())) {
+      throw new TaskManagerException("Only stores using the " + FileStorageEngine.NAME
+          + " engine can be watched, not " + repository.getEngineName());
+    }
+    this.repository = repository;
+    this.file = repository.getDataFile().getAbsoluteFile();
+    try {
+      watchService = FileSystems.getDefault().newWatchService();
+      file.getParentFile().toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+          StandardWatchEventKinds.ENTRY_MODIFY);
+    } catch (IOException e) {
+      throw new TaskManagerException("Failed to watch " + file, e);
+    }
+  }
+
+  /**
+   * Whether {@code taskmanager.file.watch} asks for the store to be watched.
+   */
+  public static boolean isEnabled() {
+    return Boolean.getBoolean(PROPERTY);
+  }
+
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    worker = new Thread(this::watchLoop, "task-file-watcher");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  /**
+   * Number of times changes were found in the file and merged.
+   */
+  public long merges() {
+    return merges;
+  }
+
+  /**
+   * Number of reads discarded because the file was being written.
+   */
+  public long partialReads() {
+    return partialReads;
+  }
+
+  public TaskRepository.ExternalChanges lastChanges() {
+    return lastChanges;
+  }
+
+  @Override
+  public void close() {
+    Thread thread;
+    synchronized (this) {
+      running = false;
+      thread = worker;
+      worker = null;
+    }
+    try {
+      watchService.close();
+    } catch (IOException e) {
+      // Closing anyway
+    }
+    if (thread != null && thread != Thread.currentThread()) {
+      try {
+        thread.join(MAX_BACKOFF_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  // Helper methods
+
+  private void watchLoop() {
+    try {
+      while (running) {
+        WatchKey key = watchService.take();
+        boolean touched = drain(key);
+        // Coalesce the burst of events a single rewrite produces
+        WatchKey more;
+        while ((more = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+          touched |= drain(more);
+        }
+        if (touched) {
+          reload();
+        }
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      // Closed
+    }
+  }
+
+  private boolean drain(WatchKey key) {
+    boolean touched = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+        touched = true; // events were lost, so check anyway
+      } else if (event.context() instanceof Path name && name.toString().equals(file.getName())) {
+        touched = true;
+      }
+    }
+    key.reset();
+    return touched;
+  }
+
+  private void reload() throws InterruptedException {
+    long backoff = SETTLE_MILLIS;
+    for (int attempt = 1; running && attempt <= MAX_ATTEMPTS; attempt++) {
+      try {
+        if (tryReload()) {
+          return;
+        }
+      } catch (TaskManagerException e) {
+        System.err.println("Error merging changes from " + file + ": " + e.getMessage());
+        return;
+      }
+      partialReads++;
+      Thread.sleep(backoff);
+      backoff = Math.min(MAX_BACKOFF_MILLIS, backoff * 2);
+    }
+    if (running) {
+      System.err.println("Gave up reading " + file + " while it was being written; waiting for the next change");
+    }
+  }
+
+  /**
+   * @return false if the file was being written and must be read again
+   */
+  private boolean tryReload() throws TaskManagerException {
+    FileStorageEngine.Fingerprint before = FileStorageEngine.Fingerprint.of(file);
+    if (before.equals(FileStorageEngine.Fingerprint.MISSING)) {
+      return true; // deleted; a store is never emptied this way
+    }
+    if (repository.isSynced(before)) {
+      return true; // our own flush
+    }
+    // A file that is empty or was modified moments ago may still be being
+    // written, so it is not trusted yet
+    long age = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(before.modifiedNanos());
+    if (before.size() == 0 || age < SETTLE_MILLIS) {
+      return false;
+    }
+    List<Task> fileTasks;
+    try {
+      fileTasks = TaskSnapshots.read(file);
+    } catch (IOException e) {
+      return false; // truncated or half-written
+    }
+    if (!before.equals(FileStorageEngine.Fingerprint.of(file))) {
+      return false;
+    }
+    Optional<TaskRepository.ExternalChanges> changes = repository.mergeExternal(fileTasks, before);
+    if (changes.isEmpty()) {
+      return false;
+    }
+    if (!changes.get().isEmpty()) {
+      merges++;
+      lastChanges = changes.get();
+    }
+    return true;
+  }
+}
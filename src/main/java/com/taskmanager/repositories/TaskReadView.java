@@ -0,0 +1,99 @@
+package com.taskmanager.repositories;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskCursor;
+import com.taskmanager.models.TaskValue;
+
+/**
+ * A point-in-time view of the live tasks of a {@link TaskRepository}.
+ *
+ * Taking a view is O(1): the repository publishes a new immutable version of
+ * its contents on every write, sharing all unchanged structure with the
+ * previous one, and a view just holds on to the version current at the time.
+ * Reads never lock and never see writes made after the view was taken, no
+ * matter how long they run, and writers never wait for or copy for readers.
+ *
+ * The tasks in a view are immutable {@link TaskValue}s stamped with the
+ * version that wrote them, shared by every view that contains them.
+ */
+public final class TaskReadView implements Iterable<TaskValue> {
+
+  static final TaskReadView EMPTY = new TaskReadView(0, PersistentSortedMap.empty(), PersistentSortedMap.empty());
+
+  private final long version;
+  private final PersistentSortedMap<TaskCursor, TaskValue> byCreation;
+  private final PersistentSortedMap<String, TaskValue> byId;
+
+  private TaskReadView(long version, PersistentSortedMap<TaskCursor, TaskValue> byCreation,
+      PersistentSortedMap<String, TaskValue> byId) {
+    this.version = version;
+    this.byCreation = byCreation;
+    this.byId = byId;
+  }
+
+  /**
+   * Increases with every write published to the repository; two views with
+   * the same version have the same contents.
+   */
+  public long version() {
+    return version;
+  }
+
+  public int size() {
+    return byId.size();
+  }
+
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  public Optional<TaskValue> find(String id) {
+    return Optional.ofNullable(byId.get(id));
+  }
+
+  /**
+   * Iterates the tasks in creation order without copying them.
+   */
+  @Override
+  public Iterator<TaskValue> iterator() {
+    return byCreation.values();
+  }
+
+  public Stream<TaskValue> stream() {
+    return StreamSupport.stream(Spliterators.spliterator(iterator(), size(),
+        Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+  }
+
+  public List<TaskValue> toList() {
+    List<TaskValue> tasks = new ArrayList<>(size());
+    forEach(tasks::add);
+    return tasks;
+  }
+
+  // Called by the repository under its lock
+
+  TaskReadView with(Task task, TaskCursor key, TaskCursor previousKey) {
+    TaskValue value = TaskValue.of(task, version + 1);
+    PersistentSortedMap<TaskCursor, TaskValue> order = byCreation;
+    if (previousKey != null && !previousKey.equals(key)) {
+      order = order.minus(previousKey);
+    }
+    return new TaskReadView(version + 1, order.plus(key, value), byId.plus(value.getId(), value));
+  }
+
+  TaskReadView without(String id, TaskCursor previousKey) {
+    if (previousKey == null) {
+      return this;
+    }
+    return new TaskReadView(version + 1, byCreation.minus(previousKey), byId.minus(id));
+  }
+}
@@ -1,108 +1,1205 @@
 package com.taskmanager.repositories;
 
 import com.taskmanager.interfaces.TaskRepositoryInterface;
+import com.taskmanager.interfaces.TaskRepositoryListener;
 import com.taskmanager.errors.TaskManagerException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskCursor;
+import com.taskmanager.models.TaskPage;
+import com.taskmanager.models.TaskValue;
+import com.taskmanager.compression.BlockCodec;
+import com.taskmanager.compression.BlockCodecs;
+import com.taskmanager.diagnostics.RepositoryEvent;
+import com.taskmanager.storage.FileStorageEngine;
+import com.taskmanager.storage.StorageCapability;
+import com.taskmanager.storage.StorageConfig;
+import com.taskmanager.storage.StorageCursor;
+import com.taskmanager.storage.StorageEngine;
+import com.taskmanager.storage.StorageEngines;
+import com.taskmanager.storage.WriteBatch;
+import com.taskmanager.storage.WriterLease;
+import com.taskmanager.serialization.TaskSnapshots;
 import com.taskmanager.Utils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 public class TaskRepository implements TaskRepositoryInterface {
-  private final Map<String, Task> tasks = new HashMap<>();
+  public static final int MIN_ID_PREFIX_LENGTH = 4;
+
+  /**
+   * What {@link #mergeExternal} applied to the live store.
+   */
+  public record ExternalChanges(int added, int updated, int deleted) {
+    public static final ExternalChanges NONE = new ExternalChanges(0, 0, 0);
+
+    public boolean isEmpty() {
+      return added + updated + deleted == 0;
+    }
+  }
+
+  private final Map<String, Task> tasks = new ConcurrentHashMap<>();
+  // Live tasks ordered by (createdAt, id) for stable listing and cursor pages.
+  // Keys are snapshots, so an in-place edit of createdAt cannot corrupt the map.
+  private final ConcurrentSkipListMap<TaskCursor, Task> creationOrder = new ConcurrentSkipListMap<>();
+  private final Map<String, TaskCursor> creationKeys = new ConcurrentHashMap<>();
+  private final IdPrefixIndex idPrefixes = new IdPrefixIndex();
+  // Immutable copy of the live store, republished once at the end of every
+  // write, so readers never see a batch half-applied. Writers build the next
+  // version in pendingView, under the lock.
+  private volatile TaskReadView readView = TaskReadView.EMPTY;
+  private TaskReadView pendingView = TaskReadView.EMPTY;
+  // Nesting depth of write methods, which call each other
+  private int writeDepth;
+  private DependencyGraph dependencyGraph = new DependencyGraph(this::notifyReadyChanged);
+  private final List<TaskRepositoryListener> listeners = new CopyOnWriteArrayList<>();
   private final File dataFile;
-  private ObjectMapper objectMapper;
+  private final StorageEngine engine;
+  private final TaskArchive archive;
+  // Null unless the store is a file shared with other processes
+  private final WriterLease writerLease;
+  private volatile boolean autoFlush;
 
+  /**
+   * Opens the default store with the engine named by
+   * {@code taskmanager.storage.engine}.
+   */
   public TaskRepository() {
-    dataFile = Utils.getTasksFile();
-    loadObjectMapper();
+    this(openEngine(StorageConfig.fromSystemProperties()), Utils.getTasksFile(), true);
+  }
+
+  /**
+   * @param dataFile  the JSON file backing this repository
+   * @param autoFlush whether every mutation rewrites the file; when false,
+   *                  callers persist explicitly with {@link #saveTasks()}
+   */
+  public TaskRepository(File dataFile, boolean autoFlush) {
+    this(openEngine(StorageConfig.forFile(dataFile)), dataFile, autoFlush);
+  }
+
+  /**
+   * @param config    the storage engine and its location; the archive and
+   *                  other side files are kept next to the location whatever
+   *                  the engine
+   * @param autoFlush whether every mutation is flushed to the engine at once
+   * @throws TaskManagerException if the engine cannot be opened
+   */
+  public TaskRepository(StorageConfig config, boolean autoFlush) throws TaskManagerException {
+    this(StorageEngines.open(config), config.location(), autoFlush);
+  }
+
+  private TaskRepository(StorageEngine engine, File dataFile, boolean autoFlush) {
+    this.engine = engine;
+    this.dataFile = dataFile;
+    this.autoFlush = autoFlush;
+    this.archive = TaskArchive.forDataFile(dataFile, loadArchiveCodec());
+    this.writerLease = engine instanceof FileStorageEngine && WriterLease.isEnabled()
+        ? new WriterLease(dataFile, WriterLease.timeoutFromSystemProperties())
+        : null;
     loadTasks();
+    readView = pendingView;
+    archiveOnLoad();
+  }
+
+  public File getDataFile() {
+    return dataFile;
+  }
+
+  public boolean isAutoFlush() {
+    return autoFlush;
+  }
+
+  public void setAutoFlush(boolean autoFlush) {
+    this.autoFlush = autoFlush;
+  }
+
+  public void addListener(TaskRepositoryListener listener) {
+    listeners.add(listener);
+  }
+
+  public void removeListener(TaskRepositoryListener listener) {
+    listeners.remove(listener);
+  }
+
+  // Configuration errors fall back to the file engine so the application
+  // still starts, as with the codecs
+  private static StorageEngine openEngine(StorageConfig config) {
+    try {
+      return StorageEngines.open(config);
+    } catch (TaskManagerException e) {
+      System.err.println("Error configuring storage engine, using file: " + e.getMessage());
+      try {
+        return StorageEngines.open(config.withEngine(StorageConfig.DEFAULT_ENGINE));
+      } catch (TaskManagerException fallback) {
+        throw new IllegalStateException(fallback);
+      }
+    }
+  }
+
+  public String getEngineName() {
+    return engine.name();
+  }
+
+  public Set<StorageCapability> capabilities() {
+    return engine.capabilities();
   }
 
-  public void loadObjectMapper() {
-    objectMapper = new ObjectMapper();
-    objectMapper.registerModule(new JavaTimeModule());
-    objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  /**
+   * Whether the store file, as identified by {@code fingerprint}, is the
+   * version this repository last read or wrote.
+   */
+  public boolean isSynced(FileStorageEngine.Fingerprint fingerprint) {
+    return engine instanceof FileStorageEngine fileEngine && fileEngine.isSynced(fingerprint);
+  }
+
+  private static BlockCodec loadArchiveCodec() {
+    try {
+      return BlockCodecs.archiveCodec();
+    } catch (TaskManagerException e) {
+      System.err.println("Error configuring archive codec, using deflate: " + e.getMessage());
+      return BlockCodecs.defaultCodec();
+    }
   }
 
   private void loadTasks() {
+    try (StorageCursor cursor = engine.scan()) {
+      while (cursor.hasNext()) {
+        Task task = cursor.next();
+        tasks.put(task.getId(), task);
+        indexTask(task);
+      }
+    } catch (TaskManagerException e) {
+      System.err.println("Error loading tasks: " + e.getMessage());
+    }
+    if (!tasks.isEmpty()) {
+      buildDependencyGraph();
+      System.out.println("Loaded " + tasks.size() + " tasks from " + dataFile);
+    }
+  }
+
+  private void buildDependencyGraph() {
+    for (Task task : tasks.values()) {
+      dependencyGraph.track(task);
+    }
+    for (Task task : new ArrayList<>(tasks.values())) {
+      Set<String> dropped = new HashSet<>();
+      for (String blockerId : task.getDependsOn()) {
+        if (!tasks.containsKey(blockerId) && archive.contains(blockerId)) {
+          continue; // archived blockers are closed, so they never block
+        }
+        try {
+          dependencyGraph.addEdge(task.getId(), blockerId);
+        } catch (TaskManagerException e) {
+          System.err.println("Dropping dependency of task " + task.getId() + ": " + e.getMessage());
+          dropped.add(blockerId);
+        }
+      }
+      if (!dropped.isEmpty()) {
+        writeQuietly(new WriteBatch().put(replaceDependsOn(task, without(task.getDependsOn(), dropped))));
+      }
+    }
+  }
+
+  private void archiveOnLoad() {
+    Duration archiveAge = Utils.getArchiveAge();
+    if (archiveAge == null) {
+      return;
+    }
+    try {
+      int archived = archiveClosedBefore(LocalDateTime.now().minus(archiveAge));
+      if (archived > 0) {
+        // Not on stdout, where it would mix with the output of one-shot commands
+        System.err.println("Archived " + archived + " closed tasks");
+      }
+    } catch (TaskManagerException e) {
+      System.err.println("Error archiving tasks: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Moves completed and cancelled tasks closed before {@code cutoff} out of
+   * the live store into the archive. Cancelled tasks have no completion time,
+   * so their last update is used instead.
+   *
+   * @return the number of tasks archived
+   */
+  public int archiveClosedBefore(LocalDateTime cutoff) throws TaskManagerException {
     try {
-      if (dataFile.exists() && dataFile.length() > 0) {
-        List<Task> taskList = objectMapper.readValue(dataFile, new TypeReference<List<Task>>() {
-        });
-        for (Task task : taskList) {
-          tasks.put(task.getId(), task);
+      synchronized (this) {
+        writeDepth++;
+        try {
+          List<Task> closed = new ArrayList<>();
+          for (Task task : tasks.values()) {
+            LocalDateTime closedAt = switch (task.getStatus()) {
+              case COMPLETED -> task.getCompletedAt() != null ? task.getCompletedAt() : task.getUpdatedAt();
+              case CANCELLED -> task.getUpdatedAt();
+              default -> null;
+            };
+            if (closedAt != null && closedAt.isBefore(cutoff)) {
+              closed.add(task);
+            }
+          }
+          return archiveTasks(closed);
+        } finally {
+          endWrite();
         }
-        System.out.println("Loaded " + tasks.size() + " tasks from " + dataFile);
       }
-    } catch (IOException e) {
-      System.err.println("Error loading tasks: " + e.getMessage());
+    } finally {
+      afterWrite();
+    }
+  }
+
+  /**
+   * Moves the given live tasks into the archive regardless of their age. Ids
+   * that are not in the live store are ignored.
+   *
+   * @return the number of tasks archived
+   */
+  public int archive(Collection<String> ids) throws TaskManagerException {
+    try {
+      synchronized (this) {
+        writeDepth++;
+        try {
+          List<Task> selected = new ArrayList<>();
+          for (String id : ids) {
+            Task task = tasks.get(id);
+            if (task != null) {
+              selected.add(task);
+            }
+          }
+          return archiveTasks(selected);
+        } finally {
+          endWrite();
+        }
+      }
+    } finally {
+      afterWrite();
+    }
+  }
+
+  private int archiveTasks(List<Task> closed) throws TaskManagerException {
+    RepositoryEvent event = new RepositoryEvent("archive");
+    event.begin();
+    try {
+      if (closed.isEmpty()) {
+        return 0;
+      }
+
+      archive.append(closed);
+      WriteBatch batch = new WriteBatch();
+      for (Task task : closed) {
+        batch.delete(task.getId());
+      }
+      engine.write(batch);
+      for (Task task : closed) {
+        tasks.remove(task.getId());
+        unindexTask(task.getId());
+        dependencyGraph.untrack(task.getId());
+        for (TaskRepositoryListener listener : listeners) {
+          listener.onArchived(task);
+        }
+      }
+      saveTasks();
+      return closed.size();
+    } finally {
+      event.taskCount = closed.size();
+      event.commit();
+    }
+  }
+
+  /**
+   * Makes every write so far durable in the storage engine.
+   *
+   * A file store is flushed under its {@link WriterLease}, so that processes
+   * sharing the file take turns writing it. Whatever other processes wrote
+   * since this one last read or wrote the file is merged in first (see
+   * {@link #mergeExternal}), so their changes are kept rather than
+   * overwritten. Only flushing waits for the lease; reads are answered from
+   * memory meanwhile.
+   */
+  public synchronized void saveTasks() throws TaskManagerException {
+    RepositoryEvent event = new RepositoryEvent("flush");
+    event.begin();
+    try {
+      if (writerLease != null && engine instanceof FileStorageEngine fileEngine) {
+        if (fileEngine.needsFlush()) {
+          try (WriterLease.Held lease = writerLease.acquire()) {
+            mergeChangesFromFile(fileEngine);
+            engine.flush();
+          }
+        }
+      } else {
+        engine.flush();
+      }
+    } finally {
+      event.commit();
     }
   }
 
-  public void saveTasks() throws TaskManagerException {
+  // Called under the lease, so no other process is writing the file
+  private void mergeChangesFromFile(FileStorageEngine fileEngine) throws TaskManagerException {
+    FileStorageEngine.Fingerprint current = FileStorageEngine.Fingerprint.of(fileEngine.getFile());
+    if (current.equals(FileStorageEngine.Fingerprint.MISSING) || fileEngine.isSynced(current)) {
+      return;
+    }
+    List<Task> fileTasks;
     try {
-      objectMapper.writeValue(dataFile, fetchAll());
+      fileTasks = TaskSnapshots.read(fileEngine.getFile());
     } catch (IOException e) {
-      throw new TaskManagerException("Failed to save tasks to file", e);
+      throw new TaskManagerException("Failed to read changes made to " + fileEngine.getFile()
+          + " by another process", e);
     }
+    if (mergeExternal(fileTasks, current).isEmpty()) {
+      // Only a writer ignoring the lease can have changed it meanwhile
+      System.err.println("Task file " + fileEngine.getFile() + " changed while holding the writer lease");
+    }
+  }
+
+  /**
+   * The lease taken to flush a file store, or null if the store is not
+   * shared.
+   */
+  public WriterLease getWriterLease() {
+    return writerLease;
+  }
+
+  @Override
+  public void flush() throws TaskManagerException {
+    saveTasks();
+  }
+
+  /**
+   * Flushes and closes the storage engine. The repository cannot be used
+   * afterwards.
+   */
+  @Override
+  public synchronized void close() throws TaskManagerException {
+    saveTasks();
+    engine.close();
   }
 
   @Override
   public void save(Task task) throws TaskManagerException {
-    if (task == null) {
-      throw new TaskManagerException("Task cannot be null");
-    }
-    if (task.getId() == null || task.getId().trim().isEmpty()) {
-      throw new TaskManagerException("Task ID cannot be null or empty");
+    try {
+      synchronized (this) {
+        writeDepth++;
+        try {
+          RepositoryEvent event = new RepositoryEvent("save");
+          event.begin();
+          try {
+            if (task == null) {
+              throw new TaskManagerException("Task cannot be null");
+            }
+            if (task.getId() == null || task.getId().trim().isEmpty()) {
+              throw new TaskManagerException("Task ID cannot be null or empty");
+            }
+
+            // The caller keeps its object, so later edits to it change nothing here
+            store(task.copy());
+          } finally {
+            event.taskId = task == null ? null : task.getId();
+            event.commit();
+          }
+        } finally {
+          endWrite();
+        }
+      }
+    } finally {
+      afterWrite();
     }
+  }
 
+  // Takes ownership of task: it is never modified again, only replaced
+  private void store(Task task) throws TaskManagerException {
+    engine.write(new WriteBatch().put(task));
+    if (!tasks.containsKey(task.getId()) && archive.contains(task.getId())) {
+      archive.remove(task.getId()); // an archived task being edited becomes live again
+    }
     tasks.put(task.getId(), task);
-    saveTasks();
+    indexTask(task);
+    dependencyGraph.track(task);
+    notifySaved(task);
+    flushIfNeeded();
+  }
+
+  /**
+   * Saves several tasks with a single engine write and at most one flush,
+   * e.g. for imports. Listeners see a save for each task.
+   */
+  @Override
+  public void saveAll(Collection<Task> batch) throws TaskManagerException {
+    try {
+      synchronized (this) {
+        writeDepth++;
+        try {
+          RepositoryEvent event = new RepositoryEvent("saveAll");
+          event.begin();
+          try {
+            WriteBatch writes = new WriteBatch();
+            List<Task> copies = new ArrayList<>(batch.size());
+            for (Task task : batch) {
+              if (task == null || task.getId() == null || task.getId().trim().isEmpty()) {
+                throw new TaskManagerException("Task ID cannot be null or empty");
+              }
+              copies.add(task.copy());
+            }
+            if (copies.isEmpty()) {
+              return;
+            }
+            copies.forEach(writes::put);
+            engine.write(writes);
+            for (Task task : copies) {
+              if (!tasks.containsKey(task.getId()) && archive.contains(task.getId())) {
+                archive.remove(task.getId());
+              }
+              tasks.put(task.getId(), task);
+              indexTask(task);
+              dependencyGraph.track(task);
+              notifySaved(task);
+            }
+            flushIfNeeded();
+          } finally {
+            event.taskCount = batch.size();
+            event.commit();
+          }
+        } finally {
+          endWrite();
+        }
+      }
+    } finally {
+      afterWrite();
+    }
+  }
+
+  /**
+   * Applies {@code change} to the current version of a task and saves the
+   * result, atomically with respect to other writers. The live task object
+   * is replaced rather than modified, so readers holding it or an older
+   * value never see a half-applied edit. Updating an archived task makes it
+   * live again, as with {@link #save}.
+   *
+   * @return the new version as published, or the current one if
+   *         {@code change} returned it unchanged
+   * @throws TaskManagerException if the task does not exist or the change
+   *                              fails
+   */
+  public TaskValue update(String id, TaskValue.Update change) throws TaskManagerException {
+    return update(id, change, List::of);
+  }
+
+  /**
+   * Like {@link #update(String, TaskValue.Update)}, but also saves the tasks
+   * returned by {@code alsoSave}, which is asked once {@code change} has run,
+   * in the same write as the update. A task created because of the change,
+   * such as the next occurrence of a completed recurring task, is then never
+   * lost to a crash or a flush between two writes.
+   */
+  public TaskValue update(String id, TaskValue.Update change, Supplier<? extends Collection<Task>> alsoSave)
+      throws TaskManagerException {
+    try {
+      synchronized (this) {
+        writeDepth++;
+        try {
+          RepositoryEvent event = new RepositoryEvent("update");
+          event.begin();
+          try {
+            TaskValue current = pendingView.find(id).orElse(null);
+            if (current == null) {
+              current = TaskValue.of(findById(id), 0); // archived
+            }
+            TaskValue updated = change.apply(current);
+            if (updated == current) {
+              return current;
+            }
+            if (!id.equals(updated.getId())) {
+              throw new TaskManagerException("An update cannot change the id of task '" + id + "'");
+            }
+            Collection<Task> created = alsoSave.get();
+            if (created.isEmpty()) {
+              store(updated.toTask());
+            } else {
+              List<Task> batch = new ArrayList<>(created.size() + 1);
+              batch.add(updated.toTask());
+              batch.addAll(created);
+              saveAll(batch);
+            }
+            return pendingView.find(id).orElseThrow();
+          } finally {
+            event.taskId = id;
+            event.commit();
+          }
+        } finally {
+          endWrite();
+        }
+      }
+    } finally {
+      afterWrite();
+    }
+  }
+
+  /**
+   * Replaces the whole live store, e.g. with a snapshot received from
+   * another instance. Listeners see a delete for every task that disappears
+   * and a save for every task in the new contents.
+   */
+  public void replaceAll(Collection<Task> replacement) throws TaskManagerException {
+    try {
+      synchronized (this) {
+        writeDepth++;
+        try {
+          RepositoryEvent event = new RepositoryEvent("replaceAll");
+          event.begin();
+          try {
+            Map<String, Task> incoming = new HashMap<>();
+            for (Task task : replacement) {
+              incoming.put(task.getId(), task.copy());
+            }
+            WriteBatch writes = new WriteBatch();
+            for (String id : tasks.keySet()) {
+              if (!incoming.containsKey(id)) {
+                writes.delete(id);
+              }
+            }
+            incoming.values().forEach(writes::put);
+            engine.write(writes);
+            for (String id : new ArrayList<>(tasks.keySet())) {
+              if (!incoming.containsKey(id)) {
+                tasks.remove(id);
+                unindexTask(id);
+                for (TaskRepositoryListener listener : listeners) {
+                  listener.onDeleted(id);
+                }
+              }
+            }
+            tasks.putAll(incoming);
+            for (Task task : incoming.values()) {
+              indexTask(task);
+            }
+            dependencyGraph = new DependencyGraph(this::notifyReadyChanged);
+            buildDependencyGraph();
+            for (Task task : incoming.values()) {
+              notifySaved(task);
+            }
+            flushIfNeeded();
+          } finally {
+            event.taskCount = replacement.size();
+            event.commit();
+          }
+        } finally {
+          endWrite();
+        }
+      }
+    } finally {
+      afterWrite();
+    }
+  }
+
+  /**
+   * Merges changes that another process or a sync tool made to the store
+   * file, as read by {@link TaskFileWatcher} or before a flush. Tasks are
+   * compared by id and {@code updatedAt} against the live store and against
+   * what the file held when this repository last read or wrote it, so only
+   * tasks that changed in the file are applied, and local changes not
+   * flushed yet survive:
+   * <ul>
+   * <li>a task new in the file is added, unless it was deleted here;</li>
+   * <li>a task updated more recently in the file replaces the live one;</li>
+   * <li>a task gone from the file is deleted, unless it is new here or was
+   * updated here since.</li>
+   * </ul>
+   * Indexes, the dependency graph and listeners see the changed tasks only.
+   * The merged tasks are not written back, since the file already holds
+   * them; dependents of tasks deleted in the file that still named them,
+   * and merged tasks whose new dependencies would close a cycle, are fixed
+   * up and written with the next flush.
+   *
+   * @param fileTasks   the tasks read from the file
+   * @param fingerprint the file as it was read
+   * @return empty if the file has been rewritten since it was read, so that
+   *         {@code fileTasks} may be stale and must be read again
+   * @throws TaskManagerException if the repository does not use the file
+   *                              engine
+   */
+  public Optional<ExternalChanges> mergeExternal(List<Task> fileTasks,
+      FileStorageEngine.Fingerprint fingerprint) throws TaskManagerException {
+    try {
+      synchronized (this) {
+        writeDepth++;
+        try {
+          RepositoryEvent event = new RepositoryEvent("mergeExternal");
+          event.begin();
+          try {
+            if (!(engine instanceof FileStorageEngine fileEngine)) {
+              throw new TaskManagerException("Only stores using the " + FileStorageEngine.NAME
+                  + " engine can merge external changes, not " + engine.name());
+            }
+            // Flushes take this lock too, so the file cannot change between this
+            // check and the merge
+            if (!fingerprint.equals(FileStorageEngine.Fingerprint.of(fileEngine.getFile()))) {
+              return Optional.empty();
+            }
+            if (fileEngine.isSynced(fingerprint)) {
+              return Optional.of(ExternalChanges.NONE);
+            }
+
+            Map<String, LocalDateTime> baseline = fileEngine.syncedVersions();
+            Map<String, Task> incoming = new LinkedHashMap<>();
+            for (Task task : fileTasks) {
+              incoming.put(task.getId(), task);
+            }
+            List<Task> saved = new ArrayList<>();
+            int added = 0;
+            for (Task task : incoming.values()) {
+              Task current = tasks.get(task.getId());
+              if (current == null) {
+                if (baseline.containsKey(task.getId())) {
+                  continue; // deleted here, not flushed yet
+                }
+                saved.add(task.copy());
+                added++;
+              } else if (isNewer(task.getUpdatedAt(), current.getUpdatedAt())) {
+                saved.add(task.copy());
+              }
+            }
+            List<String> deleted = new ArrayList<>();
+            for (Task current : tasks.values()) {
+              LocalDateTime synced = baseline.get(current.getId());
+              if (synced != null && !incoming.containsKey(current.getId())
+                  && !isNewer(current.getUpdatedAt(), synced)) {
+                deleted.add(current.getId());
+              }
+            }
+
+            WriteBatch writes = new WriteBatch();
+            saved.forEach(writes::put);
+            deleted.forEach(writes::delete);
+            fileEngine.writeSynced(writes);
+            for (Task task : saved) {
+              tasks.put(task.getId(), task);
+              indexTask(task);
+              dependencyGraph.track(task);
+            }
+            // Only the merged tasks can have changed edges, so the graph is
+            // patched with their differences. Removals go first, so an edge
+            // reversed by the merge is not mistaken for a cycle.
+            for (Task task : saved) {
+              for (String blockerId : new ArrayList<>(dependencyGraph.dependenciesOf(task.getId()))) {
+                if (!task.getDependsOn().contains(blockerId)) {
+                  dependencyGraph.removeEdge(task.getId(), blockerId);
+                }
+              }
+            }
+            Map<String, Task> dependents = new LinkedHashMap<>();
+            for (Task task : saved) {
+              Set<String> dropped = new HashSet<>();
+              for (String blockerId : task.getDependsOn()) {
+                if (!tasks.containsKey(blockerId) && archive.contains(blockerId)) {
+                  continue; // archived blockers are closed, so they never block
+                }
+                try {
+                  dependencyGraph.addEdge(task.getId(), blockerId);
+                } catch (TaskManagerException e) {
+                  System.err.println("Dropping dependency of task " + task.getId() + ": " + e.getMessage());
+                  dropped.add(blockerId);
+                }
+              }
+              if (!dropped.isEmpty()) {
+                dependents.put(task.getId(), replaceDependsOn(task, without(task.getDependsOn(), dropped)));
+              }
+            }
+            // Whoever deleted these normally updated their dependents too, but
+            // without touching updatedAt, so the dependents are fixed up here
+            for (String id : deleted) {
+              tasks.remove(id);
+              unindexTask(id);
+              for (String dependentId : dependencyGraph.dependentsOf(id)) {
+                Task dependent = tasks.get(dependentId);
+                if (dependent != null && dependent.getDependsOn().contains(id)) {
+                  dependents.put(dependentId, replaceDependsOn(dependent, without(dependent.getDependsOn(), Set.of(id))));
+                }
+              }
+              dependencyGraph.untrack(id);
+            }
+            fileEngine.markSynced(fingerprint, incoming.values());
+
+            saved.forEach(this::notifySaved);
+            for (String id : deleted) {
+              for (TaskRepositoryListener listener : listeners) {
+                listener.onDeleted(id);
+              }
+            }
+            if (!dependents.isEmpty()) {
+              WriteBatch fixes = new WriteBatch();
+              dependents.values().forEach(fixes::put);
+              engine.write(fixes);
+              dependents.values().forEach(this::notifySaved);
+            }
+            ExternalChanges changes = new ExternalChanges(added, saved.size() - added, deleted.size());
+            event.taskCount = saved.size() + deleted.size();
+            return Optional.of(changes);
+          } finally {
+            event.commit();
+          }
+        } finally {
+          endWrite();
+        }
+      }
+    } finally {
+      afterWrite();
+    }
+  }
+
+  private static boolean isNewer(LocalDateTime candidate, LocalDateTime than) {
+    return candidate != null && (than == null || candidate.isAfter(than));
+  }
+
+  // Publishes the writes of the outermost write method in one step
+  private void endWrite() {
+    if (--writeDepth == 0) {
+      readView = pendingView;
+    }
+  }
+
+  // Lets listeners finish a write outside the lock, once the outermost
+  // write method has released it
+  private void afterWrite() {
+    if (!Thread.holdsLock(this)) {
+      for (TaskRepositoryListener listener : listeners) {
+        listener.afterWrite();
+      }
+    }
+  }
+
+  private void notifyReadyChanged(String id, boolean ready) {
+    for (TaskRepositoryListener listener : listeners) {
+      listener.onReadyChanged(id, ready);
+    }
+  }
+
+  private void notifySaved(Task task) {
+    for (TaskRepositoryListener listener : listeners) {
+      listener.onSaved(task);
+    }
+  }
+
+  private void flushIfNeeded() throws TaskManagerException {
+    if (autoFlush) {
+      saveTasks();
+    }
   }
 
   @Override
   public Task findById(String id) throws TaskManagerException {
-    if (id == null || id.trim().isEmpty()) {
-      throw new TaskManagerException("Task ID cannot be null or empty");
+    RepositoryEvent event = new RepositoryEvent("findById");
+    event.begin();
+    try {
+      if (id == null || id.trim().isEmpty()) {
+        throw new TaskManagerException("Task ID cannot be null or empty");
+      }
+
+      Task task = tasks.get(id);
+      if (task != null) {
+        return task.copy();
+      }
+      task = archive.find(id);
+      if (task == null) {
+        throw new TaskManagerException("Task with ID '" + id + "' not found");
+      }
+
+      return task;
+    } finally {
+      event.taskId = id;
+      event.commit();
     }
+  }
 
-    Task task = tasks.get(id);
-    if (task == null) {
-      throw new TaskManagerException("Task with ID '" + id + "' not found");
+  /**
+   * Looks a task up without treating a miss as an error, for callers that
+   * probe many ids. Misses on archived ids are answered by the archive's
+   * Bloom filter without I/O.
+   *
+   * @throws TaskManagerException only if the archive cannot be read
+   */
+  @Override
+  public Optional<Task> findIfPresent(String id) throws TaskManagerException {
+    RepositoryEvent event = new RepositoryEvent("findIfPresent");
+    event.begin();
+    try {
+      if (id == null || id.isEmpty()) {
+        return Optional.empty();
+      }
+      Task task = tasks.get(id);
+      return Optional.ofNullable(task != null ? task.copy() : archive.find(id));
+    } finally {
+      event.taskId = id;
+      event.commit();
     }
+  }
 
-    return task;
+  /**
+   * Expands an abbreviated id to the full id of a live task, git-style. Full
+   * ids (including archived ones) are returned unchanged.
+   *
+   * @param idOrPrefix a full id, or a prefix of at least
+   *                   {@value #MIN_ID_PREFIX_LENGTH} characters
+   * @throws TaskManagerException if the prefix matches no task or more than
+   *                              one
+   */
+  @Override
+  public String resolveId(String idOrPrefix) throws TaskManagerException {
+    RepositoryEvent event = new RepositoryEvent("resolveId");
+    event.begin();
+    try {
+      if (idOrPrefix == null || idOrPrefix.trim().isEmpty()) {
+        throw new TaskManagerException("Task ID cannot be null or empty");
+      }
+      if (tasks.containsKey(idOrPrefix) || archive.contains(idOrPrefix)) {
+        return idOrPrefix;
+      }
+      if (idOrPrefix.length() < MIN_ID_PREFIX_LENGTH) {
+        throw new TaskManagerException("Task with ID '" + idOrPrefix + "' not found (abbreviated ids need at least "
+            + MIN_ID_PREFIX_LENGTH + " characters)");
+      }
+      List<String> matches = idPrefixes.matches(idOrPrefix, 2);
+      if (matches.isEmpty()) {
+        throw new TaskManagerException("Task with ID '" + idOrPrefix + "' not found");
+      }
+      if (matches.size() > 1) {
+        throw new TaskManagerException("Task ID '" + idOrPrefix + "' is ambiguous; type more characters");
+      }
+      return matches.get(0);
+    } finally {
+      event.taskId = idOrPrefix;
+      event.commit();
+    }
+  }
+
+  /**
+   * Length of the shortest prefix that identifies a live task, never less
+   * than {@value #MIN_ID_PREFIX_LENGTH}.
+   */
+  public int shortIdLength(String id) {
+    return Math.max(MIN_ID_PREFIX_LENGTH, idPrefixes.shortestUniquePrefix(id));
   }
 
   @Override
   public void updateTimeStamp(String id) throws TaskManagerException {
-    Task fetchedTask = findById(id);
-    fetchedTask.setUpdatedAt(LocalDateTime.now());
+    try {
+      synchronized (this) {
+        writeDepth++;
+        try {
+          RepositoryEvent event = new RepositoryEvent("updateTimeStamp");
+          event.begin();
+          try {
+            if (!tasks.containsKey(id)) {
+              findById(id); // archived tasks keep the time they were closed
+              return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            update(id, current -> current.withUpdatedAt(now));
+          } finally {
+            event.taskId = id;
+            event.commit();
+          }
+        } finally {
+          endWrite();
+        }
+      }
+    } finally {
+      afterWrite();
+    }
+  }
+
+  @Override
+  public void deleteById(String id) throws TaskManagerException {
+    try {
+      synchronized (this) {
+        writeDepth++;
+        try {
+          RepositoryEvent event = new RepositoryEvent("deleteById");
+          event.begin();
+          try {
+            Task removedTask = tasks.remove(id);
+            if (removedTask == null && archive.remove(id)) {
+              for (TaskRepositoryListener listener : listeners) {
+                listener.onDeleted(id);
+              }
+              return;
+            }
+            if (removedTask == null) {
+              throw new TaskManagerException("Task with ID '" + id + "' not found");
+            }
+            unindexTask(id);
+            WriteBatch writes = new WriteBatch().delete(id);
+            List<Task> dependents = new ArrayList<>();
+            for (String dependentId : dependencyGraph.dependentsOf(id)) {
+              Task dependent = tasks.get(dependentId);
+              dependent = replaceDependsOn(dependent, without(dependent.getDependsOn(), Set.of(id)));
+              writes.put(dependent);
+              dependents.add(dependent);
+            }
+            engine.write(writes);
+            dependencyGraph.untrack(id);
+            for (TaskRepositoryListener listener : listeners) {
+              listener.onDeleted(id);
+            }
+            // Dependents lost a blocker, so listeners see them change too
+            dependents.forEach(this::notifySaved);
+            flushIfNeeded();
+          } finally {
+            event.taskId = id;
+            event.commit();
+          }
+        } finally {
+          endWrite();
+        }
+      }
+    } finally {
+      afterWrite();
+    }
   }
 
+  @Override
+  public void addDependency(String taskId, String dependsOnId) throws TaskManagerException {
+    try {
+      synchronized (this) {
+        writeDepth++;
+        try {
+          RepositoryEvent event = new RepositoryEvent("addDependency");
+          event.begin();
+          try {
+            findById(taskId);
+            findById(dependsOnId);
 
+            if (dependencyGraph.addEdge(taskId, dependsOnId)) {
+              update(taskId, current -> {
+                Set<String> blockers = new LinkedHashSet<>(current.getDependsOn());
+                blockers.add(dependsOnId);
+                return current.withDependsOn(blockers);
+              });
+            }
+          } finally {
+            event.taskId = taskId;
+            event.commit();
+          }
+        } finally {
+          endWrite();
+        }
+      }
+    } finally {
+      afterWrite();
+    }
+  }
 
   @Override
-  public void deleteById(String id) throws TaskManagerException {
-    Task removedTask = tasks.remove(id);
-    if (removedTask == null) {
-      throw new TaskManagerException("Task with ID '" + id + "' not found");
+  public void removeDependency(String taskId, String dependsOnId) throws TaskManagerException {
+    try {
+      synchronized (this) {
+        writeDepth++;
+        try {
+          RepositoryEvent event = new RepositoryEvent("removeDependency");
+          event.begin();
+          try {
+            findById(taskId);
+
+            if (!dependencyGraph.removeEdge(taskId, dependsOnId)) {
+              throw new TaskManagerException("Task '" + taskId + "' does not depend on '" + dependsOnId + "'");
+            }
+            update(taskId, current -> current.withDependsOn(without(current.getDependsOn(), Set.of(dependsOnId))));
+          } finally {
+            event.taskId = taskId;
+            event.commit();
+          }
+        } finally {
+          endWrite();
+        }
+      }
+    } finally {
+      afterWrite();
     }
-    saveTasks();
   }
 
+  /**
+   * Whether a live task is open and none of its blockers is.
+   */
+  public synchronized boolean isReady(String id) {
+    return dependencyGraph.isReady(id);
+  }
+
+  @Override
+  public synchronized List<Task> findReady(int limit) {
+    RepositoryEvent event = new RepositoryEvent("findReady");
+    event.begin();
+    try {
+      List<Task> readyTasks = new ArrayList<>();
+      for (String id : dependencyGraph.ready(limit)) {
+        readyTasks.add(tasks.get(id).copy());
+      }
+      event.taskCount = readyTasks.size();
+      return readyTasks;
+    } finally {
+      event.commit();
+    }
+  }
+
+  @Override
+  public List<Task> fetchArchived() throws TaskManagerException {
+    return archive.readAll();
+  }
+
+  /**
+   * Number of archived tasks, read from the archive index without loading
+   * the tasks.
+   */
+  public int archivedCount() {
+    return archive.size();
+  }
+
+  /**
+   * A position in the archive, for {@link #fetchArchivedSince} to read the
+   * tasks archived after it.
+   */
+  public long archivePosition() {
+    return archive.length();
+  }
+
+  /**
+   * Reads only the tasks archived since {@code position}, as returned by
+   * {@link #archivePosition()} earlier.
+   */
+  public List<Task> fetchArchivedSince(long position) throws TaskManagerException {
+    return archive.readFrom(position);
+  }
+
+  /**
+   * Returns up to {@code pageSize} live tasks in creation order, starting
+   * after {@code afterCursor}. Cost is O(log N + pageSize). A cursor stays
+   * valid when the task it points at is deleted or archived, since it only
+   * names a position in the order.
+   *
+   * @param afterCursor cursor from a previous page, or null for the first
+   * @throws TaskManagerException if the cursor cannot be decoded
+   */
+  @Override
+  public TaskPage findPage(String afterCursor, int pageSize) throws TaskManagerException {
+    RepositoryEvent event = new RepositoryEvent("findPage");
+    event.begin();
+    try {
+      if (pageSize < 1) {
+        throw new TaskManagerException("Page size must be at least 1");
+      }
+      Map<TaskCursor, Task> remaining = afterCursor == null || afterCursor.isEmpty()
+          ? creationOrder
+          : creationOrder.tailMap(TaskCursor.decode(afterCursor), false);
+
+      List<Task> page = new ArrayList<>(Math.min(pageSize, 256));
+      TaskCursor last = null;
+      boolean more = false;
+      for (Map.Entry<TaskCursor, Task> entry : remaining.entrySet()) {
+        if (page.size() == pageSize) {
+          more = true;
+          break;
+        }
+        page.add(entry.getValue().copy());
+        last = entry.getKey();
+      }
+      event.taskCount = page.size();
+      return new TaskPage(page, more ? last.encode() : null);
+    } finally {
+      event.commit();
+    }
+  }
+
+  /**
+   * Returns a consistent point-in-time view of the live tasks in O(1). Use it
+   * for long reads such as exports and statistics: unlike {@link #fetchAll()}
+   * it copies nothing, and later writes do not show through.
+   */
+  @Override
+  public TaskReadView readView() {
+    return readView;
+  }
+
+  /**
+   * Returns a copy of every live task in creation order. Editing the copies
+   * changes nothing until they are saved.
+   */
   @Override
   public List<Task> fetchAll() {
-    return new ArrayList<>(tasks.values());
+    RepositoryEvent event = new RepositoryEvent("fetchAll");
+    event.begin();
+    try {
+      List<Task> all = new ArrayList<>(creationOrder.size());
+      for (Task task : creationOrder.values()) {
+        all.add(task.copy());
+      }
+      event.taskCount = all.size();
+      return all;
+    } finally {
+      event.commit();
+    }
+  }
+
+  // Loading must not fail halfway, so a write rejected there is only reported
+  private void writeQuietly(WriteBatch batch) {
+    try {
+      engine.write(batch);
+    } catch (TaskManagerException e) {
+      System.err.println("Error writing to storage engine: " + e.getMessage());
+    }
+  }
+
+  // Swaps in a copy of a live task with other blockers, for fix-ups that
+  // must not go through update's listeners and flush one at a time
+  private Task replaceDependsOn(Task task, Set<String> dependsOn) {
+    Task replacement = task.copy();
+    replacement.setDependsOn(dependsOn);
+    tasks.put(replacement.getId(), replacement);
+    indexTask(replacement);
+    return replacement;
+  }
+
+  private static Set<String> without(Set<String> ids, Set<String> removed) {
+    Set<String> remaining = new LinkedHashSet<>(ids);
+    remaining.removeAll(removed);
+    return remaining;
+  }
+
+  // Also adds the task to the next read view. Live tasks are never edited in
+  // place: a change stores a new object and indexes it here.
+  private void indexTask(Task task) {
+    idPrefixes.add(task.getId());
+    TaskCursor key = TaskCursor.of(task);
+    TaskCursor previous = creationKeys.put(task.getId(), key);
+    if (previous != null && !previous.equals(key)) {
+      creationOrder.remove(previous);
+    }
+    creationOrder.put(key, task);
+    pendingView = pendingView.with(task, key, previous);
+  }
+
+  private void unindexTask(String id) {
+    idPrefixes.remove(id);
+    TaskCursor previous = creationKeys.remove(id);
+    if (previous != null) {
+      creationOrder.remove(previous);
+    }
+    pendingView = pendingView.without(id, previous);
   }
 }
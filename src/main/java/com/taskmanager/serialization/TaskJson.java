@@ -0,0 +1,135 @@
+package com.taskmanager.serialization;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskValue;
+
+/**
+ * TaskJson owns the single, pre-configured {@link ObjectMapper} used for all
+ * task persistence, together with readers and writers that are built once
+ * for {@code Task} and {@code List<Task>}. ObjectReader/ObjectWriter are
+ * immutable and thread-safe, so every repository, shard or tenant shares the
+ * same serializer caches instead of re-introspecting {@code Task}.
+ *
+ * The mapper is created on first use. Setting the system property
+ * {@code taskmanager.json.blackbird=true} registers Jackson's Blackbird module
+ * when it is on the classpath (see the {@code blackbird} Maven profile).
+ */
+public final class TaskJson {
+  public static final String BLACKBIRD_PROPERTY = "taskmanager.json.blackbird";
+  private static final String BLACKBIRD_MODULE = "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
+
+  private TaskJson() {
+  }
+
+  // Initialization-on-demand holder: nothing is built until the first call
+  private static final class Holder {
+    private static final ObjectMapper MAPPER = createMapper();
+    private static final TypeReference<List<Task>> TASK_LIST = new TypeReference<>() {
+    };
+    private static final ObjectReader TASK_READER = MAPPER.readerFor(Task.class);
+    private static final ObjectReader TASK_LIST_READER = MAPPER.readerFor(TASK_LIST);
+    private static final ObjectWriter TASK_WRITER = MAPPER.writerFor(Task.class);
+    private static final ObjectWriter TASK_LIST_WRITER = MAPPER.writerFor(TASK_LIST);
+    private static final ObjectWriter VALUE_LIST_WRITER = MAPPER.writerFor(new TypeReference<List<TaskValue>>() {
+    });
+  }
+
+  /**
+   * Builds a mapper with the persistence settings used for tasks.json. Prefer
+   * {@link #mapper()}; this exists for callers that need their own instance.
+   */
+  public static ObjectMapper createMapper() {
+    ObjectMapper objectMapper = new ObjectMapper();
+    objectMapper.registerModule(new JavaTimeModule());
+    objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    if (Boolean.getBoolean(BLACKBIRD_PROPERTY)) {
+      registerOptionalModule(objectMapper, BLACKBIRD_MODULE);
+    }
+    return objectMapper;
+  }
+
+  private static void registerOptionalModule(ObjectMapper objectMapper, String className) {
+    try {
+      Module module = (Module) Class.forName(className).getDeclaredConstructor().newInstance();
+      objectMapper.registerModule(module);
+    } catch (ReflectiveOperationException | LinkageError e) {
+      System.err.println("JSON module " + className + " not available, continuing without it");
+    }
+  }
+
+  // Accessors
+  public static ObjectMapper mapper() {
+    return Holder.MAPPER;
+  }
+
+  public static ObjectReader taskReader() {
+    return Holder.TASK_READER;
+  }
+
+  public static ObjectReader taskListReader() {
+    return Holder.TASK_LIST_READER;
+  }
+
+  public static ObjectWriter taskWriter() {
+    return Holder.TASK_WRITER;
+  }
+
+  public static ObjectWriter taskListWriter() {
+    return Holder.TASK_LIST_WRITER;
+  }
+
+  // Convenience methods for the common paths
+
+  public static List<Task> readTasks(File file) throws IOException {
+    return Holder.TASK_LIST_READER.readValue(file);
+  }
+
+  public static List<Task> readTasks(InputStream in) throws IOException {
+    return Holder.TASK_LIST_READER.readValue(in);
+  }
+
+  public static List<Task> readTasks(byte[] bytes) throws IOException {
+    return Holder.TASK_LIST_READER.readValue(bytes);
+  }
+
+  public static void writeTasks(File file, List<Task> tasks) throws IOException {
+    Holder.TASK_LIST_WRITER.writeValue(file, tasks);
+  }
+
+  public static void writeTasks(OutputStream out, List<Task> tasks) throws IOException {
+    Holder.TASK_LIST_WRITER.writeValue(out, tasks);
+  }
+
+  public static byte[] writeTasksAsBytes(List<Task> tasks) throws IOException {
+    return Holder.TASK_LIST_WRITER.writeValueAsBytes(tasks);
+  }
+
+  /**
+   * Writes immutable task values; the output is the same as for the
+   * equivalent {@link Task}s.
+   */
+  public static byte[] writeTaskValuesAsBytes(List<TaskValue> values) throws IOException {
+    return Holder.VALUE_LIST_WRITER.writeValueAsBytes(values);
+  }
+
+  public static Task readTask(byte[] bytes) throws IOException {
+    return Holder.TASK_READER.readValue(bytes);
+  }
+
+  public static byte[] writeTaskAsBytes(Task task) throws IOException {
+    return Holder.TASK_WRITER.writeValueAsBytes(task);
+  }
+}
@@ -0,0 +1,221 @@
+package com.taskmanager.serialization;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.taskmanager.compression.BlockCodec;
+import com.taskmanager.compression.BlockFormat;
+import com.taskmanager.compression.BlockFormat.RawBlock;
+import com.taskmanager.models.Task;
+
+/**
+ * TaskSnapshots reads and writes full-store snapshots either as plain JSON
+ * (the historical tasks.json layout) or as a sequence of independently
+ * compressed blocks of {@value #DEFAULT_TASKS_PER_BLOCK} tasks each.
+ * Readers detect the format from the first bytes, so a store can switch
+ * codecs, or back to plain JSON, between runs.
+ *
+ * Block snapshots end with a trailer holding the number of blocks, so a
+ * file cut off anywhere, even between two blocks, is rejected rather than
+ * loaded as a shorter store. Snapshots of format version 1 have no trailer;
+ * they are still read, and may only end exactly between two blocks.
+ *
+ * Block snapshots are loaded in two phases: blocks are read sequentially
+ * (pure I/O), then decompressed and parsed in parallel.
+ */
+public final class TaskSnapshots {
+  public static final int SNAPSHOT_MAGIC = 0x544D534E; // "TMSN"
+  public static final int TRAILER_MAGIC = 0x544D454E; // "TMEN"
+  public static final int FORMAT_VERSION = 2;
+  public static final int DEFAULT_TASKS_PER_BLOCK = 1024;
+
+  private TaskSnapshots() {
+  }
+
+  /**
+   * Writes a snapshot. A null codec writes plain JSON.
+   *
+   * @return the number of bytes written
+   */
+  public static long write(File file, List<Task> tasks, BlockCodec codec) throws IOException {
+    return write(file, tasks, codec, DEFAULT_TASKS_PER_BLOCK);
+  }
+
+  public static long write(File file, List<Task> tasks, BlockCodec codec, int tasksPerBlock) throws IOException {
+    try (FileOutputStream out = new FileOutputStream(file)) {
+      return write(out, tasks, codec, tasksPerBlock);
+    }
+  }
+
+  /**
+   * Writes a snapshot to a stream, which is left open.
+   *
+   * @return the number of bytes written
+   */
+  public static long write(OutputStream target, List<Task> tasks, BlockCodec codec, int tasksPerBlock)
+      throws IOException {
+    if (codec == null) {
+      CountingOutputStream out = new CountingOutputStream(target);
+      TaskJson.writeTasks(out, tasks);
+      return out.count;
+    }
+    long written = 5;
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(target, 1 << 16));
+    out.writeInt(SNAPSHOT_MAGIC);
+    out.writeByte(FORMAT_VERSION);
+    int blocks = 0;
+    for (int start = 0; start < tasks.size(); start += tasksPerBlock) {
+      List<Task> slice = tasks.subList(start, Math.min(tasks.size(), start + tasksPerBlock));
+      written += BlockFormat.write(out, codec, TaskJson.writeTasksAsBytes(slice));
+      blocks++;
+    }
+    out.writeInt(TRAILER_MAGIC);
+    out.writeInt(blocks);
+    out.flush();
+    return written + 8;
+  }
+
+  /**
+   * Reads a snapshot in either format.
+   */
+  public static List<Task> read(File file) throws IOException {
+    try (FileInputStream in = new FileInputStream(file)) {
+      return read(in);
+    }
+  }
+
+  /**
+   * Reads a snapshot in either format from a stream. The caller closes it.
+   */
+  public static List<Task> read(InputStream source) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(source, 1 << 16));
+    in.mark(4);
+    int magic;
+    try {
+      magic = in.readInt();
+    } catch (EOFException e) {
+      magic = 0;
+    }
+    in.reset();
+    if (magic != SNAPSHOT_MAGIC) {
+      return TaskJson.readTasks(in);
+    }
+
+    in.readInt();
+    int version = in.readUnsignedByte();
+    if (version < 1 || version > FORMAT_VERSION) {
+      throw new IOException("Unsupported snapshot format version " + version);
+    }
+    List<RawBlock> blocks = new ArrayList<>();
+    try {
+      while (true) {
+        in.mark(4);
+        if (in.read() < 0) {
+          if (version > 1) {
+            throw new EOFException("no trailer");
+          }
+          break; // version 1 ends after its last block
+        }
+        in.reset();
+        in.mark(4);
+        if (in.readInt() == TRAILER_MAGIC) {
+          int count = in.readInt();
+          if (count != blocks.size()) {
+            throw new IOException("Snapshot trailer names " + count + " blocks, but " + blocks.size() + " were read");
+          }
+          if (in.read() >= 0) {
+            throw new IOException("Unexpected data after the snapshot trailer");
+          }
+          break;
+        }
+        in.reset();
+        blocks.add(BlockFormat.read(in));
+      }
+    } catch (EOFException e) {
+      throw new IOException("Snapshot is truncated after " + blocks.size() + " complete blocks", e);
+    }
+    return decodeBlocks(blocks);
+  }
+
+  /**
+   * Whether a file holds a block snapshot rather than plain JSON.
+   */
+  public static boolean isBlockSnapshot(File file) throws IOException {
+    try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+      return file.length() >= 4 && in.readInt() == SNAPSHOT_MAGIC;
+    }
+  }
+
+  private static List<Task> decodeBlocks(List<RawBlock> blocks) throws IOException {
+    List<List<Task>> decoded;
+    try {
+      IntStream indices = IntStream.range(0, blocks.size());
+      decoded = (blocks.size() > 1 ? indices.parallel() : indices)
+          .mapToObj(i -> {
+            try {
+              return TaskJson.readTasks(BlockFormat.decode(blocks.get(i)));
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          })
+          .toList();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+
+    int total = 0;
+    for (List<Task> block : decoded) {
+      total += block.size();
+    }
+    List<Task> tasks = new ArrayList<>(total);
+    for (List<Task> block : decoded) {
+      tasks.addAll(block);
+    }
+    return tasks;
+  }
+
+  // Counts what Jackson writes and keeps it from closing the caller's stream
+  private static final class CountingOutputStream extends OutputStream {
+    private final OutputStream target;
+    private long count;
+
+    CountingOutputStream(OutputStream target) {
+      this.target = target;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      target.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      target.write(b, off, len);
+      count += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+      target.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      target.flush();
+    }
+  }
+}
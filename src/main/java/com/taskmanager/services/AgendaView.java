@@ -0,0 +1,146 @@
+package com.taskmanager.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.taskmanager.enums.Status;
+import com.taskmanager.interfaces.TaskRepositoryListener;
+import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskValue;
+import com.taskmanager.repositories.TaskRepository;
+
+/**
+ * AgendaView is a materialized calendar of the open tasks in a
+ * {@link TaskRepository}: one bucket per day, keyed on the date part of
+ * {@link Task#getDueDate()}. It is built with one scan and then kept current
+ * through repository events, so a save, completion or delete moves at most
+ * one task between two buckets.
+ * Reading a date range touches only the buckets in that range, and "now" is
+ * passed in once per query instead of being read per task.
+ * Buckets hold immutable {@link TaskValue}s, never the repository's live
+ * tasks, and queries return copies that callers may modify freely.
+ */
+public class AgendaView implements TaskRepositoryListener, AutoCloseable {
+
+  private static final Comparator<TaskValue> DAY_ORDER = Comparator
+      .comparing(TaskValue::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+      .thenComparing(task -> task.getPriority() != null ? -task.getPriority().getLevel() : 0)
+      .thenComparing(TaskValue::getId);
+
+  private final TaskRepository taskRepository;
+  private final NavigableMap<LocalDate, Map<String, TaskValue>> days = new ConcurrentSkipListMap<>();
+  private final Map<String, LocalDate> dayOf = new ConcurrentHashMap<>();
+
+  public AgendaView(TaskRepository taskRepository) {
+    this.taskRepository = taskRepository;
+    taskRepository.addListener(this);
+    for (Task task : taskRepository.fetchAll()) {
+      onSaved(task);
+    }
+  }
+
+  /**
+   * Returns the open tasks due between {@code from} and {@code to}
+   * (inclusive), grouped by day in date order. Days without tasks are
+   * omitted.
+   */
+  public Map<LocalDate, List<Task>> between(LocalDate from, LocalDate to) {
+    Map<LocalDate, List<Task>> agenda = new LinkedHashMap<>();
+    for (Map.Entry<LocalDate, Map<String, TaskValue>> day : days.subMap(from, true, to, true).entrySet()) {
+      List<Task> tasks = sorted(day.getValue());
+      if (!tasks.isEmpty()) {
+        agenda.put(day.getKey(), tasks);
+      }
+    }
+    return agenda;
+  }
+
+  /**
+   * Returns the open tasks whose due date has passed at {@code now}, oldest
+   * first. Only the buckets before tomorrow are read.
+   */
+  public List<Task> overdue(LocalDateTime now) {
+    List<Task> overdue = new ArrayList<>();
+    LocalDate today = now.toLocalDate();
+    for (Map<String, TaskValue> day : days.headMap(today, false).values()) {
+      overdue.addAll(sorted(day));
+    }
+    Map<String, TaskValue> todays = days.get(today);
+    if (todays != null) {
+      for (Task task : sorted(todays)) {
+        if (task.getDueDate().isBefore(now)) {
+          overdue.add(task);
+        }
+      }
+    }
+    return overdue;
+  }
+
+  /**
+   * Number of open tasks with a due date.
+   */
+  public int size() {
+    return dayOf.size();
+  }
+
+  @Override
+  public synchronized void onSaved(Task task) {
+    String id = task.getId();
+    LocalDate day = isOpen(task) && task.getDueDate() != null ? task.getDueDate().toLocalDate() : null;
+    LocalDate previous = day != null ? dayOf.put(id, day) : dayOf.remove(id);
+    if (previous != null && !previous.equals(day)) {
+      removeFromBucket(previous, id);
+    }
+    if (day != null) {
+      // Listeners receive the live task, which must not escape
+      days.computeIfAbsent(day, d -> new ConcurrentHashMap<>()).put(id, TaskValue.of(task, 0));
+    }
+  }
+
+  @Override
+  public synchronized void onDeleted(String id) {
+    LocalDate previous = dayOf.remove(id);
+    if (previous != null) {
+      removeFromBucket(previous, id);
+    }
+  }
+
+  @Override
+  public void close() {
+    taskRepository.removeListener(this);
+  }
+
+  // Helper methods
+
+  private void removeFromBucket(LocalDate day, String id) {
+    Map<String, TaskValue> bucket = days.get(day);
+    if (bucket != null) {
+      bucket.remove(id);
+      if (bucket.isEmpty()) {
+        days.remove(day);
+      }
+    }
+  }
+
+  private static List<Task> sorted(Map<String, TaskValue> bucket) {
+    List<TaskValue> values = new ArrayList<>(bucket.values());
+    values.sort(DAY_ORDER);
+    List<Task> tasks = new ArrayList<>(values.size());
+    for (TaskValue value : values) {
+      tasks.add(value.toTask());
+    }
+    return tasks;
+  }
+
+  private static boolean isOpen(Task task) {
+    return task.getStatus() != Status.COMPLETED && task.getStatus() != Status.CANCELLED;
+  }
+}
@@ -0,0 +1,307 @@
+package com.taskmanager.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import com.taskmanager.enums.DuplicatePolicy;
+import com.taskmanager.enums.Status;
+import com.taskmanager.interfaces.TaskRepositoryListener;
+import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskValue;
+import com.taskmanager.repositories.TaskReadView;
+import com.taskmanager.repositories.TaskRepository;
+
+/**
+ * DuplicateIndex finds open tasks whose title and description are nearly the
+ * same as a given text, such as "Send weekly report" and "send weekly
+ * report!", without comparing the text to every task.
+ *
+ * Each open task is filed under the {@link MinHash#BANDS} band keys of its
+ * MinHash signature. A lookup collects the tasks sharing a band key with the
+ * text and compares only those, by the exact similarity of their shingles,
+ * so its cost depends on the number of likely matches rather than the size
+ * of the store. A pair at the similarity threshold is found about 94% of the
+ * time; more similar pairs almost always.
+ *
+ * Completed and cancelled tasks are not indexed, so a recurring task's next
+ * occurrence is not reported as a duplicate of the one just completed.
+ *
+ * The index follows the repository as a listener; {@link #clusters} groups a
+ * whole store in parallel without an index.
+ */
+public class DuplicateIndex implements TaskRepositoryListener, AutoCloseable {
+  public static final String POLICY_PROPERTY = "taskmanager.duplicates";
+  public static final String THRESHOLD_PROPERTY = "taskmanager.duplicates.threshold";
+  public static final double DEFAULT_THRESHOLD = 0.6;
+  private static final int MAX_PAIRED = 8;
+
+  /**
+   * An indexed task and its similarity to the text looked up, from 0 to 1.
+   */
+  public record Match(String id, double similarity) {
+  }
+
+  private final TaskRepository taskRepository;
+  private final double threshold;
+  private final Map<Long, List<String>> buckets = new HashMap<>();
+  private final Map<String, long[]> bandKeys = new HashMap<>();
+
+  public DuplicateIndex(TaskRepository taskRepository) {
+    this(taskRepository, DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * Indexes the open tasks of {@code taskRepository} and follows its
+   * changes until closed.
+   *
+   * @param threshold the similarity from which tasks count as duplicates
+   */
+  public DuplicateIndex(TaskRepository taskRepository, double threshold) {
+    this.taskRepository = taskRepository;
+    this.threshold = threshold;
+    taskRepository.addListener(this);
+    // Signatures are computed in parallel; an entry made stale by a
+    // concurrent change is harmless since lookups check the current text
+    List<TaskValue> open = taskRepository.readView().stream().filter(task -> isOpen(task.getStatus())).toList();
+    long[][] keys = new long[open.size()][];
+    IntStream.range(0, open.size()).parallel().forEach(i -> keys[i] = bandKeys(
+        MinHash.signature(MinHash.shingles(open.get(i).getTitle(), open.get(i).getDescription()))));
+    synchronized (this) {
+      for (int i = 0; i < keys.length; i++) {
+        if (!bandKeys.containsKey(open.get(i).getId())) {
+          add(open.get(i).getId(), keys[i]);
+        }
+      }
+    }
+  }
+
+  /**
+   * What creating a likely duplicate does, set by
+   * {@code taskmanager.duplicates} ({@code off}, {@code flag} or
+   * {@code merge}), {@link DuplicatePolicy#FLAG} by default.
+   */
+  public static DuplicatePolicy policyFromSystemProperties() {
+    String value = System.getProperty(POLICY_PROPERTY);
+    if (value == null) {
+      return DuplicatePolicy.FLAG;
+    }
+    try {
+      return DuplicatePolicy.valueOf(value.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      System.err.println("Invalid " + POLICY_PROPERTY + " '" + value + "', using flag");
+      return DuplicatePolicy.FLAG;
+    }
+  }
+
+  /**
+   * The similarity set by {@code taskmanager.duplicates.threshold}, between
+   * 0 (exclusive) and 1, or {@link #DEFAULT_THRESHOLD}.
+   */
+  public static double thresholdFromSystemProperties() {
+    String value = System.getProperty(THRESHOLD_PROPERTY);
+    if (value == null) {
+      return DEFAULT_THRESHOLD;
+    }
+    try {
+      double threshold = Double.parseDouble(value.trim());
+      if (threshold > 0 && threshold <= 1) {
+        return threshold;
+      }
+    } catch (NumberFormatException e) {
+      // Reported below
+    }
+    System.err.println("Invalid " + THRESHOLD_PROPERTY + " '" + value + "', using " + DEFAULT_THRESHOLD);
+    return DEFAULT_THRESHOLD;
+  }
+
+  public double threshold() {
+    return threshold;
+  }
+
+  public synchronized int size() {
+    return bandKeys.size();
+  }
+
+  /**
+   * Open tasks whose text is at least {@link #threshold()} similar to
+   * {@code title} and {@code description}, most similar first.
+   */
+  public List<Match> findSimilar(String title, String description) {
+    long[] shingles = MinHash.shingles(title, description);
+    long[] keys = bandKeys(MinHash.signature(shingles));
+    Set<String> candidates = new LinkedHashSet<>();
+    synchronized (this) {
+      for (long key : keys) {
+        List<String> bucket = buckets.get(key);
+        if (bucket != null) {
+          candidates.addAll(bucket);
+        }
+      }
+    }
+    TaskReadView view = taskRepository.readView();
+    List<Match> matches = new ArrayList<>();
+    for (String id : candidates) {
+      TaskValue candidate = view.find(id).orElse(null);
+      if (candidate != null) {
+        double similarity = MinHash.similarity(shingles,
+            MinHash.shingles(candidate.getTitle(), candidate.getDescription()));
+        if (similarity >= threshold) {
+          matches.add(new Match(id, similarity));
+        }
+      }
+    }
+    matches.sort(Comparator.comparingDouble(Match::similarity).reversed());
+    return matches;
+  }
+
+  /**
+   * Groups the open tasks among {@code tasks} into clusters of likely
+   * duplicates, comparing candidate pairs in parallel. A task is in a
+   * cluster if it is at least {@code threshold} similar to another task of
+   * the cluster.
+   *
+   * @return clusters of two or more task ids, largest first, each ordered
+   *         as {@code tasks}
+   */
+  public static List<List<String>> clusters(List<TaskValue> tasks, double threshold) {
+    List<TaskValue> open = tasks.stream().filter(task -> isOpen(task.getStatus())).toList();
+    int n = open.size();
+    long[][] shingles = new long[n][];
+    long[][] keys = new long[n][];
+    IntStream.range(0, n).parallel().forEach(i -> {
+      shingles[i] = MinHash.shingles(open.get(i).getTitle(), open.get(i).getDescription());
+      keys[i] = bandKeys(MinHash.signature(shingles[i]));
+    });
+
+    // Candidate pairs, band by band in parallel, as sorted distinct longs
+    long[] pairs = IntStream.range(0, MinHash.BANDS).parallel()
+        .mapToObj(band -> candidatePairs(keys, band))
+        .flatMapToLong(Arrays::stream)
+        .toArray();
+    Arrays.parallelSort(pairs);
+    int distinct = 0;
+    for (int i = 0; i < pairs.length; i++) {
+      if (i == 0 || pairs[i] != pairs[i - 1]) {
+        pairs[distinct++] = pairs[i];
+      }
+    }
+
+    long[] similar = Arrays.stream(pairs, 0, distinct).parallel()
+        .filter(pair -> MinHash.similarity(shingles[(int) (pair >>> 32)], shingles[(int) pair]) >= threshold)
+        .toArray();
+    int[] parent = IntStream.range(0, n).toArray();
+    for (long pair : similar) {
+      union(parent, (int) (pair >>> 32), (int) pair);
+    }
+
+    Map<Integer, List<String>> byRoot = new HashMap<>();
+    for (int i = 0; i < n; i++) {
+      byRoot.computeIfAbsent(find(parent, i), root -> new ArrayList<>()).add(open.get(i).getId());
+    }
+    return byRoot.values().stream()
+        .filter(cluster -> cluster.size() > 1)
+        .sorted(Comparator.comparingInt((List<String> cluster) -> cluster.size()).reversed())
+        .toList();
+  }
+
+  // Called under the repository lock
+
+  @Override
+  public void onSaved(Task task) {
+    long[] keys = isOpen(task.getStatus())
+        ? bandKeys(MinHash.signature(MinHash.shingles(task.getTitle(), task.getDescription())))
+        : null;
+    synchronized (this) {
+      remove(task.getId());
+      if (keys != null) {
+        add(task.getId(), keys);
+      }
+    }
+  }
+
+  @Override
+  public synchronized void onDeleted(String id) {
+    remove(id);
+  }
+
+  @Override
+  public void close() {
+    taskRepository.removeListener(this);
+  }
+
+  // Helper methods
+
+  // Pairs of tasks sharing a bucket of one band, smaller index in the high
+  // half. A big bucket of copies is paired with its first members only,
+  // which keeps the pair count linear; the rest are similar to those.
+  private static long[] candidatePairs(long[][] keys, int band) {
+    Map<Long, List<Integer>> bucketsOfBand = new HashMap<>();
+    for (int i = 0; i < keys.length; i++) {
+      bucketsOfBand.computeIfAbsent(keys[i][band], key -> new ArrayList<>(2)).add(i);
+    }
+    LongStream.Builder pairs = LongStream.builder();
+    for (List<Integer> bucket : bucketsOfBand.values()) {
+      for (int a = 0; a < Math.min(bucket.size(), MAX_PAIRED); a++) {
+        for (int b = a + 1; b < bucket.size(); b++) {
+          pairs.add((long) bucket.get(a) << 32 | bucket.get(b));
+        }
+      }
+    }
+    return pairs.build().toArray();
+  }
+
+  private static boolean isOpen(Status status) {
+    return status != Status.COMPLETED && status != Status.CANCELLED;
+  }
+
+  private static long[] bandKeys(int[] signature) {
+    long[] keys = new long[MinHash.BANDS];
+    for (int band = 0; band < keys.length; band++) {
+      keys[band] = MinHash.bandKey(signature, band);
+    }
+    return keys;
+  }
+
+  private void add(String id, long[] keys) {
+    bandKeys.put(id, keys);
+    for (long key : keys) {
+      buckets.computeIfAbsent(key, k -> new ArrayList<>(2)).add(id);
+    }
+  }
+
+  private void remove(String id) {
+    long[] keys = bandKeys.remove(id);
+    if (keys == null) {
+      return;
+    }
+    for (long key : keys) {
+      List<String> bucket = buckets.get(key);
+      if (bucket != null) {
+        bucket.remove(id);
+        if (bucket.isEmpty()) {
+          buckets.remove(key);
+        }
+      }
+    }
+  }
+
+  private static int find(int[] parent, int i) {
+    while (parent[i] != i) {
+      parent[i] = parent[parent[i]];
+      i = parent[i];
+    }
+    return i;
+  }
+
+  private static void union(int[] parent, int a, int b) {
+    parent[find(parent, a)] = find(parent, b);
+  }
+}
@@ -0,0 +1,150 @@
+package com.taskmanager.services;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+
+/**
+ * Shingling and MinHash signatures for finding near-identical task texts.
+ *
+ * A text is lower-cased, stripped of accents and punctuation and split into
+ * overlapping three-character shingles, so "Send weekly report" and "send
+ * weekly report!" have the same shingles and "Send the weekly report" most
+ * of them. The similarity of two texts is the Jaccard similarity of their
+ * shingle sets.
+ *
+ * A signature keeps, for each of {@value #HASHES} hash functions, the
+ * smallest hash of any shingle; two texts agree on a signature position with
+ * probability equal to their similarity. Signatures are cut into
+ * {@value #BANDS} bands of {@value #ROWS} rows for locality-sensitive
+ * hashing: texts that agree on a whole band land in the same bucket. Pairs
+ * with similarity 0.6 share a band with probability ~94%, pairs with
+ * similarity 0.3 with probability ~15% and 0.2 with ~3%, so looking up the
+ * buckets of a text finds its likely duplicates without comparing it to
+ * every other text.
+ */
+final class MinHash {
+  static final int BANDS = 20;
+  static final int ROWS = 4;
+  static final int HASHES = BANDS * ROWS;
+  private static final int SHINGLE = 3;
+
+  private MinHash() {
+  }
+
+  /**
+   * The sorted, distinct shingle hashes of {@code title} and
+   * {@code description}.
+   */
+  static long[] shingles(String title, String description) {
+    String text = normalize(description == null || description.isBlank() ? title : title + " " + description);
+    if (text.isEmpty()) {
+      return new long[0];
+    }
+    String padded = " " + text + " ";
+    long[] shingles = new long[Math.max(1, padded.length() - SHINGLE + 1)];
+    for (int i = 0; i < shingles.length; i++) {
+      long hash = 0;
+      for (int j = i; j < Math.min(padded.length(), i + SHINGLE); j++) {
+        hash = hash * 65_599 + padded.charAt(j);
+      }
+      shingles[i] = mix(hash);
+    }
+    Arrays.sort(shingles);
+    int distinct = 0;
+    for (int i = 0; i < shingles.length; i++) {
+      if (i == 0 || shingles[i] != shingles[i - 1]) {
+        shingles[distinct++] = shingles[i];
+      }
+    }
+    return Arrays.copyOf(shingles, distinct);
+  }
+
+  /**
+   * The MinHash signature of a shingle set. The hash functions are derived
+   * from each shingle hash by double hashing, so a signature costs one
+   * multiply-add per shingle and position.
+   */
+  static int[] signature(long[] shingles) {
+    int[] signature = new int[HASHES];
+    Arrays.fill(signature, Integer.MAX_VALUE);
+    for (long shingle : shingles) {
+      int h1 = (int) shingle;
+      int h2 = (int) (shingle >>> 32) | 1;
+      // Branch-free so that the JIT can vectorize it
+      for (int i = 0; i < HASHES; i++) {
+        signature[i] = Math.min(signature[i], (h1 + i * h2) & Integer.MAX_VALUE);
+      }
+    }
+    return signature;
+  }
+
+  /**
+   * The bucket key of {@code band} of a signature; keys of different bands
+   * never collide by construction of the band number in the hash.
+   */
+  static long bandKey(int[] signature, int band) {
+    long hash = band;
+    for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+      hash = hash * 1_000_003 + signature[row];
+    }
+    return mix(hash);
+  }
+
+  /**
+   * Exact Jaccard similarity of two sorted shingle sets.
+   */
+  static double similarity(long[] a, long[] b) {
+    if (a.length == 0 || b.length == 0) {
+      return a.length == b.length ? 1 : 0;
+    }
+    int shared = 0;
+    int i = 0;
+    int j = 0;
+    while (i < a.length && j < b.length) {
+      if (a[i] == b[j]) {
+        shared++;
+        i++;
+        j++;
+      } else if (a[i] < b[j]) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return (double) shared / (a.length + b.length - shared);
+  }
+
+  /**
+   * Lower-cases {@code text}, strips accents and turns every run of other
+   * characters than letters and digits into a single space.
+   */
+  static String normalize(String text) {
+    if (!text.chars().allMatch(c -> c < 128)) {
+      text = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    }
+    StringBuilder normalized = new StringBuilder(text.length());
+    boolean space = true;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (Character.isLetterOrDigit(c)) {
+        normalized.append(Character.toLowerCase(c));
+        space = false;
+      } else if (!space) {
+        normalized.append(' ');
+        space = true;
+      }
+    }
+    int length = normalized.length();
+    return space && length > 0 ? normalized.substring(0, length - 1) : normalized.toString();
+  }
+
+  // murmur3 finalizer
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
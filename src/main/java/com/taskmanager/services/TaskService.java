@@ -1,18 +1,63 @@
 package com.taskmanager.services;
 
+import com.taskmanager.analytics.Granularity;
+import com.taskmanager.analytics.Rollup;
+import com.taskmanager.analytics.TaskRollups;
+import com.taskmanager.notifications.ReminderConfig;
+import com.taskmanager.notifications.ReminderDispatcher;
+import com.taskmanager.notifications.ReminderScanner;
+import com.taskmanager.notifications.ReminderSink;
+import com.taskmanager.repositories.TaskFileWatcher;
+import com.taskmanager.repositories.TaskReadView;
 import com.taskmanager.repositories.TaskRepository;
+import com.taskmanager.replication.ReplicationConfig;
+import com.taskmanager.replication.ReplicationFollower;
+import com.taskmanager.replication.ReplicationPrimary;
+import com.taskmanager.sync.FileDropSync;
+import com.taskmanager.sync.SyncClient;
+import com.taskmanager.sync.SyncReport;
+import com.taskmanager.sync.SyncServer;
+import com.taskmanager.sync.TaskSync;
+import com.taskmanager.diagnostics.ServiceEvent;
+import com.taskmanager.enums.AckMode;
+import com.taskmanager.enums.DuplicatePolicy;
 import com.taskmanager.enums.Priority;
 import com.taskmanager.errors.TaskManagerException;
 import com.taskmanager.enums.Category;
 import com.taskmanager.enums.Status;
+import com.taskmanager.models.RecurrenceRule;
 import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskPage;
+import com.taskmanager.models.TaskValue;
+import com.taskmanager.interfaces.TaskRepositoryListener;
 
+import java.io.File;
+import java.io.IOException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 
 public class TaskService {
+  public static final int MAX_PAGE_SIZE = 1000;
 
-  private final TaskRepository taskRepository = new TaskRepository();
+  private TaskRepository taskRepository;
+  private AgendaView agendaView;
+  private ReplicationPrimary replicationPrimary;
+  private ReplicationFollower replicationFollower;
+  private TaskSync taskSync;
+  private SyncServer syncServer;
+  private TaskFileWatcher fileWatcher;
+  private TaskRollups taskRollups;
+  private DuplicateIndex duplicateIndex;
+  private ReminderDispatcher reminderDispatcher;
+  private ReminderScanner reminderScanner;
+  private DuplicatePolicy duplicatePolicy = DuplicateIndex.policyFromSystemProperties();
+  private final List<TaskRepositoryListener> listeners = new ArrayList<>();
 
   public record TaskData(String title, String description, Priority priority, Category category, Status status, LocalDate dueDate) {
     public TaskData(String title) {
@@ -24,31 +69,138 @@ public class TaskService {
     }
   }
 
+  /**
+   * What {@link #createTask} or an import did with one task: the task as
+   * saved, which is an existing one if the new data was merged into it, and
+   * the open tasks it is likely a duplicate of, most similar first.
+   */
+  public record Creation(Task task, List<DuplicateIndex.Match> duplicates, boolean merged) {
+  }
+
+  public TaskService() {
+  }
+
+  /**
+   * A service over an already opened repository, e.g. one configured for a
+   * benchmark or a workload replay.
+   */
+  public TaskService(TaskRepository taskRepository) {
+    this.taskRepository = taskRepository;
+  }
+
+  // Loaded on first use so that constructing the service stays cheap
+  private TaskRepository repository() {
+    if (taskRepository == null) {
+      taskRepository = new TaskRepository();
+      listeners.forEach(taskRepository::addListener);
+      if (TaskFileWatcher.isEnabled()) {
+        watchFile();
+      }
+      if (taskRepository.getDataFile() != null && TaskRollups.stateFileFor(taskRepository.getDataFile()).exists()) {
+        openRollups();
+      }
+    }
+    return taskRepository;
+  }
+
+  // Once analytics has been used, every session keeps the rollups current so
+  // that reports do not have to catch up on a long history of changes
+  private void openRollups() {
+    try {
+      getTaskRollups();
+    } catch (TaskManagerException e) {
+      System.err.println("Error opening analytics: " + e.getMessage());
+    }
+  }
+
+  // A store that cannot be watched still works, it just needs a restart to
+  // see changes made by others
+  private void watchFile() {
+    try {
+      fileWatcher = new TaskFileWatcher(taskRepository);
+      fileWatcher.start();
+    } catch (TaskManagerException e) {
+      System.err.println("Error watching the task file: " + e.getMessage());
+    }
+  }
+
+  /**
+   * The watcher merging external changes to the task file, or null unless
+   * {@code taskmanager.file.watch} is set.
+   */
+  public TaskFileWatcher getFileWatcher() {
+    return fileWatcher;
+  }
+
+  /**
+   * Registers a listener for repository mutations, such as a cache of
+   * rendered output. Registering does not load the repository.
+   */
+  public void addRepositoryListener(TaskRepositoryListener listener) {
+    listeners.add(listener);
+    if (taskRepository != null) {
+      taskRepository.addListener(listener);
+    }
+  }
+
+  public void removeRepositoryListener(TaskRepositoryListener listener) {
+    listeners.remove(listener);
+    if (taskRepository != null) {
+      taskRepository.removeListener(listener);
+    }
+  }
+
+  public DuplicatePolicy getDuplicatePolicy() {
+    return duplicatePolicy;
+  }
+
+  public void setDuplicatePolicy(DuplicatePolicy duplicatePolicy) {
+    this.duplicatePolicy = duplicatePolicy;
+  }
+
   /**
    * Creates a new task with the provided data and saves it to the repository.
+   * Unless the duplicate policy is {@link DuplicatePolicy#OFF}, open tasks
+   * with nearly the same title and description are reported; with
+   * {@link DuplicatePolicy#MERGE} the data is merged into the closest one
+   * instead of creating a task.
    * 
    * @param taskData the data object containing task information including title,
    *                 description, priority, and category. Title is required,
    *                 other fields are optional
+   * @return the created or merged task and its likely duplicates
    * @throws TaskManagerException     if validation fails (e.g., empty title,
    *                                  invalid description length, invalid
    *                                  priority)
    * @throws IllegalArgumentException if taskData is null
    * @since 1.0
    */
-  public void createTask(TaskData taskData) throws TaskManagerException {
-    Task task = new Task(taskData.title());
+  public Creation createTask(TaskData taskData) throws TaskManagerException {
+    ServiceEvent event = new ServiceEvent("createTask");
+    event.begin();
+    try {
+      Task task = new Task(taskData.title());
 
-    if (taskData.description() != null) {
-      task.setDescription(taskData.description());
-    }
-    if (taskData.priority() != null) {
-      task.setPriority(taskData.priority());
+      if (taskData.description() != null) {
+        task.setDescription(taskData.description());
+      }
+      if (taskData.priority() != null) {
+        task.setPriority(taskData.priority());
+      }
+      if (taskData.category() != null) {
+        task.setCategory(taskData.category());
+      }
+      if (taskData.dueDate() != null) {
+        task.setDueDate(taskData.dueDate().atStartOfDay());
+      }
+      if (duplicatePolicy == DuplicatePolicy.OFF) {
+        repository().save(task);
+        return new Creation(task, List.of(), false);
+      }
+      return saveUnlessDuplicate(task);
+    } finally {
+      event.commit();
     }
-    if (taskData.category() != null) {
-      task.setCategory(taskData.category());
-    }
-    this.taskRepository.save(task);
   }
 
   /**
@@ -62,10 +214,17 @@ public class TaskService {
    * @throws TaskManagerException     if an error occurs during deletion
    */
   public void deleteTask(String taskId) throws TaskManagerException {
-    if (taskId == null || taskId.trim().isEmpty()) {
-      throw new TaskManagerException("Task ID cannot be null or empty");
+    ServiceEvent event = new ServiceEvent("deleteTask");
+    event.taskId = taskId;
+    event.begin();
+    try {
+      if (taskId == null || taskId.trim().isEmpty()) {
+        throw new TaskManagerException("Task ID cannot be null or empty");
+      }
+      repository().deleteById(repository().resolveId(taskId));
+    } finally {
+      event.commit();
     }
-    this.taskRepository.deleteById(taskId);
   }
 
   /**
@@ -80,61 +239,749 @@ public class TaskService {
    * @throws TaskManagerException     if an error occurs during deletion
    */
   public void updateTask(String taskId, TaskData taskData) throws TaskManagerException {
-    if (taskId == null || taskId.trim().isEmpty()) {
-      throw new TaskManagerException("Task ID cannot be null or empty");
+    ServiceEvent event = new ServiceEvent("updateTask");
+    event.taskId = taskId;
+    event.begin();
+    try {
+      if (taskId == null || taskId.trim().isEmpty()) {
+        throw new TaskManagerException("Task ID cannot be null or empty");
+      }
+      if (taskData == null) {
+        throw new TaskManagerException("Task data cannot be null");
+      }
+
+      Task[] successor = new Task[1];
+      repository().update(repository().resolveId(taskId), current -> {
+        TaskValue edited = current;
+        if (taskData.title() != null) {
+          edited = edited.withTitle(taskData.title());
+        }
+        if (taskData.description() != null) {
+          edited = edited.withDescription(taskData.description());
+        }
+        if (taskData.priority() != null) {
+          edited = edited.withPriority(taskData.priority());
+        }
+        if (taskData.category() != null) {
+          edited = edited.withCategory(taskData.category());
+        }
+        if (taskData.dueDate() != null) {
+          edited = edited.withDueDate(taskData.dueDate().atStartOfDay());
+        }
+        if (taskData.status() == Status.COMPLETED) {
+          // The successor inherits the edits made in the same update
+          successor[0] = current.isCompleted() ? null : edited.toTask().markAsCompleted();
+        }
+        if (taskData.status() != null) {
+          edited = edited.withStatus(taskData.status());
+        }
+        return edited.withUpdatedAt(LocalDateTime.now());
+      }, () -> successor[0] == null ? List.of() : List.of(successor[0]));
+    } finally {
+      event.commit();
     }
-    if (taskData == null) {
-      throw new TaskManagerException("Task data cannot be null");
+  }
+
+  /**
+   * Attaches a recurrence rule to an existing task, turning it into the first
+   * occurrence of a series. Only this occurrence is stored; the next one is
+   * created when it is completed.
+   *
+   * @param taskId the unique identifier of the task, must not be null
+   * @param rule   an RRULE-like string (e.g. "FREQ=WEEKLY;BYDAY=MO"), or
+   *               "none" to stop the task from repeating
+   * @return the updated task
+   * @throws TaskManagerException if the task is not found or the rule is
+   *                              invalid
+   */
+  public Task setRecurrence(String taskId, String rule) throws TaskManagerException {
+    ServiceEvent event = new ServiceEvent("setRecurrence");
+    event.taskId = taskId;
+    event.begin();
+    try {
+      if (taskId == null || taskId.trim().isEmpty()) {
+        throw new TaskManagerException("Task ID cannot be null or empty");
+      }
+
+      TaskValue updated = repository().update(repository().resolveId(taskId), task -> {
+        if (rule == null || rule.equalsIgnoreCase("none")) {
+          return task.withRecurrence(null).withUpdatedAt(LocalDateTime.now());
+        }
+        RecurrenceRule recurrence = RecurrenceRule.parse(rule);
+        LocalDateTime anchor = task.getDueDate() != null ? task.getDueDate() : LocalDate.now().atStartOfDay();
+        LocalDateTime firstDue = recurrence.firstOnOrAfter(anchor);
+        if (firstDue == null) {
+          throw new TaskManagerException("Recurrence rule '" + rule + "' has no upcoming occurrences");
+        }
+        TaskValue repeating = task.withRecurrence(recurrence.anchoredAt(firstDue)).withDueDate(firstDue);
+        if (task.getSeriesId() == null) {
+          repeating = repeating.withSeries(task.getId(), 1);
+        }
+        return repeating.withUpdatedAt(LocalDateTime.now());
+      });
+      return updated.toTask();
+    } finally {
+      event.commit();
     }
+  }
 
-    Task existingTask = taskRepository.findById(taskId);
-    if (existingTask == null) {
-      throw new TaskManagerException("Task with ID '" + taskId + "' not found");
+  /**
+   * Records that a task cannot start until another one is completed.
+   *
+   * @param taskId      the unique identifier of the blocked task
+   * @param dependsOnId the unique identifier of the blocking task
+   * @throws TaskManagerException if either task is not found or the
+   *                              dependency would create a cycle
+   */
+  public void addDependency(String taskId, String dependsOnId) throws TaskManagerException {
+    ServiceEvent event = new ServiceEvent("addDependency");
+    event.taskId = taskId;
+    event.begin();
+    try {
+      if (taskId == null || taskId.trim().isEmpty() || dependsOnId == null || dependsOnId.trim().isEmpty()) {
+        throw new TaskManagerException("Task ID cannot be null or empty");
+      }
+      repository().addDependency(repository().resolveId(taskId), repository().resolveId(dependsOnId));
+    } finally {
+      event.commit();
     }
+  }
 
-    if (taskData.title() != null) {
-      existingTask.setTitle(taskData.title());
+  /**
+   * Removes a dependency previously added with {@link #addDependency}.
+   *
+   * @param taskId      the unique identifier of the blocked task
+   * @param dependsOnId the unique identifier of the blocking task
+   * @throws TaskManagerException if the dependency does not exist
+   */
+  public void removeDependency(String taskId, String dependsOnId) throws TaskManagerException {
+    ServiceEvent event = new ServiceEvent("removeDependency");
+    event.taskId = taskId;
+    event.begin();
+    try {
+      if (taskId == null || taskId.trim().isEmpty() || dependsOnId == null || dependsOnId.trim().isEmpty()) {
+        throw new TaskManagerException("Task ID cannot be null or empty");
+      }
+      repository().removeDependency(repository().resolveId(taskId), repository().resolveId(dependsOnId));
+    } finally {
+      event.commit();
     }
+  }
 
-    if (taskData.description() != null) {
-      existingTask.setDescription(taskData.description());
+  /**
+   * Returns the open tasks that are not blocked by any unfinished dependency,
+   * highest priority first, then earliest due date.
+   *
+   * @param limit the maximum number of tasks to return
+   * @return up to {@code limit} tasks that can be worked on now
+   */
+  public List<Task> readNextTasks(int limit) {
+    ServiceEvent event = new ServiceEvent("readNextTasks");
+    event.begin();
+    try {
+      return repository().findReady(limit);
+    } finally {
+      event.commit();
     }
-    if (taskData.priority() != null) {
-      existingTask.setPriority(taskData.priority());
+  }
+
+  // Built on first use, then maintained incrementally by repository events
+  private AgendaView agenda() {
+    if (agendaView == null) {
+      agendaView = new AgendaView(repository());
     }
-    if (taskData.category() != null) {
-      existingTask.setCategory(taskData.category());
+    return agendaView;
+  }
+
+  /**
+   * Retrieves the open tasks due between two dates, grouped by day.
+   *
+   * @param from first day, inclusive
+   * @param to   last day, inclusive
+   * @return copies of the tasks per day in date order; days without tasks
+   *         are omitted
+   */
+  public Map<LocalDate, List<Task>> readAgenda(LocalDate from, LocalDate to) throws TaskManagerException {
+    ServiceEvent event = new ServiceEvent("readAgenda");
+    event.begin();
+    try {
+      if (from == null || to == null || to.isBefore(from)) {
+        throw new TaskManagerException("Agenda range must have a start on or before its end");
+      }
+      return agenda().between(from, to);
+    } finally {
+      event.commit();
     }
+  }
 
-    if (taskData.status() != null) {
-      existingTask.setStatus(taskData.status());
+  /**
+   * Retrieves the open tasks whose due date has passed, oldest first.
+   *
+   * @param now the current time
+   * @return copies of the overdue tasks
+   */
+  public List<Task> readOverdueTasks(LocalDateTime now) {
+    ServiceEvent event = new ServiceEvent("readOverdueTasks");
+    event.begin();
+    try {
+      return agenda().overdue(now);
+    } finally {
+      event.commit();
     }
-    this.taskRepository.updateTimeStamp(taskId);
-    this.taskRepository.save(existingTask);
   }
 
   /**
-   * Retrieves all tasks from the repository.
+   * Retrieves all tasks from the repository, in creation order, as the
+   * values of the current read view: nothing is copied and no lock is taken.
    * 
    * @return a list of all tasks in the system
-   * @throws TaskManagerException if there's an error accessing the repository
    */
-  public List<Task> readAvailableTasks() throws TaskManagerException {
-    return taskRepository.fetchAll();
+  public List<TaskValue> readAvailableTasks() {
+    ServiceEvent event = new ServiceEvent("readAvailableTasks");
+    event.begin();
+    try {
+      return repository().readView().toList();
+    } finally {
+      event.commit();
+    }
+  }
+
+  /**
+   * Returns a point-in-time view of all tasks for long reads such as exports
+   * and statistics. Taking it is O(1) and writes made while it is being read
+   * do not show through. The tasks in it must not be modified.
+   */
+  public TaskReadView readTaskView() {
+    return repository().readView();
+  }
+
+  /**
+   * Retrieves one page of tasks in creation order.
+   *
+   * @param afterCursor the {@link TaskPage#nextCursor()} of the previous page,
+   *                    or null for the first page
+   * @param pageSize    number of tasks per page, between 1 and
+   *                    {@value #MAX_PAGE_SIZE}
+   * @return the page and the cursor for the next one
+   * @throws TaskManagerException if the page size or cursor is invalid
+   */
+  public TaskPage readTaskPage(String afterCursor, int pageSize) throws TaskManagerException {
+    ServiceEvent event = new ServiceEvent("readTaskPage");
+    event.begin();
+    try {
+      if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+        throw new TaskManagerException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+      }
+      return repository().findPage(afterCursor, pageSize);
+    } finally {
+      event.commit();
+    }
+  }
+
+  /**
+   * Retrieves the tasks that were moved to the archive tier.
+   *
+   * @return all archived tasks
+   * @throws TaskManagerException if the archive cannot be read
+   */
+  public List<Task> readArchivedTasks() throws TaskManagerException {
+    ServiceEvent event = new ServiceEvent("readArchivedTasks");
+    event.begin();
+    try {
+      return repository().fetchArchived();
+    } finally {
+      event.commit();
+    }
+  }
+
+  /**
+   * Moves tasks that were completed or cancelled more than {@code days} days
+   * ago out of the live store into the archive.
+   *
+   * @param days minimum age of a closed task before it is archived
+   * @return the number of tasks archived
+   * @throws TaskManagerException if the archive or store cannot be written
+   */
+  public int archiveClosedTasks(int days) throws TaskManagerException {
+    ServiceEvent event = new ServiceEvent("archiveClosedTasks");
+    event.begin();
+    try {
+      if (days < 0) {
+        throw new TaskManagerException("Archive age cannot be negative");
+      }
+      return repository().archiveClosedBefore(LocalDateTime.now().minusDays(days));
+    } finally {
+      event.commit();
+    }
+  }
+
+  /**
+   * Returns the productivity rollups of this store, built on first use.
+   */
+  public TaskRollups getTaskRollups() throws TaskManagerException {
+    if (taskRollups == null) {
+      File dataFile = repository().getDataFile();
+      taskRollups = new TaskRollups(taskRepository, dataFile == null ? null : TaskRollups.stateFileFor(dataFile));
+    }
+    return taskRollups;
+  }
+
+  /**
+   * Summarizes what happened to tasks in each {@code granularity} period of
+   * {@code [from, to)}: creations, completions by category, lead times and
+   * due dates met or missed. Answered from pre-aggregated rollups, so the
+   * cost depends on the length of the range rather than the size of the
+   * store.
+   *
+   * @return a rollup per period in order, empty periods included
+   * @throws TaskManagerException if the range is empty or the rollups
+   *                              cannot be built
+   */
+  public NavigableMap<LocalDateTime, Rollup> readRollups(LocalDateTime from, LocalDateTime to,
+      Granularity granularity) throws TaskManagerException {
+    ServiceEvent event = new ServiceEvent("readRollups");
+    event.begin();
+    try {
+      if (!from.isBefore(to)) {
+        throw new TaskManagerException("The report range must end after it starts");
+      }
+      return getTaskRollups().series(from, to, granularity);
+    } finally {
+      event.commit();
+    }
+  }
+
+  /**
+   * Returns the index of likely duplicates among open tasks, built on first
+   * use.
+   */
+  public DuplicateIndex getDuplicateIndex() {
+    if (duplicateIndex == null) {
+      duplicateIndex = new DuplicateIndex(repository(), DuplicateIndex.thresholdFromSystemProperties());
+    }
+    return duplicateIndex;
+  }
+
+  /**
+   * Saves tasks read from elsewhere, such as an exported task file, checking
+   * each against the open tasks and the tasks imported before it as
+   * {@link #createTask} does. Tasks keep their IDs, so importing a task
+   * that already exists updates it. The store is flushed once at the end.
+   *
+   * @return what happened to each task, in order
+   * @throws TaskManagerException if a task is invalid or cannot be saved
+   */
+  public List<Creation> importTasks(List<Task> tasks) throws TaskManagerException {
+    ServiceEvent event = new ServiceEvent("importTasks");
+    event.begin();
+    try {
+      if (duplicatePolicy == DuplicatePolicy.OFF) {
+        repository().saveAll(tasks);
+        return tasks.stream().map(task -> new Creation(task, List.of(), false)).toList();
+      }
+      TaskRepository repository = repository();
+      boolean autoFlush = repository.isAutoFlush();
+      List<Creation> creations = new ArrayList<>();
+      repository.setAutoFlush(false);
+      try {
+        for (Task task : tasks) {
+          creations.add(saveUnlessDuplicate(task));
+        }
+      } finally {
+        repository.setAutoFlush(autoFlush);
+      }
+      if (autoFlush) {
+        repository.flush();
+      }
+      return creations;
+    } finally {
+      event.commit();
+    }
   }
 
   /**
-   * Finds a task by its unique ID.
+   * Groups the open tasks into clusters of likely duplicates, comparing the
+   * whole store in parallel.
+   *
+   * @param threshold the similarity from which tasks count as duplicates,
+   *                  between 0 (exclusive) and 1
+   * @return clusters of two or more tasks, largest first, each oldest first
+   * @throws TaskManagerException if the threshold is out of range
+   */
+  public List<List<Task>> findDuplicateClusters(double threshold) throws TaskManagerException {
+    ServiceEvent event = new ServiceEvent("findDuplicateClusters");
+    event.begin();
+    try {
+      if (!(threshold > 0 && threshold <= 1)) {
+        throw new TaskManagerException("The similarity threshold must be above 0 and at most 1");
+      }
+      TaskReadView view = repository().readView();
+      List<List<Task>> clusters = new ArrayList<>();
+      for (List<String> ids : DuplicateIndex.clusters(view.stream().toList(), threshold)) {
+        clusters.add(ids.stream()
+            .map(id -> view.find(id).orElseThrow().toTask())
+            .sorted(Comparator.comparing(Task::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder())))
+            .toList());
+      }
+      return clusters;
+    } finally {
+      event.commit();
+    }
+  }
+
+  /**
+   * Merges each cluster into its first task and deletes the others. The
+   * kept task takes the highest priority, the earliest due date and, if it
+   * has none, a description; it also takes over the dependencies of the
+   * deleted tasks, as far as that creates no cycle. The store is flushed
+   * once at the end rather than after every change.
+   *
+   * @return the number of tasks deleted
+   * @throws TaskManagerException if a change cannot be saved
+   */
+  public int mergeDuplicates(List<List<Task>> clusters) throws TaskManagerException {
+    ServiceEvent event = new ServiceEvent("mergeDuplicates");
+    event.begin();
+    try {
+      Map<String, String> keptFor = new HashMap<>();
+      for (List<Task> cluster : clusters) {
+        for (Task duplicate : cluster.subList(1, cluster.size())) {
+          keptFor.put(duplicate.getId(), cluster.get(0).getId());
+        }
+      }
+      // One pass for the dependents of every deleted task
+      Map<String, List<String>> dependents = new HashMap<>();
+      for (TaskValue task : repository().readView()) {
+        for (String blocker : task.getDependsOn()) {
+          if (keptFor.containsKey(blocker)) {
+            dependents.computeIfAbsent(blocker, id -> new ArrayList<>()).add(task.getId());
+          }
+        }
+      }
+
+      TaskRepository repository = repository();
+      boolean autoFlush = repository.isAutoFlush();
+      int deleted = 0;
+      repository.setAutoFlush(false);
+      try {
+        for (Map.Entry<String, String> merge : keptFor.entrySet()) {
+          TaskValue duplicate = repository.readView().find(merge.getKey()).orElse(null);
+          if (duplicate == null) {
+            continue;
+          }
+          String keptId = merge.getValue();
+          repository.update(keptId, kept -> absorb(kept, duplicate.toTask()));
+          for (String blocker : duplicate.getDependsOn()) {
+            dependQuietly(keptId, keptFor.getOrDefault(blocker, blocker));
+          }
+          for (String dependent : dependents.getOrDefault(merge.getKey(), List.of())) {
+            dependQuietly(keptFor.getOrDefault(dependent, dependent), keptId);
+          }
+          repository.deleteById(merge.getKey());
+          deleted++;
+        }
+      } finally {
+        repository.setAutoFlush(autoFlush);
+      }
+      if (autoFlush) {
+        repository.flush();
+      }
+      return deleted;
+    } finally {
+      event.commit();
+    }
+  }
+
+  /**
+   * Finds a task by its unique ID. Archived tasks are found as well. Every
+   * method taking a task ID also accepts an unambiguous prefix of a live
+   * task's ID (at least {@value TaskRepository#MIN_ID_PREFIX_LENGTH}
+   * characters), as git does for commits.
    * 
-   * @param taskId the unique ID (UUID) of the task to find
+   * @param taskId the unique ID (UUID) of the task to find, or a prefix of it
    * @return the task if found
    * @throws TaskManagerException if task not found or repository error
    */
   public Task findTaskById(String taskId) throws TaskManagerException {
-    if (taskId == null || taskId.trim().isEmpty()) {
-      throw new TaskManagerException("Task ID cannot be null or empty");
+    ServiceEvent event = new ServiceEvent("findTaskById");
+    event.taskId = taskId;
+    event.begin();
+    try {
+      if (taskId == null || taskId.trim().isEmpty()) {
+        throw new TaskManagerException("Task ID cannot be null or empty");
+      }
+
+      return repository().findById(repository().resolveId(taskId));
+    } finally {
+      event.commit();
+    }
+  }
+
+  /**
+   * Starts streaming this store's changes to followers.
+   *
+   * @param port    the port to listen on, or 0 for any free port
+   * @param ackMode whether writes wait for a follower to apply them
+   * @return the port being listened on
+   * @throws TaskManagerException if this instance is already replicating or
+   *                              the port cannot be bound
+   */
+  public int startReplicationPrimary(int port, AckMode ackMode) throws TaskManagerException {
+    if (replicationPrimary != null || replicationFollower != null) {
+      throw new TaskManagerException("Replication is already running; stop it first");
+    }
+    ReplicationPrimary primary = new ReplicationPrimary(repository(), ReplicationConfig.defaults().withAckMode(ackMode));
+    try {
+      int boundPort = primary.start(port);
+      replicationPrimary = primary;
+      return boundPort;
+    } catch (IOException e) {
+      throw new TaskManagerException("Failed to listen for followers on port " + port, e);
+    }
+  }
+
+  /**
+   * Makes this store a read replica of the primary at {@code host:port}.
+   * Local edits made while following are overwritten by the primary.
+   *
+   * @throws TaskManagerException if this instance is already replicating
+   */
+  public void startReplicationFollower(String host, int port) throws TaskManagerException {
+    if (replicationPrimary != null || replicationFollower != null) {
+      throw new TaskManagerException("Replication is already running; stop it first");
+    }
+    replicationFollower = new ReplicationFollower(repository(), host, port);
+    replicationFollower.start();
+  }
+
+  /**
+   * Stops following and turns this store into a standalone primary.
+   *
+   * @throws TaskManagerException if this instance is not a follower or the
+   *                              store cannot be flushed
+   */
+  public void promoteReplicationFollower() throws TaskManagerException {
+    if (replicationFollower == null) {
+      throw new TaskManagerException("This instance is not following a primary");
+    }
+    replicationFollower.promote();
+    replicationFollower = null;
+  }
+
+  /**
+   * Stops any replication this instance takes part in.
+   */
+  public void stopReplication() {
+    if (replicationPrimary != null) {
+      replicationPrimary.close();
+      replicationPrimary = null;
+    }
+    if (replicationFollower != null) {
+      replicationFollower.close();
+      replicationFollower = null;
+    }
+  }
+
+  public ReplicationPrimary getReplicationPrimary() {
+    return replicationPrimary;
+  }
+
+  public ReplicationFollower getReplicationFollower() {
+    return replicationFollower;
+  }
+
+  /**
+   * Returns this store's sync endpoint, created on first use.
+   */
+  public TaskSync getTaskSync() throws TaskManagerException {
+    if (taskSync == null) {
+      taskSync = new TaskSync(repository(), TaskSync.stateFileFor(repository().getDataFile()));
+    }
+    return taskSync;
+  }
+
+  /**
+   * Accepts sync sessions from other stores on the loopback interface.
+   *
+   * @param port the port to listen on, or 0 for any free port
+   * @return the port being listened on
+   */
+  public int startSyncServer(int port) throws TaskManagerException {
+    if (syncServer != null) {
+      throw new TaskManagerException("Already serving sync on port " + syncServer.getPort());
+    }
+    SyncServer server = new SyncServer(getTaskSync());
+    try {
+      int boundPort = server.start(port);
+      syncServer = server;
+      return boundPort;
+    } catch (IOException e) {
+      throw new TaskManagerException("Failed to listen for sync on port " + port, e);
+    }
+  }
+
+  public void stopSyncServer() {
+    if (syncServer != null) {
+      syncServer.close();
+      syncServer = null;
+    }
+  }
+
+  public SyncServer getSyncServer() {
+    return syncServer;
+  }
+
+  /**
+   * Starts reminding of tasks that are due soon or overdue, delivered in
+   * batches to {@code sinks} in the background.
+   *
+   * @throws TaskManagerException if reminders are already running
+   */
+  public ReminderScanner startReminders(List<ReminderSink> sinks, ReminderConfig config)
+      throws TaskManagerException {
+    if (reminderScanner != null) {
+      throw new TaskManagerException("Reminders are already running; stop them first");
+    }
+    reminderDispatcher = new ReminderDispatcher(sinks, config);
+    reminderScanner = new ReminderScanner(repository(), reminderDispatcher, config);
+    reminderScanner.start();
+    return reminderScanner;
+  }
+
+  /**
+   * Stops reminding, delivering the reminders already raised first.
+   */
+  public void stopReminders() {
+    if (reminderScanner != null) {
+      reminderScanner.close();
+      reminderScanner = null;
+      reminderDispatcher.close();
+      reminderDispatcher = null;
+    }
+  }
+
+  public ReminderDispatcher getReminderDispatcher() {
+    return reminderDispatcher;
+  }
+
+  public ReminderScanner getReminderScanner() {
+    return reminderScanner;
+  }
+
+  /**
+   * Exchanges changes in both directions with the store serving sync at
+   * {@code host:port}.
+   */
+  public SyncReport syncWith(String host, int port) throws TaskManagerException {
+    ServiceEvent event = new ServiceEvent("syncWith");
+    event.begin();
+    try {
+      return SyncClient.exchange(getTaskSync(), host, port);
+    } finally {
+      event.commit();
+    }
+  }
+
+  /**
+   * Writes this store's unsynced changes to a shared folder.
+   */
+  public SyncReport pushToSyncFolder(File folder) throws TaskManagerException {
+    ServiceEvent event = new ServiceEvent("pushToSyncFolder");
+    event.begin();
+    try {
+      return FileDropSync.push(getTaskSync(), folder);
+    } finally {
+      event.commit();
     }
+  }
+
+  /**
+   * Merges the changes other stores left in a shared folder.
+   */
+  public SyncReport pullFromSyncFolder(File folder) throws TaskManagerException {
+    ServiceEvent event = new ServiceEvent("pullFromSyncFolder");
+    event.begin();
+    try {
+      return FileDropSync.pull(getTaskSync(), folder);
+    } finally {
+      event.commit();
+    }
+  }
+
+  // Helper methods
+
+  private Creation saveUnlessDuplicate(Task task) throws TaskManagerException {
+    List<DuplicateIndex.Match> duplicates = getDuplicateIndex().findSimilar(task.getTitle(), task.getDescription())
+        .stream().filter(match -> !match.id().equals(task.getId())).toList();
+    if (duplicatePolicy == DuplicatePolicy.MERGE && !duplicates.isEmpty()) {
+      TaskValue merged = repository().update(duplicates.get(0).id(), kept -> absorb(kept, task));
+      return new Creation(merged.toTask(), duplicates, true);
+    }
+    repository().save(task);
+    return new Creation(task, duplicates, false);
+  }
+
+  // What a duplicate adds to the task it is merged into
+  private static TaskValue absorb(TaskValue kept, Task duplicate) throws TaskManagerException {
+    TaskValue merged = kept;
+    if (duplicate.getPriority() != null && (kept.getPriority() == null
+        || duplicate.getPriority().getLevel() > kept.getPriority().getLevel())) {
+      merged = merged.withPriority(duplicate.getPriority());
+    }
+    if (duplicate.getDueDate() != null && (kept.getDueDate() == null || duplicate.getDueDate().isBefore(kept.getDueDate()))) {
+      merged = merged.withDueDate(duplicate.getDueDate());
+    }
+    if (isBlank(kept.getDescription()) && !isBlank(duplicate.getDescription())) {
+      merged = merged.withDescription(duplicate.getDescription());
+    }
+    return merged == kept ? kept : merged.withUpdatedAt(LocalDateTime.now());
+  }
+
+  private static boolean isBlank(String text) {
+    return text == null || text.isBlank();
+  }
+
+  // Dependencies are carried over where they still make sense; one that
+  // would point at the task itself or close a cycle is dropped
+  private void dependQuietly(String taskId, String dependsOnId) {
+    if (taskId.equals(dependsOnId)) {
+      return;
+    }
+    try {
+      repository().addDependency(taskId, dependsOnId);
+    } catch (TaskManagerException e) {
+      // Dropped
+    }
+  }
 
-    return taskRepository.findById(taskId);
+  /**
+   * Stops the file watcher, saves the analytics rollups, delivers pending
+   * reminders, stops replication and sync and closes the repository,
+   * flushing any pending writes. The service cannot be used afterwards.
+   */
+  public void close() throws TaskManagerException {
+    if (fileWatcher != null) {
+      fileWatcher.close();
+      fileWatcher = null;
+    }
+    if (taskRollups != null) {
+      taskRollups.close();
+      taskRollups = null;
+    }
+    if (duplicateIndex != null) {
+      duplicateIndex.close();
+      duplicateIndex = null;
+    }
+    stopReminders();
+    stopReplication();
+    stopSyncServer();
+    if (taskSync != null) {
+      taskSync.close();
+      taskSync = null;
+    }
+    if (taskRepository != null) {
+      taskRepository.close();
+      taskRepository = null;
+    }
   }
 }
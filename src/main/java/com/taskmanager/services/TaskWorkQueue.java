@@ -0,0 +1,317 @@
+package com.taskmanager.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import com.taskmanager.enums.Status;
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.interfaces.TaskRepositoryListener;
+import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskValue;
+import com.taskmanager.repositories.TaskRepository;
+
+/**
+ * TaskWorkQueue is a concurrent, priority-ordered view of the pending tasks in
+ * a {@link TaskRepository}, meant for workers that repeatedly ask for "the most
+ * important pending task".
+ * Tasks are ordered by {@link com.taskmanager.enums.Priority#getLevel()}
+ * (highest first), then by due date. {@link #claim()} atomically moves the
+ * first task from PENDING to IN_PROGRESS under a lease; a lease that is not
+ * completed or released before it expires puts the task back in the queue.
+ * Only tasks not blocked by an open dependency are queued: the repository's
+ * dependency graph reports when a pending task becomes ready or blocked, and
+ * the queue adds or removes it then.
+ * Claim, complete and release are O(log N).
+ */
+public class TaskWorkQueue implements TaskRepositoryListener, AutoCloseable {
+
+  /**
+   * A task handed to a worker, valid until {@code expiresAt}.
+   */
+  public record Claim(Task task, String leaseToken, LocalDateTime expiresAt) {
+  }
+
+  private record QueueKey(int level, LocalDateTime dueDate, LocalDateTime createdAt, String id) {
+  }
+
+  private static final Comparator<QueueKey> QUEUE_ORDER = Comparator
+      .comparingInt(QueueKey::level).reversed()
+      .thenComparing(QueueKey::dueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+      .thenComparing(QueueKey::createdAt, Comparator.nullsLast(Comparator.naturalOrder()))
+      .thenComparing(QueueKey::id);
+
+  private static final class Lease implements Delayed {
+    private final String taskId;
+    private final String token = UUID.randomUUID().toString();
+    private final long deadlineNanos;
+
+    private Lease(String taskId, Duration duration) {
+      this.taskId = taskId;
+      this.deadlineNanos = System.nanoTime() + duration.toNanos();
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      return Long.compare(deadlineNanos, ((Lease) other).deadlineNanos);
+    }
+  }
+
+  public static final Duration DEFAULT_LEASE = Duration.ofMinutes(5);
+
+  private final TaskRepository taskRepository;
+  private final Duration leaseDuration;
+  // Ready pending tasks; queuedKeys holds the key of every pending task that
+  // is not leased, ready or not, and a worker owns a task once it removes
+  // the task's key from there
+  private final ConcurrentSkipListSet<QueueKey> available = new ConcurrentSkipListSet<>(QUEUE_ORDER);
+  private final Map<String, QueueKey> queuedKeys = new ConcurrentHashMap<>();
+  private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+  // Expired or finished leases are skipped lazily instead of being removed
+  // from the DelayQueue, which would be O(N).
+  private final DelayQueue<Lease> expirations = new DelayQueue<>();
+
+  public TaskWorkQueue(TaskRepository taskRepository) {
+    this(taskRepository, DEFAULT_LEASE);
+  }
+
+  public TaskWorkQueue(TaskRepository taskRepository, Duration leaseDuration) {
+    this.taskRepository = taskRepository;
+    this.leaseDuration = leaseDuration;
+    taskRepository.addListener(this);
+    for (Task task : taskRepository.fetchAll()) {
+      onSaved(task);
+    }
+  }
+
+  /**
+   * Claims the highest-priority pending task using the default lease.
+   *
+   * @return the claim, or empty if no task is pending
+   * @throws TaskManagerException if the status change cannot be saved
+   */
+  public Optional<Claim> claim() throws TaskManagerException {
+    return claim(leaseDuration);
+  }
+
+  /**
+   * Claims the highest-priority pending task whose dependencies are all
+   * closed and marks it IN_PROGRESS. Exactly one caller wins each task, even
+   * under contention.
+   *
+   * @param lease how long the worker may hold the task before it is returned
+   *              to the queue
+   * @return the claim, or empty if no task is pending
+   * @throws TaskManagerException if the status change cannot be saved
+   */
+  public Optional<Claim> claim(Duration lease) throws TaskManagerException {
+    reapExpired();
+    for (QueueKey key : available) {
+      if (!queuedKeys.remove(key.id(), key)) {
+        continue; // taken by another worker, or changed meanwhile
+      }
+      available.remove(key);
+      Lease candidate = new Lease(key.id(), lease);
+      if (leases.putIfAbsent(key.id(), candidate) != null) {
+        continue;
+      }
+
+      // Checked and changed in one update, so an edit made meanwhile by
+      // another writer is neither lost nor overwritten
+      boolean[] claimed = new boolean[1];
+      boolean[] blocked = new boolean[1];
+      TaskValue task;
+      try {
+        task = taskRepository.update(key.id(), current -> {
+          if (current.getStatus() != Status.PENDING) {
+            return current;
+          }
+          if (!taskRepository.isReady(current.getId())) {
+            blocked[0] = true; // gained a blocker since it was taken off the queue
+            return current;
+          }
+          claimed[0] = true;
+          return current.withStatus(Status.IN_PROGRESS).withUpdatedAt(LocalDateTime.now());
+        });
+      } catch (TaskManagerException e) {
+        leases.remove(key.id(), candidate);
+        if (taskRepository.readView().find(key.id()).isEmpty()) {
+          continue; // deleted between being queued and being claimed
+        }
+        throw e;
+      }
+      if (!claimed[0]) {
+        leases.remove(key.id(), candidate);
+        if (blocked[0]) {
+          requeue(key.id());
+        }
+        continue;
+      }
+      expirations.add(candidate);
+      return Optional.of(new Claim(task.toTask(), candidate.token, LocalDateTime.now().plus(lease)));
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Completes a claimed task. For recurring tasks the next occurrence is saved
+   * and becomes claimable.
+   *
+   * @throws TaskManagerException if the lease has expired or was released
+   */
+  public void complete(Claim claim) throws TaskManagerException {
+    String taskId = endLease(claim);
+    Task[] successor = new Task[1];
+    taskRepository.update(taskId, current -> {
+      if (current.isCompleted()) {
+        return current;
+      }
+      successor[0] = current.toTask().markAsCompleted();
+      return current.withStatus(Status.COMPLETED).withUpdatedAt(LocalDateTime.now());
+    }, () -> successor[0] == null ? List.of() : List.of(successor[0]));
+  }
+
+  /**
+   * Gives a claimed task back to the queue before its lease expires.
+   *
+   * @throws TaskManagerException if the lease has already expired
+   */
+  public void release(Claim claim) throws TaskManagerException {
+    returnToQueue(endLease(claim));
+  }
+
+  /**
+   * Returns tasks whose leases have expired to the queue. Called on every
+   * claim, and may also be called periodically by an owner.
+   *
+   * @return the number of tasks returned to the queue
+   */
+  public int reapExpired() throws TaskManagerException {
+    int reaped = 0;
+    Lease expired;
+    while ((expired = expirations.poll()) != null) {
+      if (leases.remove(expired.taskId, expired)) {
+        returnToQueue(expired.taskId);
+        reaped++;
+      }
+    }
+    return reaped;
+  }
+
+  /**
+   * Number of tasks waiting to be claimed, including those still blocked.
+   */
+  public int pendingCount() {
+    return queuedKeys.size();
+  }
+
+  /**
+   * Number of tasks that can be claimed right now. O(N), intended for
+   * monitoring.
+   */
+  public int readyCount() {
+    return available.size();
+  }
+
+  public int claimedCount() {
+    return leases.size();
+  }
+
+  @Override
+  public void onSaved(Task task) {
+    String id = task.getId();
+    QueueKey previous = queuedKeys.remove(id);
+    if (previous != null) {
+      available.remove(previous);
+    }
+    if (task.getStatus() == Status.PENDING && !leases.containsKey(id)) {
+      QueueKey key = new QueueKey(task.getPriority() != null ? task.getPriority().getLevel() : 0,
+          task.getDueDate(), task.getCreatedAt(), id);
+      queuedKeys.put(id, key);
+      // Called under the repository lock, so readiness cannot change before
+      // the key is in place for onReadyChanged to find
+      if (taskRepository.isReady(id)) {
+        available.add(key);
+      }
+    } else if (task.getStatus() == Status.COMPLETED || task.getStatus() == Status.CANCELLED) {
+      leases.remove(id);
+    }
+  }
+
+  @Override
+  public void onReadyChanged(String id, boolean ready) {
+    QueueKey key = queuedKeys.get(id);
+    if (key == null) {
+      return; // not pending, or leased
+    }
+    if (ready) {
+      available.add(key);
+    } else {
+      available.remove(key);
+    }
+  }
+
+  @Override
+  public void onDeleted(String id) {
+    QueueKey previous = queuedKeys.remove(id);
+    if (previous != null) {
+      available.remove(previous);
+    }
+    leases.remove(id);
+  }
+
+  @Override
+  public void close() {
+    taskRepository.removeListener(this);
+  }
+
+  // Helper methods
+
+  private String endLease(Claim claim) throws TaskManagerException {
+    String taskId = claim.task().getId();
+    Lease lease = leases.get(taskId);
+    if (lease != null && lease.token.equals(claim.leaseToken()) && lease.getDelay(TimeUnit.NANOSECONDS) <= 0) {
+      // Expired but not reaped yet: the task goes back as if it had been
+      if (leases.remove(taskId, lease)) {
+        returnToQueue(taskId);
+      }
+      throw new TaskManagerException("Lease on task '" + taskId + "' has expired");
+    }
+    if (lease == null || !lease.token.equals(claim.leaseToken()) || !leases.remove(taskId, lease)) {
+      throw new TaskManagerException("Lease on task '" + taskId + "' has expired or was released");
+    }
+    return taskId;
+  }
+
+  private void returnToQueue(String taskId) throws TaskManagerException {
+    TaskValue task = taskRepository.update(taskId, current -> current.getStatus() == Status.IN_PROGRESS
+        ? current.withStatus(Status.PENDING).withUpdatedAt(LocalDateTime.now())
+        : current);
+    if (task.getStatus() == Status.PENDING) {
+      // Saved as pending while leased, so onSaved left it out of the queue
+      requeue(taskId);
+    }
+  }
+
+  // Queues the task again as it is now; the repository lock keeps a
+  // concurrent save from being overtaken
+  private void requeue(String taskId) {
+    synchronized (taskRepository) {
+      taskRepository.readView().find(taskId).map(TaskValue::toTask).ifPresent(this::onSaved);
+    }
+  }
+}
@@ -0,0 +1,320 @@
+package com.taskmanager.storage;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.taskmanager.compression.BlockCodec;
+import com.taskmanager.compression.BlockCodecs;
+import com.taskmanager.diagnostics.MeteredInputStream;
+import com.taskmanager.diagnostics.MeteredOutputStream;
+import com.taskmanager.diagnostics.SnapshotEvent;
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskCursor;
+import com.taskmanager.serialization.TaskSnapshots;
+
+/**
+ * The historical layout: the whole store as one snapshot file, plain JSON or
+ * block-compressed depending on {@code taskmanager.snapshot.codec}. Writes
+ * are applied in memory and {@link #flush()} rewrites the file in creation
+ * order, through a temporary file renamed over the old one so that a crash
+ * never leaves a truncated store behind. Flushing with no writes since the
+ * last flush does nothing.
+ *
+ * The engine also remembers what the file held when it last read or wrote
+ * it: a {@link Fingerprint} of the file and the {@code updatedAt} of every
+ * task in it. Against that baseline a change found in the file later can be
+ * told apart from a local change not flushed yet (see
+ * {@link com.taskmanager.repositories.TaskRepository#mergeExternal}).
+ */
+public final class FileStorageEngine implements StorageEngine {
+  public static final String NAME = "file";
+
+  static final class Provider implements StorageEngineProvider {
+    @Override
+    public String name() {
+      return NAME;
+    }
+
+    @Override
+    public StorageEngine open(StorageConfig config) {
+      return new FileStorageEngine(config.location(), loadSnapshotCodec());
+    }
+  }
+
+  /**
+   * Identifies one version of the file on disk. Our own flushes replace the
+   * file by a rename, which changes its file key (the inode) as well as its
+   * size or modification time; a writer rewriting it in place changes at
+   * least the modification time.
+   */
+  public record Fingerprint(Object fileKey, long size, long modifiedNanos) {
+    public static final Fingerprint MISSING = new Fingerprint(null, -1, -1);
+
+    public static Fingerprint of(File file) {
+      try {
+        BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        return new Fingerprint(attributes.fileKey(), attributes.size(),
+            attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+      } catch (IOException e) {
+        return MISSING;
+      }
+    }
+  }
+
+  private final File file;
+  private final BlockCodec codec;
+  private final Map<String, Task> tasks = new LinkedHashMap<>();
+  private boolean dirty;
+  // What the file held when last read or written
+  private Fingerprint synced = Fingerprint.MISSING;
+  private Map<String, LocalDateTime> syncedVersions = Collections.emptyMap();
+  private boolean closed;
+
+  /**
+   * Opens the store in {@code file}. A file that cannot be read is reported,
+   * copied aside to {@code <file>.unreadable} so that the next flush cannot
+   * destroy it, and treated as empty, so the application still starts.
+   *
+   * @param codec block codec for writing, or null for plain JSON
+   */
+  public FileStorageEngine(File file, BlockCodec codec) {
+    this.file = file;
+    this.codec = codec;
+    try {
+      if (file.exists() && file.length() > 0) {
+        // Taken before reading: a change made while we read then still
+        // shows up as a different fingerprint
+        Fingerprint loaded = Fingerprint.of(file);
+        for (Task task : load()) {
+          tasks.put(task.getId(), task);
+        }
+        markSynced(loaded, tasks.values());
+      }
+    } catch (IOException e) {
+      System.err.println("Error loading tasks: " + e.getMessage());
+      keepUnreadable();
+    }
+  }
+
+  private void keepUnreadable() {
+    File kept = new File(file.getPath() + ".unreadable");
+    try {
+      Files.copy(file.toPath(), kept.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      System.err.println("Kept a copy of the unreadable task file in " + kept);
+    } catch (IOException e) {
+      System.err.println("Error keeping a copy of " + file + ": " + e.getMessage());
+    }
+  }
+
+  private List<Task> load() throws IOException {
+    SnapshotEvent event = new SnapshotEvent(SnapshotEvent.LOAD);
+    event.begin();
+    // Only meter while recording, so that the stream stack is unchanged otherwise
+    boolean metered = event.isEnabled();
+    try (FileInputStream fileIn = new FileInputStream(file)) {
+      MeteredInputStream in = metered ? new MeteredInputStream(fileIn) : null;
+      List<Task> loaded = TaskSnapshots.read(metered ? in : fileIn);
+      if (metered) {
+        event.end();
+        if (event.shouldCommit()) {
+          event.file = file.getPath();
+          event.taskCount = loaded.size();
+          event.bytes = in.bytes();
+          event.ioTime = in.nanos();
+          event.commit();
+        }
+      }
+      return loaded;
+    }
+  }
+
+  private static BlockCodec loadSnapshotCodec() {
+    try {
+      return BlockCodecs.snapshotCodec();
+    } catch (TaskManagerException e) {
+      System.err.println("Error configuring snapshot codec, writing plain JSON: " + e.getMessage());
+      return null;
+    }
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public Set<StorageCapability> capabilities() {
+    return EnumSet.of(StorageCapability.PERSISTENT, StorageCapability.ATOMIC_BATCH,
+        StorageCapability.ATOMIC_FLUSH);
+  }
+
+  @Override
+  public synchronized int size() {
+    return tasks.size();
+  }
+
+  @Override
+  public synchronized StorageCursor scan() throws TaskManagerException {
+    ensureOpen();
+    return StorageCursor.of(new ArrayList<>(tasks.values()));
+  }
+
+  @Override
+  public synchronized void write(WriteBatch batch) throws TaskManagerException {
+    apply(batch);
+    dirty |= !batch.isEmpty();
+  }
+
+  /**
+   * Applies writes that the file already holds, such as changes another
+   * process made to it, without making the next flush rewrite the file.
+   */
+  public synchronized void writeSynced(WriteBatch batch) throws TaskManagerException {
+    apply(batch);
+  }
+
+  private void apply(WriteBatch batch) throws TaskManagerException {
+    ensureOpen();
+    for (WriteBatch.Operation op : batch.operations()) {
+      if (op.isDelete()) {
+        tasks.remove(op.id());
+      } else {
+        tasks.put(op.id(), op.task());
+      }
+    }
+  }
+
+  /**
+   * Whether {@link #flush()} would write the file.
+   */
+  public synchronized boolean needsFlush() {
+    return !closed && (dirty || !file.exists());
+  }
+
+  @Override
+  public synchronized void flush() throws TaskManagerException {
+    ensureOpen();
+    if (!needsFlush()) {
+      return;
+    }
+    List<Task> ordered = new ArrayList<>(tasks.values());
+    ordered.sort(Comparator.comparing(TaskCursor::of));
+    File parent = file.getAbsoluteFile().getParentFile();
+    // Named per process, so that processes flushing the same store at once
+    // cannot clobber each other's temporary file
+    File temp = new File(parent, file.getName() + "." + ProcessHandle.current().pid() + ".tmp");
+    try {
+      Files.createDirectories(parent.toPath());
+      writeSnapshot(temp, ordered);
+      SnapshotEvent commit = new SnapshotEvent(SnapshotEvent.COMMIT);
+      commit.begin();
+      try {
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+      commit.end();
+      if (commit.shouldCommit()) {
+        commit.file = file.getPath();
+        commit.taskCount = ordered.size();
+        commit.commit();
+      }
+      markSynced(Fingerprint.of(file), ordered);
+      dirty = false;
+    } catch (IOException e) {
+      temp.delete();
+      throw new TaskManagerException("Failed to save tasks to file", e);
+    }
+  }
+
+  private void writeSnapshot(File target, List<Task> ordered) throws IOException {
+    SnapshotEvent event = new SnapshotEvent(SnapshotEvent.SAVE);
+    event.begin();
+    boolean metered = event.isEnabled();
+    try (FileOutputStream fileOut = new FileOutputStream(target)) {
+      MeteredOutputStream out = metered ? new MeteredOutputStream(fileOut) : null;
+      long written = TaskSnapshots.write(metered ? out : fileOut, ordered, codec,
+          TaskSnapshots.DEFAULT_TASKS_PER_BLOCK);
+      if (metered) {
+        event.end();
+        if (event.shouldCommit()) {
+          event.file = target.getPath();
+          event.codec = codec == null ? "json" : codec.name();
+          event.taskCount = ordered.size();
+          event.bytes = written;
+          event.ioTime = out.nanos();
+          event.commit();
+        }
+      }
+    }
+  }
+
+  /**
+   * Whether {@code fingerprint} is the version of the file this engine last
+   * read or wrote, i.e. the file holds no changes made by anyone else.
+   */
+  public synchronized boolean isSynced(Fingerprint fingerprint) {
+    return synced.equals(fingerprint);
+  }
+
+  /**
+   * The {@code updatedAt} of every task in the file as last read or
+   * written, by id.
+   */
+  public synchronized Map<String, LocalDateTime> syncedVersions() {
+    return syncedVersions;
+  }
+
+  /**
+   * Records that the file, as identified by {@code fingerprint}, holds
+   * {@code fileTasks}, e.g. after changes found in it have been merged.
+   */
+  public synchronized void markSynced(Fingerprint fingerprint, Collection<Task> fileTasks) {
+    Map<String, LocalDateTime> versions = new HashMap<>(fileTasks.size() * 2);
+    for (Task task : fileTasks) {
+      versions.put(task.getId(), task.getUpdatedAt());
+    }
+    synced = fingerprint;
+    syncedVersions = Collections.unmodifiableMap(versions);
+  }
+
+  @Override
+  public synchronized void close() throws TaskManagerException {
+    if (closed) {
+      return;
+    }
+    flush();
+    closed = true;
+    tasks.clear();
+  }
+
+  private void ensureOpen() throws TaskManagerException {
+    if (closed) {
+      throw new TaskManagerException("Storage engine is closed");
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.taskmanager.storage;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.models.Task;
+
+/**
+ * Keeps tasks in a map and nothing on disk, for tests, benchmarks and
+ * throwaway sessions. Selected with {@code -Dtaskmanager.storage.engine=memory}.
+ */
+public final class MemoryStorageEngine implements StorageEngine {
+  public static final String NAME = "memory";
+
+  static final class Provider implements StorageEngineProvider {
+    @Override
+    public String name() {
+      return NAME;
+    }
+
+    @Override
+    public StorageEngine open(StorageConfig config) {
+      return new MemoryStorageEngine();
+    }
+  }
+
+  private final Map<String, Task> tasks = new HashMap<>();
+  private boolean closed;
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public Set<StorageCapability> capabilities() {
+    return EnumSet.of(StorageCapability.ATOMIC_BATCH, StorageCapability.INCREMENTAL_FLUSH);
+  }
+
+  @Override
+  public synchronized int size() {
+    return tasks.size();
+  }
+
+  @Override
+  public synchronized StorageCursor scan() throws TaskManagerException {
+    ensureOpen();
+    return StorageCursor.of(new ArrayList<>(tasks.values()));
+  }
+
+  @Override
+  public synchronized void write(WriteBatch batch) throws TaskManagerException {
+    ensureOpen();
+    // Nothing in a batch can fail, so applying it in order is atomic
+    for (WriteBatch.Operation op : batch.operations()) {
+      if (op.isDelete()) {
+        tasks.remove(op.id());
+      } else {
+        tasks.put(op.id(), op.task());
+      }
+    }
+  }
+
+  @Override
+  public synchronized void flush() throws TaskManagerException {
+    ensureOpen();
+  }
+
+  @Override
+  public synchronized void close() {
+    closed = true;
+    tasks.clear();
+  }
+
+  private void ensureOpen() throws TaskManagerException {
+    if (closed) {
+      throw new TaskManagerException("Storage engine is closed");
+    }
+  }
+}
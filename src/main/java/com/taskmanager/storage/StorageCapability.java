@@ -0,0 +1,16 @@
+package com.taskmanager.storage;
+
+/**
+ * Optional guarantees a {@link StorageEngine} may offer. Callers check
+ * {@link StorageEngine#capabilities()} instead of assuming them.
+ */
+public enum StorageCapability {
+  /** Flushed tasks survive a restart. */
+  PERSISTENT,
+  /** A {@link WriteBatch} is applied entirely or not at all. */
+  ATOMIC_BATCH,
+  /** A crash during {@link StorageEngine#flush()} leaves the previous flushed state intact. */
+  ATOMIC_FLUSH,
+  /** Flush cost is proportional to the writes since the last flush, not to the store size. */
+  INCREMENTAL_FLUSH
+}
@@ -0,0 +1,44 @@
+package com.taskmanager.storage;
+
+import java.io.File;
+import java.util.Map;
+
+import com.taskmanager.Utils;
+
+/**
+ * Which storage engine a repository uses and where.
+ *
+ * @param engine   name of the {@link StorageEngineProvider}
+ * @param location the store's data file. Engines that keep the live tasks
+ *                 elsewhere still use it to place side files, such as the
+ *                 archive tier next to it.
+ * @param options  engine-specific settings
+ */
+public record StorageConfig(String engine, File location, Map<String, String> options) {
+  public static final String ENGINE_PROPERTY = "taskmanager.storage.engine";
+  public static final String DEFAULT_ENGINE = FileStorageEngine.NAME;
+
+  public StorageConfig {
+    options = Map.copyOf(options);
+  }
+
+  /**
+   * The engine named by the {@code taskmanager.storage.engine} system
+   * property ({@value #DEFAULT_ENGINE} by default) at the default data file.
+   */
+  public static StorageConfig fromSystemProperties() {
+    return new StorageConfig(System.getProperty(ENGINE_PROPERTY, DEFAULT_ENGINE), Utils.getTasksFile(), Map.of());
+  }
+
+  public static StorageConfig forFile(File location) {
+    return new StorageConfig(FileStorageEngine.NAME, location, Map.of());
+  }
+
+  public StorageConfig withEngine(String engineName) {
+    return new StorageConfig(engineName, location, options);
+  }
+
+  public String option(String key, String defaultValue) {
+    return options.getOrDefault(key, defaultValue);
+  }
+}
@@ -0,0 +1,43 @@
+package com.taskmanager.storage;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.taskmanager.models.Task;
+
+/**
+ * Iterates the tasks stored in an engine. Engines that stream from disk hold
+ * resources until the cursor is closed, so use it in try-with-resources.
+ */
+public interface StorageCursor extends Iterator<Task>, AutoCloseable {
+
+  @Override
+  void close();
+
+  /**
+   * A cursor over tasks already in memory.
+   */
+  static StorageCursor of(Collection<Task> tasks) {
+    Iterator<Task> it = tasks.iterator();
+    return new StorageCursor() {
+      @Override
+      public boolean hasNext() {
+        return it.hasNext();
+      }
+
+      @Override
+      public Task next() {
+        if (!it.hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return it.next();
+      }
+
+      @Override
+      public void close() {
+        // Nothing to release
+      }
+    };
+  }
+}
@@ -0,0 +1,55 @@
+package com.taskmanager.storage;
+
+import java.util.Set;
+
+import com.taskmanager.errors.TaskManagerException;
+
+/**
+ * Where a {@link com.taskmanager.repositories.TaskRepository} keeps its live
+ * tasks. The repository does all indexing, dependency tracking and event
+ * dispatch in memory; an engine only has to store tasks by id and give them
+ * back.
+ *
+ * Engines are created open by their {@link StorageEngineProvider} and are
+ * used by one repository, which serializes all calls. Writes may be buffered
+ * until {@link #flush()}; only flushed writes are required to survive
+ * {@link #close()} and a restart, and only for {@link StorageCapability#PERSISTENT}
+ * engines.
+ */
+public interface StorageEngine extends AutoCloseable {
+
+  /**
+   * The name the engine is selected by, e.g. {@code file}.
+   */
+  String name();
+
+  Set<StorageCapability> capabilities();
+
+  default boolean supports(StorageCapability capability) {
+    return capabilities().contains(capability);
+  }
+
+  /**
+   * Number of stored tasks, buffered writes included.
+   */
+  int size();
+
+  /**
+   * Iterates every stored task, buffered writes included, in no particular
+   * order.
+   */
+  StorageCursor scan() throws TaskManagerException;
+
+  void write(WriteBatch batch) throws TaskManagerException;
+
+  /**
+   * Makes all writes so far durable.
+   */
+  void flush() throws TaskManagerException;
+
+  /**
+   * Flushes and releases the engine. Further calls fail.
+   */
+  @Override
+  void close() throws TaskManagerException;
+}
@@ -0,0 +1,21 @@
+package com.taskmanager.storage;
+
+import com.taskmanager.errors.TaskManagerException;
+
+/**
+ * Creates {@link StorageEngine}s of one kind. Providers besides the built-in
+ * ones are found through {@link java.util.ServiceLoader}, so an engine can be
+ * added by putting a jar with a
+ * {@code META-INF/services/com.taskmanager.storage.StorageEngineProvider}
+ * entry on the classpath.
+ */
+public interface StorageEngineProvider {
+
+  String name();
+
+  /**
+   * Opens an engine for {@code config}, creating an empty store if none
+   * exists yet.
+   */
+  StorageEngine open(StorageConfig config) throws TaskManagerException;
+}
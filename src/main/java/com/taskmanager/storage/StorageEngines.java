@@ -0,0 +1,49 @@
+package com.taskmanager.storage;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+import com.taskmanager.errors.TaskManagerException;
+
+/**
+ * Registry of available {@link StorageEngineProvider}s: the built-in
+ * {@code memory} and {@code file} engines plus any found through
+ * {@link ServiceLoader}.
+ */
+public final class StorageEngines {
+  private static final Map<String, StorageEngineProvider> BY_NAME = new LinkedHashMap<>();
+
+  static {
+    register(new MemoryStorageEngine.Provider());
+    register(new FileStorageEngine.Provider());
+    for (StorageEngineProvider provider : ServiceLoader.load(StorageEngineProvider.class)) {
+      register(provider);
+    }
+  }
+
+  private StorageEngines() {
+  }
+
+  private static void register(StorageEngineProvider provider) {
+    if (BY_NAME.containsKey(provider.name())) {
+      System.err.println("Ignoring storage engine '" + provider.name() + "': the name is already registered");
+      return;
+    }
+    BY_NAME.put(provider.name(), provider);
+  }
+
+  public static StorageEngine open(StorageConfig config) throws TaskManagerException {
+    StorageEngineProvider provider = BY_NAME.get(config.engine());
+    if (provider == null) {
+      throw new TaskManagerException("Unknown storage engine '" + config.engine() + "', available: "
+          + BY_NAME.keySet());
+    }
+    return provider.open(config);
+  }
+
+  public static Collection<StorageEngineProvider> all() {
+    return BY_NAME.values();
+  }
+}
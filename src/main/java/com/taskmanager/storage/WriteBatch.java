@@ -0,0 +1,48 @@
+package com.taskmanager.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.taskmanager.models.Task;
+
+/**
+ * An ordered group of writes handed to {@link StorageEngine#write} in one
+ * call. Engines with {@link StorageCapability#ATOMIC_BATCH} apply it all or
+ * nothing; later operations on the same id win over earlier ones.
+ */
+public final class WriteBatch {
+
+  /**
+   * One write: a put when {@code task} is set, a delete otherwise.
+   */
+  public record Operation(String id, Task task) {
+    public boolean isDelete() {
+      return task == null;
+    }
+  }
+
+  private final List<Operation> operations = new ArrayList<>();
+
+  public WriteBatch put(Task task) {
+    operations.add(new Operation(task.getId(), task));
+    return this;
+  }
+
+  public WriteBatch delete(String id) {
+    operations.add(new Operation(id, null));
+    return this;
+  }
+
+  public List<Operation> operations() {
+    return Collections.unmodifiableList(operations);
+  }
+
+  public int size() {
+    return operations.size();
+  }
+
+  public boolean isEmpty() {
+    return operations.isEmpty();
+  }
+}
@@ -0,0 +1,204 @@
+package com.taskmanager.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.taskmanager.errors.TaskManagerException;
+
+/**
+ * The right to write a store file, held by at most one process at a time,
+ * e.g. a cron job and an interactive session working on the same
+ * {@code tasks.json}. The holder of the lease is the only writer; everyone
+ * else keeps reading and editing their in-memory copy and waits for the
+ * lease only to flush.
+ *
+ * The lease is an exclusive {@link FileChannel#lock} on a side file
+ * {@code <store>.lock}, not on the store itself, which flushes replace by
+ * renaming. The operating system drops the lock when its process dies, so a
+ * crashed writer never blocks the others. File locks are held per process,
+ * so leases on the same file within one JVM are serialized by a plain lock
+ * as well.
+ */
+public final class WriterLease {
+  public static final String PROPERTY = "taskmanager.file.lease";
+  public static final String TIMEOUT_PROPERTY = "taskmanager.file.lease.timeout";
+  public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+  private static final long MAX_POLL_MILLIS = 20;
+  private static final Map<String, ReentrantLock> LOCAL_LOCKS = new ConcurrentHashMap<>();
+
+  /**
+   * A held lease; closing it releases the lease.
+   */
+  public final class Held implements AutoCloseable {
+    private final FileChannel channel;
+    private final FileLock lock;
+
+    private Held(FileChannel channel, FileLock lock) {
+      this.channel = channel;
+      this.lock = lock;
+    }
+
+    @Override
+    public void close() {
+      try {
+        lock.release();
+        channel.close();
+      } catch (IOException e) {
+        // Closing the channel releases the lock in any case
+      } finally {
+        localLock.unlock();
+      }
+    }
+  }
+
+  private final File lockFile;
+  private final Duration timeout;
+  private final ReentrantLock localLock;
+  private final AtomicLong acquisitions = new AtomicLong();
+  private final AtomicLong contended = new AtomicLong();
+  private final AtomicLong waitNanos = new AtomicLong();
+
+  public WriterLease(File dataFile, Duration timeout) {
+    this.lockFile = lockFileFor(dataFile);
+    this.timeout = timeout;
+    this.localLock = LOCAL_LOCKS.computeIfAbsent(lockFile.getAbsolutePath(), path -> new ReentrantLock(true));
+  }
+
+  public static File lockFileFor(File dataFile) {
+    return new File(dataFile.getPath() + ".lock");
+  }
+
+  /**
+   * Whether stores are flushed under a lease; set {@code taskmanager.file.lease}
+   * to false for a store only ever opened by one process.
+   */
+  public static boolean isEnabled() {
+    return !"false".equalsIgnoreCase(System.getProperty(PROPERTY));
+  }
+
+  /**
+   * The wait for the lease set by {@code taskmanager.file.lease.timeout} in
+   * seconds, or {@link #DEFAULT_TIMEOUT}.
+   */
+  public static Duration timeoutFromSystemProperties() {
+    String value = System.getProperty(TIMEOUT_PROPERTY);
+    if (value == null) {
+      return DEFAULT_TIMEOUT;
+    }
+    try {
+      return Duration.ofSeconds(Long.parseLong(value.trim()));
+    } catch (NumberFormatException e) {
+      System.err.println("Invalid " + TIMEOUT_PROPERTY + " '" + value + "', using " + DEFAULT_TIMEOUT.toSeconds());
+      return DEFAULT_TIMEOUT;
+    }
+  }
+
+  /**
+   * Waits for the lease.
+   *
+   * @throws TaskManagerException if another writer holds it for longer than
+   *                              the timeout, or the lock file cannot be
+   *                              opened
+   */
+  public Held acquire() throws TaskManagerException {
+    long start = System.nanoTime();
+    long deadline = start + timeout.toNanos();
+    try {
+      if (!localLock.tryLock(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+        throw timedOut();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TaskManagerException("Interrupted waiting for the writer lease on " + lockFile);
+    }
+    FileChannel channel = null;
+    try {
+      File parent = lockFile.getAbsoluteFile().getParentFile();
+      if (parent != null) {
+        Files.createDirectories(parent.toPath());
+      }
+      channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+      FileLock lock = channel.tryLock();
+      long poll = 1;
+      if (lock == null) {
+        contended.incrementAndGet();
+      }
+      // Polled rather than blocking in lock(), so that a writer that hangs
+      // fails the others after the timeout instead of freezing them
+      while (lock == null) {
+        if (System.nanoTime() > deadline) {
+          throw timedOut();
+        }
+        Thread.sleep(poll);
+        poll = Math.min(MAX_POLL_MILLIS, poll * 2);
+        lock = channel.tryLock();
+      }
+      acquisitions.incrementAndGet();
+      waitNanos.addAndGet(System.nanoTime() - start);
+      return new Held(channel, lock);
+    } catch (IOException | InterruptedException | TaskManagerException e) {
+      closeQuietly(channel);
+      localLock.unlock();
+      if (e instanceof TaskManagerException failure) {
+        throw failure;
+      }
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      throw new TaskManagerException("Failed to acquire the writer lease on " + lockFile, e);
+    }
+  }
+
+  public File getLockFile() {
+    return lockFile;
+  }
+
+  /**
+   * Number of times the lease was acquired.
+   */
+  public long acquisitions() {
+    return acquisitions.get();
+  }
+
+  /**
+   * Number of acquisitions that found the lease held by another process.
+   */
+  public long contended() {
+    return contended.get();
+  }
+
+  /**
+   * Total time spent waiting for the lease.
+   */
+  public Duration waited() {
+    return Duration.ofNanos(waitNanos.get());
+  }
+
+  // Helper methods
+
+  private TaskManagerException timedOut() {
+    return new TaskManagerException("Timed out after " + timeout.toMillis()
+        + " ms waiting for another process to release the writer lease on " + lockFile);
+  }
+
+  private static void closeQuietly(FileChannel channel) {
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        // Already failing
+      }
+    }
+  }
+}
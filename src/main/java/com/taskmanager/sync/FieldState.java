@@ -0,0 +1,10 @@
+package com.taskmanager.sync;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * The value of one task field, in its JSON form, and the version that wrote
+ * it.
+ */
+public record FieldState(JsonNode value, FieldVersion version) {
+}
@@ -0,0 +1,28 @@
+package com.taskmanager.sync;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * The version of one field of one task: when it was written and by which
+ * write. {@code (replica, counter)} is unique per write, so a
+ * {@link VersionVector} can tell whether a peer has seen it; the natural
+ * order (updatedAt, then replica, then counter) decides last-writer-wins, and
+ * is total so every replica picks the same winner.
+ */
+public record FieldVersion(LocalDateTime updatedAt, String replica, long counter) implements Comparable<FieldVersion> {
+
+  private static final Comparator<FieldVersion> ORDER = Comparator
+      .comparing(FieldVersion::updatedAt)
+      .thenComparing(FieldVersion::replica)
+      .thenComparingLong(FieldVersion::counter);
+
+  @Override
+  public int compareTo(FieldVersion other) {
+    return ORDER.compare(this, other);
+  }
+
+  public boolean isNewerThan(FieldVersion other) {
+    return other == null || compareTo(other) > 0;
+  }
+}
@@ -0,0 +1,96 @@
+package com.taskmanager.sync;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.serialization.TaskJson;
+
+/**
+ * Sync through a shared folder (a network drive, a synced cloud folder, a USB
+ * stick) for devices that are never online at the same time.
+ *
+ * Each replica owns two files in the folder: {@code <replica>.vv.json}, the
+ * {@link VersionVector} it has merged up to, and {@code <replica>.delta.json},
+ * its changes that at least one other replica has not seen yet. A push
+ * rewrites the delta against what every known peer has already merged, so
+ * the file shrinks as peers catch up; a pull merges every other replica's
+ * delta. Files are replaced atomically, so a reader never sees half a write.
+ */
+public final class FileDropSync {
+  static final String DELTA_SUFFIX = ".delta.json";
+  static final String VECTOR_SUFFIX = ".vv.json";
+
+  private FileDropSync() {
+  }
+
+  public static SyncReport push(TaskSync sync, File folder) throws TaskManagerException {
+    ensureFolder(folder);
+    try {
+      List<VersionVector> peers = new ArrayList<>();
+      for (File file : peerFiles(sync, folder, VECTOR_SUFFIX)) {
+        peers.add(TaskJson.mapper().readValue(file, VersionVector.class));
+      }
+      SyncDelta delta = sync.changesSince(VersionVector.meet(peers));
+      byte[] bytes = TaskJson.mapper().writeValueAsBytes(delta);
+      TaskSync.writeAtomically(new File(folder, sync.getReplicaId() + DELTA_SUFFIX), bytes);
+      writeVector(sync, folder);
+      return new SyncReport(delta.tasks().size(), 0, bytes.length, 0, new TaskSync.MergeResult(0, 0, 0));
+    } catch (IOException e) {
+      throw new TaskManagerException("Failed to push changes to " + folder, e);
+    }
+  }
+
+  public static SyncReport pull(TaskSync sync, File folder) throws TaskManagerException {
+    ensureFolder(folder);
+    int tasksReceived = 0;
+    long bytesReceived = 0;
+    int saved = 0;
+    int deleted = 0;
+    int applied = 0;
+    try {
+      for (File file : peerFiles(sync, folder, DELTA_SUFFIX)) {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        SyncDelta delta = TaskJson.mapper().readValue(bytes, SyncDelta.class);
+        TaskSync.MergeResult result = sync.merge(delta);
+        tasksReceived += delta.tasks().size();
+        bytesReceived += bytes.length;
+        saved += result.tasksSaved();
+        deleted += result.tasksDeleted();
+        applied += result.fieldsApplied();
+      }
+      writeVector(sync, folder);
+    } catch (IOException e) {
+      throw new TaskManagerException("Failed to pull changes from " + folder, e);
+    }
+    return new SyncReport(0, tasksReceived, 0, bytesReceived, new TaskSync.MergeResult(saved, deleted, applied));
+  }
+
+  // Helper methods
+
+  private static void ensureFolder(File folder) throws TaskManagerException {
+    if (!folder.isDirectory() && !folder.mkdirs()) {
+      throw new TaskManagerException("Sync folder " + folder + " does not exist and cannot be created");
+    }
+  }
+
+  private static List<File> peerFiles(TaskSync sync, File folder, String suffix) {
+    List<File> files = new ArrayList<>();
+    File[] listed = folder.listFiles((dir, name) -> name.endsWith(suffix)
+        && !name.equals(sync.getReplicaId() + suffix));
+    if (listed != null) {
+      for (File file : listed) {
+        files.add(file);
+      }
+    }
+    return files;
+  }
+
+  private static void writeVector(TaskSync sync, File folder) throws IOException, TaskManagerException {
+    TaskSync.writeAtomically(new File(folder, sync.getReplicaId() + VECTOR_SUFFIX),
+        TaskJson.mapper().writeValueAsBytes(sync.versionVector()));
+  }
+}
@@ -0,0 +1,46 @@
+package com.taskmanager.sync;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+import com.taskmanager.errors.TaskManagerException;
+
+/**
+ * Runs one two-way sync session against a {@link SyncServer}: pulls what the
+ * server has that this store has not seen, then pushes what the server has
+ * not seen.
+ */
+public final class SyncClient {
+  private static final int TIMEOUT_MILLIS = 30_000;
+
+  private SyncClient() {
+  }
+
+  public static SyncReport exchange(TaskSync sync, String host, int port) throws TaskManagerException {
+    try (Socket socket = new Socket()) {
+      socket.connect(new InetSocketAddress(host, port), TIMEOUT_MILLIS);
+      socket.setSoTimeout(TIMEOUT_MILLIS);
+      DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+      out.writeInt(SyncProtocol.MAGIC);
+      out.writeByte(SyncProtocol.VERSION);
+      long bytesSent = SyncProtocol.writeFrame(out, sync.versionVector());
+
+      byte[] frame = SyncProtocol.readFrame(in);
+      SyncDelta incoming = SyncProtocol.decode(frame, SyncDelta.class);
+      TaskSync.MergeResult merge = sync.merge(incoming);
+
+      SyncDelta outgoing = sync.changesSince(incoming.versionVector());
+      bytesSent += SyncProtocol.writeFrame(out, outgoing);
+      in.readInt(); // the server has applied our changes
+      return new SyncReport(outgoing.tasks().size(), incoming.tasks().size(), bytesSent, frame.length, merge);
+    } catch (IOException e) {
+      throw new TaskManagerException("Failed to sync with " + host + ":" + port, e);
+    }
+  }
+}
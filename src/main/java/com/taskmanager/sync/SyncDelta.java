@@ -0,0 +1,24 @@
+package com.taskmanager.sync;
+
+import java.util.Map;
+
+/**
+ * The changes one replica sends another: for every task with a field the
+ * receiver has not seen, just those fields. Its size is proportional to what
+ * changed, not to the store.
+ *
+ * @param replicaId     the sender
+ * @param versionVector what the sender had seen when it built the delta; the
+ *                      receiver has seen the same once it merged the delta
+ * @param tasks         task id to changed field name to new state
+ */
+public record SyncDelta(String replicaId, VersionVector versionVector, Map<String, Map<String, FieldState>> tasks) {
+
+  public int fieldCount() {
+    int count = 0;
+    for (Map<String, FieldState> fields : tasks.values()) {
+      count += fields.size();
+    }
+    return count;
+  }
+}
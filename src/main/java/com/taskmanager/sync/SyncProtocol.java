@@ -0,0 +1,54 @@
+package com.taskmanager.sync;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import com.taskmanager.serialization.TaskJson;
+
+/**
+ * Wire format of a socket sync session. Both sides take part in one
+ * exchange:
+ *
+ * <pre>
+ * client: MAGIC, VERSION, frame(client VersionVector)
+ * server: frame(SyncDelta of what the client has not seen)
+ * client: frame(SyncDelta of what the server has not seen)
+ * server: int fields applied
+ * </pre>
+ *
+ * A frame is an int length followed by that many bytes of JSON.
+ */
+final class SyncProtocol {
+  static final int MAGIC = 0x544D5359; // "TMSY"
+  static final int VERSION = 1;
+  static final int MAX_FRAME_BYTES = 256 << 20;
+
+  private SyncProtocol() {
+  }
+
+  /**
+   * @return the number of payload bytes written
+   */
+  static int writeFrame(DataOutputStream out, Object value) throws IOException {
+    byte[] bytes = TaskJson.mapper().writeValueAsBytes(value);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+    out.flush();
+    return bytes.length;
+  }
+
+  static byte[] readFrame(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0 || length > MAX_FRAME_BYTES) {
+      throw new IOException("Sync frame of " + length + " bytes is out of range");
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  static <T> T decode(byte[] frame, Class<T> type) throws IOException {
+    return TaskJson.mapper().readValue(frame, type);
+  }
+}
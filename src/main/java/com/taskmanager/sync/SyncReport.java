@@ -0,0 +1,12 @@
+package com.taskmanager.sync;
+
+/**
+ * Outcome of one sync exchange.
+ *
+ * @param tasksSent     tasks with at least one field sent to the peer
+ * @param tasksReceived tasks with at least one field received
+ * @param merge         what the received changes did to the local store
+ */
+public record SyncReport(int tasksSent, int tasksReceived, long bytesSent, long bytesReceived,
+    TaskSync.MergeResult merge) {
+}
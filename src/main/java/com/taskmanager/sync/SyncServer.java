@@ -0,0 +1,109 @@
+package com.taskmanager.sync;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.taskmanager.errors.TaskManagerException;
+
+/**
+ * Accepts sync sessions from {@link SyncClient}s on the loopback interface.
+ * Sessions are served one at a time on a single thread; each is a short
+ * two-way exchange, see {@link SyncProtocol}.
+ */
+public class SyncServer implements AutoCloseable {
+  private static final int SO_TIMEOUT_MILLIS = 30_000;
+
+  private final TaskSync sync;
+  private final AtomicLong sessions = new AtomicLong();
+  private ServerSocket serverSocket;
+  private Thread acceptor;
+  private volatile boolean running;
+
+  public SyncServer(TaskSync sync) {
+    this.sync = sync;
+  }
+
+  /**
+   * @param port the port to listen on, or 0 for an ephemeral port
+   * @return the port actually bound
+   */
+  public synchronized int start(int port) throws IOException {
+    if (running) {
+      return serverSocket.getLocalPort();
+    }
+    serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+    running = true;
+    acceptor = new Thread(this::acceptLoop, "sync-server");
+    acceptor.setDaemon(true);
+    acceptor.start();
+    return serverSocket.getLocalPort();
+  }
+
+  public int getPort() {
+    return serverSocket != null ? serverSocket.getLocalPort() : -1;
+  }
+
+  /**
+   * Number of sessions completed since the server started.
+   */
+  public long sessions() {
+    return sessions.get();
+  }
+
+  @Override
+  public synchronized void close() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    try {
+      serverSocket.close();
+    } catch (IOException e) {
+      // Already closed
+    }
+  }
+
+  // Helper methods
+
+  private void acceptLoop() {
+    while (running) {
+      try (Socket socket = serverSocket.accept()) {
+        socket.setSoTimeout(SO_TIMEOUT_MILLIS);
+        serve(socket);
+        sessions.incrementAndGet();
+      } catch (SocketException e) {
+        // Closed
+      } catch (IOException | TaskManagerException e) {
+        if (running) {
+          System.err.println("Sync session failed: " + e.getMessage());
+        }
+      }
+    }
+  }
+
+  private void serve(Socket socket) throws IOException, TaskManagerException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+    if (in.readInt() != SyncProtocol.MAGIC) {
+      throw new IOException("Not a sync client");
+    }
+    int version = in.readByte();
+    if (version != SyncProtocol.VERSION) {
+      throw new IOException("Unsupported sync protocol version " + version);
+    }
+    VersionVector clientVector = SyncProtocol.decode(SyncProtocol.readFrame(in), VersionVector.class);
+    SyncProtocol.writeFrame(out, sync.changesSince(clientVector));
+    SyncDelta incoming = SyncProtocol.decode(SyncProtocol.readFrame(in), SyncDelta.class);
+    TaskSync.MergeResult result = sync.merge(incoming);
+    out.writeInt(result.fieldsApplied());
+    out.flush();
+  }
+}
@@ -0,0 +1,394 @@
+package com.taskmanager.sync;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.interfaces.TaskRepositoryListener;
+import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskValue;
+import com.taskmanager.repositories.TaskRepository;
+import com.taskmanager.serialization.TaskJson;
+
+/**
+ * TaskSync lets several independent stores (say a laptop and a desktop)
+ * exchange edits in both directions. Unlike replication there is no primary:
+ * every store takes writes, and concurrent edits are merged per field, the
+ * version with the later {@code updatedAt} winning.
+ *
+ * Every field of every task carries a {@link FieldVersion}. Local edits are
+ * picked up by comparing changed tasks against the last known field values
+ * (only tasks touched since the last sync, found through repository events),
+ * and each changed field gets a new version from this replica's counter. A
+ * peer that sends its {@link VersionVector} gets back only the fields it has
+ * not seen, so a delta is proportional to what changed. Deletes are recorded
+ * as a tombstone field that wins or loses against edits like any other
+ * field; archiving is local and is not synced.
+ *
+ * Field versions live in a {@code <store>-sync.json} file next to the store,
+ * so tasks.json keeps its format.
+ */
+public class TaskSync implements TaskRepositoryListener, AutoCloseable {
+
+  /**
+   * What merging a peer's delta changed locally.
+   */
+  public record MergeResult(int tasksSaved, int tasksDeleted, int fieldsApplied) {
+  }
+
+  record StoredState(String replicaId, long counter, VersionVector versionVector,
+      Map<String, Map<String, FieldState>> tasks) {
+  }
+
+  static final String DELETED_FIELD = "@deleted";
+  private static final Set<String> UNSYNCED_FIELDS = Set.of("id", "updatedAt");
+
+  private final TaskRepository repository;
+  private final File stateFile;
+  private final String replicaId;
+  private final VersionVector versionVector;
+  private final Map<String, Map<String, FieldState>> fields;
+  // Per replica, counter -> id of the task whose field carries that version;
+  // superseded versions are dropped, so a delta walks only unseen versions.
+  private final Map<String, NavigableMap<Long, String>> versions = new HashMap<>();
+  private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+  private long counter;
+  private boolean fullScan = true; // edits made before this instance existed
+
+  public TaskSync(TaskRepository repository, File stateFile) throws TaskManagerException {
+    this.repository = repository;
+    this.stateFile = stateFile;
+    StoredState state = load(stateFile);
+    this.replicaId = state.replicaId();
+    this.counter = state.counter();
+    this.versionVector = state.versionVector();
+    this.fields = state.tasks();
+    for (Map.Entry<String, Map<String, FieldState>> task : fields.entrySet()) {
+      for (FieldState field : task.getValue().values()) {
+        index(task.getKey(), null, field.version());
+      }
+    }
+    repository.addListener(this);
+  }
+
+  public static File stateFileFor(File dataFile) {
+    String name = dataFile.getName();
+    String base = name.endsWith(".json") ? name.substring(0, name.length() - 5) : name;
+    return new File(dataFile.getAbsoluteFile().getParentFile(), base + "-sync.json");
+  }
+
+  public String getReplicaId() {
+    return replicaId;
+  }
+
+  public synchronized VersionVector versionVector() throws TaskManagerException {
+    if (scan() > 0) {
+      persist();
+    }
+    return versionVector.copy();
+  }
+
+  /**
+   * Returns every field version {@code peer} has not seen, local edits
+   * included.
+   */
+  public synchronized SyncDelta changesSince(VersionVector peer) throws TaskManagerException {
+    if (scan() > 0) {
+      persist();
+    }
+    Map<String, Map<String, FieldState>> changed = new LinkedHashMap<>();
+    for (Map.Entry<String, NavigableMap<Long, String>> replica : versions.entrySet()) {
+      for (String id : replica.getValue().tailMap(peer.get(replica.getKey()), false).values()) {
+        if (changed.containsKey(id)) {
+          continue;
+        }
+        Map<String, FieldState> unseen = new LinkedHashMap<>();
+        for (Map.Entry<String, FieldState> field : fields.get(id).entrySet()) {
+          if (!peer.covers(field.getValue().version())) {
+            unseen.put(field.getKey(), field.getValue());
+          }
+        }
+        changed.put(id, unseen);
+      }
+    }
+    return new SyncDelta(replicaId, versionVector.copy(), changed);
+  }
+
+  /**
+   * Applies a peer's delta field by field, keeping the newer version of each
+   * field, and saves or deletes the affected tasks. Local edits not yet
+   * versioned are versioned first so they take part in the comparison.
+   */
+  public synchronized MergeResult merge(SyncDelta delta) throws TaskManagerException {
+    scan();
+    int saved = 0;
+    int deleted = 0;
+    int applied = 0;
+    boolean autoFlush = repository.isAutoFlush();
+    repository.setAutoFlush(false); // flushed once below
+    try {
+      for (Map.Entry<String, Map<String, FieldState>> task : delta.tasks().entrySet()) {
+        String id = task.getKey();
+        Map<String, FieldState> current = fields.computeIfAbsent(id, k -> new HashMap<>());
+        boolean wasLive = !current.isEmpty() && !isDeleted(current);
+        int before = applied;
+        for (Map.Entry<String, FieldState> field : task.getValue().entrySet()) {
+          FieldState previous = current.get(field.getKey());
+          FieldVersion incoming = field.getValue().version();
+          if (incoming.isNewerThan(previous != null ? previous.version() : null)) {
+            current.put(field.getKey(), field.getValue());
+            index(id, previous != null ? previous.version() : null, incoming);
+            applied++;
+          }
+        }
+        if (applied == before) {
+          continue;
+        }
+        if (!isDeleted(current)) {
+          repository.save(rebuild(id, current));
+          saved++;
+        } else if (wasLive && deleteIfPresent(id)) {
+          deleted++;
+        }
+      }
+      versionVector.mergeFrom(delta.versionVector());
+    } finally {
+      repository.setAutoFlush(autoFlush);
+    }
+    if (autoFlush && saved + deleted > 0) {
+      repository.saveTasks();
+    }
+    persist();
+    return new MergeResult(saved, deleted, applied);
+  }
+
+  @Override
+  public void onSaved(Task task) {
+    dirty.add(task.getId());
+  }
+
+  @Override
+  public void onDeleted(String id) {
+    dirty.add(id);
+  }
+
+  @Override
+  public void onArchived(Task task) {
+    dirty.add(task.getId()); // still found in the archive, so not a delete
+  }
+
+  @Override
+  public void close() {
+    repository.removeListener(this);
+  }
+
+  // Helper methods
+
+  /**
+   * Versions the fields of tasks changed since the last scan.
+   *
+   * @return the number of new field versions
+   */
+  private int scan() throws TaskManagerException {
+    Collection<String> ids = new ArrayList<>();
+    if (fullScan) {
+      dirty.clear();
+      Set<String> all = new HashSet<>(fields.keySet());
+      for (TaskValue task : repository.readView()) {
+        all.add(task.getId());
+      }
+      ids = all;
+      fullScan = false;
+    } else {
+      for (Iterator<String> it = dirty.iterator(); it.hasNext();) {
+        ids.add(it.next());
+        it.remove();
+      }
+    }
+    int versioned = 0;
+    for (String id : ids) {
+      Optional<Task> task = repository.findIfPresent(id);
+      versioned += task.isPresent() ? versionChanges(task.get()) : versionDelete(id);
+    }
+    return versioned;
+  }
+
+  private int versionChanges(Task task) {
+    String id = task.getId();
+    Map<String, FieldState> current = fields.computeIfAbsent(id, k -> new HashMap<>());
+    boolean revived = !current.isEmpty() && isDeleted(current); // e.g. restored from a backup
+    ObjectNode node = TaskJson.mapper().valueToTree(task);
+    LocalDateTime stamp = null;
+    int versioned = 0;
+    for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext();) {
+      Map.Entry<String, JsonNode> field = it.next();
+      if (UNSYNCED_FIELDS.contains(field.getKey())) {
+        continue;
+      }
+      FieldState previous = current.get(field.getKey());
+      if (!revived && previous != null && previous.value().equals(field.getValue())) {
+        continue;
+      }
+      if (stamp == null) {
+        stamp = nextStamp(current, task.getUpdatedAt());
+      }
+      FieldVersion version = new FieldVersion(stamp, replicaId, ++counter);
+      current.put(field.getKey(), new FieldState(field.getValue(), version));
+      index(id, previous != null ? previous.version() : null, version);
+      versioned++;
+    }
+    if (versioned > 0) {
+      versionVector.observe(replicaId, counter);
+    }
+    return versioned;
+  }
+
+  private int versionDelete(String id) {
+    Map<String, FieldState> current = fields.get(id);
+    if (current == null || current.isEmpty() || isDeleted(current)) {
+      return 0;
+    }
+    FieldState previous = current.get(DELETED_FIELD);
+    FieldVersion version = new FieldVersion(nextStamp(current, LocalDateTime.now()), replicaId, ++counter);
+    current.put(DELETED_FIELD, new FieldState(BooleanNode.TRUE, version));
+    index(id, previous != null ? previous.version() : null, version);
+    versionVector.observe(replicaId, counter);
+    return 1;
+  }
+
+  /**
+   * A local write must order after every version it replaces, even if this
+   * machine's clock is behind the one that wrote them; otherwise peers would
+   * keep the old value and diverge from us.
+   */
+  private static LocalDateTime nextStamp(Map<String, FieldState> current, LocalDateTime updatedAt) {
+    LocalDateTime stamp = updatedAt != null ? updatedAt : LocalDateTime.now();
+    for (FieldState field : current.values()) {
+      if (!stamp.isAfter(field.version().updatedAt())) {
+        stamp = field.version().updatedAt().plusNanos(1);
+      }
+    }
+    return stamp;
+  }
+
+  /**
+   * A task is deleted while its tombstone is newer than every edit.
+   */
+  private static boolean isDeleted(Map<String, FieldState> current) {
+    FieldState tombstone = current.get(DELETED_FIELD);
+    if (tombstone == null) {
+      return false;
+    }
+    for (Map.Entry<String, FieldState> field : current.entrySet()) {
+      if (!field.getKey().equals(DELETED_FIELD) && field.getValue().version().isNewerThan(tombstone.version())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Task rebuild(String id, Map<String, FieldState> current) throws TaskManagerException {
+    ObjectMapper mapper = TaskJson.mapper();
+    ObjectNode node = mapper.createObjectNode();
+    node.put("id", id);
+    LocalDateTime updatedAt = null;
+    for (Map.Entry<String, FieldState> field : current.entrySet()) {
+      if (field.getKey().equals(DELETED_FIELD)) {
+        continue;
+      }
+      node.set(field.getKey(), field.getValue().value());
+      LocalDateTime stamp = field.getValue().version().updatedAt();
+      if (updatedAt == null || stamp.isAfter(updatedAt)) {
+        updatedAt = stamp;
+      }
+    }
+    node.set("updatedAt", mapper.valueToTree(updatedAt));
+    try {
+      return mapper.treeToValue(node, Task.class);
+    } catch (IOException e) {
+      throw new TaskManagerException("Failed to rebuild synced task '" + id + "'", e);
+    }
+  }
+
+  private boolean deleteIfPresent(String id) throws TaskManagerException {
+    if (repository.findIfPresent(id).isEmpty()) {
+      return false; // never reached this store
+    }
+    repository.deleteById(id);
+    return true;
+  }
+
+  private void index(String id, FieldVersion previous, FieldVersion version) {
+    if (previous != null) {
+      NavigableMap<Long, String> byCounter = versions.get(previous.replica());
+      if (byCounter != null) {
+        byCounter.remove(previous.counter());
+      }
+    }
+    versions.computeIfAbsent(version.replica(), r -> new TreeMap<>()).put(version.counter(), id);
+  }
+
+  private static StoredState load(File stateFile) throws TaskManagerException {
+    if (!stateFile.exists() || stateFile.length() == 0) {
+      String replicaId = UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+      return new StoredState(replicaId, 0, new VersionVector(), new HashMap<>());
+    }
+    try {
+      StoredState state = TaskJson.mapper().readValue(stateFile, StoredState.class);
+      Map<String, Map<String, FieldState>> tasks = new HashMap<>();
+      for (Map.Entry<String, Map<String, FieldState>> task : state.tasks().entrySet()) {
+        tasks.put(task.getKey(), new HashMap<>(task.getValue()));
+      }
+      return new StoredState(state.replicaId(), state.counter(), state.versionVector(), tasks);
+    } catch (IOException e) {
+      throw new TaskManagerException("Failed to read sync state from " + stateFile, e);
+    }
+  }
+
+  private void persist() throws TaskManagerException {
+    try {
+      byte[] bytes = TaskJson.mapper().writeValueAsBytes(new StoredState(replicaId, counter, versionVector, fields));
+      writeAtomically(stateFile, bytes);
+    } catch (IOException e) {
+      throw new TaskManagerException("Failed to save sync state to " + stateFile, e);
+    }
+  }
+
+  /**
+   * Writes through a temporary file and a rename, so a reader (another
+   * device polling a shared folder, or this process after a crash) sees
+   * either the old or the new contents, never a partial write.
+   */
+  static void writeAtomically(File file, byte[] bytes) throws IOException {
+    Path target = file.toPath().toAbsolutePath();
+    Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+    Files.write(temp, bytes);
+    try {
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.taskmanager.sync;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Highest write counter seen per replica. A vector covers a
+ * {@link FieldVersion} when it has seen that replica's counter, so "what has
+ * a peer not seen yet" is every version its vector does not cover.
+ *
+ * Not thread-safe; {@link TaskSync} hands out copies.
+ */
+public final class VersionVector {
+  private final Map<String, Long> counters;
+
+  public VersionVector() {
+    this.counters = new TreeMap<>();
+  }
+
+  @JsonCreator
+  public VersionVector(Map<String, Long> counters) {
+    this.counters = new TreeMap<>(counters);
+  }
+
+  /**
+   * Pointwise minimum: what every one of {@code vectors} has seen. Empty when
+   * there are no vectors.
+   */
+  public static VersionVector meet(Collection<VersionVector> vectors) {
+    Iterator<VersionVector> it = vectors.iterator();
+    if (!it.hasNext()) {
+      return new VersionVector();
+    }
+    VersionVector meet = it.next().copy();
+    while (it.hasNext()) {
+      VersionVector next = it.next();
+      meet.counters.replaceAll((replica, counter) -> Math.min(counter, next.get(replica)));
+    }
+    meet.counters.values().removeIf(counter -> counter == 0);
+    return meet;
+  }
+
+  public long get(String replica) {
+    return counters.getOrDefault(replica, 0L);
+  }
+
+  public boolean covers(FieldVersion version) {
+    return version.counter() <= get(version.replica());
+  }
+
+  public void observe(String replica, long counter) {
+    counters.merge(replica, counter, Math::max);
+  }
+
+  public void mergeFrom(VersionVector other) {
+    for (Map.Entry<String, Long> entry : other.counters.entrySet()) {
+      observe(entry.getKey(), entry.getValue());
+    }
+  }
+
+  public VersionVector copy() {
+    return new VersionVector(counters);
+  }
+
+  @JsonValue
+  public Map<String, Long> asMap() {
+    return Collections.unmodifiableMap(counters);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof VersionVector other && counters.equals(other.counters);
+  }
+
+  @Override
+  public int hashCode() {
+    return counters.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return counters.toString();
+  }
+}
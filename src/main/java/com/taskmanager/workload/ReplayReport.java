@@ -0,0 +1,66 @@
+package com.taskmanager.workload;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * The outcome of a {@link WorkloadReplayer} run.
+ *
+ * @param latency     time from when each command was due until it finished,
+ *                    which includes waiting for a free worker; equal to the
+ *                    service time when replaying unpaced
+ * @param serviceTime time each command actually ran
+ * @param perCommand  latency by command word
+ * @param heapUsedAfter heap in use at the end, before any explicit GC
+ * @param heapPeak    highest heap occupancy seen by the JVM during the run
+ */
+public record ReplayReport(int commands, int failures, int skipped, long wallNanos, int threads, double speed,
+    Latency latency, Latency serviceTime, Map<String, Latency> perCommand, long heapUsedBefore,
+    long heapUsedAfter, long heapPeak, long gcCount, long gcMillis) {
+
+  /**
+   * Latency percentiles in nanoseconds.
+   */
+  public record Latency(int count, long p50, long p90, long p99, long p999, long max) {
+    /**
+     * Summarizes the samples; sorts the array in place.
+     */
+    public static Latency of(long[] samples) {
+      if (samples.length == 0) {
+        return new Latency(0, 0, 0, 0, 0, 0);
+      }
+      Arrays.sort(samples);
+      return new Latency(samples.length, percentile(samples, 0.5), percentile(samples, 0.9),
+          percentile(samples, 0.99), percentile(samples, 0.999), samples[samples.length - 1]);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+      int index = (int) Math.ceil(p * sorted.length) - 1;
+      return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+  }
+
+  public double throughput() {
+    return wallNanos == 0 ? 0 : commands * 1e9 / wallNanos;
+  }
+
+  public String format() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(String.format("%d commands (%d failed, %d skipped) on %d threads at %s in %.2f s: %.1f commands/s%n",
+        commands, failures, skipped, threads, speed > 0 ? speed + "x speed" : "full speed", wallNanos / 1e9,
+        throughput()));
+    sb.append(String.format("%-14s %8s %10s %10s %10s %10s %10s%n", "", "count", "p50 ms", "p90 ms", "p99 ms",
+        "p99.9 ms", "max ms"));
+    row(sb, "latency", latency);
+    row(sb, "service time", serviceTime);
+    perCommand.forEach((name, summary) -> row(sb, "  " + name, summary));
+    sb.append(String.format("heap %.1f MB -> %.1f MB (peak %.1f MB), %d GCs taking %d ms%n",
+        heapUsedBefore / 1048576.0, heapUsedAfter / 1048576.0, heapPeak / 1048576.0, gcCount, gcMillis));
+    return sb.toString();
+  }
+
+  private static void row(StringBuilder sb, String label, Latency l) {
+    sb.append(String.format("%-14s %8d %10.3f %10.3f %10.3f %10.3f %10.3f%n", label, l.count(), l.p50() / 1e6,
+        l.p90() / 1e6, l.p99() / 1e6, l.p999() / 1e6, l.max() / 1e6));
+  }
+}
@@ -0,0 +1,28 @@
+package com.taskmanager.workload;
+
+import java.util.List;
+
+/**
+ * One recorded command.
+ *
+ * @param at      wall-clock time the command started, in epoch milliseconds
+ * @param command the command line as typed
+ * @param answers lines read from the user while the command ran, e.g. the
+ *                prompts of {@code edit}
+ * @param nanos   how long the command took
+ * @param failed  whether it ended with an error
+ */
+public record WorkloadEntry(long at, String command, List<String> answers, long nanos, boolean failed) {
+  public WorkloadEntry {
+    answers = answers == null ? List.of() : List.copyOf(answers);
+  }
+
+  /**
+   * The command word, e.g. {@code list}.
+   */
+  public String name() {
+    String trimmed = command.trim();
+    int space = trimmed.indexOf(' ');
+    return (space < 0 ? trimmed : trimmed.substring(0, space)).toLowerCase();
+  }
+}
@@ -0,0 +1,119 @@
+package com.taskmanager.workload;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.taskmanager.enums.Category;
+import com.taskmanager.enums.Priority;
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.models.Task;
+import com.taskmanager.serialization.TaskSnapshots;
+
+/**
+ * Builds synthetic workloads: a seed store of {@code storeSize} tasks and a
+ * stream of commands against it, a {@code readRatio} share of which are
+ * reads ({@code list}, {@code list <id>}, {@code next}, {@code agenda}, paged
+ * lists) and the rest writes ({@code add}, {@code complete}, {@code edit},
+ * {@code depend}, {@code delete}). Commands are spaced at {@code rate} per
+ * second with exponential gaps, like independent users.
+ */
+public final class WorkloadGenerator {
+
+  public record Options(int commands, int storeSize, double readRatio, double rate, long seed) {
+    public Options {
+      if (readRatio < 0 || readRatio > 1) {
+        throw new IllegalArgumentException("Read ratio must be between 0 and 1");
+      }
+      if (rate <= 0) {
+        throw new IllegalArgumentException("Rate must be positive");
+      }
+    }
+
+    public static Options defaults() {
+      return new Options(10_000, 1_000, 0.8, 50, 1);
+    }
+  }
+
+  private WorkloadGenerator() {
+  }
+
+  /**
+   * Writes the workload to {@code file} and its seed store next to it.
+   */
+  public static void generate(File file, Options options) throws IOException, TaskManagerException {
+    Random random = new Random(options.seed());
+    List<Task> seed = seedTasks(options.storeSize(), random);
+    TaskSnapshots.write(WorkloadLog.seedFileFor(file), seed, null);
+    WorkloadLog.write(file, commands(seed, options, random));
+  }
+
+  static List<Task> seedTasks(int count, Random random) throws TaskManagerException {
+    List<Task> tasks = new ArrayList<>(count);
+    LocalDateTime now = LocalDateTime.now();
+    for (int i = 0; i < count; i++) {
+      Task task = new Task("Seed task " + i);
+      if (random.nextBoolean()) {
+        task.setDescription("Generated description " + random.nextInt(10_000));
+      }
+      task.setPriority(pick(Priority.values(), random));
+      task.setCategory(pick(Category.values(), random));
+      if (random.nextInt(3) > 0) {
+        task.setDueDate(now.plusDays(random.nextInt(60) - 10).withNano(0));
+      }
+      tasks.add(task);
+    }
+    return tasks;
+  }
+
+  static List<WorkloadEntry> commands(List<Task> seed, Options options, Random random) {
+    List<String> ids = new ArrayList<>();
+    seed.forEach(task -> ids.add(task.getId()));
+    List<WorkloadEntry> entries = new ArrayList<>(options.commands());
+    double at = System.currentTimeMillis();
+    for (int i = 0; i < options.commands(); i++) {
+      at += -Math.log(1 - random.nextDouble()) / options.rate() * 1000;
+      boolean read = random.nextDouble() < options.readRatio() || ids.isEmpty();
+      String command;
+      List<String> answers = List.of();
+      if (read) {
+        command = switch (random.nextInt(10)) {
+          case 0, 1, 2 -> "list";
+          case 3, 4 -> ids.isEmpty() ? "list" : "list " + pick(ids, random);
+          case 5, 6 -> "next " + (5 + random.nextInt(20));
+          case 7 -> "agenda week";
+          case 8 -> "agenda overdue";
+          default -> "list --page-size 50";
+        };
+      } else {
+        switch (random.nextInt(10)) {
+          case 0, 1, 2, 3 -> command = "add \"Generated task " + i + "\" priority="
+              + pick(Priority.values(), random).name().toLowerCase() + " due="
+              + LocalDate.now().plusDays(random.nextInt(30));
+          case 4, 5 -> command = "complete " + pick(ids, random);
+          case 6, 7 -> {
+            command = "edit " + pick(ids, random);
+            // title, description, priority, due date, category, status
+            answers = List.of("Edited task " + i, "", pick(Priority.values(), random).name(), "", "", "");
+          }
+          case 8 -> command = "depend " + pick(ids, random) + " " + pick(ids, random);
+          default -> command = "delete " + ids.remove(random.nextInt(ids.size()));
+        }
+      }
+      entries.add(new WorkloadEntry((long) at, command, answers, 0, false));
+    }
+    return entries;
+  }
+
+  private static <T> T pick(T[] values, Random random) {
+    return values[random.nextInt(values.length)];
+  }
+
+  private static <T> T pick(List<T> values, Random random) {
+    return values.get(random.nextInt(values.size()));
+  }
+}
@@ -0,0 +1,77 @@
+package com.taskmanager.workload;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The workload file format: one JSON {@link WorkloadEntry} per line, so
+ * recordings can be appended to by several runs and cut with ordinary text
+ * tools. The store the workload ran against, if any, sits next to it as
+ * {@code <file>.seed} in snapshot format.
+ */
+public final class WorkloadLog {
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private WorkloadLog() {
+  }
+
+  public static File seedFileFor(File workload) {
+    return new File(workload.getPath() + ".seed");
+  }
+
+  public static List<WorkloadEntry> read(File file) throws IOException {
+    List<WorkloadEntry> entries = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isBlank()) {
+          entries.add(MAPPER.readValue(line, WorkloadEntry.class));
+        }
+      }
+    }
+    return entries;
+  }
+
+  public static void write(File file, List<WorkloadEntry> entries) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+      for (WorkloadEntry entry : entries) {
+        append(writer, entry);
+      }
+    }
+  }
+
+  static void append(BufferedWriter writer, WorkloadEntry entry) throws IOException {
+    writer.write(MAPPER.writeValueAsString(entry));
+    writer.newLine();
+  }
+
+  /**
+   * Joins separately passed words into one command line that
+   * {@link com.taskmanager.commands.CommandTokenizer} splits back into the
+   * same words.
+   */
+  public static String quote(String... words) {
+    StringBuilder sb = new StringBuilder();
+    for (String word : words) {
+      if (sb.length() > 0) {
+        sb.append(' ');
+      }
+      boolean plain = !word.isEmpty() && word.chars()
+          .noneMatch(c -> Character.isWhitespace(c) || c == '"' || c == '\'' || c == '\\');
+      if (plain) {
+        sb.append(word);
+      } else {
+        sb.append('"').append(word.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+      }
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,76 @@
+package com.taskmanager.workload;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import com.taskmanager.Utils;
+
+/**
+ * Appends every command run by a {@link com.taskmanager.TaskManager} to a
+ * workload file, with its prompt answers and timing, for replay with
+ * {@link WorkloadReplayer}. Enabled with
+ * {@code -Dtaskmanager.workload.record=<file>}.
+ *
+ * The first recording into a file also copies the current store to
+ * {@code <file>.seed}, so that the ids the commands refer to exist when the
+ * workload is replayed.
+ */
+public final class WorkloadRecorder implements AutoCloseable {
+  public static final String FILE_PROPERTY = "taskmanager.workload.record";
+
+  private final BufferedWriter writer;
+
+  public WorkloadRecorder(File file, File dataFile) throws IOException {
+    File seed = WorkloadLog.seedFileFor(file);
+    if (!seed.exists() && dataFile.exists()) {
+      Files.copy(dataFile.toPath(), seed.toPath());
+    }
+    writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+        StandardOpenOption.APPEND);
+  }
+
+  /**
+   * A recorder for the file named by {@value #FILE_PROPERTY}, or null if it
+   * is not set or cannot be opened.
+   */
+  public static WorkloadRecorder fromSystemProperties() {
+    String file = System.getProperty(FILE_PROPERTY);
+    if (file == null || file.isBlank()) {
+      return null;
+    }
+    try {
+      return new WorkloadRecorder(new File(file), Utils.getTasksFile());
+    } catch (IOException e) {
+      System.err.println("Error opening workload recording, not recording: " + e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Writes one command. Each entry is flushed, so a session that is killed
+   * keeps everything up to its last command.
+   */
+  public synchronized void record(long startedAt, String command, List<String> answers, long nanos,
+      boolean failed) {
+    try {
+      WorkloadLog.append(writer, new WorkloadEntry(startedAt, command, answers, nanos, failed));
+      writer.flush();
+    } catch (IOException e) {
+      System.err.println("Error recording workload: " + e.getMessage());
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    try {
+      writer.close();
+    } catch (IOException e) {
+      System.err.println("Error closing workload recording: " + e.getMessage());
+    }
+  }
+}
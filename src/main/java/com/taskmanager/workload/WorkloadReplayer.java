@@ -0,0 +1,180 @@
+package com.taskmanager.workload;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.taskmanager.TaskManager;
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.models.Task;
+import com.taskmanager.repositories.TaskRepository;
+import com.taskmanager.serialization.TaskSnapshots;
+import com.taskmanager.services.TaskService;
+import com.taskmanager.storage.StorageConfig;
+
+/**
+ * Replays a recorded or generated workload against a fresh store.
+ *
+ * The store is opened with the given {@link StorageConfig} (so engines can be
+ * compared on the same workload), filled from the workload's seed, and then
+ * driven by {@code threads} workers, each with its own {@link TaskManager}
+ * over one shared {@link TaskService}. Workers take commands in recorded
+ * order. With a positive {@code speed} each command is due at its recorded
+ * offset divided by the speed (2 replays twice as fast as recorded) and
+ * latency is measured from when it was due, so a backlog shows up in the
+ * numbers; with speed 0 commands run back to back.
+ *
+ * Session commands that would leave the store, open sockets, take over the
+ * terminal or notify anyone ({@code exit}, {@code replicate}, {@code sync},
+ * {@code watch}, {@code remind}) are skipped, and so is {@code import},
+ * whose file may no longer exist. Command output is discarded.
+ */
+public final class WorkloadReplayer {
+  static final Set<String> SKIPPED_COMMANDS = Set.of("exit", "replicate", "sync", "watch", "import", "remind");
+
+  public record Options(int threads, double speed, StorageConfig storage, File seed) {
+    public Options {
+      if (threads < 1) {
+        throw new IllegalArgumentException("At least one thread is needed");
+      }
+      if (speed < 0) {
+        throw new IllegalArgumentException("Speed cannot be negative");
+      }
+    }
+  }
+
+  private WorkloadReplayer() {
+  }
+
+  public static ReplayReport replay(List<WorkloadEntry> workload, Options options)
+      throws IOException, TaskManagerException {
+    List<WorkloadEntry> entries = new ArrayList<>();
+    for (WorkloadEntry entry : workload) {
+      if (!SKIPPED_COMMANDS.contains(entry.name())) {
+        entries.add(entry);
+      }
+    }
+    int skipped = workload.size() - entries.size();
+
+    TaskRepository repository = new TaskRepository(options.storage(), true);
+    try {
+      if (options.seed() != null && options.seed().exists()) {
+        List<Task> seed = TaskSnapshots.read(options.seed());
+        repository.saveAll(seed);
+      }
+      TaskService service = new TaskService(repository);
+      // Build the lazily created parts before workers race to do it
+      service.readOverdueTasks(LocalDateTime.now());
+      return run(entries, skipped, service, options);
+    } finally {
+      repository.close();
+    }
+  }
+
+  private static ReplayReport run(List<WorkloadEntry> entries, int skipped, TaskService service, Options options) {
+    int count = entries.size();
+    long[] latency = new long[count];
+    long[] serviceTime = new long[count];
+    boolean[] failed = new boolean[count];
+    long firstAt = count > 0 ? entries.get(0).at() : 0;
+    AtomicInteger next = new AtomicInteger();
+
+    List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+        pool.resetPeakUsage();
+        heapPools.add(pool);
+      }
+    }
+    long heapBefore = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    long[] gcBefore = gcTotals();
+
+    PrintStream console = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    long start = System.nanoTime();
+    try {
+      List<Thread> workers = new ArrayList<>();
+      for (int t = 0; t < options.threads(); t++) {
+        Thread worker = new Thread(() -> {
+          TaskManager manager = new TaskManager(service);
+          int i;
+          while ((i = next.getAndIncrement()) < count) {
+            WorkloadEntry entry = entries.get(i);
+            long due = start;
+            if (options.speed() > 0) {
+              due = start + (long) ((entry.at() - firstAt) * 1_000_000 / options.speed());
+              for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+              }
+            }
+            long began = System.nanoTime();
+            try {
+              manager.replay(entry.command(), entry.answers());
+            } catch (TaskManagerException | RuntimeException e) {
+              failed[i] = true;
+            }
+            long ended = System.nanoTime();
+            serviceTime[i] = ended - began;
+            latency[i] = options.speed() > 0 ? ended - due : ended - began;
+          }
+        }, "replay-" + t);
+        workers.add(worker);
+        worker.start();
+      }
+      for (Thread worker : workers) {
+        worker.join();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      System.setOut(console);
+    }
+    long wall = System.nanoTime() - start;
+
+    long heapAfter = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    long heapPeak = 0;
+    for (MemoryPoolMXBean pool : heapPools) {
+      heapPeak += pool.getPeakUsage().getUsed();
+    }
+    long[] gcAfter = gcTotals();
+
+    Map<String, List<Long>> byName = new TreeMap<>();
+    int failures = 0;
+    for (int i = 0; i < count; i++) {
+      byName.computeIfAbsent(entries.get(i).name(), name -> new ArrayList<>()).add(latency[i]);
+      if (failed[i]) {
+        failures++;
+      }
+    }
+    Map<String, ReplayReport.Latency> perCommand = new TreeMap<>();
+    byName.forEach((name, samples) -> perCommand.put(name,
+        ReplayReport.Latency.of(samples.stream().mapToLong(Long::longValue).toArray())));
+
+    return new ReplayReport(count, failures, skipped, wall, options.threads(), options.speed(),
+        ReplayReport.Latency.of(latency), ReplayReport.Latency.of(serviceTime), perCommand, heapBefore, heapAfter,
+        heapPeak, gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1]);
+  }
+
+  private static long[] gcTotals() {
+    long collections = 0;
+    long millis = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      collections += Math.max(0, gc.getCollectionCount());
+      millis += Math.max(0, gc.getCollectionTime());
+    }
+    return new long[] { collections, millis };
+  }
+}
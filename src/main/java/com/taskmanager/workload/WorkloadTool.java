@@ -0,0 +1,103 @@
+package com.taskmanager.workload;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.taskmanager.storage.StorageConfig;
+
+/**
+ * Command-line entry point for workloads.
+ *
+ * Record a session by running the application with
+ * {@code -Dtaskmanager.workload.record=session.jsonl}, or generate one:
+ *
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass=com.taskmanager.workload.WorkloadTool \
+ *   -Dexec.args="generate synthetic.jsonl --commands 20000 --tasks 5000 --read-ratio 0.9 --rate 200"
+ * </pre>
+ *
+ * then replay it against a storage engine:
+ *
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass=com.taskmanager.workload.WorkloadTool \
+ *   -Dexec.args="replay synthetic.jsonl --threads 4 --speed 0 --engine file"
+ * </pre>
+ *
+ * {@code --speed 1} replays at the recorded pace, {@code --speed 10} ten
+ * times faster and {@code --speed 0} (the default) as fast as possible.
+ */
+public final class WorkloadTool {
+
+  private WorkloadTool() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 2) {
+      usage();
+      return;
+    }
+    File file = new File(args[1]);
+    Map<String, String> flags = new HashMap<>();
+    for (int i = 2; i + 1 < args.length; i += 2) {
+      flags.put(args[i], args[i + 1]);
+    }
+    switch (args[0]) {
+      case "generate" -> {
+        WorkloadGenerator.Options defaults = WorkloadGenerator.Options.defaults();
+        WorkloadGenerator.Options options = new WorkloadGenerator.Options(
+            intFlag(flags, "--commands", defaults.commands()),
+            intFlag(flags, "--tasks", defaults.storeSize()),
+            Double.parseDouble(flags.getOrDefault("--read-ratio", String.valueOf(defaults.readRatio()))),
+            Double.parseDouble(flags.getOrDefault("--rate", String.valueOf(defaults.rate()))),
+            Long.parseLong(flags.getOrDefault("--seed", String.valueOf(defaults.seed()))));
+        WorkloadGenerator.generate(file, options);
+        System.out.println("Wrote " + options.commands() + " commands over " + options.storeSize()
+            + " seed tasks to " + file);
+      }
+      case "replay" -> {
+        List<WorkloadEntry> workload = WorkloadLog.read(file);
+        File store = Files.createTempDirectory("workload-replay").toFile();
+        try {
+          StorageConfig storage = new StorageConfig(flags.getOrDefault("--engine", StorageConfig.DEFAULT_ENGINE),
+              new File(store, "tasks.json"), Map.of());
+          WorkloadReplayer.Options options = new WorkloadReplayer.Options(intFlag(flags, "--threads", 1),
+              Double.parseDouble(flags.getOrDefault("--speed", "0")), storage, WorkloadLog.seedFileFor(file));
+          ReplayReport report = WorkloadReplayer.replay(workload, options);
+          System.out.print(report.format());
+        } finally {
+          deleteStore(store);
+        }
+      }
+      default -> usage();
+    }
+  }
+
+  // The replayed store and its archive are only needed for the report
+  private static void deleteStore(File store) {
+    try (Stream<Path> paths = Files.walk(store.toPath())) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(path);
+      }
+    } catch (IOException e) {
+      System.err.println("Error removing replay store " + store + ": " + e.getMessage());
+    }
+  }
+
+  private static int intFlag(Map<String, String> flags, String name, int fallback) {
+    String value = flags.get(name);
+    return value == null ? fallback : Integer.parseInt(value);
+  }
+
+  private static void usage() {
+    System.out.println("Usage: WorkloadTool generate <file> [--commands n] [--tasks n] [--read-ratio r]"
+        + " [--rate per-second] [--seed n]");
+    System.out.println("       WorkloadTool replay <file> [--threads n] [--speed x] [--engine memory|file]");
+  }
+}
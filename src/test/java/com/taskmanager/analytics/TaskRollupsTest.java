@@ -0,0 +1,168 @@
+package com.taskmanager.analytics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.enums.Category;
+import com.taskmanager.enums.Status;
+import com.taskmanager.models.Task;
+import com.taskmanager.repositories.TaskRepository;
+
+public class TaskRollupsTest {
+
+  private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 3, 4, 0, 0);
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void sketchQuantilesStayWithinTheirRelativeError() {
+    Random random = new Random(7);
+    DurationSketch first = new DurationSketch();
+    DurationSketch second = new DurationSketch();
+    List<Long> kept = new ArrayList<>();
+    for (int i = 0; i < 20_000; i++) {
+      long seconds = (long) Math.exp(random.nextDouble() * 15); // a second to a month
+      if (i % 2 == 0) {
+        first.add(Duration.ofSeconds(seconds));
+        kept.add(seconds);
+      } else {
+        second.add(Duration.ofSeconds(seconds));
+      }
+      if (i % 4 == 3) {
+        second.remove(Duration.ofSeconds(seconds));
+      } else if (i % 2 == 1) {
+        kept.add(seconds);
+      }
+    }
+    first.merge(second);
+    Collections.sort(kept);
+
+    assertEquals(kept.size(), first.count());
+    for (double q : new double[] { 0.1, 0.5, 0.9, 0.99 }) {
+      long exact = kept.get((int) (q * (kept.size() - 1)));
+      long estimate = first.quantile(q).getSeconds();
+      assertEquals(exact, estimate, Math.max(1, exact * DurationSketch.RELATIVE_ACCURACY), "p" + q);
+    }
+    double mean = kept.stream().mapToLong(Long::longValue).average().orElse(0);
+    assertEquals(mean, first.mean().getSeconds(), 1);
+  }
+
+  @Test
+  public void rollupsFollowChangesAndMergeOverAnyRange() throws Exception {
+    TaskRepository repository = new TaskRepository(new File(tempDir.toFile(), "tasks.json"), false);
+    TaskRollups rollups = new TaskRollups(repository, null);
+    Task report = task("report", MONDAY.plusHours(9), Category.WORK);
+    Task run = task("run", MONDAY.plusHours(10), Category.FITNESS);
+    Task shop = task("shop", MONDAY.plusDays(1).plusHours(8), Category.SHOPPING);
+    report.setDueDate(MONDAY.plusDays(2));
+    shop.setDueDate(MONDAY.plusDays(1).plusHours(12));
+    repository.saveAll(List.of(report, run, shop));
+
+    complete(repository, report, MONDAY.plusDays(1).plusHours(9)); // a day, on time
+    complete(repository, run, MONDAY.plusHours(12)); // two hours
+    complete(repository, shop, MONDAY.plusDays(1).plusHours(18)); // late
+
+    Rollup week = rollups.total(MONDAY, MONDAY.plusWeeks(1));
+    assertEquals(3, week.created());
+    assertEquals(3, week.completed());
+    assertEquals(1, week.completedIn(Category.WORK));
+    assertEquals(2, week.due());
+    assertEquals(1, week.dueOnTime());
+    assertEquals(1, week.dueLate());
+    assertEquals(7_200, week.leadTimes().quantile(0).getSeconds(), 72);
+
+    // Monday 11:00 to Tuesday 10:00: two hours, then a day boundary
+    Rollup partial = rollups.total(MONDAY.plusHours(11), MONDAY.plusDays(1).plusHours(10));
+    assertEquals(1, partial.created());
+    assertEquals(2, partial.completed());
+
+    NavigableMap<LocalDateTime, Rollup> days = rollups.series(MONDAY, MONDAY.plusDays(3), Granularity.DAY);
+    assertEquals(List.of(1L, 2L, 0L), days.values().stream().map(Rollup::completed).toList());
+
+    // Reopening takes the completion back, deleting takes everything back
+    repository.update(run.getId(), task -> task.withStatus(Status.PENDING));
+    repository.deleteById(shop.getId());
+    week = rollups.total(MONDAY, MONDAY.plusWeeks(1));
+    assertEquals(2, week.created());
+    assertEquals(1, week.completed());
+    assertEquals(1, week.due());
+    assertEquals(0, week.completedIn(Category.SHOPPING));
+    assertTrue(rollups.series(MONDAY, MONDAY.plusDays(2), Granularity.HOUR).get(MONDAY.plusDays(1).plusHours(8))
+        .isEmpty());
+  }
+
+  @Test
+  public void reopenedRollupsCatchUpWithoutRebuilding() throws Exception {
+    File file = new File(tempDir.toFile(), "tasks.json");
+    TaskRepository repository = new TaskRepository(file, false);
+    List<Task> tasks = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      tasks.add(task("task " + i, MONDAY.plusHours(i), Category.values()[i % 4]));
+    }
+    repository.saveAll(tasks);
+    for (int i = 0; i < 10; i++) {
+      complete(repository, tasks.get(i), MONDAY.plusDays(1).plusHours(i));
+    }
+    TaskRollups rollups = new TaskRollups(repository, TaskRollups.stateFileFor(file));
+    assertEquals(1, rollups.rebuilds());
+    rollups.close();
+    assertTrue(TaskRollups.stateFileFor(file).exists());
+
+    // Changed while no rollups were listening
+    complete(repository, tasks.get(15), MONDAY.plusDays(2));
+    repository.deleteById(tasks.get(16).getId());
+    repository.archive(List.of(tasks.get(0).getId(), tasks.get(1).getId()));
+    repository.saveTasks();
+
+    TaskRollups reopened = new TaskRollups(repository, TaskRollups.stateFileFor(file));
+    assertEquals(0, reopened.rebuilds());
+    assertEquals(1, reopened.recounts());
+    assertEquals(17, reopened.trackedTasks());
+    Rollup caughtUp = reopened.total(MONDAY, MONDAY.plusWeeks(1));
+    Rollup rebuilt = new TaskRollups(repository, null).total(MONDAY, MONDAY.plusWeeks(1));
+    assertEquals(19, caughtUp.created());
+    assertEquals(11, caughtUp.completed());
+    assertEquals(rebuilt.created(), caughtUp.created());
+    assertEquals(rebuilt.completedByCategory(), caughtUp.completedByCategory());
+    assertEquals(rebuilt.leadTimes().quantile(0.5), caughtUp.leadTimes().quantile(0.5));
+    reopened.close();
+
+    // Only archived while closed: the saved rollups still hold
+    repository.archive(List.of(tasks.get(2).getId()));
+    TaskRollups unchanged = new TaskRollups(repository, TaskRollups.stateFileFor(file));
+    assertEquals(0, unchanged.rebuilds());
+    assertEquals(0, unchanged.recounts());
+    assertEquals(11, unchanged.total(MONDAY, MONDAY.plusWeeks(1)).completed());
+
+    // An archived task deleted later is only known to the archive
+    repository.deleteById(tasks.get(0).getId());
+    assertEquals(10, unchanged.total(MONDAY, MONDAY.plusWeeks(1)).completed());
+    assertEquals(1, unchanged.rebuilds());
+  }
+
+  private static Task task(String title, LocalDateTime createdAt, Category category) {
+    Task task = new Task(title);
+    task.setCreatedAt(createdAt);
+    task.setCategory(category);
+    return task;
+  }
+
+  private static void complete(TaskRepository repository, Task task, LocalDateTime at) throws Exception {
+    task.setStatus(Status.COMPLETED);
+    task.setCompletedAt(at);
+    repository.save(task);
+  }
+}
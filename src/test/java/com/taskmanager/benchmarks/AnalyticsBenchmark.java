@@ -0,0 +1,116 @@
+package com.taskmanager.benchmarks;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import com.taskmanager.analytics.Granularity;
+import com.taskmanager.analytics.TaskRollups;
+import com.taskmanager.enums.Status;
+import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskValue;
+import com.taskmanager.repositories.TaskRepository;
+
+/**
+ * Compares answering a throughput and lead time report by scanning every
+ * task with answering it from the rollups, for a month by day and a year by
+ * week, and reports what keeping the rollups up to date costs writers and
+ * what opening them costs: without a saved file, with one that still
+ * matches the store, and with one the store changed behind.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.taskmanager.benchmarks.AnalyticsBenchmark
+ * -Dexec.args="200000"
+ */
+public class AnalyticsBenchmark {
+  private static final LocalDateTime END = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+  public static void main(String[] args) throws Exception {
+    int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+    System.setProperty("taskmanager.archive.days", "-1");
+    File file = new File(Files.createTempDirectory("analytics-bench").toFile(), "tasks.json");
+    Random random = new Random(8);
+    List<Task> tasks = JsonBenchmark.generateTasks(taskCount, random);
+    for (Task task : tasks) {
+      if (task.getStatus() == Status.COMPLETED) {
+        task.setCompletedAt(task.getCreatedAt().plusMinutes(1 + random.nextInt(20_000)));
+      }
+    }
+    TaskRepository repository = new TaskRepository(file, false);
+    repository.saveAll(tasks);
+    repository.saveTasks();
+
+    long rebuild = System.nanoTime();
+    TaskRollups rollups = new TaskRollups(repository, TaskRollups.stateFileFor(file));
+    rebuild = System.nanoTime() - rebuild;
+    rollups.close();
+    long reload = System.nanoTime();
+    rollups = new TaskRollups(repository, TaskRollups.stateFileFor(file));
+    reload = System.nanoTime() - reload;
+    rollups.close();
+    repository.update(tasks.get(0).getId(), task -> task.withStatus(Status.CANCELLED));
+    long recount = System.nanoTime();
+    rollups = new TaskRollups(repository, TaskRollups.stateFileFor(file));
+    recount = System.nanoTime() - recount;
+    TaskRollups open = rollups;
+
+    System.out.printf("%-22s %14s %14s%n", "report", "full scan", "rollups");
+    for (Granularity granularity : new Granularity[] { Granularity.DAY, Granularity.WEEK }) {
+      LocalDateTime from = granularity == Granularity.DAY ? END.minusDays(30) : END.minusDays(364);
+      long scan = JsonBenchmark.timeNanos(20, () -> scan(repository, from, END, granularity));
+      long merged = JsonBenchmark.timeNanos(200, () -> open.series(from, END, granularity));
+      System.out.printf("%-22s %11.3f ms %11.3f ms%n", granularity == Granularity.DAY ? "30 days by day"
+          : "a year by week", scan / 1e6, merged / 1e6);
+    }
+
+    List<String> ids = tasks.stream().map(Task::getId).toList();
+    repository.removeListener(rollups);
+    double without = churn(repository, ids);
+    repository.addListener(rollups);
+    double with = churn(repository, ids);
+    System.out.printf("%-22s %,11.0f/s %,11.0f/s (without, with rollups)%n", "status changes", without, with);
+    System.out.printf("%-22s %11.1f ms %11.1f ms %11.1f ms (rebuild, unchanged, changed)%n", "open",
+        rebuild / 1e6, reload / 1e6, recount / 1e6);
+    System.out.printf("%-22s %,11d KB%n", "saved rollups", TaskRollups.stateFileFor(file).length() / 1024);
+  }
+
+  // What a report has to do without rollups: look at every task
+  private static Object scan(TaskRepository repository, LocalDateTime from, LocalDateTime to,
+      Granularity granularity) {
+    TreeMap<LocalDateTime, List<Long>> leadTimes = new TreeMap<>();
+    for (TaskValue task : repository.readView()) {
+      LocalDateTime completedAt = task.getCompletedAt();
+      if (task.getStatus() == Status.COMPLETED && completedAt != null && !completedAt.isBefore(from)
+          && completedAt.isBefore(to)) {
+        leadTimes.computeIfAbsent(granularity.start(completedAt), start -> new ArrayList<>())
+            .add(Duration.between(task.getCreatedAt(), completedAt).getSeconds());
+      }
+    }
+    List<Long> percentiles = new ArrayList<>();
+    for (List<Long> period : leadTimes.values()) {
+      Collections.sort(period);
+      percentiles.add(period.get(period.size() / 2));
+      percentiles.add(period.get((int) (period.size() * 0.9)));
+    }
+    return percentiles;
+  }
+
+  private static double churn(TaskRepository repository, List<String> ids) throws Exception {
+    Random random = new Random(12);
+    Status[] statuses = Status.values();
+    int changes = 200_000;
+    long start = System.nanoTime();
+    for (int i = 0; i < changes; i++) {
+      Status status = statuses[random.nextInt(statuses.length)];
+      repository.update(ids.get(random.nextInt(ids.size())), task -> task.withStatus(status));
+    }
+    return changes / ((System.nanoTime() - start) / 1e9);
+  }
+}
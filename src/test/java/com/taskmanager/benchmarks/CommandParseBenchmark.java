@@ -0,0 +1,72 @@
+package com.taskmanager.benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.taskmanager.commands.CommandTokenizer;
+import com.taskmanager.commands.ParsedCommand;
+
+/**
+ * Measures command-line parse throughput: the previous
+ * {@code split("\\s+")} + lower-case + {@code copyOfRange}/{@code join} path
+ * against {@link CommandTokenizer}, over a mix of typical script lines.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.taskmanager.benchmarks.CommandParseBenchmark
+ * -Dexec.args="200000 5"
+ */
+public class CommandParseBenchmark {
+  private static final String[] TEMPLATES = {
+      "add Buy milk and eggs on the way home",
+      "add \"Quarterly report\" priority=high category=work due=2026-12-01 description=\"numbers for Q4\"",
+      "complete 3f2b6c1e-8d4a-4f0e-9b7a-1c2d3e4f5a6b",
+      "list",
+      "list --archived",
+      "repeat 3f2b6c1e-8d4a-4f0e-9b7a-1c2d3e4f5a6b FREQ=WEEKLY;BYDAY=MO,TH",
+      "depend 3f2b6c1e-8d4a-4f0e-9b7a-1c2d3e4f5a6b 9a8b7c6d-5e4f-4a3b-2c1d-0e9f8a7b6c5d",
+      "next 10"
+  };
+
+  private static volatile Object sink;
+
+  public static void main(String[] args) throws Exception {
+    int lines = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+    int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+    Random random = new Random(5);
+    String[] script = new String[lines];
+    for (int i = 0; i < lines; i++) {
+      script[i] = TEMPLATES[random.nextInt(TEMPLATES.length)];
+    }
+    System.out.printf("lines=%d iterations=%d%n", lines, iterations);
+
+    for (int round = 0; round < 2; round++) {
+      String label = round == 0 ? "warm-up " : "measured";
+      report(label, "split   ", JsonBenchmark.timeNanos(iterations, () -> {
+        for (String line : script) {
+          sink = legacyParse(line);
+        }
+        return sink;
+      }), lines);
+      report(label, "tokenize", JsonBenchmark.timeNanos(iterations, () -> {
+        for (String line : script) {
+          ParsedCommand command = CommandTokenizer.parse(line);
+          sink = command.joinArguments(0);
+        }
+        return sink;
+      }), lines);
+    }
+  }
+
+  // Mirrors what processCommand did for every line before the tokenizer
+  private static String legacyParse(String input) {
+    String[] parts = input.trim().split("\\s+");
+    String command = parts[0].toLowerCase();
+    return command + String.join(" ", Arrays.copyOfRange(parts, 1, parts.length));
+  }
+
+  private static void report(String label, String name, long nanosPerIteration, int lines) {
+    System.out.printf("%s %s %8.1f ns/line %,12.0f lines/s%n", label, name,
+        (double) nanosPerIteration / lines, lines * 1e9 / nanosPerIteration);
+  }
+}
@@ -0,0 +1,52 @@
+package com.taskmanager.benchmarks;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.taskmanager.compression.BlockCodec;
+import com.taskmanager.compression.BlockCodecs;
+import com.taskmanager.models.Task;
+import com.taskmanager.serialization.TaskSnapshots;
+
+/**
+ * Save time, load time and file size of a snapshot per codec, against plain
+ * JSON, on a generated store.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.taskmanager.benchmarks.CompressionBenchmark
+ * -Dexec.args="100000 5"
+ */
+public class CompressionBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+    List<Task> tasks = JsonBenchmark.generateTasks(taskCount, new Random(3));
+    File dir = Files.createTempDirectory("compression-bench").toFile();
+
+    List<BlockCodec> codecs = new ArrayList<>();
+    codecs.add(null); // plain JSON
+    codecs.addAll(BlockCodecs.all());
+
+    System.out.printf("tasks=%d iterations=%d cores=%d%n", taskCount, iterations,
+        Runtime.getRuntime().availableProcessors());
+    System.out.printf("%-14s %12s %10s %10s%n", "codec", "bytes", "save ms", "load ms");
+    for (int round = 0; round < 2; round++) {
+      for (BlockCodec codec : codecs) {
+        String name = codec == null ? "json" : codec.name();
+        File file = new File(dir, name + ".snap");
+        file.deleteOnExit();
+
+        long save = JsonBenchmark.timeNanos(iterations, () -> TaskSnapshots.write(file, tasks, codec));
+        long load = JsonBenchmark.timeNanos(iterations, () -> TaskSnapshots.read(file));
+        if (round == 1) {
+          System.out.printf("%-14s %,12d %10.1f %10.1f%n", name, file.length(), save / 1e6, load / 1e6);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.taskmanager.benchmarks;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+
+import com.taskmanager.design.Dashboard;
+import com.taskmanager.design.TaskFormatter;
+import com.taskmanager.enums.Status;
+import com.taskmanager.models.Task;
+import com.taskmanager.repositories.TaskRepository;
+
+/**
+ * Changes tasks as fast as one writer thread can while the {@code watch}
+ * dashboard draws at its frame rate, and reports the writer's throughput
+ * with and without the dashboard listening, and how much the
+ * dashboard wrote per frame compared with repainting the whole screen.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.taskmanager.benchmarks.DashboardBenchmark
+ * -Dexec.args="20000 3"
+ */
+public class DashboardBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+    int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+    File file = Files.createTempFile("dashboard-bench", ".json").toFile();
+    file.deleteOnExit();
+    TaskRepository repository = new TaskRepository(file, false);
+    repository.saveAll(JsonBenchmark.generateTasks(taskCount, new Random(4)));
+    List<String> ids = repository.fetchAll().stream().map(Task::getId).toList();
+
+    System.out.printf("%-18s %,14.0f changes/s%n", "no dashboard", churn(repository, ids, seconds));
+
+    CountingStream counter = new CountingStream();
+    PrintStream out = new PrintStream(counter, false);
+    TaskFormatter formatter = new TaskFormatter();
+    try (Dashboard dashboard = new Dashboard(repository::readView, formatter, out, Dashboard.DEFAULT_FRAME_RATE)) {
+      repository.addListener(dashboard);
+      dashboard.start();
+      double rate = churn(repository, ids, seconds);
+      dashboard.close();
+      repository.removeListener(dashboard);
+
+      Dashboard.Stats stats = dashboard.stats();
+      System.out.printf("%-18s %,14.0f changes/s%n", "dashboard", rate);
+      System.out.printf("%-18s %,14d (%.1f/s)%n", "frames", stats.frames(), stats.frames() / (double) seconds);
+      System.out.printf("%-18s %,14.0f chars%n", "diff per frame", stats.charactersPerFrame());
+      System.out.printf("%-18s %,14d chars%n", "full repaint", fullRepaint(repository, ids, formatter));
+    }
+  }
+
+  private static double churn(TaskRepository repository, List<String> ids, int seconds) throws Exception {
+    Random random = new Random(11);
+    Status[] statuses = Status.values();
+    long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+    long changes = 0;
+    long start = System.nanoTime();
+    while (System.nanoTime() < deadline) {
+      for (int i = 0; i < 100; i++) {
+        Status status = statuses[random.nextInt(statuses.length)];
+        repository.update(ids.get(random.nextInt(ids.size())), task -> task.withStatus(status));
+        changes++;
+      }
+    }
+    return changes / ((System.nanoTime() - start) / 1e9);
+  }
+
+  // The first frame of a new dashboard is a full repaint, here with a full
+  // list of recently changed tasks as during the run
+  private static long fullRepaint(TaskRepository repository, List<String> ids, TaskFormatter formatter)
+      throws Exception {
+    Dashboard dashboard = new Dashboard(repository::readView, formatter, new PrintStream(new CountingStream()), 1);
+    repository.addListener(dashboard);
+    for (int i = 0; i < 100; i++) {
+      repository.update(ids.get(i), task -> task.withStatus(Status.IN_PROGRESS));
+    }
+    dashboard.start();
+    long deadline = System.currentTimeMillis() + 2_000;
+    while (dashboard.stats().frames() == 0 && System.currentTimeMillis() < deadline) {
+      Thread.onSpinWait();
+    }
+    dashboard.close();
+    repository.removeListener(dashboard);
+    return dashboard.stats().characters();
+  }
+
+  private static final class CountingStream extends OutputStream {
+    long bytes;
+
+    @Override
+    public void write(int b) {
+      bytes++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      bytes += len;
+    }
+  }
+}
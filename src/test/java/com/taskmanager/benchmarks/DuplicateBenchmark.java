@@ -0,0 +1,138 @@
+package com.taskmanager.benchmarks;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskValue;
+import com.taskmanager.repositories.TaskRepository;
+import com.taskmanager.services.DuplicateIndex;
+
+/**
+ * Compares looking up the likely duplicates of a new task in the
+ * {@link DuplicateIndex} with comparing it to every open task, and finding
+ * the duplicate clusters of the whole store on all cores with finding them
+ * on one. Titles are drawn from a vocabulary of common task words and
+ * made-up names, skewed towards the common words, and one task in twenty is
+ * a retyped copy of another (different case and punctuation, a word added).
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.taskmanager.benchmarks.DuplicateBenchmark
+ * -Dexec.args="100000"
+ */
+public class DuplicateBenchmark {
+  private static final String[] WORDS = { "review", "budget", "draft", "email", "client", "update", "plan",
+      "meeting", "fix", "deploy", "server", "report", "call", "design", "notes", "order", "invoice", "team",
+      "quarterly", "weekly", "slides", "proposal", "backup", "laptop", "renew", "contract", "schedule", "dentist",
+      "groceries", "flight", "hotel", "taxes", "garden", "paint", "kitchen", "library", "return", "package",
+      "birthday", "gift", "insurance", "car", "service", "bank", "transfer", "passport", "visa", "doctor" };
+  private static final String[] SYLLABLES = { "ka", "lo", "mi", "ren", "to", "sa", "vi", "dor", "el", "an", "ru",
+      "pe", "zi", "mon", "ta", "bel" };
+  private static final int VOCABULARY = 2000;
+
+  public static void main(String[] args) throws Exception {
+    int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    File file = new File(Files.createTempDirectory("duplicate-bench").toFile(), "tasks.json");
+    Random random = new Random(21);
+    List<Task> tasks = new ArrayList<>(taskCount);
+    for (int i = 0; i < taskCount; i++) {
+      String title = i > 0 && random.nextInt(20) == 0
+          ? retype(tasks.get(random.nextInt(i)).getTitle(), random)
+          : title(random);
+      tasks.add(new Task(title));
+    }
+    TaskRepository repository = new TaskRepository(file, false);
+    repository.saveAll(tasks);
+
+    long build = System.nanoTime();
+    DuplicateIndex index = new DuplicateIndex(repository);
+    build = System.nanoTime() - build;
+
+    List<String> probes = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      probes.add(i % 2 == 0 ? retype(tasks.get(random.nextInt(taskCount)).getTitle(), random) : title(random));
+    }
+    long lookups = JsonBenchmark.timeNanos(5, () -> {
+      int found = 0;
+      for (String probe : probes) {
+        found += index.findSimilar(probe, null).size();
+      }
+      return found;
+    });
+    long scans = JsonBenchmark.timeNanos(1, () -> {
+      int found = 0;
+      for (String probe : probes) {
+        found += scan(repository, probe, index.threshold());
+      }
+      return found;
+    });
+    System.out.printf("%-26s %,11.0f µs %,11.0f µs%n", "lookup (index, scan)", lookups / 1e3 / probes.size(),
+        scans / 1e3 / probes.size());
+    System.out.printf("%-26s %,11.0f ms%n", "build index", build / 1e6);
+
+    List<TaskValue> values = repository.readView().stream().toList();
+    int[] clusterCount = new int[1];
+    long parallel = JsonBenchmark.timeNanos(3, () -> {
+      clusterCount[0] = DuplicateIndex.clusters(values, DuplicateIndex.DEFAULT_THRESHOLD).size();
+      return clusterCount[0];
+    });
+    ForkJoinPool single = new ForkJoinPool(1);
+    long sequential = JsonBenchmark.timeNanos(3,
+        () -> single.submit(() -> DuplicateIndex.clusters(values, DuplicateIndex.DEFAULT_THRESHOLD)).get());
+    single.shutdown();
+    System.out.printf("%-26s %,11.0f ms %,11.0f ms (%d cores, 1 thread; %,d clusters)%n", "dedupe", parallel / 1e6,
+        sequential / 1e6, Runtime.getRuntime().availableProcessors(), clusterCount[0]);
+  }
+
+  private static String title(Random random) {
+    StringBuilder title = new StringBuilder();
+    for (int w = 0; w < 3 + random.nextInt(4); w++) {
+      title.append(w == 0 ? "" : " ").append(word(random.nextInt(random.nextInt(VOCABULARY) + 1)));
+    }
+    return Character.toUpperCase(title.charAt(0)) + title.substring(1);
+  }
+
+  // The common words first, then names made of syllables
+  private static String word(int rank) {
+    if (rank < WORDS.length) {
+      return WORDS[rank];
+    }
+    StringBuilder word = new StringBuilder();
+    for (int n = rank; n > 0; n /= SYLLABLES.length) {
+      word.append(SYLLABLES[n % SYLLABLES.length]);
+    }
+    return word.toString();
+  }
+
+  private static String retype(String title, Random random) {
+    String copy = random.nextBoolean() ? title.toLowerCase() : title;
+    return random.nextBoolean() ? copy + "!" : copy + " " + WORDS[random.nextInt(WORDS.length)];
+  }
+
+  // What a lookup costs without the index: compare with every task, here
+  // by the cheaper similarity of words rather than of shingles
+  private static int scan(TaskRepository repository, String title, double threshold) {
+    String[] probe = title.toLowerCase().replaceAll("[^\\p{L}\\p{N}]+", " ").trim().split(" ");
+    int found = 0;
+    for (TaskValue task : repository.readView()) {
+      if (wordJaccard(probe, task.getTitle()) >= threshold) {
+        found++;
+      }
+    }
+    return found;
+  }
+
+  private static double wordJaccard(String[] probe, String title) {
+    List<String> words = List.of(title.toLowerCase().replaceAll("[^\\p{L}\\p{N}]+", " ").trim().split(" "));
+    int shared = 0;
+    for (String word : probe) {
+      shared += words.contains(word) ? 1 : 0;
+    }
+    return (double) shared / (probe.length + words.size() - shared);
+  }
+}
@@ -0,0 +1,113 @@
+package com.taskmanager.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.taskmanager.enums.Category;
+import com.taskmanager.enums.Priority;
+import com.taskmanager.enums.Status;
+import com.taskmanager.models.Task;
+import com.taskmanager.serialization.TaskJson;
+
+/**
+ * Compares the previous JSON path (a new ObjectMapper per repository and a
+ * fresh TypeReference per call) with the shared {@link TaskJson} readers and
+ * writers.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.taskmanager.benchmarks.JsonBenchmark
+ * -Dexec.args="10000 50"
+ *
+ * Add -Dtaskmanager.json.blackbird=true (with -Pblackbird) to include
+ * Blackbird in the shared mapper.
+ */
+public class JsonBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+    int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+    List<Task> tasks = generateTasks(taskCount, new Random(11));
+    byte[] payload = TaskJson.writeTasksAsBytes(tasks);
+    System.out.printf("tasks=%d payload=%,d bytes iterations=%d%n", taskCount, payload.length, iterations);
+
+    for (int round = 0; round < 2; round++) {
+      String label = round == 0 ? "warm-up " : "measured";
+      report(label, "legacy write", timeNanos(iterations, () -> legacyMapper().writeValueAsBytes(tasks)), payload.length);
+      report(label, "shared write", timeNanos(iterations, () -> TaskJson.writeTasksAsBytes(tasks)), payload.length);
+      report(label, "legacy read ", timeNanos(iterations, () -> legacyMapper().readValue(payload,
+          new TypeReference<List<Task>>() {
+          })), payload.length);
+      report(label, "shared read ", timeNanos(iterations, () -> TaskJson.readTasks(payload)), payload.length);
+      // Many small documents is where per-call setup and warm-up dominate
+      report(label, "legacy task ", timeNanos(iterations * 100,
+          () -> legacyMapper().readValue(legacyMapper().writeValueAsBytes(tasks.get(0)), Task.class)), 0);
+      report(label, "shared task ", timeNanos(iterations * 100,
+          () -> TaskJson.readTask(TaskJson.writeTaskAsBytes(tasks.get(0)))), 0);
+    }
+  }
+
+  // Mirrors the mapper TaskRepository used to build for each instance
+  private static ObjectMapper legacyMapper() {
+    ObjectMapper objectMapper = new ObjectMapper();
+    objectMapper.registerModule(new JavaTimeModule());
+    objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    return objectMapper;
+  }
+
+  static List<Task> generateTasks(int count, Random random) throws Exception {
+    List<Task> tasks = new ArrayList<>(count);
+    Priority[] priorities = Priority.values();
+    Status[] statuses = Status.values();
+    Category[] categories = Category.values();
+    LocalDateTime base = LocalDateTime.of(2025, 1, 1, 9, 0);
+    for (int i = 0; i < count; i++) {
+      Task task = new Task("Task number " + i + " for project " + random.nextInt(50));
+      if (random.nextBoolean()) {
+        task.setDescription("Follow up on item " + random.nextInt(10_000) + " with the team");
+      }
+      task.setPriority(priorities[random.nextInt(priorities.length)]);
+      task.setCategory(categories[random.nextInt(categories.length)]);
+      task.setCreatedAt(base.plusMinutes(random.nextInt(500_000)));
+      task.setUpdatedAt(task.getCreatedAt().plusMinutes(random.nextInt(10_000)));
+      if (random.nextInt(3) == 0) {
+        task.setDueDate(task.getCreatedAt().plusDays(random.nextInt(60)));
+      }
+      task.setStatus(statuses[random.nextInt(statuses.length)]);
+      tasks.add(task);
+    }
+    return tasks;
+  }
+
+  interface Body {
+    Object run() throws Exception;
+  }
+
+  static long timeNanos(int iterations, Body body) throws Exception {
+    Object sink = null;
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      sink = body.run();
+    }
+    long elapsed = System.nanoTime() - start;
+    if (sink == null) {
+      throw new IllegalStateException("benchmark body returned null");
+    }
+    return elapsed / iterations;
+  }
+
+  private static void report(String label, String name, long nanosPerOp, int bytes) {
+    if (bytes > 0) {
+      System.out.printf("%s %s %10.3f ms/op %8.1f MB/s%n", label, name, nanosPerOp / 1e6,
+          bytes / (nanosPerOp / 1e9) / (1024 * 1024));
+    } else {
+      System.out.printf("%s %s %10.3f us/op%n", label, name, nanosPerOp / 1e3);
+    }
+  }
+}
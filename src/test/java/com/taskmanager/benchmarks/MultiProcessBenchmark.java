@@ -0,0 +1,126 @@
+package com.taskmanager.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.taskmanager.models.Task;
+import com.taskmanager.repositories.TaskRepository;
+import com.taskmanager.serialization.TaskSnapshots;
+import com.taskmanager.storage.WriterLease;
+
+/**
+ * Starts several JVMs that mutate the same auto-flushing file store at once,
+ * the way cron jobs and an interactive session do, and reports the combined
+ * throughput, the time spent waiting for the writer lease, and how many
+ * created tasks are missing from the file at the end. Each configuration is
+ * run with leases on and, for comparison, off (last writer wins).
+ *
+ * Each process creates tasks, edits shared ones and deletes some of its own,
+ * and reports how many of its tasks should survive.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.taskmanager.benchmarks.MultiProcessBenchmark
+ * -Dexec.args="4 200 2000"
+ */
+public class MultiProcessBenchmark {
+  private static final String RESULT = "RESULT";
+
+  public static void main(String[] args) throws Exception {
+    if (args.length > 0 && args[0].equals("worker")) {
+      worker(new File(args[1]), Integer.parseInt(args[2]), Long.parseLong(args[3]), Long.parseLong(args[4]));
+      return;
+    }
+    int maxProcesses = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+    int opsPerProcess = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+    int storeSize = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+    System.setProperty("taskmanager.archive.days", "-1");
+
+    System.out.printf("%-6s %9s %12s %14s %8s%n", "lease", "processes", "ops/s", "lease wait/op", "lost");
+    for (boolean lease : new boolean[] { true, false }) {
+      for (int processes = 1; processes <= maxProcesses; processes *= 2) {
+        run(lease, processes, opsPerProcess, storeSize);
+      }
+    }
+  }
+
+  private static void run(boolean lease, int processes, int opsPerProcess, int storeSize) throws Exception {
+    File dir = Files.createTempDirectory("multi-process-bench").toFile();
+    File file = new File(dir, "tasks.json");
+    try (TaskRepository seed = new TaskRepository(file, false)) {
+      seed.saveAll(JsonBenchmark.generateTasks(storeSize, new Random(5)));
+    }
+
+    String java = ProcessHandle.current().info().command().orElse("java");
+    long startAt = System.currentTimeMillis() + 1_500; // after every JVM has loaded the store
+    List<Process> workers = new ArrayList<>();
+    for (int p = 0; p < processes; p++) {
+      workers.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+          "-D" + WriterLease.PROPERTY + "=" + lease, "-Dtaskmanager.archive.days=-1",
+          MultiProcessBenchmark.class.getName(), "worker", file.getPath(), String.valueOf(opsPerProcess),
+          String.valueOf(p + 1), String.valueOf(startAt))
+          .redirectError(ProcessBuilder.Redirect.INHERIT)
+          .start());
+    }
+
+    long expected = storeSize;
+    long slowest = 0;
+    long waited = 0;
+    for (Process worker : workers) {
+      try (BufferedReader out = new BufferedReader(new InputStreamReader(worker.getInputStream()))) {
+        String line;
+        while ((line = out.readLine()) != null) {
+          if (line.startsWith(RESULT)) {
+            String[] fields = line.split(" ");
+            expected += Long.parseLong(fields[1]);
+            slowest = Math.max(slowest, Long.parseLong(fields[2]));
+            waited += Long.parseLong(fields[3]);
+          }
+        }
+      }
+      if (worker.waitFor() != 0) {
+        throw new IllegalStateException("Worker exited with " + worker.exitValue());
+      }
+    }
+
+    int actual = TaskSnapshots.read(file).size();
+    long ops = (long) processes * opsPerProcess;
+    System.out.printf("%-6s %9d %,12.0f %11.2f ms %8d%n", lease ? "on" : "off", processes,
+        ops / (slowest / 1e9), waited / 1e6 / ops, expected - actual);
+  }
+
+  private static void worker(File file, int ops, long seed, long startAt) throws Exception {
+    TaskRepository repository = new TaskRepository(file, true);
+    List<String> shared = repository.fetchAll().stream().map(Task::getId).toList();
+    List<String> own = new ArrayList<>();
+    Random random = new Random(seed);
+    Thread.sleep(Math.max(0, startAt - System.currentTimeMillis()));
+
+    long start = System.nanoTime();
+    for (int i = 0; i < ops; i++) {
+      double r = random.nextDouble();
+      if (r < 0.3 && !shared.isEmpty()) {
+        String description = "edited by " + seed + " at " + i;
+        repository.update(shared.get(random.nextInt(shared.size())),
+            task -> task.withDescription(description).withUpdatedAt(LocalDateTime.now()));
+      } else if (r < 0.45 && !own.isEmpty()) {
+        repository.deleteById(own.remove(random.nextInt(own.size())));
+      } else {
+        Task task = new Task("process " + seed + " task " + i);
+        repository.save(task);
+        own.add(task.getId());
+      }
+    }
+    long elapsed = System.nanoTime() - start;
+    WriterLease lease = repository.getWriterLease();
+    long waited = lease == null ? 0 : lease.waited().toNanos();
+    repository.close();
+    System.out.println(RESULT + " " + own.size() + " " + elapsed + " " + waited);
+  }
+}
@@ -0,0 +1,68 @@
+package com.taskmanager.benchmarks;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+
+import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskValue;
+import com.taskmanager.repositories.TaskReadView;
+import com.taskmanager.repositories.TaskRepository;
+
+/**
+ * Cost of taking a consistent view of the store with {@link TaskRepository#fetchAll()}
+ * (a full copy) versus {@link TaskRepository#readView()} (a published
+ * persistent version), and what publishing costs each write.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.taskmanager.benchmarks.ReadViewBenchmark
+ * -Dexec.args="100000 200"
+ */
+public class ReadViewBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+    File dataFile = Files.createTempFile("read-view-bench", ".json").toFile();
+    dataFile.deleteOnExit();
+    TaskRepository repository = new TaskRepository(dataFile, false);
+    List<Task> tasks = JsonBenchmark.generateTasks(taskCount, new Random(5));
+    long start = System.nanoTime();
+    for (Task task : tasks) {
+      repository.save(task);
+    }
+    System.out.printf("tasks=%d save=%,.0f ns/task%n", taskCount, (System.nanoTime() - start) / (double) taskCount);
+
+    for (int round = 0; round < 2; round++) {
+      String label = round == 0 ? "warm-up " : "measured";
+      report(label, "fetchAll    ", JsonBenchmark.timeNanos(iterations, repository::fetchAll));
+      report(label, "readView    ", JsonBenchmark.timeNanos(iterations * 1000, repository::readView));
+      report(label, "view + scan ", JsonBenchmark.timeNanos(iterations, () -> {
+        TaskReadView view = repository.readView();
+        long withDueDate = 0;
+        for (TaskValue task : view) {
+          if (task.getDueDate() != null) {
+            withDueDate++;
+          }
+        }
+        return withDueDate;
+      }));
+      report(label, "copy + scan ", JsonBenchmark.timeNanos(iterations, () -> {
+        long withDueDate = 0;
+        for (Task task : repository.fetchAll()) {
+          if (task.getDueDate() != null) {
+            withDueDate++;
+          }
+        }
+        return withDueDate;
+      }));
+    }
+  }
+
+  private static void report(String label, String name, long nanosPerOp) {
+    System.out.printf("%s %s %,12d ns/op%n", label, name, nanosPerOp);
+  }
+}
@@ -0,0 +1,145 @@
+package com.taskmanager.benchmarks;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpServer;
+import com.taskmanager.enums.ReminderKind;
+import com.taskmanager.enums.Status;
+import com.taskmanager.models.Task;
+import com.taskmanager.notifications.HttpSink;
+import com.taskmanager.notifications.LogFileSink;
+import com.taskmanager.notifications.Reminder;
+import com.taskmanager.notifications.ReminderConfig;
+import com.taskmanager.notifications.ReminderDispatcher;
+import com.taskmanager.notifications.ReminderScanner;
+import com.taskmanager.notifications.ReminderSink;
+import com.taskmanager.repositories.TaskRepository;
+
+/**
+ * Measures what reminders cost the threads raising them and how many the
+ * sinks take per minute: submitting from several threads at once, then
+ * delivering to an in-memory sink, a log file and a local HTTP endpoint
+ * (the JDK's HttpServer, answering 204), and what following the repository
+ * costs writers that move due dates.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.taskmanager.benchmarks.ReminderBenchmark
+ * -Dexec.args="200000"
+ */
+public class ReminderBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int reminderCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+    File dir = Files.createTempDirectory("reminder-bench").toFile();
+    ReminderConfig config = ReminderConfig.defaults().withRatePerMinute(Integer.MAX_VALUE);
+    LocalDateTime now = LocalDateTime.now();
+    List<Reminder> reminders = new ArrayList<>(reminderCount);
+    for (int i = 0; i < reminderCount; i++) {
+      reminders.add(new Reminder("task-" + i, "Task number " + i, i % 3 == 0 ? ReminderKind.OVERDUE
+          : ReminderKind.DUE_SOON, now.plusMinutes(i % 1440), now));
+    }
+
+    // Submitting: 4 threads, each raising every reminder, so 3 in 4 coalesce
+    ReminderDispatcher submitOnly = new ReminderDispatcher(List.of(new CountingSink()), config);
+    int threads = 4;
+    long submit = JsonBenchmark.timeNanos(1, () -> {
+      List<Thread> workers = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        Thread worker = new Thread(() -> reminders.forEach(submitOnly::submit));
+        workers.add(worker);
+        worker.start();
+      }
+      for (Thread worker : workers) {
+        worker.join();
+      }
+      return workers;
+    });
+    submitOnly.close();
+    System.out.printf("%-24s %,10.0f ns per reminder (%d threads, %,d coalesced, %,d dropped)%n", "submit",
+        (double) submit / (threads * (long) reminderCount), threads, submitOnly.stats().coalesced(),
+        submitOnly.stats().dropped());
+
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/reminders", exchange -> {
+      try (InputStream body = exchange.getRequestBody()) {
+        body.readAllBytes();
+      }
+      exchange.sendResponseHeaders(204, -1);
+      exchange.close();
+    });
+    server.start();
+    List<ReminderSink> sinks = List.of(new CountingSink(), new LogFileSink(new File(dir, "reminders.log")),
+        new HttpSink(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/reminders")));
+    // Room for every reminder, so this measures the sinks rather than drops
+    for (ReminderSink sink : sinks) {
+      ReminderDispatcher dispatcher = new ReminderDispatcher(List.of(sink), config.withMaxBacklog(reminderCount));
+      long start = System.nanoTime();
+      reminders.forEach(dispatcher::submit);
+      dispatcher.flushSoon();
+      ReminderDispatcher.Stats stats;
+      do {
+        Thread.sleep(1);
+        stats = dispatcher.stats();
+      } while (stats.delivered() + stats.failed() + stats.dropped() < reminderCount);
+      double seconds = (System.nanoTime() - start) / 1e9;
+      System.out.printf("%-24s %,10.0f per minute (%,d batches, %d failed, %d dropped)%n",
+          "deliver to " + sink.name().replaceAll("^(file|http):.*", "$1"), stats.delivered() / seconds * 60,
+          stats.sinks().get(0).batches(), stats.failed(), stats.dropped());
+      dispatcher.close();
+    }
+    server.stop(0);
+
+    // Writers moving due dates, without and with the scanner following them
+    TaskRepository repository = new TaskRepository(new File(dir, "tasks.json"), false);
+    Random random = new Random(5);
+    List<Task> tasks = JsonBenchmark.generateTasks(100_000, random);
+    repository.saveAll(tasks);
+    List<String> ids = tasks.stream().map(Task::getId).toList();
+    double without = churn(repository, ids);
+    ReminderDispatcher dispatcher = new ReminderDispatcher(List.of(new CountingSink()), config);
+    ReminderScanner scanner = new ReminderScanner(repository, dispatcher, config);
+    repository.addListener(scanner);
+    double with = churn(repository, ids);
+    long scan = JsonBenchmark.timeNanos(5, () -> scanner.scan(LocalDateTime.now()));
+    scanner.close();
+    dispatcher.close();
+    System.out.printf("%-24s %,10.0f/s %,10.0f/s (without, with reminders)%n", "due date changes", without, with);
+    System.out.printf("%-24s %,10.1f ms (%,d tasks)%n", "scan", scan / 1e6, ids.size());
+  }
+
+  private static double churn(TaskRepository repository, List<String> ids) throws Exception {
+    Random random = new Random(12);
+    int changes = 200_000;
+    long start = System.nanoTime();
+    for (int i = 0; i < changes; i++) {
+      LocalDateTime due = LocalDateTime.now().plusHours(random.nextInt(72) - 24);
+      repository.update(ids.get(random.nextInt(ids.size())), task -> task.getStatus() == Status.COMPLETED ? task
+          : task.withDueDate(due));
+    }
+    return changes / ((System.nanoTime() - start) / 1e9);
+  }
+
+  private static class CountingSink implements ReminderSink {
+    private final AtomicLong received = new AtomicLong();
+
+    @Override
+    public String name() {
+      return "memory";
+    }
+
+    @Override
+    public void deliver(List<Reminder> batch) {
+      received.addAndGet(batch.size());
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.taskmanager.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+
+import com.taskmanager.design.RenderCache;
+import com.taskmanager.design.TaskFormatter;
+import com.taskmanager.models.Task;
+
+/**
+ * Cost of rendering the full task list with and without the render cache,
+ * and with a small fraction of the tasks changed between listings.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.taskmanager.benchmarks.RenderCacheBenchmark
+ * -Dexec.args="5000 50"
+ */
+public class RenderCacheBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+    int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+    List<Task> tasks = JsonBenchmark.generateTasks(taskCount, new Random(11));
+
+    TaskFormatter plain = new TaskFormatter();
+    RenderCache cache = new RenderCache(taskCount);
+    TaskFormatter cached = new TaskFormatter(cache);
+    Random random = new Random(3);
+
+    for (int round = 0; round < 2; round++) {
+      String label = round == 0 ? "warm-up " : "measured";
+      report(label, "uncached      ", JsonBenchmark.timeNanos(iterations, () -> plain.formatTaskList(tasks, "Tasks")));
+      report(label, "cached        ", JsonBenchmark.timeNanos(iterations, () -> cached.formatTaskList(tasks, "Tasks")));
+      report(label, "cached, 1% new", JsonBenchmark.timeNanos(iterations, () -> {
+        for (int i = 0; i < taskCount / 100; i++) {
+          cache.onSaved(tasks.get(random.nextInt(taskCount)));
+        }
+        return cached.formatTaskList(tasks, "Tasks");
+      }));
+    }
+    RenderCache.Stats stats = cache.stats();
+    System.out.printf("hit rate %.1f%% (%d hits, %d misses)%n", stats.hitRate() * 100, stats.hits(), stats.misses());
+  }
+
+  private static void report(String label, String name, long nanosPerOp) {
+    System.out.printf("%s %s %,12d ns/list%n", label, name, nanosPerOp);
+  }
+}
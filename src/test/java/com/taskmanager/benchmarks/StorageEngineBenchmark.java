@@ -0,0 +1,78 @@
+package com.taskmanager.benchmarks;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.taskmanager.models.Task;
+import com.taskmanager.storage.StorageConfig;
+import com.taskmanager.storage.StorageCursor;
+import com.taskmanager.storage.StorageEngine;
+import com.taskmanager.storage.StorageEngineProvider;
+import com.taskmanager.storage.StorageEngines;
+import com.taskmanager.storage.WriteBatch;
+
+/**
+ * Runs the same workload against every registered storage engine: a bulk
+ * load as one batch, single-task writes each followed by a flush (what an
+ * auto-flushing repository does), a full scan, and reopening the store.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.taskmanager.benchmarks.StorageEngineBenchmark
+ * -Dexec.args="50000 200"
+ */
+public class StorageEngineBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+    int singleWrites = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+    List<Task> tasks = JsonBenchmark.generateTasks(taskCount, new Random(9));
+
+    for (StorageEngineProvider provider : StorageEngines.all()) {
+      File location = Files.createTempFile("storage-bench-" + provider.name(), ".json").toFile();
+      location.deleteOnExit();
+      StorageConfig config = new StorageConfig(provider.name(), location, Map.of());
+      try (StorageEngine engine = StorageEngines.open(config)) {
+        System.out.printf("%s %s%n", provider.name(), engine.capabilities());
+
+        long start = System.nanoTime();
+        WriteBatch bulk = new WriteBatch();
+        tasks.forEach(bulk::put);
+        engine.write(bulk);
+        engine.flush();
+        report("bulk load", (System.nanoTime() - start) / (double) taskCount, "ns/task");
+
+        start = System.nanoTime();
+        for (int i = 0; i < singleWrites; i++) {
+          Task task = tasks.get(i);
+          task.setDescription("edit " + i);
+          engine.write(new WriteBatch().put(task));
+          engine.flush();
+        }
+        report("write+flush", (System.nanoTime() - start) / (double) singleWrites, "ns/op");
+
+        start = System.nanoTime();
+        long seen = 0;
+        try (StorageCursor cursor = engine.scan()) {
+          while (cursor.hasNext()) {
+            cursor.next();
+            seen++;
+          }
+        }
+        report("scan", (System.nanoTime() - start) / (double) seen, "ns/task");
+      }
+
+      long start = System.nanoTime();
+      try (StorageEngine reopened = StorageEngines.open(config)) {
+        report("reopen (" + reopened.size() + " tasks)", (System.nanoTime() - start) / 1e6, "ms");
+      }
+    }
+  }
+
+  private static void report(String name, double value, String unit) {
+    System.out.printf("  %-24s %,14.0f %s%n", name, value, unit);
+  }
+}
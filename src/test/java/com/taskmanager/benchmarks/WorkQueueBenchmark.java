@@ -0,0 +1,84 @@
+package com.taskmanager.benchmarks;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.taskmanager.enums.Priority;
+import com.taskmanager.models.Task;
+import com.taskmanager.repositories.TaskRepository;
+import com.taskmanager.services.TaskWorkQueue;
+import com.taskmanager.services.TaskWorkQueue.Claim;
+
+/**
+ * Multi-threaded claim/complete throughput of {@link TaskWorkQueue}.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.taskmanager.benchmarks.WorkQueueBenchmark
+ * -Dexec.args="100000 1 2 4 8"
+ *
+ * The repository is in memory only (no auto flush) so the numbers reflect the
+ * queue rather than the JSON file rewrite.
+ */
+public class WorkQueueBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    int[] threadCounts = args.length > 1
+        ? java.util.Arrays.stream(args, 1, args.length).mapToInt(Integer::parseInt).toArray()
+        : new int[] { 1, 2, 4, 8 };
+
+    for (int round = 0; round < 2; round++) {
+      String label = round == 0 ? "warm-up" : "measured";
+      for (int threads : threadCounts) {
+        double opsPerSecond = run(taskCount, threads);
+        System.out.printf("%-8s tasks=%d threads=%d claim+complete/s=%,.0f%n", label, taskCount, threads, opsPerSecond);
+      }
+    }
+  }
+
+  private static double run(int taskCount, int threads) throws Exception {
+    File dataFile = Files.createTempFile("work-queue-bench", ".json").toFile();
+    dataFile.deleteOnExit();
+    TaskRepository repository = new TaskRepository(dataFile, false);
+    Random random = new Random(7);
+    Priority[] priorities = Priority.values();
+    for (int i = 0; i < taskCount; i++) {
+      Task task = new Task("task " + i);
+      task.setPriority(priorities[random.nextInt(priorities.length)]);
+      repository.save(task);
+    }
+
+    ExecutorService workers = Executors.newFixedThreadPool(threads);
+    try (TaskWorkQueue queue = new TaskWorkQueue(repository)) {
+      long start = System.nanoTime();
+      List<Future<Integer>> results = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        results.add(workers.submit(() -> {
+          int done = 0;
+          Optional<Claim> claim;
+          while ((claim = queue.claim()).isPresent()) {
+            queue.complete(claim.get());
+            done++;
+          }
+          return done;
+        }));
+      }
+      int total = 0;
+      for (Future<Integer> result : results) {
+        total += result.get();
+      }
+      long elapsed = System.nanoTime() - start;
+      return total / (elapsed / 1_000_000_000.0);
+    } finally {
+      workers.shutdown();
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package com.taskmanager.commands;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.taskmanager.errors.TaskManagerException;
+
+public class CommandTokenizerTest {
+
+  @Test
+  public void splitsOnWhitespaceRunsAndLowerCasesTheName() throws TaskManagerException {
+    ParsedCommand command = CommandTokenizer.parse("  ADD   buy\tfresh  milk ");
+    assertEquals("add", command.name());
+    assertEquals(List.of("buy", "fresh", "milk"), command.arguments());
+    assertEquals("buy fresh milk", command.joinArguments(0));
+  }
+
+  @Test
+  public void quotesGroupWordsAndEscapesAreHonoured() throws TaskManagerException {
+    ParsedCommand command = CommandTokenizer.parse("add \"Call \\\"Bob\\\"  now\" 'it''s' a\\ b \"\"");
+    assertEquals(List.of("Call \"Bob\"  now", "its", "a b", ""), command.arguments());
+  }
+
+  @Test
+  public void keyValueTokensBecomeOptions() throws TaskManagerException {
+    ParsedCommand command = CommandTokenizer.parse(
+        "add \"Pay rent\" Priority=high description=\"before the 1st\" \"a=b\" =x");
+    assertEquals(List.of("Pay rent", "a=b", "=x"), command.arguments());
+    assertEquals("high", command.option("priority"));
+    assertEquals("before the 1st", command.option("DESCRIPTION"));
+    assertNull(command.option("due"));
+    // Raw tokens keep everything, for arguments that legitimately contain '='
+    assertEquals("Priority=high", command.tokens().get(1));
+  }
+
+  @Test
+  public void recurrenceRulesSurviveThroughTokens() throws TaskManagerException {
+    ParsedCommand command = CommandTokenizer.parse("repeat abc FREQ=WEEKLY;BYDAY=MO,TH");
+    assertEquals("FREQ=WEEKLY;BYDAY=MO,TH", command.joinTokens(1));
+  }
+
+  @Test
+  public void apostrophesInsideWordsAreLiteral() throws TaskManagerException {
+    ParsedCommand command = CommandTokenizer.parse("add Don't forget Bob's milk");
+    assertEquals("Don't forget Bob's milk", command.joinArguments(0));
+    command = CommandTokenizer.parse("add 'tis the season");
+    assertEquals(List.of("'tis", "the", "season"), command.arguments());
+    command = CommandTokenizer.parse("add it's 'quoted words' note='it''s here'");
+    assertEquals(List.of("it's", "quoted words"), command.arguments());
+    assertEquals("its here", command.option("note"));
+  }
+
+  @Test
+  public void unterminatedQuoteIsAnError() {
+    assertThrows(TaskManagerException.class, () -> CommandTokenizer.parse("add \"never closed"));
+  }
+
+  @Test
+  public void emptyInputHasNoName() throws TaskManagerException {
+    assertEquals("", CommandTokenizer.parse("   ").name());
+    assertEquals(0, CommandTokenizer.parse("list").tokenCount());
+  }
+
+  @Test
+  public void registryDispatchesCaseInsensitivelyAndRejectsDuplicates() throws TaskManagerException {
+    CommandRegistry registry = new CommandRegistry();
+    StringBuilder seen = new StringBuilder();
+    registry.register("Greet", command -> seen.append(command.argument(0)), "greet <name>", "Say hello")
+        .describe("greet", "Say hello to nobody");
+    registry.register("greet", command -> seen.append("shadowed"), "greet", "Duplicate");
+
+    registry.lookup("GREET").execute(CommandTokenizer.parse("greet world"));
+    assertEquals("world", seen.toString());
+    assertNull(registry.lookup("unknown"));
+    assertEquals(2, registry.helpEntries().size());
+  }
+}
@@ -0,0 +1,82 @@
+package com.taskmanager.design;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.enums.Status;
+import com.taskmanager.models.Task;
+import com.taskmanager.repositories.TaskRepository;
+
+public class RenderCacheTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void cachedOutputMatchesFreshRendering() throws Exception {
+    Task first = new Task("first");
+    Task second = new Task("second");
+    second.setDescription("with details");
+    List<Task> tasks = List.of(first, second);
+    TaskFormatter plain = new TaskFormatter();
+    TaskFormatter cached = new TaskFormatter(new RenderCache(16));
+
+    assertEquals(plain.formatTaskList(tasks, "Tasks"), cached.formatTaskList(tasks, "Tasks"));
+    assertEquals(plain.formatTaskList(tasks, "Tasks"), cached.formatTaskList(tasks, "Tasks"));
+    assertEquals(plain.formatTaskDetails(second), cached.formatTaskDetails(second));
+
+    RenderCache.Stats stats = cached.getRenderCache().stats();
+    assertEquals(2, stats.hits());
+    assertEquals(3, stats.misses());
+  }
+
+  @Test
+  public void repositoryEditsInvalidateRows() throws Exception {
+    TaskRepository repository = new TaskRepository(new File(tempDir.toFile(), "tasks.json"), false);
+    RenderCache cache = new RenderCache(16);
+    repository.addListener(cache);
+    TaskFormatter formatter = new TaskFormatter(cache);
+    Task blocker = new Task("blocker");
+    Task task = new Task("task");
+    repository.save(blocker);
+    repository.save(task);
+    repository.addDependency(task.getId(), blocker.getId());
+    task = repository.findById(task.getId());
+
+    String before = formatter.formatTask(task);
+    // Same updatedAt, so only the save event tells the cache
+    task.setStatus(Status.IN_PROGRESS);
+    repository.save(task);
+    assertNotEquals(before, formatter.formatTask(task));
+
+    String details = formatter.formatTaskDetails(task);
+    repository.deleteById(blocker.getId());
+    assertNotEquals(details, formatter.formatTaskDetails(repository.findById(task.getId())));
+    assertTrue(cache.stats().invalidations() >= 2);
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsedBeyondCapacity() {
+    RenderCache cache = new RenderCache(2);
+    TaskFormatter formatter = new TaskFormatter(cache);
+    Task a = new Task("a");
+    Task b = new Task("b");
+    Task c = new Task("c");
+    formatter.formatTask(a);
+    formatter.formatTask(b);
+    formatter.formatTask(a);
+    formatter.formatTask(c); // evicts b
+
+    RenderCache.Stats stats = cache.stats();
+    assertEquals(2, stats.size());
+    assertEquals(1, stats.evictions());
+    formatter.formatTask(a);
+    assertEquals(2, cache.stats().hits());
+  }
+}
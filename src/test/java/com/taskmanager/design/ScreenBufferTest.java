@@ -0,0 +1,83 @@
+package com.taskmanager.design;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.models.Task;
+import com.taskmanager.repositories.TaskRepository;
+
+public class ScreenBufferTest {
+
+  private static final String RED = "\u001B[31m";
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void firstFramePaintsEverything() {
+    ScreenBuffer screen = new ScreenBuffer(2, 10);
+    screen.setLine(0, "hello");
+    String diff = screen.diff(null);
+    assertTrue(diff.startsWith("\u001B[2J"));
+    assertTrue(diff.contains("hello"));
+    assertEquals("hello", screen.textOf(0));
+    assertEquals("", screen.textOf(1));
+  }
+
+  @Test
+  public void diffRewritesOnlyChangedCells() {
+    ScreenBuffer before = new ScreenBuffer(3, 40);
+    before.setLine(0, "Total Tasks: 120");
+    before.setLine(1, "unchanged row");
+    ScreenBuffer after = before.blank();
+    after.setLine(0, "Total Tasks: 121");
+    after.setLine(1, "unchanged row");
+
+    assertEquals("\u001B[1;16H1", after.diff(before));
+    assertEquals("", after.diff(after));
+  }
+
+  @Test
+  public void stylesAreCellsToo() {
+    ScreenBuffer before = new ScreenBuffer(1, 20);
+    before.setLine(0, "status: ok");
+    ScreenBuffer after = before.blank();
+    after.setLine(0, "status: " + RED + "ok" + ScreenBuffer.RESET);
+
+    String diff = after.diff(before);
+    assertEquals("\u001B[1;9H" + ScreenBuffer.RESET + RED + "ok" + ScreenBuffer.RESET, diff);
+    assertEquals("status: ok", after.textOf(0));
+  }
+
+  @Test
+  public void dashboardRedrawsOnlyWhatChanged() throws Exception {
+    TaskRepository repository = new TaskRepository(new File(tempDir.toFile(), "tasks.json"), false);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+    Dashboard dashboard = new Dashboard(repository::readView, new TaskFormatter(), out, 10, 40, 120);
+    repository.addListener(dashboard);
+    for (int i = 0; i < 50; i++) {
+      repository.save(new Task("task " + i));
+    }
+
+    String first = dashboard.renderFrame();
+    assertTrue(first.contains("task 49"));
+    assertTrue(first.length() > 1_000);
+
+    Task task = new Task("one more");
+    repository.save(task);
+    String second = dashboard.renderFrame();
+    assertTrue(second.contains("one more"));
+    assertFalse(second.contains("\u001B[2J"));
+    assertTrue(second.length() < first.length() / 2, second.length() + " vs " + first.length());
+    assertEquals(51, dashboard.stats().changes());
+  }
+}
@@ -0,0 +1,59 @@
+package com.taskmanager.diagnostics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.models.Task;
+import com.taskmanager.repositories.TaskRepository;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class TaskEventsTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void bundledSettingsRecordSnapshotsAndRepositoryCalls() throws Exception {
+    File dataFile = new File(tempDir.toFile(), "tasks.json");
+    Path output = tempDir.resolve("tasks.jfr");
+    try (Recording recording = new Recording(Recordings.configuration())) {
+      recording.enable(RepositoryEvent.class).withThreshold(Duration.ZERO);
+      recording.start();
+      TaskRepository repository = new TaskRepository(dataFile, false);
+      repository.save(new Task("first"));
+      repository.save(new Task("second"));
+      repository.saveTasks();
+      repository.close();
+      new TaskRepository(dataFile, false).close();
+      recording.stop();
+      recording.dump(output);
+    }
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(output);
+    RecordedEvent save = find(events, "com.taskmanager.Snapshot", "save");
+    assertEquals(2, save.getInt("taskCount"));
+    assertEquals(dataFile.length(), save.getLong("bytes"));
+    assertTrue(save.getLong("ioTime") <= save.getDuration().toNanos());
+    assertNotNull(find(events, "com.taskmanager.Snapshot", "commit"));
+    assertEquals(2, find(events, "com.taskmanager.Snapshot", "load").getInt("taskCount"));
+    assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.taskmanager.Repository")
+        && "save".equals(e.getString("operation"))));
+  }
+
+  private static RecordedEvent find(List<RecordedEvent> events, String type, String phase) {
+    return events.stream()
+        .filter(e -> e.getEventType().getName().equals(type) && phase.equals(e.getString("phase")))
+        .findFirst()
+        .orElseThrow(() -> new AssertionError("no " + type + " " + phase + " event"));
+  }
+}
@@ -0,0 +1,94 @@
+package com.taskmanager.models;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.taskmanager.enums.Status;
+import com.taskmanager.errors.TaskManagerException;
+
+public class RecurrenceRuleTest {
+
+  @Test
+  public void parsesAndPrintsRule() throws TaskManagerException {
+    RecurrenceRule rule = RecurrenceRule.parse("rrule:freq=weekly;interval=2;byday=mo,th;until=20261231");
+    assertEquals("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH;UNTIL=20261231", rule.toString());
+    assertEquals(rule, RecurrenceRule.parse(rule.toString()));
+  }
+
+  @Test
+  public void rejectsInvalidRules() {
+    assertThrows(TaskManagerException.class, () -> RecurrenceRule.parse("INTERVAL=2"));
+    assertThrows(TaskManagerException.class, () -> RecurrenceRule.parse("FREQ=HOURLY"));
+    assertThrows(TaskManagerException.class, () -> RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=XX"));
+  }
+
+  @Test
+  public void walksWeeklyByDay() throws TaskManagerException {
+    RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=MO,WE");
+    // 2026-10-19 is a Monday
+    List<LocalDateTime> dates = rule.occurrencesFrom(LocalDateTime.of(2026, 10, 18, 9, 0))
+        .limit(4)
+        .collect(Collectors.toList());
+    assertEquals(List.of(
+        LocalDateTime.of(2026, 10, 19, 9, 0),
+        LocalDateTime.of(2026, 10, 21, 9, 0),
+        LocalDateTime.of(2026, 10, 26, 9, 0),
+        LocalDateTime.of(2026, 10, 28, 9, 0)), dates);
+  }
+
+  @Test
+  public void monthlyByMonthDaySkipsShortMonthsAndHonoursUntil() throws TaskManagerException {
+    RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY;BYMONTHDAY=31;UNTIL=20270331");
+    List<LocalDateTime> dates = rule.occurrencesFrom(LocalDateTime.of(2027, 1, 1, 0, 0))
+        .collect(Collectors.toList());
+    assertEquals(List.of(LocalDateTime.of(2027, 1, 31, 0, 0), LocalDateTime.of(2027, 3, 31, 0, 0)), dates);
+
+    RecurrenceRule lastDay = RecurrenceRule.parse("FREQ=MONTHLY;BYMONTHDAY=-1");
+    assertEquals(LocalDateTime.of(2027, 2, 28, 0, 0), lastDay.nextAfter(LocalDateTime.of(2027, 1, 31, 0, 0)));
+  }
+
+  @Test
+  public void monthlyKeepsTheDayOfItsFirstOccurrence() throws TaskManagerException {
+    RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY");
+    List<LocalDateTime> dates = rule.occurrencesFrom(LocalDateTime.of(2027, 1, 31, 9, 0))
+        .limit(3)
+        .collect(Collectors.toList());
+    assertEquals(List.of(
+        LocalDateTime.of(2027, 1, 31, 9, 0),
+        LocalDateTime.of(2027, 3, 31, 9, 0),
+        LocalDateTime.of(2027, 5, 31, 9, 0)), dates);
+    assertEquals("FREQ=MONTHLY;BYMONTHDAY=31", rule.anchoredAt(dates.get(0)).toString());
+
+    // A series whose rule was never anchored stops drifting once completed
+    Task task = new Task("Pay rent");
+    task.setRecurrence(rule);
+    task.setDueDate(LocalDateTime.of(2027, 1, 30, 0, 0));
+    Task next = task.markAsCompleted();
+    assertEquals(LocalDateTime.of(2027, 3, 30, 0, 0), next.getDueDate());
+    assertEquals(LocalDateTime.of(2027, 4, 30, 0, 0), next.markAsCompleted().getDueDate());
+  }
+
+  @Test
+  public void completingOccurrenceBuildsSuccessor() throws TaskManagerException {
+    Task task = new Task("Send weekly report");
+    task.setRecurrence(RecurrenceRule.parse("FREQ=WEEKLY;COUNT=2"));
+    task.setDueDate(LocalDateTime.of(2026, 10, 19, 0, 0));
+    task.setSeriesId(task.getId());
+    task.setOccurrence(1);
+
+    Task successor = task.markAsCompleted();
+    assertEquals(Status.COMPLETED, task.getStatus());
+    assertNotNull(successor);
+    assertEquals(LocalDateTime.of(2026, 10, 26, 0, 0), successor.getDueDate());
+    assertEquals(task.getId(), successor.getSeriesId());
+    assertEquals(2, successor.getOccurrence());
+
+    assertNull(task.markAsCompleted(), "completing twice must not spawn another occurrence");
+    assertNull(successor.markAsCompleted(), "COUNT=2 ends the series");
+  }
+}
@@ -0,0 +1,135 @@
+package com.taskmanager.models;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.enums.Category;
+import com.taskmanager.enums.Priority;
+import com.taskmanager.enums.Status;
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.repositories.TaskRepository;
+import com.taskmanager.serialization.TaskJson;
+
+public class TaskValueTest {
+
+  @TempDir
+  Path tempDir;
+
+  private static Task sampleTask() throws TaskManagerException {
+    Task task = new Task("file taxes", "before the deadline", Priority.HIGH, Category.PERSONAL);
+    task.setDueDate(LocalDateTime.of(2026, 4, 15, 9, 0));
+    task.setRecurrence(RecurrenceRule.parse("FREQ=YEARLY"));
+    task.setSeriesId(task.getId());
+    task.setOccurrence(1);
+    task.setDependsOn(Set.of("other"));
+    return task;
+  }
+
+  @Test
+  public void serializesExactlyLikeTask() throws Exception {
+    Task task = sampleTask();
+    TaskValue value = TaskValue.of(task, 7);
+
+    byte[] fromTask = TaskJson.writeTasksAsBytes(List.of(task));
+    assertArrayEquals(fromTask, TaskJson.writeTaskValuesAsBytes(List.of(value)));
+
+    TaskValue read = TaskJson.mapper().readValue(TaskJson.writeTaskAsBytes(task), TaskValue.class);
+    assertEquals(value, read);
+    assertEquals(0, read.version());
+  }
+
+  @Test
+  public void withMethodsLeaveTheOriginalUntouchedAndShareTheRest() throws Exception {
+    TaskValue original = TaskValue.of(sampleTask(), 3);
+    TaskValue renamed = original.withTitle("file taxes early");
+
+    assertEquals("file taxes", original.getTitle());
+    assertEquals("file taxes early", renamed.getTitle());
+    assertSame(original.getDependsOn(), renamed.getDependsOn());
+    assertSame(original.getRecurrence(), renamed.getRecurrence());
+    assertEquals(0, renamed.version());
+    assertSame(original, original.withPriority(Priority.HIGH));
+    assertNotEquals(original, renamed);
+    assertThrows(TaskManagerException.class, () -> original.withTitle("x".repeat(101)));
+    assertThrows(UnsupportedOperationException.class, () -> original.getDependsOn().add("more"));
+
+    TaskValue completed = original.withStatus(Status.COMPLETED);
+    assertNotNull(completed.getCompletedAt());
+    assertNull(completed.withStatus(Status.CANCELLED).getCompletedAt());
+  }
+
+  @Test
+  public void equalContentsHashAlike() throws Exception {
+    Task task = sampleTask();
+    TaskValue a = TaskValue.of(task, 1);
+    TaskValue b = TaskValue.of(task, 2);
+    assertEquals(a, b);
+    assertEquals(a.hashCode(), b.hashCode());
+  }
+
+  @Test
+  public void repositoryUpdateReplacesInsteadOfMutating() throws Exception {
+    TaskRepository repository = new TaskRepository(new File(tempDir.toFile(), "tasks.json"), false);
+    Task task = new Task("draft");
+    repository.save(task);
+    Task heldByReader = repository.findById(task.getId());
+    TaskValue before = repository.readView().find(task.getId()).orElseThrow();
+
+    TaskValue after = repository.update(task.getId(), current -> current.withTitle("final"));
+
+    assertEquals("draft", heldByReader.getTitle());
+    assertEquals("draft", before.getTitle());
+    assertEquals("final", after.getTitle());
+    assertEquals("final", repository.findById(task.getId()).getTitle());
+    assertTrue(after.version() > before.version());
+    assertSame(after, repository.update(task.getId(), current -> current));
+  }
+
+  @Test
+  public void updateSavesTasksItCreatesAlongWithIt() throws Exception {
+    TaskRepository repository = new TaskRepository(new File(tempDir.toFile(), "tasks.json"), false);
+    Task task = sampleTask();
+    repository.save(task);
+    Task[] successor = new Task[1];
+    repository.update(task.getId(), current -> {
+      successor[0] = current.toTask().markAsCompleted();
+      return current.withStatus(Status.COMPLETED);
+    }, () -> List.of(successor[0]));
+
+    assertEquals(Status.COMPLETED, repository.findById(task.getId()).getStatus());
+    assertEquals(LocalDateTime.of(2027, 4, 15, 9, 0), repository.findById(successor[0].getId()).getDueDate());
+  }
+
+  @Test
+  public void readsAndSavesAreDetachedFromTheStore() throws Exception {
+    TaskRepository repository = new TaskRepository(new File(tempDir.toFile(), "tasks.json"), false);
+    Task blocker = new Task("blocker");
+    Task task = new Task("draft");
+    repository.save(blocker);
+    repository.save(task);
+    Task fetched = repository.findById(task.getId());
+    Task listed = repository.fetchAll().get(1);
+
+    // Edits that were never saved do not reach the store
+    task.setTitle("edited after save");
+    fetched.setStatus(Status.COMPLETED);
+    listed.getDependsOn().add(blocker.getId());
+    repository.addDependency(task.getId(), blocker.getId());
+    repository.updateTimeStamp(task.getId());
+
+    Task stored = repository.findById(task.getId());
+    assertEquals("draft", stored.getTitle());
+    assertEquals(Status.PENDING, stored.getStatus());
+    assertEquals(Set.of(blocker.getId()), stored.getDependsOn());
+    assertTrue(fetched.getDependsOn().isEmpty());
+    assertEquals(stored.getDependsOn(), repository.readView().find(task.getId()).orElseThrow().getDependsOn());
+  }
+}
@@ -0,0 +1,212 @@
+package com.taskmanager.notifications;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.enums.ReminderKind;
+import com.taskmanager.enums.Status;
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.models.Task;
+import com.taskmanager.repositories.TaskRepository;
+
+public class ReminderDispatcherTest {
+
+  @TempDir
+  Path tempDir;
+
+  private static final ReminderConfig FAST = ReminderConfig.defaults()
+      .withBatchInterval(Duration.ofMillis(20))
+      .withRetries(5, Duration.ofMillis(10), Duration.ofMillis(40));
+
+  // Keeps what it receives; fails the first `failures` deliveries
+  private static class RecordingSink implements ReminderSink {
+    final List<List<Reminder>> batches = new ArrayList<>();
+    final AtomicInteger failures;
+
+    RecordingSink(int failures) {
+      this.failures = new AtomicInteger(failures);
+    }
+
+    @Override
+    public String name() {
+      return "recording";
+    }
+
+    @Override
+    public synchronized void deliver(List<Reminder> batch) throws IOException {
+      if (failures.getAndDecrement() > 0) {
+        throw new IOException("unavailable");
+      }
+      batches.add(List.copyOf(batch));
+    }
+
+    synchronized List<Reminder> received() {
+      return batches.stream().flatMap(List::stream).toList();
+    }
+  }
+
+  private static Reminder reminder(String taskId, ReminderKind kind) {
+    LocalDateTime now = LocalDateTime.now();
+    return new Reminder(taskId, "Task " + taskId, kind, now.plusHours(1), now);
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, "timed out");
+      Thread.sleep(5);
+    }
+  }
+
+  @Test
+  public void coalescesRemindersForTheSameTask() {
+    RecordingSink sink = new RecordingSink(0);
+    ReminderDispatcher dispatcher = new ReminderDispatcher(List.of(sink), FAST.withBatchInterval(Duration.ofHours(1)));
+    dispatcher.submit(reminder("a", ReminderKind.DUE_SOON));
+    dispatcher.submit(reminder("b", ReminderKind.DUE_SOON));
+    dispatcher.submit(reminder("a", ReminderKind.OVERDUE));
+    dispatcher.close();
+
+    List<Reminder> received = sink.received();
+    assertEquals(1, sink.batches.size());
+    assertEquals(2, received.size());
+    assertEquals(ReminderKind.OVERDUE, received.stream().filter(r -> r.taskId().equals("a")).findFirst()
+        .orElseThrow().kind());
+    ReminderDispatcher.Stats stats = dispatcher.stats();
+    assertEquals(3, stats.submitted());
+    assertEquals(1, stats.coalesced());
+    assertEquals(2, stats.delivered());
+  }
+
+  @Test
+  public void retriesFailedDeliveriesWithBackoff() throws InterruptedException {
+    RecordingSink flaky = new RecordingSink(2);
+    RecordingSink broken = new RecordingSink(Integer.MAX_VALUE);
+    ReminderDispatcher dispatcher = new ReminderDispatcher(List.of(flaky, broken), FAST);
+    dispatcher.submit(reminder("a", ReminderKind.OVERDUE));
+
+    await(() -> dispatcher.stats().sinks().get(1).failed() == 1 && dispatcher.stats().sinks().get(0).delivered() == 1);
+    assertEquals(1, flaky.received().size());
+    ReminderDispatcher.SinkStats flakyStats = dispatcher.stats().sinks().get(0);
+    assertEquals(2, flakyStats.retries());
+    assertEquals(1, flakyStats.delivered());
+    ReminderDispatcher.SinkStats brokenStats = dispatcher.stats().sinks().get(1);
+    assertEquals(4, brokenStats.retries());
+    assertEquals("unavailable", brokenStats.lastError());
+    dispatcher.close();
+  }
+
+  @Test
+  public void limitsTheRateOfEachSink() throws InterruptedException {
+    RecordingSink sink = new RecordingSink(0);
+    ReminderDispatcher dispatcher = new ReminderDispatcher(List.of(sink), FAST.withRatePerMinute(60));
+    for (int i = 0; i < 200; i++) {
+      dispatcher.submit(reminder("task-" + i, ReminderKind.DUE_SOON));
+    }
+    await(() -> sink.received().size() >= 60);
+    Thread.sleep(200);
+    // A minute's worth at once, then one a second
+    assertTrue(sink.received().size() <= 61, sink.received().size() + " delivered");
+    assertTrue(dispatcher.stats().sinks().get(0).backlog() >= 139);
+    dispatcher.close();
+  }
+
+  @Test
+  public void aStuckSinkBlocksNeitherSubmitNorOtherSinks() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    ReminderSink stuck = new ReminderSink() {
+      @Override
+      public String name() {
+        return "stuck";
+      }
+
+      @Override
+      public void deliver(List<Reminder> batch) {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    };
+    RecordingSink working = new RecordingSink(0);
+    ReminderDispatcher dispatcher = new ReminderDispatcher(List.of(stuck, working),
+        FAST.withRatePerMinute(10_000_000));
+    long start = System.nanoTime();
+    for (int i = 0; i < 20_000; i++) {
+      dispatcher.submit(reminder("task-" + i, ReminderKind.OVERDUE));
+    }
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+
+    await(() -> working.received().size() == 20_000);
+    release.countDown();
+    dispatcher.close();
+  }
+
+  @Test
+  public void commandSinkTimesOutCommandsThatNeverReadTheirInput() {
+    // Far more than a pipe buffer holds, so writing it blocks until the command is killed
+    List<Reminder> batch = new ArrayList<>();
+    for (int i = 0; i < 5_000; i++) {
+      batch.add(reminder("task-" + i, ReminderKind.DUE_SOON));
+    }
+    CommandSink sink = new CommandSink(List.of("sleep", "60"), Duration.ofMillis(300));
+    long start = System.nanoTime();
+    IOException e = assertThrows(IOException.class, () -> sink.deliver(batch));
+    assertTrue(e.getMessage().contains("did not finish"));
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+  }
+
+  @Test
+  public void scannerRemindsOncePerKindAndDueDate() throws TaskManagerException, InterruptedException {
+    TaskRepository repository = new TaskRepository(new File(tempDir.toFile(), "tasks.json"), false);
+    LocalDateTime now = LocalDateTime.now();
+    Task soon = save(repository, "Soon", now.plusHours(2), Status.PENDING);
+    Task late = save(repository, "Late", now.minusHours(2), Status.IN_PROGRESS);
+    save(repository, "Later", now.plusDays(3), Status.PENDING);
+    save(repository, "Done", now.minusHours(2), Status.COMPLETED);
+    save(repository, "Someday", null, Status.PENDING);
+
+    RecordingSink sink = new RecordingSink(0);
+    ReminderDispatcher dispatcher = new ReminderDispatcher(List.of(sink), FAST);
+    ReminderScanner scanner = new ReminderScanner(repository, dispatcher, FAST);
+    assertEquals(2, scanner.scan(now));
+    assertEquals(0, scanner.scan(now.plusMinutes(1)));
+    // Becoming overdue is a new reminder
+    assertEquals(1, scanner.scan(now.plusHours(3)));
+
+    // Moving the due date is checked as the task is saved
+    repository.addListener(scanner);
+    repository.update(late.getId(), task -> task.withDueDate(LocalDateTime.now().plusHours(1)));
+    // The two reminders of the first task may be coalesced into one
+    await(() -> dispatcher.stats().delivered() + dispatcher.stats().coalesced() == 4);
+    List<Reminder> received = sink.received();
+    assertTrue(received.stream().anyMatch(r -> r.taskId().equals(late.getId()) && r.kind() == ReminderKind.DUE_SOON));
+    assertTrue(received.stream().anyMatch(r -> r.taskId().equals(soon.getId()) && r.kind() == ReminderKind.OVERDUE));
+    scanner.close();
+    dispatcher.close();
+  }
+
+  private static Task save(TaskRepository repository, String title, LocalDateTime dueDate, Status status)
+      throws TaskManagerException {
+    Task task = new Task(title);
+    task.setDueDate(dueDate);
+    task.setStatus(status);
+    repository.save(task);
+    return task;
+  }
+}
@@ -0,0 +1,173 @@
+package com.taskmanager.replication;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.enums.AckMode;
+import com.taskmanager.enums.Status;
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.models.Task;
+import com.taskmanager.repositories.TaskRepository;
+
+public class ReplicationTest {
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @TempDir
+  Path tempDir;
+
+  private TaskRepository primaryStore;
+  private TaskRepository followerStore;
+  private ReplicationPrimary primary;
+  private ReplicationFollower follower;
+
+  @BeforeEach
+  public void setUp() {
+    primaryStore = new TaskRepository(new File(tempDir.toFile(), "primary.json"), false);
+    followerStore = new TaskRepository(new File(tempDir.toFile(), "follower.json"), true);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    if (follower != null) {
+      follower.close();
+    }
+    if (primary != null) {
+      primary.close();
+    }
+  }
+
+  private void connect(AckMode ackMode) throws Exception {
+    primary = new ReplicationPrimary(primaryStore, ReplicationConfig.defaults().withAckMode(ackMode));
+    int port = primary.start(0);
+    follower = new ReplicationFollower(followerStore, "127.0.0.1", port);
+    follower.start();
+  }
+
+  @Test
+  public void followerReceivesSnapshotThenStreamedMutations() throws Exception {
+    Task existing = new Task("existed before the follower connected");
+    primaryStore.save(existing);
+    connect(AckMode.ASYNC);
+
+    Task added = new Task("added while following");
+    primaryStore.save(added);
+    existing.setStatus(Status.COMPLETED);
+    primaryStore.save(existing);
+    Task doomed = new Task("deleted while following");
+    primaryStore.save(doomed);
+    primaryStore.deleteById(doomed.getId());
+
+    assertTrue(follower.awaitSequence(primary.lastSequence(), TIMEOUT));
+    assertEquals(Status.COMPLETED, followerStore.findById(existing.getId()).getStatus());
+    assertEquals("added while following", followerStore.findById(added.getId()).getTitle());
+    assertThrows(TaskManagerException.class, () -> followerStore.findById(doomed.getId()));
+    assertEquals(2, followerStore.fetchAll().size());
+    assertEquals(0, follower.status().lagMutations());
+  }
+
+  @Test
+  public void archivedTasksLeaveTheFollowersLiveStore() throws Exception {
+    connect(AckMode.ASYNC);
+    Task done = new Task("old and done");
+    done.setStatus(Status.COMPLETED);
+    done.setCompletedAt(LocalDateTime.now().minusDays(90));
+    primaryStore.save(done);
+    primaryStore.archiveClosedBefore(LocalDateTime.now().minusDays(30));
+
+    assertTrue(follower.awaitSequence(primary.lastSequence(), TIMEOUT));
+    assertTrue(followerStore.fetchAll().isEmpty());
+    assertEquals(done.getId(), followerStore.findById(done.getId()).getId());
+  }
+
+  @Test
+  public void waitForFollowerReturnsOnlyOnceApplied() throws Exception {
+    connect(AckMode.WAIT_FOR_FOLLOWER);
+    waitForSession();
+
+    for (int i = 0; i < 20; i++) {
+      Task task = new Task("sync " + i);
+      primaryStore.save(task);
+      // The write only returns after the follower acknowledged it
+      assertEquals(task.getTitle(), followerStore.findById(task.getId()).getTitle());
+    }
+    assertEquals(0, primary.ackTimeouts());
+  }
+
+  @Test
+  public void writersWaitForAcksOutsideTheRepositoryLock() throws Exception {
+    primary = new ReplicationPrimary(primaryStore, ReplicationConfig.defaults()
+        .withAckMode(AckMode.WAIT_FOR_FOLLOWER).withAckTimeout(Duration.ofSeconds(2)));
+    int port = primary.start(0);
+    try (Socket socket = new Socket("127.0.0.1", port)) {
+      // A follower that takes the snapshot and then never acknowledges again
+      DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+      DataInputStream in = new DataInputStream(socket.getInputStream());
+      ReplicationProtocol.writeHello(out, null, 0);
+      out.flush();
+      assertEquals(ReplicationProtocol.SNAPSHOT, in.readByte());
+      in.readUTF();
+      long sequence = in.readLong();
+      in.readFully(new byte[in.readInt()]);
+      in.readFully(new byte[in.readInt()]);
+      out.writeLong(sequence);
+      out.flush();
+      waitForSession();
+
+      Thread writer = new Thread(() -> {
+        try {
+          primaryStore.save(new Task("never acknowledged"));
+        } catch (TaskManagerException e) {
+          throw new IllegalStateException(e);
+        }
+      });
+      writer.start();
+      while (primary.lastSequence() == sequence) {
+        Thread.sleep(1);
+      }
+      // findReady takes the repository lock
+      long start = System.nanoTime();
+      assertEquals(1, primaryStore.findReady(10).size());
+      assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos(), "blocked behind the waiting writer");
+      assertTrue(writer.isAlive());
+      writer.join();
+      assertTrue(primary.ackTimeouts() >= 1);
+    }
+  }
+
+  @Test
+  public void promotedFollowerKeepsReplicatedStateAndAcceptsWrites() throws Exception {
+    connect(AckMode.ASYNC);
+    Task task = new Task("replicated");
+    primaryStore.save(task);
+    assertTrue(follower.awaitSequence(primary.lastSequence(), TIMEOUT));
+
+    primary.close();
+    follower.promote();
+    assertTrue(follower.status().promoted());
+    followerStore.save(new Task("written after promotion"));
+
+    TaskRepository reopened = new TaskRepository(new File(tempDir.toFile(), "follower.json"), false);
+    assertEquals(2, reopened.fetchAll().size());
+    assertEquals("replicated", reopened.findById(task.getId()).getTitle());
+  }
+
+  private void waitForSession() throws InterruptedException {
+    long deadline = System.nanoTime() + TIMEOUT.toNanos();
+    while (primary.followers().isEmpty() && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertFalse(primary.followers().isEmpty());
+  }
+}
@@ -0,0 +1,125 @@
+package com.taskmanager.repositories;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.taskmanager.enums.Priority;
+import com.taskmanager.enums.Status;
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.models.Task;
+
+public class DependencyGraphTest {
+
+  private Task task(String title, Priority priority) {
+    Task task = new Task(title);
+    task.setPriority(priority);
+    return task;
+  }
+
+  @Test
+  public void completingBlockerReleasesDependents() throws TaskManagerException {
+    DependencyGraph graph = new DependencyGraph();
+    Task design = task("design", Priority.LOW);
+    Task build = task("build", Priority.URGENT);
+    Task ship = task("ship", Priority.HIGH);
+    graph.track(design);
+    graph.track(build);
+    graph.track(ship);
+    graph.addEdge(build.getId(), design.getId());
+    graph.addEdge(ship.getId(), build.getId());
+
+    assertEquals(List.of(design.getId()), graph.ready(10));
+    assertTrue(graph.ready(0).isEmpty());
+    assertTrue(graph.ready(-1).isEmpty());
+
+    design.setStatus(Status.COMPLETED);
+    graph.track(design);
+    assertEquals(List.of(build.getId()), graph.ready(10));
+
+    build.setStatus(Status.COMPLETED);
+    graph.track(build);
+    assertEquals(List.of(ship.getId()), graph.ready(10));
+
+    build.setStatus(Status.PENDING);
+    graph.track(build);
+    assertEquals(List.of(build.getId()), graph.ready(10), "reopening a blocker blocks its dependents again");
+  }
+
+  @Test
+  public void orderedByPriorityAndDeletionUnblocks() throws TaskManagerException {
+    DependencyGraph graph = new DependencyGraph();
+    Task low = task("low", Priority.LOW);
+    Task urgent = task("urgent", Priority.URGENT);
+    Task medium = task("medium", Priority.MEDIUM);
+    graph.track(low);
+    graph.track(urgent);
+    graph.track(medium);
+    assertEquals(List.of(urgent.getId(), medium.getId(), low.getId()), graph.ready(10));
+    assertEquals(List.of(urgent.getId()), graph.ready(1));
+
+    graph.addEdge(urgent.getId(), low.getId());
+    assertFalse(graph.isReady(urgent.getId()));
+    graph.untrack(low.getId());
+    assertTrue(graph.isReady(urgent.getId()));
+  }
+
+  @Test
+  public void rejectsCycles() throws TaskManagerException {
+    DependencyGraph graph = new DependencyGraph();
+    Task a = task("a", Priority.MEDIUM);
+    Task b = task("b", Priority.MEDIUM);
+    Task c = task("c", Priority.MEDIUM);
+    graph.track(a);
+    graph.track(b);
+    graph.track(c);
+    graph.addEdge(a.getId(), b.getId());
+    graph.addEdge(b.getId(), c.getId());
+
+    assertThrows(TaskManagerException.class, () -> graph.addEdge(c.getId(), a.getId()));
+    assertThrows(TaskManagerException.class, () -> graph.addEdge(a.getId(), a.getId()));
+    assertEquals(1, graph.unresolvedCount(a.getId()));
+    assertEquals(0, graph.unresolvedCount(c.getId()));
+  }
+
+  @Test
+  public void scalesToHundredsOfThousandsOfEdges() throws TaskManagerException {
+    DependencyGraph graph = new DependencyGraph();
+    Random random = new Random(42);
+    List<Task> tasks = new ArrayList<>();
+    for (int i = 0; i < 50_000; i++) {
+      Task task = task("t" + i, Priority.values()[random.nextInt(Priority.values().length)]);
+      tasks.add(task);
+      graph.track(task);
+    }
+    // Edges point from later tasks to earlier ones in a shuffled ranking, so the
+    // graph stays acyclic while most insertions still force a reorder.
+    List<Task> ranking = new ArrayList<>(tasks);
+    java.util.Collections.shuffle(ranking, random);
+    int edges = 0;
+    while (edges < 200_000) {
+      int x = random.nextInt(ranking.size());
+      int y = random.nextInt(ranking.size());
+      if (x == y) {
+        continue;
+      }
+      Task dependent = ranking.get(Math.max(x, y));
+      Task blocker = ranking.get(Math.min(x, y));
+      if (graph.addEdge(dependent.getId(), blocker.getId())) {
+        edges++;
+      }
+    }
+    assertTrue(graph.isReady(ranking.get(0).getId()));
+
+    for (Task task : ranking) {
+      assertTrue(graph.isReady(task.getId()));
+      task.setStatus(Status.COMPLETED);
+      graph.track(task);
+    }
+    assertTrue(graph.ready(10).isEmpty());
+  }
+}
@@ -0,0 +1,74 @@
+package com.taskmanager.repositories;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.compression.BlockCodecs;
+import com.taskmanager.enums.Status;
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.models.Task;
+
+public class TaskArchiveTest {
+
+  @TempDir
+  Path tempDir;
+
+  private Task closedTask(String title, Status status, LocalDateTime closedAt) {
+    Task task = new Task(title);
+    task.setStatus(status);
+    task.setCompletedAt(status == Status.COMPLETED ? closedAt : null);
+    task.setUpdatedAt(closedAt);
+    return task;
+  }
+
+  @Test
+  public void archivesOldClosedTasksAndFallsThroughOnLookup() throws TaskManagerException {
+    File dataFile = new File(tempDir.toFile(), "tasks.json");
+    TaskRepository repository = new TaskRepository(dataFile, true);
+    LocalDateTime now = LocalDateTime.now();
+    Task oldDone = closedTask("old done", Status.COMPLETED, now.minusDays(90));
+    Task oldCancelled = closedTask("old cancelled", Status.CANCELLED, now.minusDays(60));
+    Task recentDone = closedTask("recent done", Status.COMPLETED, now.minusDays(1));
+    Task open = new Task("open");
+    for (Task task : new Task[] { oldDone, oldCancelled, recentDone, open }) {
+      repository.save(task);
+    }
+
+    assertEquals(2, repository.archiveClosedBefore(now.minusDays(30)));
+    assertEquals(2, repository.fetchAll().size());
+    assertEquals("old done", repository.findById(oldDone.getId()).getTitle());
+    assertEquals(2, repository.fetchArchived().size());
+
+    // A fresh instance reads the index from disk and still resolves archived ids
+    TaskRepository reopened = new TaskRepository(dataFile, true);
+    assertEquals(2, reopened.fetchAll().size());
+    assertEquals("old cancelled", reopened.findById(oldCancelled.getId()).getTitle());
+
+    reopened.deleteById(oldCancelled.getId());
+    assertThrows(TaskManagerException.class, () -> reopened.findById(oldCancelled.getId()));
+    assertEquals(1, new TaskRepository(dataFile, true).fetchArchived().size());
+  }
+
+  @Test
+  public void rebuildsMissingIndexFromSegment() throws TaskManagerException {
+    File segment = new File(tempDir.toFile(), "a.seg");
+    File index = new File(tempDir.toFile(), "a.idx");
+    TaskArchive archive = new TaskArchive(segment, index, BlockCodecs.defaultCodec());
+    Task first = closedTask("first", Status.COMPLETED, LocalDateTime.now());
+    Task second = closedTask("second", Status.COMPLETED, LocalDateTime.now());
+    archive.append(java.util.List.of(first));
+    archive.append(java.util.List.of(second));
+
+    assertTrue(index.delete());
+    TaskArchive rebuilt = new TaskArchive(segment, index, BlockCodecs.defaultCodec());
+    assertEquals(2, rebuilt.size());
+    assertEquals("second", rebuilt.find(second.getId()).getTitle());
+    assertNull(rebuilt.find("missing"));
+  }
+}
@@ -0,0 +1,158 @@
+package com.taskmanager.repositories;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.enums.Status;
+import com.taskmanager.interfaces.TaskRepositoryListener;
+import com.taskmanager.models.Task;
+import com.taskmanager.serialization.TaskSnapshots;
+import com.taskmanager.storage.FileStorageEngine;
+
+public class TaskFileWatcherTest {
+
+  @TempDir
+  Path tempDir;
+
+  private File file;
+  private TaskRepository repository;
+  private final List<String> events = new ArrayList<>();
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    file = new File(tempDir.toFile(), "tasks.json");
+    repository = new TaskRepository(file, false);
+    for (String title : List.of("kept", "edited", "deleted")) {
+      repository.save(new Task(title));
+    }
+    repository.saveTasks();
+    repository.addListener(new TaskRepositoryListener() {
+      @Override
+      public void onSaved(Task task) {
+        events.add("saved " + task.getTitle());
+      }
+
+      @Override
+      public void onDeleted(String taskId) {
+        events.add("deleted " + taskId);
+      }
+    });
+  }
+
+  @Test
+  public void mergeAppliesOnlyTasksChangedInTheFile() throws Exception {
+    Task localOnly = new Task("not flushed yet");
+    repository.save(localOnly);
+    Task edited = byTitle(repository, "edited");
+    Task deleted = byTitle(repository, "deleted");
+
+    // Another process opens the same file and changes it
+    TaskRepository other = new TaskRepository(file, true);
+    Task otherEdit = byTitle(other, "edited");
+    otherEdit.setTitle("edited elsewhere");
+    otherEdit.setUpdatedAt(LocalDateTime.now().plusMinutes(1));
+    other.save(otherEdit);
+    other.deleteById(deleted.getId());
+    other.save(new Task("added elsewhere"));
+
+    events.clear();
+    FileStorageEngine.Fingerprint fingerprint = FileStorageEngine.Fingerprint.of(file);
+    TaskRepository.ExternalChanges changes = repository.mergeExternal(TaskSnapshots.read(file), fingerprint)
+        .orElseThrow();
+
+    assertEquals(new TaskRepository.ExternalChanges(1, 1, 1), changes);
+    assertEquals("edited elsewhere", repository.findById(edited.getId()).getTitle());
+    assertFalse(repository.findIfPresent(deleted.getId()).isPresent());
+    assertTrue(repository.findIfPresent(localOnly.getId()).isPresent());
+    assertEquals(4, repository.readView().size());
+    assertEquals(List.of("saved edited elsewhere", "saved added elsewhere", "deleted " + deleted.getId()), events);
+
+    // The same file again is a no-op, and a stale read is refused
+    assertTrue(repository.mergeExternal(TaskSnapshots.read(file), fingerprint).orElseThrow().isEmpty());
+    other.save(new Task("later"));
+    assertTrue(repository.mergeExternal(List.of(), fingerprint).isEmpty());
+    other.close();
+  }
+
+  @Test
+  public void mergePatchesTheDependencyGraphWithChangedEdges() throws Exception {
+    Task kept = byTitle(repository, "kept");
+    Task edited = byTitle(repository, "edited");
+    repository.addDependency(edited.getId(), kept.getId());
+    repository.saveTasks();
+    assertFalse(repository.isReady(edited.getId()));
+
+    // Another process reverses the edge and blocks kept on a new task too
+    TaskRepository other = new TaskRepository(file, true);
+    Task added = new Task("added elsewhere");
+    other.save(added);
+    Task otherEdited = byTitle(other, "edited");
+    otherEdited.setDependsOn(new LinkedHashSet<>());
+    otherEdited.setUpdatedAt(LocalDateTime.now().plusMinutes(1));
+    other.save(otherEdited);
+    Task otherKept = byTitle(other, "kept");
+    otherKept.setDependsOn(new LinkedHashSet<>(List.of(edited.getId(), added.getId())));
+    otherKept.setUpdatedAt(LocalDateTime.now().plusMinutes(1));
+    other.save(otherKept);
+    other.close();
+
+    repository.mergeExternal(TaskSnapshots.read(file), FileStorageEngine.Fingerprint.of(file)).orElseThrow();
+
+    assertTrue(repository.isReady(edited.getId()));
+    assertTrue(repository.isReady(added.getId()));
+    assertFalse(repository.isReady(kept.getId()));
+    assertEquals(Set.of(edited.getId(), added.getId()), repository.findById(kept.getId()).getDependsOn());
+    repository.update(edited.getId(), task -> task.withStatus(Status.COMPLETED));
+    repository.update(added.getId(), task -> task.withStatus(Status.COMPLETED));
+    assertTrue(repository.isReady(kept.getId()));
+  }
+
+  @Test
+  public void watcherWaitsForHalfWrittenFileThenMerges() throws Exception {
+    List<Task> external = new ArrayList<>(repository.fetchAll());
+    external.add(new Task("written by hand"));
+    File staged = new File(tempDir.toFile(), "staged.json");
+    TaskSnapshots.write(staged, external, null);
+    byte[] complete = Files.readAllBytes(staged.toPath());
+
+    try (TaskFileWatcher watcher = new TaskFileWatcher(repository)) {
+      watcher.start();
+      Files.write(file.toPath(), Arrays.copyOf(complete, complete.length / 2));
+      Thread.sleep(4 * TaskFileWatcher.SETTLE_MILLIS);
+      assertEquals(3, repository.readView().size());
+
+      Files.write(file.toPath(), complete);
+      long deadline = System.currentTimeMillis() + 10_000;
+      while (watcher.merges() == 0 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(20);
+      }
+      assertEquals(1, watcher.merges());
+      assertTrue(watcher.partialReads() > 0);
+      assertEquals(new TaskRepository.ExternalChanges(1, 0, 0), watcher.lastChanges());
+      assertEquals(4, repository.readView().size());
+
+      // Our own flush is not mistaken for an external change
+      repository.save(new Task("local"));
+      repository.saveTasks();
+      Thread.sleep(4 * TaskFileWatcher.SETTLE_MILLIS);
+      assertEquals(1, watcher.merges());
+    }
+  }
+
+  private static Task byTitle(TaskRepository repository, String title) {
+    return repository.fetchAll().stream().filter(task -> task.getTitle().equals(title)).findFirst().orElseThrow();
+  }
+}
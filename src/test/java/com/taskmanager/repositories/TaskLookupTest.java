@@ -0,0 +1,100 @@
+package com.taskmanager.repositories;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.compression.BlockCodecs;
+import com.taskmanager.enums.Status;
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.models.Task;
+
+public class TaskLookupTest {
+
+  @TempDir
+  Path tempDir;
+
+  private Task taskWithId(String id) {
+    Task task = new Task("task " + id);
+    task.setId(id);
+    return task;
+  }
+
+  @Test
+  public void resolvesUnambiguousPrefixes() throws TaskManagerException {
+    TaskRepository repository = new TaskRepository(new File(tempDir.toFile(), "tasks.json"), false);
+    repository.save(taskWithId("abcd1111-0000"));
+    repository.save(taskWithId("abcd2222-0000"));
+    repository.save(taskWithId("ffff0000-0000"));
+
+    assertEquals("abcd2222-0000", repository.resolveId("abcd2"));
+    assertEquals("ffff0000-0000", repository.resolveId("ffff"));
+    assertEquals("abcd1111-0000", repository.resolveId("abcd1111-0000"));
+    assertThrows(TaskManagerException.class, () -> repository.resolveId("abcd"), "ambiguous");
+    assertThrows(TaskManagerException.class, () -> repository.resolveId("ff"), "too short");
+    assertThrows(TaskManagerException.class, () -> repository.resolveId("0123"), "no match");
+    assertEquals(5, repository.shortIdLength("abcd1111-0000"));
+
+    repository.deleteById("abcd1111-0000");
+    assertEquals("abcd2222-0000", repository.resolveId("abcd"));
+  }
+
+  @Test
+  public void optionalLookupDoesNotThrowOnMisses() throws TaskManagerException {
+    TaskRepository repository = new TaskRepository(new File(tempDir.toFile(), "tasks.json"), false);
+    Task task = new Task("present");
+    repository.save(task);
+
+    Task found = repository.findIfPresent(task.getId()).orElseThrow();
+    assertEquals(task.getId(), found.getId());
+    assertEquals("present", found.getTitle());
+    assertTrue(repository.findIfPresent(UUID.randomUUID().toString()).isEmpty());
+    assertTrue(repository.findIfPresent("").isEmpty());
+  }
+
+  @Test
+  public void bloomFilterHasNoFalseNegativesAndFewFalsePositives() {
+    BloomFilter filter = new BloomFilter(10_000, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      filter.put("in-" + i);
+    }
+    int falsePositives = 0;
+    for (int i = 0; i < 10_000; i++) {
+      assertTrue(filter.mightContain("in-" + i));
+      if (filter.mightContain("out-" + i)) {
+        falsePositives++;
+      }
+    }
+    assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+  }
+
+  @Test
+  public void archiveFilterIsReusedAndRebuiltWhenStale() throws TaskManagerException, IOException {
+    File segment = new File(tempDir.toFile(), "a.seg");
+    File index = new File(tempDir.toFile(), "a.idx");
+    Task archived = new Task("done");
+    archived.setStatus(Status.COMPLETED);
+    archived.setCompletedAt(LocalDateTime.now());
+    new TaskArchive(segment, index, BlockCodecs.defaultCodec()).append(List.of(archived));
+    assertTrue(new File(tempDir.toFile(), "a.idx.bloom").exists());
+
+    TaskArchive reopened = new TaskArchive(segment, index, BlockCodecs.defaultCodec());
+    assertTrue(reopened.contains(archived.getId()));
+    assertFalse(reopened.contains("never-archived"));
+
+    // An index line the filter has not seen, as after a crash mid-append
+    try (FileWriter writer = new FileWriter(index, true)) {
+      writer.write("written-after-filter 0\n");
+    }
+    assertTrue(new TaskArchive(segment, index, BlockCodecs.defaultCodec()).contains("written-after-filter"));
+  }
+}
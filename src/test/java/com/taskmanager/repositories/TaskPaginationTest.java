@@ -0,0 +1,79 @@
+package com.taskmanager.repositories;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskPage;
+
+public class TaskPaginationTest {
+
+  @TempDir
+  Path tempDir;
+
+  private TaskRepository repository;
+  private final List<Task> created = new ArrayList<>();
+
+  @BeforeEach
+  public void setUp() throws TaskManagerException {
+    repository = new TaskRepository(new File(tempDir.toFile(), "tasks.json"), false);
+    LocalDateTime base = LocalDateTime.of(2026, 1, 1, 9, 0);
+    for (int i = 0; i < 25; i++) {
+      Task task = new Task("task " + i);
+      task.setCreatedAt(base.plusMinutes(i / 2)); // pairs share a timestamp
+      repository.save(task);
+      created.add(task);
+    }
+    created.sort((a, b) -> a.getCreatedAt().equals(b.getCreatedAt())
+        ? a.getId().compareTo(b.getId())
+        : a.getCreatedAt().compareTo(b.getCreatedAt()));
+  }
+
+  @Test
+  public void walksEveryTaskOnceInCreationOrder() throws TaskManagerException {
+    List<Task> seen = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      TaskPage page = repository.findPage(cursor, 10);
+      seen.addAll(page.tasks());
+      cursor = page.nextCursor();
+      pages++;
+    } while (cursor != null);
+
+    assertEquals(3, pages);
+    assertEquals(created, seen);
+    assertEquals(created, repository.fetchAll());
+  }
+
+  @Test
+  public void cursorSurvivesDeletionOfItsTaskAndResaves() throws TaskManagerException {
+    TaskPage first = repository.findPage(null, 5);
+    Task anchor = first.tasks().get(4);
+    repository.deleteById(anchor.getId());
+    Task resaved = created.get(7);
+    resaved.setTitle("edited");
+    repository.save(resaved);
+
+    TaskPage second = repository.findPage(first.nextCursor(), 5);
+    assertEquals(created.subList(5, 10), second.tasks());
+    assertEquals(24, repository.fetchAll().size());
+  }
+
+  @Test
+  public void lastPageHasNoCursorAndBadCursorsAreRejected() throws TaskManagerException {
+    assertFalse(repository.findPage(null, 25).hasMore());
+    assertThrows(TaskManagerException.class, () -> repository.findPage("not-a-cursor!", 5));
+    assertThrows(TaskManagerException.class, () -> repository.findPage(null, 0));
+  }
+}
@@ -0,0 +1,146 @@
+package com.taskmanager.repositories;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.enums.Status;
+import com.taskmanager.interfaces.TaskRepositoryListener;
+import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskValue;
+
+public class TaskReadViewTest {
+
+  @TempDir
+  Path tempDir;
+
+  private TaskRepository repository;
+
+  @BeforeEach
+  public void setUp() {
+    repository = new TaskRepository(new File(tempDir.toFile(), "tasks.json"), false);
+  }
+
+  @Test
+  public void viewIsUnaffectedByLaterWrites() throws Exception {
+    Task kept = new Task("kept");
+    Task edited = new Task("edited");
+    Task deleted = new Task("deleted");
+    repository.save(kept);
+    repository.save(edited);
+    repository.save(deleted);
+    TaskReadView view = repository.readView();
+
+    edited.setStatus(Status.COMPLETED); // in place on the live object
+    repository.save(edited);
+    repository.deleteById(deleted.getId());
+    repository.save(new Task("added"));
+
+    assertEquals(3, view.size());
+    assertEquals(Status.PENDING, view.find(edited.getId()).get().getStatus());
+    assertTrue(view.find(deleted.getId()).isPresent());
+    assertEquals(List.of("kept", "edited", "deleted"), view.stream().map(TaskValue::getTitle).toList());
+
+    TaskReadView latest = repository.readView();
+    assertTrue(latest.version() > view.version());
+    assertEquals(3, latest.size());
+    assertEquals(Status.COMPLETED, latest.find(edited.getId()).get().getStatus());
+    assertFalse(latest.find(deleted.getId()).isPresent());
+  }
+
+  @Test
+  public void dependencyChangesArePublished() throws Exception {
+    Task blocker = new Task("blocker");
+    Task blocked = new Task("blocked");
+    repository.save(blocker);
+    repository.save(blocked);
+    repository.addDependency(blocked.getId(), blocker.getId());
+    TaskReadView withDependency = repository.readView();
+
+    repository.deleteById(blocker.getId());
+
+    assertEquals(1, withDependency.find(blocked.getId()).get().getDependsOn().size());
+    assertTrue(repository.readView().find(blocked.getId()).get().getDependsOn().isEmpty());
+  }
+
+  @Test
+  public void batchWritesArePublishedAtOnce() throws Exception {
+    Task blocker = new Task("blocker");
+    repository.save(blocker);
+    List<Integer> seen = new ArrayList<>();
+    repository.addListener(new TaskRepositoryListener() {
+      @Override
+      public void onSaved(Task task) {
+        seen.add(repository.readView().size());
+      }
+
+      @Override
+      public void onDeleted(String taskId) {
+      }
+    });
+
+    List<Task> batch = List.of(new Task("one"), new Task("two"), new Task("three"));
+    repository.saveAll(batch);
+    assertEquals(List.of(1, 1, 1), seen);
+    assertEquals(4, repository.readView().size());
+
+    for (Task task : batch) {
+      repository.addDependency(task.getId(), blocker.getId());
+    }
+    seen.clear();
+    repository.deleteById(blocker.getId());
+    // The dependents lose their blocker in the same step as it disappears
+    assertEquals(List.of(4, 4, 4), seen);
+    TaskReadView view = repository.readView();
+    assertEquals(3, view.size());
+    assertTrue(view.stream().allMatch(task -> task.getDependsOn().isEmpty()));
+  }
+
+  @Test
+  public void persistentMapMatchesTreeMap() {
+    Random random = new Random(3);
+    PersistentSortedMap<Integer, Integer> map = PersistentSortedMap.empty();
+    TreeMap<Integer, Integer> expected = new TreeMap<>();
+    List<PersistentSortedMap<Integer, Integer>> versions = new ArrayList<>();
+    List<Map<Integer, Integer>> expectedVersions = new ArrayList<>();
+    for (int i = 0; i < 5_000; i++) {
+      int key = random.nextInt(500);
+      if (random.nextInt(3) == 0) {
+        map = map.minus(key);
+        expected.remove(key);
+      } else {
+        map = map.plus(key, i);
+        expected.put(key, i);
+      }
+      if (i % 500 == 0) {
+        versions.add(map);
+        expectedVersions.add(new TreeMap<>(expected));
+      }
+    }
+    versions.add(map);
+    expectedVersions.add(expected);
+
+    for (int v = 0; v < versions.size(); v++) {
+      PersistentSortedMap<Integer, Integer> version = versions.get(v);
+      Map<Integer, Integer> want = expectedVersions.get(v);
+      assertEquals(want.size(), version.size());
+      Iterator<Integer> values = version.values();
+      for (Map.Entry<Integer, Integer> entry : want.entrySet()) {
+        assertEquals(entry.getValue(), version.get(entry.getKey()));
+        assertEquals(entry.getValue(), values.next());
+      }
+      assertFalse(values.hasNext());
+    }
+  }
+}
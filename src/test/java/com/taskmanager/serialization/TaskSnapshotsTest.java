@@ -0,0 +1,106 @@
+package com.taskmanager.serialization;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.compression.BlockCodec;
+import com.taskmanager.compression.BlockCodecs;
+import com.taskmanager.compression.BlockFormat;
+import com.taskmanager.enums.Priority;
+import com.taskmanager.models.Task;
+
+public class TaskSnapshotsTest {
+
+  @TempDir
+  Path tempDir;
+
+  private List<Task> tasks(int count) {
+    List<Task> tasks = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Task task = new Task("task " + i);
+      task.setPriority(Priority.values()[i % Priority.values().length]);
+      tasks.add(task);
+    }
+    return tasks;
+  }
+
+  @Test
+  public void roundTripsWithEveryCodec() throws IOException {
+    List<Task> tasks = tasks(2_500);
+    File json = new File(tempDir.toFile(), "plain.json");
+    long jsonSize = TaskSnapshots.write(json, tasks, null);
+    assertFalse(TaskSnapshots.isBlockSnapshot(json));
+    assertEquals(tasks, TaskSnapshots.read(json));
+
+    for (BlockCodec codec : BlockCodecs.all()) {
+      File file = new File(tempDir.toFile(), codec.name() + ".snap");
+      long size = TaskSnapshots.write(file, tasks, codec, 1000);
+      assertEquals(size, file.length());
+      assertTrue(TaskSnapshots.isBlockSnapshot(file));
+
+      List<Task> loaded = TaskSnapshots.read(file);
+      assertEquals(tasks, loaded, codec.name());
+      assertEquals("task 2499", loaded.get(2499).getTitle());
+      if (!codec.name().equals("none")) {
+        assertTrue(size < jsonSize / 3, codec.name() + " should compress repetitive JSON");
+      }
+    }
+  }
+
+  @Test
+  public void detectsCorruptBlocks() throws IOException {
+    File file = new File(tempDir.toFile(), "corrupt.snap");
+    TaskSnapshots.write(file, tasks(10), BlockCodecs.defaultCodec());
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.seek(5 + BlockFormat.HEADER_BYTES + 2);
+      raf.write(0x5A);
+    }
+    assertThrows(IOException.class, () -> TaskSnapshots.read(file));
+  }
+
+  @Test
+  public void rejectsSnapshotsCutOffAnywhere() throws IOException {
+    File file = new File(tempDir.toFile(), "whole.snap");
+    TaskSnapshots.write(file, tasks(50), BlockCodecs.defaultCodec(), 10);
+    byte[] whole = Files.readAllBytes(file.toPath());
+    assertEquals(50, TaskSnapshots.read(new ByteArrayInputStream(whole)).size());
+
+    // Every cut, including those exactly between two blocks, must fail
+    for (int length = 5; length < whole.length; length++) {
+      byte[] cut = Arrays.copyOf(whole, length);
+      assertThrows(IOException.class, () -> TaskSnapshots.read(new ByteArrayInputStream(cut)), "cut at " + length);
+    }
+  }
+
+  @Test
+  public void rejectsCorruptBlockLengths() throws IOException {
+    File file = new File(tempDir.toFile(), "lengths.snap");
+    TaskSnapshots.write(file, tasks(10), BlockCodecs.defaultCodec());
+    byte[] whole = Files.readAllBytes(file.toPath());
+
+    // Raw length at 5 + 5, compressed length at 5 + 9
+    for (int offset : new int[] { 10, 14 }) {
+      for (int length : new int[] { 0x80000000, -1, 0x7FFFFFFF, BlockFormat.MAX_BLOCK_BYTES + 1 }) {
+        File corrupt = new File(tempDir.toFile(), "corrupt-" + offset + ".snap");
+        Files.write(corrupt.toPath(), whole);
+        try (RandomAccessFile raf = new RandomAccessFile(corrupt, "rw")) {
+          raf.seek(offset);
+          raf.writeInt(length);
+        }
+        assertThrows(IOException.class, () -> TaskSnapshots.read(corrupt), offset + ": " + length);
+      }
+    }
+  }
+}
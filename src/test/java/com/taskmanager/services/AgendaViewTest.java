@@ -0,0 +1,102 @@
+package com.taskmanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.enums.Status;
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.models.Task;
+import com.taskmanager.repositories.TaskRepository;
+
+public class AgendaViewTest {
+  private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+
+  @TempDir
+  Path tempDir;
+
+  private TaskRepository repository;
+
+  @BeforeEach
+  public void setUp() {
+    repository = new TaskRepository(new File(tempDir.toFile(), "tasks.json"), false);
+  }
+
+  private Task due(String title, LocalDateTime dueDate) throws TaskManagerException {
+    Task task = new Task(title);
+    task.setDueDate(dueDate);
+    repository.save(task);
+    return task;
+  }
+
+  @Test
+  public void groupsOpenTasksByDayWithinTheRange() throws TaskManagerException {
+    Task early = due("early", MONDAY.atTime(8, 0));
+    Task late = due("late", MONDAY.atTime(17, 0));
+    Task wednesday = due("wednesday", MONDAY.plusDays(2).atTime(9, 0));
+    due("next week", MONDAY.plusDays(7).atTime(9, 0));
+    repository.save(new Task("no due date"));
+
+    try (AgendaView agenda = new AgendaView(repository)) {
+      Map<LocalDate, List<Task>> week = agenda.between(MONDAY, MONDAY.plusDays(6));
+      assertEquals(List.of(MONDAY, MONDAY.plusDays(2)), List.copyOf(week.keySet()));
+      assertEquals(List.of(early, late), week.get(MONDAY));
+      assertEquals(List.of(wednesday), week.get(MONDAY.plusDays(2)));
+      assertEquals(4, agenda.size());
+    }
+  }
+
+  @Test
+  public void followsSavesCompletionsAndDeletes() throws TaskManagerException {
+    try (AgendaView agenda = new AgendaView(repository)) {
+      Task moved = due("moved", MONDAY.atTime(9, 0));
+      Task done = due("done", MONDAY.atTime(10, 0));
+      Task deleted = due("deleted", MONDAY.atTime(11, 0));
+
+      moved.setDueDate(MONDAY.plusDays(1).atTime(9, 0));
+      repository.save(moved);
+      done.setStatus(Status.COMPLETED);
+      repository.save(done);
+      repository.deleteById(deleted.getId());
+
+      assertTrue(agenda.between(MONDAY, MONDAY).isEmpty());
+      assertEquals(List.of(moved), agenda.between(MONDAY.plusDays(1), MONDAY.plusDays(1)).get(MONDAY.plusDays(1)));
+      assertEquals(1, agenda.size());
+    }
+  }
+
+  @Test
+  public void overdueIncludesEarlierDaysAndPastTimesToday() throws TaskManagerException {
+    Task yesterday = due("yesterday", MONDAY.minusDays(1).atTime(12, 0));
+    Task thisMorning = due("this morning", MONDAY.atTime(8, 0));
+    due("this evening", MONDAY.atTime(20, 0));
+
+    try (AgendaView agenda = new AgendaView(repository)) {
+      assertEquals(List.of(yesterday, thisMorning), agenda.overdue(MONDAY.atTime(12, 0)));
+      assertEquals(List.of(yesterday), agenda.overdue(MONDAY.atStartOfDay()));
+    }
+  }
+
+  @Test
+  public void returnedTasksAreDetachedFromTheStore() throws TaskManagerException {
+    Task task = due("original", MONDAY.atTime(9, 0));
+    try (AgendaView agenda = new AgendaView(repository)) {
+      Task returned = agenda.between(MONDAY, MONDAY).get(MONDAY).get(0);
+      returned.setTitle("changed by a caller");
+      returned.setDueDate(MONDAY.plusDays(3).atTime(9, 0));
+
+      assertEquals("original", repository.findById(task.getId()).getTitle());
+      assertEquals("original", agenda.overdue(MONDAY.plusDays(1).atStartOfDay()).get(0).getTitle());
+      assertEquals(List.of(MONDAY), List.copyOf(agenda.between(MONDAY, MONDAY.plusDays(6)).keySet()));
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package com.taskmanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.enums.DuplicatePolicy;
+import com.taskmanager.enums.Priority;
+import com.taskmanager.enums.Status;
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.models.Task;
+import com.taskmanager.models.TaskValue;
+import com.taskmanager.repositories.TaskRepository;
+import com.taskmanager.services.DuplicateIndex.Match;
+import com.taskmanager.services.TaskService.Creation;
+import com.taskmanager.services.TaskService.TaskData;
+
+public class DuplicateIndexTest {
+
+  @TempDir
+  Path tempDir;
+
+  private TaskRepository repository;
+
+  @BeforeEach
+  public void setUp() {
+    repository = new TaskRepository(new File(tempDir.toFile(), "tasks.json"), false);
+  }
+
+  private Task add(String title, String description) throws TaskManagerException {
+    Task task = new Task(title);
+    task.setDescription(description);
+    repository.save(task);
+    return task;
+  }
+
+  @Test
+  public void findsNearDuplicatesOnly() throws TaskManagerException {
+    Task report = add("Send weekly report", "To the whole team");
+    add("Buy groceries", null);
+    add("Send monthly invoice", null);
+    for (int i = 0; i < 500; i++) {
+      add("Task number " + i, "generated");
+    }
+    DuplicateIndex index = new DuplicateIndex(repository);
+
+    List<Match> matches = index.findSimilar("send weekly report!", "to the whole team.");
+    assertEquals(1, matches.size());
+    assertEquals(report.getId(), matches.get(0).id());
+    assertEquals(1.0, matches.get(0).similarity(), 1e-9);
+    assertTrue(index.findSimilar("Water the plants", null).isEmpty());
+  }
+
+  @Test
+  public void followsRepositoryChanges() throws TaskManagerException {
+    DuplicateIndex index = new DuplicateIndex(repository);
+    Task report = add("Send weekly report", null);
+    assertEquals(1, index.findSimilar("Send weekly report", null).size());
+
+    repository.update(report.getId(), task -> task.withStatus(Status.COMPLETED));
+    assertTrue(index.findSimilar("Send weekly report", null).isEmpty());
+    assertEquals(0, index.size());
+
+    Task again = add("Send the weekly report", null);
+    repository.deleteById(again.getId());
+    assertTrue(index.findSimilar("Send the weekly report", null).isEmpty());
+    index.close();
+  }
+
+  @Test
+  public void findsMostPairsAboveTheThreshold() throws TaskManagerException {
+    Random random = new Random(3);
+    String[] words = { "review", "budget", "draft", "email", "client", "update", "plan", "meeting", "fix", "deploy",
+        "server", "report", "call", "design", "notes", "order" };
+    List<String> titles = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      StringBuilder title = new StringBuilder();
+      for (int w = 0; w < 6; w++) {
+        title.append(words[random.nextInt(words.length)]).append(' ');
+      }
+      titles.add(title.toString().trim());
+      add(titles.get(i), null);
+    }
+    DuplicateIndex index = new DuplicateIndex(repository, 0.6);
+
+    // Every pair above the threshold, found by comparing all of them
+    int pairs = 0;
+    int found = 0;
+    for (String title : titles) {
+      Set<String> similar = Set.copyOf(index.findSimilar(title, null).stream().map(Match::id).toList());
+      for (TaskValue task : repository.readView()) {
+        if (MinHash.similarity(MinHash.shingles(title, null), MinHash.shingles(task.getTitle(), null)) >= 0.6) {
+          pairs++;
+          found += similar.contains(task.getId()) ? 1 : 0;
+        }
+      }
+    }
+    assertTrue(found >= pairs * 0.9, found + " of " + pairs + " pairs found");
+  }
+
+  @Test
+  public void clustersLikelyDuplicates() throws TaskManagerException {
+    Task first = add("Send weekly report", null);
+    Task second = add("send weekly report!", null);
+    Task third = add("Send the weekly report", null);
+    add("Buy groceries", null);
+    Task closed = add("Send weekly report", null);
+    repository.update(closed.getId(), task -> task.withStatus(Status.CANCELLED));
+
+    List<List<String>> clusters = DuplicateIndex.clusters(repository.readView().stream().toList(), 0.6);
+    assertEquals(1, clusters.size());
+    assertEquals(Set.of(first.getId(), second.getId(), third.getId()), Set.copyOf(clusters.get(0)));
+  }
+
+  @Test
+  public void mergesDuplicatesWhenConfigured() throws TaskManagerException {
+    TaskService service = new TaskService(repository);
+    service.setDuplicatePolicy(DuplicatePolicy.MERGE);
+    Creation created = service.createTask(new TaskData("Send weekly report"));
+    Creation merged = service.createTask(new TaskData("send weekly report!", null, Priority.HIGH, null,
+        Status.PENDING, LocalDate.of(2030, 1, 1)));
+
+    assertTrue(merged.merged());
+    assertEquals(created.task().getId(), merged.task().getId());
+    Task task = repository.findById(created.task().getId());
+    assertEquals(Priority.HIGH, task.getPriority());
+    assertEquals(LocalDate.of(2030, 1, 1).atStartOfDay(), task.getDueDate());
+    assertEquals(1, repository.readView().size());
+  }
+
+  @Test
+  public void dedupeKeepsTheOldestTaskAndItsDependents() throws TaskManagerException {
+    TaskService service = new TaskService(repository);
+    Task oldest = add("Send weekly report", null);
+    Task copy = add("Send weekly report!", null);
+    copy.setCreatedAt(oldest.getCreatedAt().plusMinutes(1));
+    copy.setPriority(Priority.URGENT);
+    repository.save(copy);
+    Task blocked = add("Archive last week", null);
+    repository.addDependency(blocked.getId(), copy.getId());
+
+    List<List<Task>> clusters = service.findDuplicateClusters(DuplicateIndex.DEFAULT_THRESHOLD);
+    assertEquals(List.of(oldest.getId(), copy.getId()), clusters.get(0).stream().map(Task::getId).toList());
+    assertEquals(1, service.mergeDuplicates(clusters));
+
+    assertFalse(repository.findIfPresent(copy.getId()).isPresent());
+    assertEquals(Priority.URGENT, repository.findById(oldest.getId()).getPriority());
+    assertEquals(Set.of(oldest.getId()), repository.findById(blocked.getId()).getDependsOn());
+  }
+}
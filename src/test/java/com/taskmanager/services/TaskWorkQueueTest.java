@@ -0,0 +1,163 @@
+package com.taskmanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.enums.Priority;
+import com.taskmanager.enums.Status;
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.models.Task;
+import com.taskmanager.repositories.TaskRepository;
+import com.taskmanager.services.TaskWorkQueue.Claim;
+
+public class TaskWorkQueueTest {
+
+  @TempDir
+  Path tempDir;
+
+  private TaskRepository repository;
+
+  @BeforeEach
+  public void setUp() {
+    repository = new TaskRepository(new File(tempDir.toFile(), "tasks.json"), false);
+  }
+
+  private Task add(String title, Priority priority) throws TaskManagerException {
+    Task task = new Task(title);
+    task.setPriority(priority);
+    repository.save(task);
+    return task;
+  }
+
+  @Test
+  public void claimsHighestPriorityFirst() throws TaskManagerException {
+    add("low", Priority.LOW);
+    Task urgent = add("urgent", Priority.URGENT);
+    try (TaskWorkQueue queue = new TaskWorkQueue(repository)) {
+      Task high = add("high", Priority.HIGH);
+
+      Claim first = queue.claim().orElseThrow();
+      assertEquals(urgent.getId(), first.task().getId());
+      assertEquals(Status.IN_PROGRESS, repository.findById(urgent.getId()).getStatus());
+      assertEquals(high.getId(), queue.claim().orElseThrow().task().getId());
+
+      queue.complete(first);
+      assertEquals(Status.COMPLETED, repository.findById(urgent.getId()).getStatus());
+      assertThrows(TaskManagerException.class, () -> queue.complete(first));
+    }
+  }
+
+  @Test
+  public void expiredLeaseReturnsTaskToQueue() throws Exception {
+    Task task = add("flaky", Priority.MEDIUM);
+    try (TaskWorkQueue queue = new TaskWorkQueue(repository)) {
+      Claim claim = queue.claim(Duration.ofMillis(1)).orElseThrow();
+      Thread.sleep(10);
+
+      Claim retry = queue.claim().orElseThrow();
+      assertEquals(task.getId(), retry.task().getId());
+      assertThrows(TaskManagerException.class, () -> queue.complete(claim));
+      queue.release(retry);
+      assertEquals(Status.PENDING, repository.findById(task.getId()).getStatus());
+      assertEquals(1, queue.pendingCount());
+    }
+  }
+
+  @Test
+  public void leaseExpiredButNotReapedCannotComplete() throws Exception {
+    Task task = add("slow", Priority.MEDIUM);
+    try (TaskWorkQueue queue = new TaskWorkQueue(repository)) {
+      Claim claim = queue.claim(Duration.ofMillis(1)).orElseThrow();
+      Thread.sleep(10);
+
+      assertThrows(TaskManagerException.class, () -> queue.complete(claim));
+      assertEquals(Status.PENDING, repository.findById(task.getId()).getStatus());
+      assertEquals(1, queue.pendingCount());
+      assertEquals(0, queue.claimedCount());
+    }
+  }
+
+  @Test
+  public void skipsTasksBlockedByOpenDependencies() throws TaskManagerException {
+    Task blocker = add("blocker", Priority.LOW);
+    Task blocked = add("blocked", Priority.URGENT);
+    repository.addDependency(blocked.getId(), blocker.getId());
+    try (TaskWorkQueue queue = new TaskWorkQueue(repository)) {
+      Claim first = queue.claim().orElseThrow();
+      assertEquals(blocker.getId(), first.task().getId());
+      assertTrue(queue.claim().isEmpty());
+      assertEquals(1, queue.pendingCount());
+      assertEquals(0, queue.readyCount());
+
+      queue.complete(first);
+      assertEquals(blocked.getId(), queue.claim().orElseThrow().task().getId());
+    }
+  }
+
+  @Test
+  public void followsReadinessChangesOfQueuedTasks() throws TaskManagerException {
+    Task first = add("first", Priority.URGENT);
+    Task second = add("second", Priority.LOW);
+    try (TaskWorkQueue queue = new TaskWorkQueue(repository)) {
+      assertEquals(2, queue.readyCount());
+
+      // Blocked after being queued: it leaves the ready set without a claim
+      repository.addDependency(first.getId(), second.getId());
+      assertEquals(1, queue.readyCount());
+      assertEquals(2, queue.pendingCount());
+
+      // Unblocked when its blocker closes, without a save of its own
+      repository.update(second.getId(), task -> task.withStatus(Status.CANCELLED));
+      assertEquals(1, queue.readyCount());
+      assertEquals(1, queue.pendingCount());
+      assertEquals(first.getId(), queue.claim().orElseThrow().task().getId());
+    }
+  }
+
+  @Test
+  public void concurrentWorkersClaimEachTaskOnce() throws Exception {
+    for (int i = 0; i < 2_000; i++) {
+      add("task " + i, Priority.values()[i % Priority.values().length]);
+    }
+    Set<String> claimed = ConcurrentHashMap.newKeySet();
+    ExecutorService workers = Executors.newFixedThreadPool(8);
+    try (TaskWorkQueue queue = new TaskWorkQueue(repository)) {
+      List<Future<Integer>> results = new ArrayList<>();
+      for (int w = 0; w < 8; w++) {
+        results.add(workers.submit(() -> {
+          int count = 0;
+          Optional<Claim> claim;
+          while ((claim = queue.claim()).isPresent()) {
+            assertTrue(claimed.add(claim.get().task().getId()), "task claimed twice");
+            queue.complete(claim.get());
+            count++;
+          }
+          return count;
+        }));
+      }
+      int total = 0;
+      for (Future<Integer> result : results) {
+        total += result.get();
+      }
+      assertEquals(2_000, total);
+      assertEquals(0, queue.claimedCount());
+    } finally {
+      workers.shutdown();
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package com.taskmanager.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+
+import org.junit.jupiter.api.Test;
+
+import com.taskmanager.models.Task;
+
+public class FileStorageEngineTest extends StorageEngineConformanceTest {
+
+  @Override
+  protected String engineName() {
+    return FileStorageEngine.NAME;
+  }
+
+  @Test
+  public void flushWithoutWritesLeavesTheFileAlone() throws Exception {
+    File file = new File(tempDir.toFile(), "alone.json");
+    FileStorageEngine engine = new FileStorageEngine(file, null);
+    engine.write(new WriteBatch().put(new Task("once")));
+    engine.flush();
+    long written = file.lastModified();
+    assertTrue(file.setLastModified(written - 10_000));
+    engine.flush();
+    assertEquals(written - 10_000, file.lastModified());
+    assertEquals(0, tempDir.toFile().list((dir, name) -> name.endsWith(".tmp")).length);
+    engine.close();
+  }
+}
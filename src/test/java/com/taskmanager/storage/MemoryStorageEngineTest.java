@@ -0,0 +1,9 @@
+package com.taskmanager.storage;
+
+public class MemoryStorageEngineTest extends StorageEngineConformanceTest {
+
+  @Override
+  protected String engineName() {
+    return MemoryStorageEngine.NAME;
+  }
+}
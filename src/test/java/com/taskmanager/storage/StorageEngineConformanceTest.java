@@ -0,0 +1,139 @@
+package com.taskmanager.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.models.Task;
+import com.taskmanager.repositories.TaskRepository;
+
+/**
+ * Behaviour every {@link StorageEngine} must have. Each engine gets a
+ * subclass that names it; persistence checks only run for engines that
+ * declare {@link StorageCapability#PERSISTENT}.
+ */
+public abstract class StorageEngineConformanceTest {
+
+  @TempDir
+  Path tempDir;
+
+  private StorageEngine engine;
+
+  protected abstract String engineName();
+
+  private StorageConfig config() {
+    return new StorageConfig(engineName(), new File(tempDir.toFile(), "tasks.json"), Map.of());
+  }
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    engine = StorageEngines.open(config());
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    engine.close();
+  }
+
+  private Map<String, Task> scanAll(StorageEngine source) throws TaskManagerException {
+    Map<String, Task> found = new HashMap<>();
+    try (StorageCursor cursor = source.scan()) {
+      while (cursor.hasNext()) {
+        Task task = cursor.next();
+        assertNull(found.put(task.getId(), task), "duplicate " + task.getId());
+      }
+    }
+    return found;
+  }
+
+  @Test
+  public void isRegisteredUnderItsName() {
+    assertEquals(engineName(), engine.name());
+    assertTrue(StorageEngines.all().stream().anyMatch(p -> p.name().equals(engineName())));
+  }
+
+  @Test
+  public void laterOperationsInABatchWin() throws Exception {
+    Task kept = new Task("kept");
+    Task dropped = new Task("dropped");
+    Task renamed = new Task("first title");
+    engine.write(new WriteBatch().put(kept).put(dropped).put(renamed));
+
+    Task renamedAgain = new Task("second title");
+    renamedAgain.setId(renamed.getId());
+    engine.write(new WriteBatch().delete(dropped.getId()).put(renamedAgain).delete("never-existed"));
+
+    Map<String, Task> stored = scanAll(engine);
+    assertEquals(Set.of(kept.getId(), renamed.getId()), stored.keySet());
+    assertEquals("second title", stored.get(renamed.getId()).getTitle());
+    assertEquals(2, engine.size());
+  }
+
+  @Test
+  public void flushedWritesSurviveReopening() throws Exception {
+    if (!engine.supports(StorageCapability.PERSISTENT)) {
+      return;
+    }
+    Task task = new Task("persisted");
+    task.setDescription("with a description");
+    engine.write(new WriteBatch().put(task));
+    engine.flush();
+    engine.close();
+
+    engine = StorageEngines.open(config());
+    Task reloaded = scanAll(engine).get(task.getId());
+    assertNotNull(reloaded);
+    assertEquals("with a description", reloaded.getDescription());
+  }
+
+  @Test
+  public void closedEngineRejectsCalls() throws Exception {
+    engine.close();
+    assertThrows(TaskManagerException.class, () -> engine.write(new WriteBatch().put(new Task("late"))));
+    assertThrows(TaskManagerException.class, engine::scan);
+    assertThrows(TaskManagerException.class, engine::flush);
+    engine.close(); // closing twice is harmless
+  }
+
+  @Test
+  public void backsARepository() throws Exception {
+    engine.close();
+    try (TaskRepository repository = new TaskRepository(config(), true)) {
+      assertEquals(engineName(), repository.getEngineName());
+      Task blocker = new Task("blocker");
+      Task blocked = new Task("blocked");
+      repository.saveAll(List.of(blocker, blocked));
+      repository.addDependency(blocked.getId(), blocker.getId());
+      repository.deleteById(blocker.getId());
+      assertTrue(repository.findById(blocked.getId()).getDependsOn().isEmpty());
+    }
+    engine = StorageEngines.open(config());
+  }
+
+  @Test
+  public void handlesALargeBatchQuickly() throws Exception {
+    int count = 20_000;
+    WriteBatch batch = new WriteBatch();
+    for (int i = 0; i < count; i++) {
+      batch.put(new Task("task " + i));
+    }
+    long start = System.nanoTime();
+    engine.write(batch);
+    engine.flush();
+    assertEquals(count, scanAll(engine).size());
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+    // A generous bound; it only catches engines that are quadratic or sync per write
+    assertTrue(elapsedMillis < 10_000, engineName() + " took " + elapsedMillis + " ms");
+  }
+}
@@ -0,0 +1,85 @@
+package com.taskmanager.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.errors.TaskManagerException;
+import com.taskmanager.models.Task;
+import com.taskmanager.repositories.TaskRepository;
+
+public class WriterLeaseTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void secondWriterWaitsAndTimesOut() throws Exception {
+    File file = new File(tempDir.toFile(), "tasks.json");
+    WriterLease first = new WriterLease(file, Duration.ofSeconds(1));
+    WriterLease second = new WriterLease(file, Duration.ofMillis(100));
+
+    Exception[] failure = new Exception[1];
+    try (WriterLease.Held held = first.acquire()) {
+      Thread contender = new Thread(() -> {
+        try (WriterLease.Held never = second.acquire()) {
+          fail("acquired a held lease");
+        } catch (TaskManagerException e) {
+          failure[0] = e;
+        }
+      });
+      contender.start();
+      contender.join();
+    }
+    assertTrue(failure[0].getMessage().startsWith("Timed out"));
+    try (WriterLease.Held held = second.acquire()) {
+      assertEquals(1, second.acquisitions());
+    }
+    assertTrue(WriterLease.lockFileFor(file).exists());
+  }
+
+  @Test
+  public void writersSharingAFileKeepEachOthersChanges() throws Exception {
+    File file = new File(tempDir.toFile(), "tasks.json");
+    TaskRepository interactive = new TaskRepository(file, true);
+    Task shared = new Task("shared");
+    interactive.save(shared);
+    Task doomed = new Task("doomed");
+    interactive.save(doomed);
+
+    // A cron job opens the same store and writes while the session is open
+    TaskRepository cron = new TaskRepository(file, true);
+    Set<String> created = new HashSet<>();
+    for (int i = 0; i < 5; i++) {
+      Task fromCron = new Task("cron " + i);
+      cron.save(fromCron);
+      created.add(fromCron.getId());
+      Task fromSession = new Task("session " + i);
+      interactive.save(fromSession);
+      created.add(fromSession.getId());
+    }
+    Task edited = cron.findById(shared.getId());
+    edited.setTitle("edited by cron");
+    edited.setUpdatedAt(LocalDateTime.now().plusSeconds(1));
+    cron.save(edited);
+    interactive.deleteById(doomed.getId());
+    interactive.save(new Task("last"));
+
+    TaskRepository reopened = new TaskRepository(file, false);
+    for (String id : created) {
+      assertTrue(reopened.findIfPresent(id).isPresent(), id);
+    }
+    assertEquals("edited by cron", reopened.findById(shared.getId()).getTitle());
+    assertFalse(reopened.findIfPresent(doomed.getId()).isPresent());
+    assertEquals(created.size() + 2, reopened.fetchAll().size());
+    assertTrue(interactive.getWriterLease().acquisitions() > 0);
+  }
+}
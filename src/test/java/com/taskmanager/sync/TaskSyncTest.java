@@ -0,0 +1,172 @@
+package com.taskmanager.sync;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.enums.Priority;
+import com.taskmanager.enums.Status;
+import com.taskmanager.models.Task;
+import com.taskmanager.repositories.TaskRepository;
+
+public class TaskSyncTest {
+
+  @TempDir
+  Path tempDir;
+
+  private TaskRepository laptopStore;
+  private TaskRepository desktopStore;
+  private TaskSync laptop;
+  private TaskSync desktop;
+  private SyncServer server;
+  private int port;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    laptopStore = store("laptop.json");
+    desktopStore = store("desktop.json");
+    laptop = new TaskSync(laptopStore, TaskSync.stateFileFor(laptopStore.getDataFile()));
+    desktop = new TaskSync(desktopStore, TaskSync.stateFileFor(desktopStore.getDataFile()));
+    server = new SyncServer(desktop);
+    port = server.start(0);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    server.close();
+    laptop.close();
+    desktop.close();
+  }
+
+  private TaskRepository store(String name) {
+    return new TaskRepository(new File(tempDir.toFile(), name), false);
+  }
+
+  @Test
+  public void concurrentEditsToDifferentFieldsAreBothKept() throws Exception {
+    Task task = new Task("write report");
+    laptopStore.save(task);
+    SyncClient.exchange(laptop, "127.0.0.1", port);
+
+    Task onLaptop = laptopStore.findById(task.getId());
+    onLaptop.setTitle("write quarterly report");
+    onLaptop.setUpdatedAt(LocalDateTime.now().plusSeconds(1));
+    laptopStore.save(onLaptop);
+    Task onDesktop = desktopStore.findById(task.getId());
+    onDesktop.setPriority(Priority.HIGH);
+    onDesktop.setUpdatedAt(LocalDateTime.now().plusSeconds(2));
+    desktopStore.save(onDesktop);
+
+    SyncClient.exchange(laptop, "127.0.0.1", port);
+
+    for (TaskRepository store : new TaskRepository[] { laptopStore, desktopStore }) {
+      Task merged = store.findById(task.getId());
+      assertEquals("write quarterly report", merged.getTitle());
+      assertEquals(Priority.HIGH, merged.getPriority());
+    }
+  }
+
+  @Test
+  public void laterWriteWinsTheSameField() throws Exception {
+    Task task = new Task("pay rent");
+    desktopStore.save(task);
+    SyncClient.exchange(laptop, "127.0.0.1", port);
+
+    Task older = laptopStore.findById(task.getId());
+    older.setStatus(Status.CANCELLED);
+    older.setUpdatedAt(LocalDateTime.now().plusSeconds(1));
+    laptopStore.save(older);
+    Task newer = desktopStore.findById(task.getId());
+    newer.setStatus(Status.COMPLETED);
+    newer.setUpdatedAt(LocalDateTime.now().plusSeconds(5));
+    desktopStore.save(newer);
+
+    SyncClient.exchange(laptop, "127.0.0.1", port);
+    assertEquals(Status.COMPLETED, laptopStore.findById(task.getId()).getStatus());
+    assertEquals(Status.COMPLETED, desktopStore.findById(task.getId()).getStatus());
+  }
+
+  @Test
+  public void deltaCarriesOnlyWhatThePeerHasNotSeen() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      laptopStore.save(new Task("task " + i));
+    }
+    SyncReport initial = SyncClient.exchange(laptop, "127.0.0.1", port);
+    assertEquals(100, initial.tasksSent());
+    assertEquals(100, desktopStore.fetchAll().size());
+
+    Task changed = laptopStore.findById(laptopStore.fetchAll().get(7).getId());
+    changed.setDescription("only this one changed");
+    changed.setUpdatedAt(LocalDateTime.now().plusSeconds(1));
+    laptopStore.save(changed);
+    SyncDelta delta = laptop.changesSince(desktop.versionVector());
+    assertEquals(1, delta.tasks().size());
+    assertEquals(1, delta.fieldCount());
+
+    SyncReport incremental = SyncClient.exchange(laptop, "127.0.0.1", port);
+    assertEquals(1, incremental.tasksSent());
+    assertEquals(0, incremental.tasksReceived());
+    assertTrue(incremental.bytesSent() < initial.bytesSent() / 20);
+    assertEquals("only this one changed", desktopStore.findById(changed.getId()).getDescription());
+  }
+
+  @Test
+  public void deletesPropagateAsTombstones() throws Exception {
+    Task task = new Task("obsolete");
+    laptopStore.save(task);
+    SyncClient.exchange(laptop, "127.0.0.1", port);
+    assertTrue(desktopStore.findIfPresent(task.getId()).isPresent());
+
+    laptopStore.deleteById(task.getId());
+    SyncReport report = SyncClient.exchange(laptop, "127.0.0.1", port);
+    assertEquals(1, report.tasksSent());
+    assertFalse(desktopStore.findIfPresent(task.getId()).isPresent());
+
+    // Nothing left to exchange afterwards
+    assertTrue(laptop.changesSince(desktop.versionVector()).tasks().isEmpty());
+  }
+
+  @Test
+  public void fileDropSyncsThroughASharedFolder() throws Exception {
+    File folder = new File(tempDir.toFile(), "shared");
+    Task fromLaptop = new Task("from the laptop");
+    laptopStore.save(fromLaptop);
+    Task fromDesktop = new Task("from the desktop");
+    desktopStore.save(fromDesktop);
+
+    FileDropSync.push(laptop, folder);
+    FileDropSync.push(desktop, folder);
+    FileDropSync.pull(laptop, folder);
+    FileDropSync.pull(desktop, folder);
+
+    assertEquals(2, laptopStore.fetchAll().size());
+    assertEquals(2, desktopStore.fetchAll().size());
+    assertEquals("from the desktop", laptopStore.findById(fromDesktop.getId()).getTitle());
+
+    // Once both sides have pulled, a push only carries new changes
+    SyncReport push = FileDropSync.push(laptop, folder);
+    assertEquals(0, push.tasksSent());
+  }
+
+  @Test
+  public void stateSurvivesReopening() throws Exception {
+    Task task = new Task("persisted");
+    laptopStore.save(task);
+    laptopStore.saveTasks();
+    SyncClient.exchange(laptop, "127.0.0.1", port);
+    String replicaId = laptop.getReplicaId();
+    laptop.close();
+
+    TaskRepository reopened = store("laptop.json");
+    laptop = new TaskSync(reopened, TaskSync.stateFileFor(reopened.getDataFile()));
+    assertEquals(replicaId, laptop.getReplicaId());
+    assertTrue(laptop.changesSince(desktop.versionVector()).tasks().isEmpty());
+  }
+}
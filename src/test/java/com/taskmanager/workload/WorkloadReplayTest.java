@@ -0,0 +1,69 @@
+package com.taskmanager.workload;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.commands.CommandTokenizer;
+import com.taskmanager.storage.MemoryStorageEngine;
+import com.taskmanager.storage.StorageConfig;
+
+public class WorkloadReplayTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void recorderAppendsEntriesAndSeedsFromTheStore() throws Exception {
+    File store = tempDir.resolve("tasks.json").toFile();
+    Files.writeString(store.toPath(), "[]");
+    File file = tempDir.resolve("session.jsonl").toFile();
+    try (WorkloadRecorder recorder = new WorkloadRecorder(file, store)) {
+      recorder.record(1000, "list", List.of(), 5_000, false);
+    }
+    try (WorkloadRecorder recorder = new WorkloadRecorder(file, store)) {
+      recorder.record(2000, "edit abcd", List.of("new title", ""), 7_000, true);
+    }
+
+    List<WorkloadEntry> entries = WorkloadLog.read(file);
+    assertEquals(2, entries.size());
+    assertEquals("edit", entries.get(1).name());
+    assertEquals(List.of("new title", ""), entries.get(1).answers());
+    assertTrue(entries.get(1).failed());
+    assertTrue(WorkloadLog.seedFileFor(file).exists());
+  }
+
+  @Test
+  public void quotedWordsTokenizeBackToTheSameWords() throws Exception {
+    String line = WorkloadLog.quote("add", "two words", "say \"hi\"", "back\\slash");
+    assertEquals(List.of("two words", "say \"hi\"", "back\\slash"),
+        CommandTokenizer.parse(line).arguments());
+  }
+
+  @Test
+  public void replaysAGeneratedWorkload() throws Exception {
+    File file = tempDir.resolve("synthetic.jsonl").toFile();
+    WorkloadGenerator.generate(file, new WorkloadGenerator.Options(400, 200, 0.7, 1000, 7));
+    List<WorkloadEntry> workload = WorkloadLog.read(file);
+    assertEquals(400, workload.size());
+
+    StorageConfig storage = new StorageConfig(MemoryStorageEngine.NAME, tempDir.resolve("replay.json").toFile(),
+        Map.of());
+    ReplayReport report = WorkloadReplayer.replay(workload,
+        new WorkloadReplayer.Options(1, 0, storage, WorkloadLog.seedFileFor(file)));
+
+    assertEquals(400, report.commands());
+    assertEquals(0, report.failures(), "every generated command refers to a live task");
+    assertEquals(400, report.latency().count());
+    assertTrue(report.latency().p50() <= report.latency().p99());
+    assertTrue(report.perCommand().containsKey("list"));
+    assertTrue(report.throughput() > 0);
+  }
+}